@@ -312,7 +312,7 @@ public abstract class AbstractCheckstyleReport
 
             if ( "xml".equals( outputFileFormat ) )
             {
-                listener = new XMLLogger( out, true );
+                listener = new ViolationSummaryListener( new XMLLogger( out, true ), resultFile );
             }
             else if ( "plain".equals( outputFileFormat ) )
             {
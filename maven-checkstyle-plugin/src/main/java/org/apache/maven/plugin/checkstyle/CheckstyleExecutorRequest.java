@@ -81,6 +81,16 @@ public class CheckstyleExecutorRequest
 
     private String cacheFile;
 
+    /**
+     * @since 2.10
+     */
+    private File resultCacheFile;
+
+    /**
+     * @since 2.10
+     */
+    private int parallelThreads = 1;
+
     private String suppressionsFileExpression;
 
     private String encoding;
@@ -295,6 +305,54 @@ public class CheckstyleExecutorRequest
         return this;
     }
 
+    /**
+     * Returns the file caching the results of the audited files.
+     *
+     * @return The result cache file, or <code>null</code> to audit all files.
+     * @since 2.10
+     */
+    public File getResultCacheFile()
+    {
+        return resultCacheFile;
+    }
+
+    /**
+     * Sets the file caching the results of the audited files.
+     *
+     * @param resultCacheFile The result cache file, or <code>null</code> to audit all files.
+     * @return This object.
+     * @since 2.10
+     */
+    public CheckstyleExecutorRequest setResultCacheFile( File resultCacheFile )
+    {
+        this.resultCacheFile = resultCacheFile;
+        return this;
+    }
+
+    /**
+     * Returns the number of Checkers auditing the files in parallel.
+     *
+     * @return The number of threads.
+     * @since 2.10
+     */
+    public int getParallelThreads()
+    {
+        return parallelThreads;
+    }
+
+    /**
+     * Sets the number of Checkers auditing the files in parallel.
+     *
+     * @param parallelThreads The number of threads, <code>1</code> to audit the files on the calling thread.
+     * @return This object.
+     * @since 2.10
+     */
+    public CheckstyleExecutorRequest setParallelThreads( int parallelThreads )
+    {
+        this.parallelThreads = parallelThreads;
+        return this;
+    }
+
     public String getSuppressionsFileExpression()
     {
         return suppressionsFileExpression;
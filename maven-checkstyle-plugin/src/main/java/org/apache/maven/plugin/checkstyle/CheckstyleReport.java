@@ -214,6 +214,39 @@ public class CheckstyleReport
      */
     private String cacheFile;
 
+    /**
+     * Specifies the file caching the results of the audited files. As long as the Checkstyle configuration is
+     * unchanged, the results of the unchanged files are read from this file instead of auditing these files again.
+     *
+     * @parameter default-value="${project.build.directory}/checkstyle-result-cache"
+     * @since 2.10
+     */
+    private File resultCacheFile;
+
+    /**
+     * Whether to cache the results of the audited files in <code>resultCacheFile</code>. The results of the checks
+     * loading the classes of the project, like <code>RedundantThrows</code>, depend on the compiled classes: when
+     * these classes change, all the files are audited again by these checks, while the results of the other checks
+     * are kept.
+     *
+     * @parameter expression="${checkstyle.useResultCache}" default-value="true"
+     * @since 2.10
+     */
+    private boolean useResultCache;
+
+    /**
+     * The number of threads auditing the files in parallel. Each thread uses its own Checker, and the results are
+     * merged in the order of the files, so the output is the same as with a single thread. The files are audited by
+     * a single Checker anyway when the configuration uses checks auditing several files at once, like
+     * <code>StrictDuplicateCode</code>, or the regular expression checks, like <code>RegexpSingleline</code>, which
+     * are not thread safe. Custom checks must be thread safe, and must not use <code>Utils.getPattern()</code>, to be
+     * audited in parallel.
+     *
+     * @parameter expression="${checkstyle.parallelThreads}" default-value="1"
+     * @since 2.10
+     */
+    private int parallelThreads;
+
     /**
      * <p>
      * Specifies the location of the suppressions XML file to use.
@@ -363,6 +396,7 @@ public class CheckstyleReport
             .setTestSourceDirectory( testSourceDirectory ).setConfigLocation( configLocation )
             .setPropertyExpansion( propertyExpansion ).setHeaderLocation( headerLocation )
             .setCacheFile( cacheFile ).setSuppressionsFileExpression( suppressionsFileExpression )
+            .setResultCacheFile( useResultCache ? resultCacheFile : null ).setParallelThreads( parallelThreads )
             .setEncoding( encoding ).setPropertiesLocation( propertiesLocation );
         return request;
     }
@@ -0,0 +1,794 @@
+package org.apache.maven.plugin.checkstyle;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.io.IOUtils;
+import org.codehaus.plexus.util.StringUtils;
+
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+/**
+ * The persistent cache of the Checkstyle results of the audited files. The results of a file are recorded with the
+ * hash of its content, and are only valid for the fingerprint of the effective Checkstyle configuration they were
+ * produced with, see {@link #getFingerprint(Configuration, File, List)}. The audit events of an unchanged file can
+ * then be replayed instead of auditing the file again.
+ * <p>
+ * The results of the checks loading classes, like <code>RedundantThrows</code>, also depend on the classes of the
+ * class path directories, see {@link #getClassPathSignature(List)}. When these classes changed, only the events of the
+ * other checks are replayed, and the files have to be audited again by the checks loading classes, see
+ * {@link #getClassLoadingConfiguration(Configuration, Set)}.
+ * </p>
+ *
+ * @version $Id$
+ * @since 2.10
+ */
+public class CheckstyleResultCache
+{
+    private static final String HEADER = "maven-checkstyle-plugin result cache 2";
+
+    private final File cacheFile;
+
+    private final String fingerprint;
+
+    private final String classPathSignature;
+
+    private final Set<String> classLoadingModules;
+
+    private boolean classPathChanged;
+
+    private final Map<String, CachedFile> entries;
+
+    private final Map<String, CachedFile> currentEntries;
+
+    private final Map<String, String> hashes;
+
+    private final Map<String, String> directories;
+
+    /**
+     * Creates a new cache, for a configuration without modules loading classes.
+     *
+     * @param cacheFile the file storing the cache between runs, not null
+     * @param fingerprint the fingerprint of the effective Checkstyle configuration, not null
+     */
+    public CheckstyleResultCache( File cacheFile, String fingerprint )
+    {
+        this( cacheFile, fingerprint, "", Collections.<String>emptySet() );
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param cacheFile the file storing the cache between runs, not null
+     * @param fingerprint the fingerprint of the effective Checkstyle configuration, not null
+     * @param classPathSignature the signature of the classes the modules loading classes may load, not null
+     * @param classLoadingModules the names of the modules loading classes, see
+     *            {@link #getClassLoadingModules(Configuration)}, not null
+     */
+    public CheckstyleResultCache( File cacheFile, String fingerprint, String classPathSignature,
+                                  Set<String> classLoadingModules )
+    {
+        this.cacheFile = cacheFile;
+        this.fingerprint = fingerprint;
+        this.classPathSignature = classPathSignature;
+        this.classLoadingModules = classLoadingModules;
+        this.entries = new HashMap<String, CachedFile>();
+        this.currentEntries = new LinkedHashMap<String, CachedFile>();
+        this.hashes = new HashMap<String, String>();
+        this.directories = new HashMap<String, String>();
+    }
+
+    /**
+     * Loads the cache. A missing or unreadable cache, or a cache recorded with another fingerprint, yields an empty
+     * one.
+     */
+    public void load()
+    {
+        entries.clear();
+        classPathChanged = false;
+        if ( !cacheFile.isFile() )
+        {
+            return;
+        }
+
+        DataInputStream in = null;
+        try
+        {
+            in = new DataInputStream( new BufferedInputStream( new FileInputStream( cacheFile ) ) );
+            if ( !HEADER.equals( in.readUTF() ) || !fingerprint.equals( in.readUTF() ) )
+            {
+                return;
+            }
+            classPathChanged = !classPathSignature.equals( in.readUTF() ) && !classLoadingModules.isEmpty();
+
+            int count = in.readInt();
+            for ( int i = 0; i < count; i++ )
+            {
+                String fileName = in.readUTF();
+                CachedFile entry = new CachedFile( in.readUTF(), in.readUTF() );
+                int eventCount = in.readInt();
+                for ( int j = 0; j < eventCount; j++ )
+                {
+                    CachedEvent event = new CachedEvent();
+                    event.line = in.readInt();
+                    event.column = in.readInt();
+                    event.severity = in.readUTF();
+                    event.key = in.readUTF();
+                    event.moduleId = in.readBoolean() ? in.readUTF() : null;
+                    event.sourceName = in.readUTF();
+                    event.message = in.readUTF();
+                    entry.events.add( event );
+                }
+                entries.put( fileName, entry );
+            }
+        }
+        catch ( IOException e )
+        {
+            entries.clear();
+            classPathChanged = false;
+        }
+        finally
+        {
+            IOUtils.closeQuietly( in );
+        }
+    }
+
+    /**
+     * Writes the cache, holding the results of the files looked up or added since it was loaded.
+     *
+     * @throws IOException if the cache could not be written.
+     */
+    public void save()
+        throws IOException
+    {
+        cacheFile.getAbsoluteFile().getParentFile().mkdirs();
+
+        DataOutputStream out = null;
+        try
+        {
+            out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( cacheFile ) ) );
+            out.writeUTF( HEADER );
+            out.writeUTF( fingerprint );
+            out.writeUTF( classPathSignature );
+            out.writeInt( currentEntries.size() );
+            for ( Map.Entry<String, CachedFile> entry : currentEntries.entrySet() )
+            {
+                out.writeUTF( entry.getKey() );
+                out.writeUTF( entry.getValue().hash );
+                out.writeUTF( entry.getValue().directory );
+                out.writeInt( entry.getValue().events.size() );
+                for ( CachedEvent event : entry.getValue().events )
+                {
+                    out.writeInt( event.line );
+                    out.writeInt( event.column );
+                    out.writeUTF( event.severity );
+                    out.writeUTF( event.key );
+                    out.writeBoolean( event.moduleId != null );
+                    if ( event.moduleId != null )
+                    {
+                        out.writeUTF( event.moduleId );
+                    }
+                    out.writeUTF( event.sourceName );
+                    out.writeUTF( event.message );
+                }
+            }
+            out.close();
+        }
+        finally
+        {
+            IOUtils.closeQuietly( out );
+        }
+    }
+
+    /**
+     * Tells whether the classes of the class path directories changed since the cache was written. The events
+     * returned by {@link #getEvents(List, Object, ClassLoader)} then miss the events of the modules loading classes.
+     *
+     * @return <code>true</code> if the files of the returned events must be audited again by the modules loading
+     *         classes.
+     */
+    public boolean isClassPathChanged()
+    {
+        return classPathChanged;
+    }
+
+    /**
+     * Gets the recorded audit events of the files which didn't change since. Some checks, like
+     * <code>JavadocPackage</code>, report on the first file of a directory only, so the events of the files of a
+     * directory are only replayed if none of these files changed and no file was added to or removed from the
+     * directory. If {@link #isClassPathChanged()}, the events of the modules loading classes are left out.
+     *
+     * @param files the files to audit, not null
+     * @param source the source of the replayed events, usually the <code>Checker</code>, not null
+     * @param moduleClassLoader the class loader of the Checkstyle modules, not null
+     * @return the audit events of the unchanged files, keyed by file, never null. The other files must be audited
+     * again.
+     * @throws IOException if a file could not be read.
+     */
+    public Map<File, List<AuditEvent>> getEvents( List<File> files, Object source, ClassLoader moduleClassLoader )
+        throws IOException
+    {
+        Map<File, List<File>> directoryFiles = new LinkedHashMap<File, List<File>>();
+        for ( File file : files )
+        {
+            File directory = file.getAbsoluteFile().getParentFile();
+            List<File> filesInDirectory = directoryFiles.get( directory );
+            if ( filesInDirectory == null )
+            {
+                filesInDirectory = new ArrayList<File>();
+                directoryFiles.put( directory, filesInDirectory );
+            }
+            filesInDirectory.add( file );
+        }
+
+        Map<File, List<AuditEvent>> events = new HashMap<File, List<AuditEvent>>();
+        for ( Map.Entry<File, List<File>> filesInDirectory : directoryFiles.entrySet() )
+        {
+            String directory = getDirectorySignature( filesInDirectory.getValue() );
+            directories.put( filesInDirectory.getKey().getPath(), directory );
+
+            Map<File, List<AuditEvent>> directoryEvents = new HashMap<File, List<AuditEvent>>();
+            for ( File file : filesInDirectory.getValue() )
+            {
+                CachedFile entry = entries.get( file.getAbsolutePath() );
+                if ( entry == null || !entry.directory.equals( directory ) || !entry.hash.equals( getHash( file ) ) )
+                {
+                    break;
+                }
+                List<AuditEvent> fileEvents = replay( entry, file.getAbsolutePath(), source, moduleClassLoader,
+                                                      classPathChanged ? classLoadingModules
+                                                                      : Collections.<String>emptySet() );
+                if ( fileEvents == null )
+                {
+                    break;
+                }
+                directoryEvents.put( file, fileEvents );
+            }
+
+            if ( directoryEvents.size() == filesInDirectory.getValue().size() )
+            {
+                events.putAll( directoryEvents );
+                for ( File file : filesInDirectory.getValue() )
+                {
+                    currentEntries.put( file.getAbsolutePath(), entries.get( file.getAbsolutePath() ) );
+                }
+            }
+        }
+        return events;
+    }
+
+    private static List<AuditEvent> replay( CachedFile entry, String fileName, Object source,
+                                            ClassLoader moduleClassLoader, Set<String> skippedModules )
+    {
+        List<AuditEvent> events = new ArrayList<AuditEvent>( entry.events.size() );
+        for ( CachedEvent event : entry.events )
+        {
+            if ( skippedModules.contains( getModuleName( event.sourceName ) ) )
+            {
+                continue;
+            }
+
+            Class<?> sourceClass;
+            try
+            {
+                sourceClass = Class.forName( event.sourceName, false, moduleClassLoader );
+            }
+            catch ( ClassNotFoundException e )
+            {
+                return null;
+            }
+
+            // the recorded message is used as is, so it must be escaped for MessageFormat
+            String message = StringUtils.replace( event.message, "'", "''" );
+            message = StringUtils.replace( message, "{", "'{'" );
+
+            LocalizedMessage localizedMessage =
+                new LocalizedMessage( event.line, event.column, null, event.key, new Object[0],
+                                      SeverityLevel.getInstance( event.severity ), event.moduleId, sourceClass,
+                                      message );
+            events.add( new AuditEvent( source, fileName, localizedMessage ) );
+        }
+        return events;
+    }
+
+    /**
+     * Records the audit events of a file, looked up before with {@link #getEvents(List, Object, ClassLoader)}.
+     *
+     * @param file the audited file, not null
+     * @param events the audit events of the file, not null
+     * @throws IOException if the file could not be read.
+     */
+    public void putEvents( File file, List<AuditEvent> events )
+        throws IOException
+    {
+        String directory = directories.get( file.getAbsoluteFile().getParent() );
+        if ( directory == null )
+        {
+            directory = getDirectorySignature( Collections.singletonList( file ) );
+        }
+
+        CachedFile entry = new CachedFile( getHash( file ), directory );
+        for ( AuditEvent auditEvent : events )
+        {
+            CachedEvent event = new CachedEvent();
+            event.line = auditEvent.getLine();
+            event.column = auditEvent.getColumn();
+            event.severity = auditEvent.getSeverityLevel().getName();
+            event.key = StringUtils.defaultString( auditEvent.getLocalizedMessage().getKey() );
+            event.moduleId = auditEvent.getModuleId();
+            event.sourceName = auditEvent.getSourceName();
+            event.message = auditEvent.getMessage();
+            entry.events.add( event );
+        }
+        currentEntries.put( file.getAbsolutePath(), entry );
+    }
+
+    private static String getDirectorySignature( List<File> filesInDirectory )
+        throws IOException
+    {
+        StringBuffer sb = new StringBuffer();
+        for ( File file : filesInDirectory )
+        {
+            sb.append( file.getName() ).append( '\n' );
+        }
+        return toHex( getDigest().digest( sb.toString().getBytes( "UTF-8" ) ) );
+    }
+
+    private String getHash( File file )
+        throws IOException
+    {
+        String hash = hashes.get( file.getAbsolutePath() );
+        if ( hash == null )
+        {
+            hash = getContentHash( file );
+            hashes.put( file.getAbsolutePath(), hash );
+        }
+        return hash;
+    }
+
+    /**
+     * Tells whether the results of a configuration can be cached per file. They can't when the configuration uses
+     * modules producing events for a file from the content of other files, like <code>StrictDuplicateCode</code>, or
+     * like <code>Translation</code> when properties files are audited.
+     *
+     * @param configuration the effective Checkstyle configuration, not null
+     * @param files the files to audit, not null
+     * @return <code>true</code> if the results of the given configuration can be cached per file.
+     * @throws CheckstyleException if the configuration could not be read.
+     */
+    public static boolean isCacheable( Configuration configuration, List<File> files )
+        throws CheckstyleException
+    {
+        String name = getModuleName( configuration.getName() );
+        if ( "StrictDuplicateCode".equals( name ) )
+        {
+            return false;
+        }
+        if ( "Translation".equals( name ) && hasFileExtension( configuration, "properties", files ) )
+        {
+            return false;
+        }
+
+        Configuration[] children = configuration.getChildren();
+        for ( int i = 0; i < children.length; i++ )
+        {
+            if ( !isCacheable( children[i], files ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether a configuration uses modules loading the classes of the project or of its dependencies while
+     * auditing, see {@link #getClassLoadingModules(Configuration)}.
+     *
+     * @param configuration the effective Checkstyle configuration, not null
+     * @return <code>true</code> if the given configuration loads classes while auditing.
+     * @throws CheckstyleException if the configuration could not be read.
+     */
+    public static boolean isLoadingClasses( Configuration configuration )
+        throws CheckstyleException
+    {
+        return !getClassLoadingModules( configuration ).isEmpty();
+    }
+
+    /**
+     * Gets the modules of a configuration loading the classes of the project or of its dependencies while auditing,
+     * like <code>RedundantThrows</code>. Their results depend on the compiled classes, not only on the audited file.
+     *
+     * @param configuration the effective Checkstyle configuration, not null
+     * @return the names of the modules loading classes, without package and <code>Check</code> suffix, never null
+     * @throws CheckstyleException if the configuration could not be read.
+     */
+    public static Set<String> getClassLoadingModules( Configuration configuration )
+        throws CheckstyleException
+    {
+        Set<String> modules = new TreeSet<String>();
+        addClassLoadingModules( configuration, modules );
+        return modules;
+    }
+
+    private static void addClassLoadingModules( Configuration configuration, Set<String> modules )
+        throws CheckstyleException
+    {
+        String name = getModuleName( configuration.getName() );
+        if ( "RedundantThrows".equals( name ) || "IllegalInstantiation".equals( name ) )
+        {
+            modules.add( name );
+        }
+        if ( "JavadocMethod".equals( name ) && ( isTrue( configuration, "allowUndeclaredRTE" )
+            || isTrue( configuration, "allowThrowsTagsForSubclasses" ) ) )
+        {
+            modules.add( name );
+        }
+
+        Configuration[] children = configuration.getChildren();
+        for ( int i = 0; i < children.length; i++ )
+        {
+            addClassLoadingModules( children[i], modules );
+        }
+    }
+
+    /**
+     * Gets the configuration auditing the files with the given modules only. The other modules are left out, except
+     * the modules other modules depend on, like <code>TreeWalker</code>, the holders and the filters. The
+     * <code>TreeWalker</code> cache file is left out as well, since it is written by the complete configuration.
+     *
+     * @param configuration the effective Checkstyle configuration, not null
+     * @param modules the names of the modules to keep, see {@link #getClassLoadingModules(Configuration)}, not null
+     * @return the reduced configuration, never null
+     * @throws CheckstyleException if the configuration could not be read.
+     */
+    public static Configuration getClassLoadingConfiguration( Configuration configuration, Set<String> modules )
+        throws CheckstyleException
+    {
+        Configuration copy = copyModules( configuration, modules );
+        return copy != null ? copy : new DefaultConfiguration( configuration.getName() );
+    }
+
+    private static Configuration copyModules( Configuration configuration, Set<String> modules )
+        throws CheckstyleException
+    {
+        String name = getModuleName( configuration.getName() );
+
+        List<Configuration> children = new ArrayList<Configuration>();
+        boolean container = false;
+        Configuration[] allChildren = configuration.getChildren();
+        for ( int i = 0; i < allChildren.length; i++ )
+        {
+            Configuration child = copyModules( allChildren[i], modules );
+            if ( child != null )
+            {
+                children.add( child );
+                container |= modules.contains( getModuleName( child.getName() ) ) || child.getChildren().length > 0;
+            }
+        }
+
+        if ( !modules.contains( name ) && !name.endsWith( "Holder" ) && !name.endsWith( "Filter" ) && !container )
+        {
+            return null;
+        }
+
+        DefaultConfiguration copy = new DefaultConfiguration( configuration.getName() );
+        String[] names = configuration.getAttributeNames();
+        for ( int i = 0; i < names.length; i++ )
+        {
+            if ( !( "TreeWalker".equals( name ) && "cacheFile".equals( names[i] ) ) )
+            {
+                copy.addAttribute( names[i], configuration.getAttribute( names[i] ) );
+            }
+        }
+        for ( Map.Entry<String, String> message : configuration.getMessages().entrySet() )
+        {
+            copy.addMessage( message.getKey(), message.getValue() );
+        }
+        for ( Configuration child : children )
+        {
+            copy.addChild( child );
+        }
+        return copy;
+    }
+
+    /**
+     * @return the name of a module without package and <code>Check</code> suffix.
+     */
+    private static String getModuleName( String name )
+    {
+        name = name.substring( name.lastIndexOf( '.' ) + 1 );
+        if ( name.endsWith( "Check" ) )
+        {
+            name = name.substring( 0, name.length() - "Check".length() );
+        }
+        return name;
+    }
+
+    private static boolean isTrue( Configuration configuration, String attribute )
+        throws CheckstyleException
+    {
+        return Arrays.asList( configuration.getAttributeNames() ).contains( attribute )
+            && Boolean.valueOf( configuration.getAttribute( attribute ).trim() ).booleanValue();
+    }
+
+    private static boolean hasFileExtension( Configuration configuration, String defaultExtensions, List<File> files )
+        throws CheckstyleException
+    {
+        String extensions = defaultExtensions;
+        if ( Arrays.asList( configuration.getAttributeNames() ).contains( "fileExtensions" ) )
+        {
+            extensions = configuration.getAttribute( "fileExtensions" );
+        }
+
+        String[] extensionArray = StringUtils.split( extensions, ", " );
+        if ( extensionArray.length == 0 )
+        {
+            return !files.isEmpty();
+        }
+        for ( File file : files )
+        {
+            for ( int i = 0; i < extensionArray.length; i++ )
+            {
+                String extension = extensionArray[i].startsWith( "." ) ? extensionArray[i] : "." + extensionArray[i];
+                if ( file.getName().endsWith( extension ) )
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the fingerprint of the effective Checkstyle configuration. It covers the Checkstyle version, the modules
+     * with their expanded properties and custom messages, the content of the files named by these properties, like the
+     * header file, the content of the suppressions file and the entries of the class path. The content of the class
+     * path directories, like the output directory of the project, is not covered, see
+     * {@link #getClassPathSignature(List)}.
+     *
+     * @param configuration the effective Checkstyle configuration, not null
+     * @param suppressionsFile the suppressions file, may be null
+     * @param classPath the class path of the Checker, not null
+     * @return the fingerprint, never null
+     * @throws IOException if a file could not be read.
+     * @throws CheckstyleException if the configuration could not be read.
+     */
+    public static String getFingerprint( Configuration configuration, File suppressionsFile, List<URL> classPath )
+        throws IOException, CheckstyleException
+    {
+        StringBuffer sb = new StringBuffer();
+        sb.append( Checker.class.getProtectionDomain().getCodeSource().getLocation() ).append( '\n' );
+        appendConfiguration( sb, configuration, "" );
+        if ( suppressionsFile != null )
+        {
+            sb.append( "suppressions=" ).append( getContentHash( suppressionsFile ) ).append( '\n' );
+        }
+        for ( URL url : classPath )
+        {
+            sb.append( "classpath=" ).append( url );
+            if ( "file".equals( url.getProtocol() ) )
+            {
+                File file = new File( url.getPath() );
+                if ( file.isFile() )
+                {
+                    sb.append( ',' ).append( file.length() ).append( ',' ).append( file.lastModified() );
+                }
+            }
+            sb.append( '\n' );
+        }
+        return toHex( getDigest().digest( sb.toString().getBytes( "UTF-8" ) ) );
+    }
+
+    /**
+     * Gets the signature of the files of the class path directories, like the output directory of the project, from
+     * their size and last modification time. It only matters to the modules loading classes, so a recompilation only
+     * invalidates the results of these modules.
+     *
+     * @param classPath the class path of the Checker, not null
+     * @return the signature, never null
+     * @throws IOException if the signature could not be computed.
+     */
+    public static String getClassPathSignature( List<URL> classPath )
+        throws IOException
+    {
+        StringBuffer sb = new StringBuffer();
+        for ( URL url : classPath )
+        {
+            if ( "file".equals( url.getProtocol() ) )
+            {
+                File file = new File( url.getPath() );
+                if ( file.isDirectory() )
+                {
+                    sb.append( "classpath=" ).append( url ).append( '\n' );
+                    appendDirectory( sb, file, "" );
+                }
+            }
+        }
+        return toHex( getDigest().digest( sb.toString().getBytes( "UTF-8" ) ) );
+    }
+
+    private static void appendDirectory( StringBuffer sb, File directory, String path )
+    {
+        String[] names = directory.list();
+        if ( names == null )
+        {
+            return;
+        }
+        Arrays.sort( names );
+        for ( int i = 0; i < names.length; i++ )
+        {
+            File file = new File( directory, names[i] );
+            if ( file.isDirectory() )
+            {
+                appendDirectory( sb, file, path + names[i] + '/' );
+            }
+            else
+            {
+                sb.append( ' ' ).append( path ).append( names[i] ).append( ',' ).append( file.length() );
+                sb.append( ',' ).append( file.lastModified() ).append( '\n' );
+            }
+        }
+    }
+
+    private static void appendConfiguration( StringBuffer sb, Configuration configuration, String indent )
+        throws IOException, CheckstyleException
+    {
+        sb.append( indent ).append( configuration.getName() ).append( '\n' );
+
+        String[] names = configuration.getAttributeNames();
+        Arrays.sort( names );
+        for ( int i = 0; i < names.length; i++ )
+        {
+            String value = configuration.getAttribute( names[i] );
+            sb.append( indent ).append( '@' ).append( names[i] ).append( '=' ).append( value );
+            // the cache file of the TreeWalker changes on every run
+            if ( value != null && !"cacheFile".equals( names[i] ) && new File( value ).isFile() )
+            {
+                sb.append( ',' ).append( getContentHash( new File( value ) ) );
+            }
+            sb.append( '\n' );
+        }
+
+        Map<String, String> messages = configuration.getMessages();
+        if ( messages != null )
+        {
+            for ( Map.Entry<String, String> message : messages.entrySet() )
+            {
+                sb.append( indent ).append( '#' ).append( message.getKey() ).append( '=' );
+                sb.append( message.getValue() ).append( '\n' );
+            }
+        }
+
+        Configuration[] children = configuration.getChildren();
+        for ( int i = 0; i < children.length; i++ )
+        {
+            appendConfiguration( sb, children[i], indent + ' ' );
+        }
+    }
+
+    /**
+     * @param file a file, not null
+     * @return the MD5 hash of the content of the file, never null
+     * @throws IOException if the file could not be read.
+     */
+    static String getContentHash( File file )
+        throws IOException
+    {
+        MessageDigest digest = getDigest();
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( file );
+            byte[] buffer = new byte[8192];
+            int read;
+            while ( ( read = in.read( buffer ) ) != -1 )
+            {
+                digest.update( buffer, 0, read );
+            }
+        }
+        finally
+        {
+            IOUtils.closeQuietly( in );
+        }
+        return toHex( digest.digest() );
+    }
+
+    private static MessageDigest getDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( "MD5" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "MD5 is not supported: " + e.getMessage() );
+        }
+    }
+
+    private static String toHex( byte[] bytes )
+    {
+        StringBuffer sb = new StringBuffer( bytes.length * 2 );
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            sb.append( Character.forDigit( ( bytes[i] >> 4 ) & 0xf, 16 ) );
+            sb.append( Character.forDigit( bytes[i] & 0xf, 16 ) );
+        }
+        return sb.toString();
+    }
+
+    private static class CachedFile
+    {
+        private final String hash;
+
+        private final String directory;
+
+        private final List<CachedEvent> events = new ArrayList<CachedEvent>();
+
+        CachedFile( String hash, String directory )
+        {
+            this.hash = hash;
+            this.directory = directory;
+        }
+    }
+
+    private static class CachedEvent
+    {
+        private int line;
+
+        private int column;
+
+        private String severity;
+
+        private String key;
+
+        private String moduleId;
+
+        private String sourceName;
+
+        private String message;
+    }
+}
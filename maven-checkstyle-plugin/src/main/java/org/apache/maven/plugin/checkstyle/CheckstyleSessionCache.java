@@ -0,0 +1,242 @@
+package org.apache.maven.plugin.checkstyle;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.PropertiesExpander;
+import com.puppycrawl.tools.checkstyle.PropertyResolver;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+/**
+ * The resources shared by the Checkstyle executions of the modules of a build, which usually audit their sources with
+ * the same Checkstyle configuration and similar class paths. The cache lives as long as the plugin class loader, i.e.
+ * for the current build.
+ * <ul>
+ * <li>A configuration file is parsed once per content. The parsed configuration keeps placeholders for the properties,
+ * which are expanded with the properties of each execution.</li>
+ * <li>The jars of a class path are loaded by a class loader shared by the executions using the same jars, the
+ * directories of a class path by a child class loader of each execution.</li>
+ * </ul>
+ *
+ * @version $Id$
+ * @since 2.10
+ */
+public class CheckstyleSessionCache
+{
+    /** The delimiter of the property placeholders, which can't occur in XML attribute values. */
+    private static final char PLACEHOLDER = '\u0000';
+
+    /** The maximal number of shared class loaders. */
+    private static final int MAX_CLASS_LOADERS = 32;
+
+    /** The parsed configurations, keyed by the hash of the content of the configuration file. */
+    private static final Map<String, Configuration> CONFIGURATIONS;
+
+    /** The class loaders of the jars, keyed by the jars, most recently used last. */
+    private static final Map<String, ClassLoader> CLASS_LOADERS;
+
+    static
+    {
+        CONFIGURATIONS = new HashMap<String, Configuration>();
+        CLASS_LOADERS = new LinkedHashMap<String, ClassLoader>( 16, 0.75f, true );
+    }
+
+    private CheckstyleSessionCache()
+    {
+        // static methods only
+    }
+
+    /**
+     * Gets a configuration, parsing the configuration file only if a file with the same content wasn't parsed before.
+     *
+     * @param configFile the path of the configuration file, not null
+     * @param properties the properties to expand in the configuration, not null
+     * @return a new configuration, never null
+     * @throws CheckstyleException if the configuration could not be parsed or a property is missing.
+     * @throws IOException if the configuration file could not be read.
+     */
+    public static Configuration getConfiguration( String configFile, Properties properties )
+        throws CheckstyleException, IOException
+    {
+        String key = CheckstyleResultCache.getContentHash( new File( configFile ) );
+
+        Configuration template;
+        synchronized ( CONFIGURATIONS )
+        {
+            template = CONFIGURATIONS.get( key );
+            if ( template == null )
+            {
+                template = ConfigurationLoader.loadConfiguration( configFile, new PropertyResolver()
+                {
+                    public String resolve( String name )
+                    {
+                        return PLACEHOLDER + name + PLACEHOLDER;
+                    }
+                } );
+                CONFIGURATIONS.put( key, template );
+            }
+        }
+
+        Configuration configuration = expand( template, properties );
+        if ( configuration == null )
+        {
+            // a property is missing, let Checkstyle use its default value or report it
+            configuration = ConfigurationLoader.loadConfiguration( configFile, new PropertiesExpander( properties ) );
+        }
+        return configuration;
+    }
+
+    /**
+     * @return a copy of the template with the properties expanded, or <code>null</code> if a property is missing.
+     */
+    private static Configuration expand( Configuration template, Properties properties )
+        throws CheckstyleException
+    {
+        DefaultConfiguration configuration = new DefaultConfiguration( template.getName() );
+
+        String[] names = template.getAttributeNames();
+        for ( int i = 0; i < names.length; i++ )
+        {
+            String value = expand( template.getAttribute( names[i] ), properties );
+            if ( value == null )
+            {
+                return null;
+            }
+            configuration.addAttribute( names[i], value );
+        }
+
+        for ( Map.Entry<String, String> message : template.getMessages().entrySet() )
+        {
+            configuration.addMessage( message.getKey(), message.getValue() );
+        }
+
+        Configuration[] children = template.getChildren();
+        for ( int i = 0; i < children.length; i++ )
+        {
+            Configuration child = expand( children[i], properties );
+            if ( child == null )
+            {
+                return null;
+            }
+            configuration.addChild( child );
+        }
+        return configuration;
+    }
+
+    private static String expand( String value, Properties properties )
+    {
+        int start = value.indexOf( PLACEHOLDER );
+        if ( start < 0 )
+        {
+            return value;
+        }
+
+        StringBuffer sb = new StringBuffer( value.length() );
+        int end = -1;
+        while ( start >= 0 )
+        {
+            sb.append( value.substring( end + 1, start ) );
+            end = value.indexOf( PLACEHOLDER, start + 1 );
+            String property = properties.getProperty( value.substring( start + 1, end ) );
+            if ( property == null )
+            {
+                return null;
+            }
+            sb.append( property );
+            start = value.indexOf( PLACEHOLDER, end + 1 );
+        }
+        sb.append( value.substring( end + 1 ) );
+        return sb.toString();
+    }
+
+    /**
+     * Gets a class loader for a class path. The jars are loaded by a shared class loader, the parent of the returned
+     * class loader, so they are looked up before the directories of the class path.
+     *
+     * @param classPath the class path, not null
+     * @return a new class loader, never null
+     */
+    public static ClassLoader getClassLoader( List<URL> classPath )
+    {
+        List<URL> jars = new ArrayList<URL>();
+        List<URL> directories = new ArrayList<URL>();
+        StringBuffer key = new StringBuffer();
+        for ( URL url : classPath )
+        {
+            File file = "file".equals( url.getProtocol() ) ? new File( url.getPath() ) : null;
+            if ( file != null && file.isFile() )
+            {
+                jars.add( url );
+                // a jar rebuilt during the build needs another class loader
+                key.append( url ).append( ',' ).append( file.length() ).append( ',' );
+                key.append( file.lastModified() ).append( '\n' );
+            }
+            else
+            {
+                directories.add( url );
+            }
+        }
+
+        ClassLoader jarClassLoader;
+        synchronized ( CLASS_LOADERS )
+        {
+            jarClassLoader = CLASS_LOADERS.get( key.toString() );
+            if ( jarClassLoader == null )
+            {
+                jarClassLoader = new URLClassLoader( (URL[]) jars.toArray( new URL[jars.size()] ), null );
+                CLASS_LOADERS.put( key.toString(), jarClassLoader );
+                if ( CLASS_LOADERS.size() > MAX_CLASS_LOADERS )
+                {
+                    CLASS_LOADERS.remove( CLASS_LOADERS.keySet().iterator().next() );
+                }
+            }
+        }
+
+        return new URLClassLoader( (URL[]) directories.toArray( new URL[directories.size()] ), jarClassLoader );
+    }
+
+    /**
+     * Forgets all the shared resources.
+     */
+    public static void clear()
+    {
+        synchronized ( CONFIGURATIONS )
+        {
+            CONFIGURATIONS.clear();
+        }
+        synchronized ( CLASS_LOADERS )
+        {
+            CLASS_LOADERS.clear();
+        }
+    }
+}
@@ -227,6 +227,39 @@ public class CheckstyleViolationCheckMojo
      */
     private String cacheFile;
 
+    /**
+     * Specifies the file caching the results of the audited files. As long as the Checkstyle configuration is
+     * unchanged, the results of the unchanged files are read from this file instead of auditing these files again.
+     *
+     * @parameter default-value="${project.build.directory}/checkstyle-result-cache"
+     * @since 2.10
+     */
+    private File resultCacheFile;
+
+    /**
+     * Whether to cache the results of the audited files in <code>resultCacheFile</code>. The results of the checks
+     * loading the classes of the project, like <code>RedundantThrows</code>, depend on the compiled classes: when
+     * these classes change, all the files are audited again by these checks, while the results of the other checks
+     * are kept.
+     *
+     * @parameter expression="${checkstyle.useResultCache}" default-value="true"
+     * @since 2.10
+     */
+    private boolean useResultCache;
+
+    /**
+     * The number of threads auditing the files in parallel. Each thread uses its own Checker, and the results are
+     * merged in the order of the files, so the output is the same as with a single thread. The files are audited by
+     * a single Checker anyway when the configuration uses checks auditing several files at once, like
+     * <code>StrictDuplicateCode</code>, or the regular expression checks, like <code>RegexpSingleline</code>, which
+     * are not thread safe. Custom checks must be thread safe, and must not use <code>Utils.getPattern()</code>, to be
+     * audited in parallel.
+     *
+     * @parameter expression="${checkstyle.parallelThreads}" default-value="1"
+     * @since 2.10
+     */
+    private int parallelThreads;
+
     /**
      * The key to be used in the properties for the suppressions file.
      *
@@ -375,6 +408,8 @@ public class CheckstyleViolationCheckMojo
                         .setTestSourceDirectory( testSourceDirectory ).setConfigLocation( configLocation )
                         .setPropertyExpansion( propertyExpansion ).setHeaderLocation( headerLocation )
                         .setCacheFile( cacheFile ).setSuppressionsFileExpression( suppressionsFileExpression )
+                        .setResultCacheFile( useResultCache ? resultCacheFile : null )
+                        .setParallelThreads( parallelThreads )
                         .setEncoding( encoding ).setPropertiesLocation( propertiesLocation );
 
                     checkstyleExecutor.executeCheckstyle( request );
@@ -411,12 +446,22 @@ public class CheckstyleViolationCheckMojo
 
             try
             {
-                XmlPullParser xpp = new MXParser();
-                Reader freader = ReaderFactory.newXmlReader( outputFile );
-                BufferedReader breader = new BufferedReader( freader );
-                xpp.setInput( breader );
+                // the summary written along with the result file is much cheaper to read than the XML
+                int violations;
+                ViolationSummaryReader summary = ViolationSummaryReader.open( outputFile );
+                if ( summary != null )
+                {
+                    violations = countViolations( summary );
+                }
+                else
+                {
+                    XmlPullParser xpp = new MXParser();
+                    Reader freader = ReaderFactory.newXmlReader( outputFile );
+                    BufferedReader breader = new BufferedReader( freader );
+                    xpp.setInput( breader );
 
-                int violations = countViolations( xpp );
+                    violations = countViolations( xpp );
+                }
                 if ( violations > maxAllowedViolations )
                 {
                     if ( failOnViolation )
@@ -466,15 +511,8 @@ public class CheckstyleViolationCheckMojo
             {
                 if ( logViolationsToConsole )
                 {
-                    StringBuffer stb = new StringBuffer();
-                    stb.append( file );
-                    stb.append( '[' );
-                    stb.append( xpp.getAttributeValue( "", "line" ) );
-                    stb.append( ':' );
-                    stb.append( xpp.getAttributeValue( "", "column" ) );
-                    stb.append( "] " );
-                    stb.append( xpp.getAttributeValue( "", "message" ) );
-                    getLog().error( stb.toString() );
+                    logViolation( file, xpp.getAttributeValue( "", "line" ), xpp.getAttributeValue( "", "column" ),
+                                  xpp.getAttributeValue( "", "message" ) );
                 }
                 count++;
             }
@@ -484,6 +522,54 @@ public class CheckstyleViolationCheckMojo
         return count;
     }
 
+    /**
+     * Counts the violations of the violation summary written by the {@link ViolationSummaryListener}.
+     *
+     * @param summary the summary, closed once read, not null
+     * @return the number of violations
+     * @throws IOException if the summary could not be read.
+     */
+    private int countViolations( ViolationSummaryReader summary )
+        throws IOException
+    {
+        int count = 0;
+
+        try
+        {
+            for ( String[] fields = summary.read(); fields != null; fields = summary.read() )
+            {
+                if ( isViolation( fields[3] ) )
+                {
+                    if ( logViolationsToConsole )
+                    {
+                        String file = fields[0].substring( fields[0].lastIndexOf( File.separatorChar ) + 1 );
+                        logViolation( file, fields[1], fields[2], fields[4] );
+                    }
+                    count++;
+                }
+            }
+        }
+        finally
+        {
+            summary.close();
+        }
+
+        return count;
+    }
+
+    private void logViolation( String file, String line, String column, String message )
+    {
+        StringBuffer stb = new StringBuffer();
+        stb.append( file );
+        stb.append( '[' );
+        stb.append( line );
+        stb.append( ':' );
+        stb.append( column );
+        stb.append( "] " );
+        stb.append( message );
+        getLog().error( stb.toString() );
+    }
+
     /**
      * Checks if the given severity is considered a violation.
      *
@@ -565,7 +651,7 @@ public class CheckstyleViolationCheckMojo
 
             if ( "xml".equals( outputFileFormat ) )
             {
-                listener = new XMLLogger( out, true );
+                listener = new ViolationSummaryListener( new XMLLogger( out, true ), resultFile );
             }
             else if ( "plain".equals( outputFileFormat ) )
             {
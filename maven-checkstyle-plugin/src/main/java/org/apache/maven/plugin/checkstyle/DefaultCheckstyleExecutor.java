@@ -25,11 +25,20 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
@@ -43,14 +52,15 @@ import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.StringUtils;
 
 import com.puppycrawl.tools.checkstyle.Checker;
-import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.PackageNamesLoader;
-import com.puppycrawl.tools.checkstyle.PropertiesExpander;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.api.Utils;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionsLoader;
 
 /**
@@ -72,6 +82,21 @@ public class DefaultCheckstyleExecutor
 
     private static final File[] EMPTY_FILE_ARRAY = new File[0];
 
+    /**
+     * The regular expressions Checkstyle 5.5 compiles through {@link Utils#getPattern(String)} while auditing the
+     * files, as opposed to while configuring the modules.
+     */
+    private static final String[] AUDIT_PATTERNS = { "\\n|\\r\\n?", "/\\*{2,}\\s*@(\\p{Alpha}+)\\s",
+        "^\\s*(?:/\\*{2,}|\\*+)\\s*(.*)", ".*?\\{@(\\p{Alpha}+)\\s+(.*?)\\}", "^\\s*\\**\\s*@(\\p{Alpha}+)\\s",
+        "\\s*<([^>]+)>.*", "(.+?)(?:\\s+|#|\\$).*" };
+
+    /**
+     * The modules compiling their configured regular expression through {@link Utils#getPattern(String, int)} while
+     * auditing the files.
+     */
+    private static final List<String> REGEXP_DETECTORS =
+        Arrays.asList( new String[] { "RegexpSingleline", "RegexpSinglelineJava", "RegexpMultiline" } );
+
     public CheckstyleResults executeCheckstyle( CheckstyleExecutorRequest request )
         throws CheckstyleExecutorException, CheckstyleException
     {
@@ -98,9 +123,7 @@ public class DefaultCheckstyleExecutor
             throw new CheckstyleExecutorException( "Error getting files to process", e );
         }
 
-        FilterSet filterSet = getSuppressions( request );
-
-        Checker checker = new Checker();
+        File suppressionsFile = getSuppressionsFile( request );
 
         // setup classloader, needed to avoid "Unable to get class information
         // for ..." errors
@@ -157,28 +180,22 @@ public class DefaultCheckstyleExecutor
             }
         }
 
-        URLClassLoader projectClassLoader = new URLClassLoader( (URL[]) urls.toArray( new URL[urls.size()] ), null );
-        checker.setClassloader( projectClassLoader );
-
-        checker.setModuleClassLoader( Thread.currentThread().getContextClassLoader() );
-
-        if ( filterSet != null )
-        {
-            checker.addFilter( filterSet );
-        }
+        ClassLoader projectClassLoader = CheckstyleSessionCache.getClassLoader( urls );
         Configuration configuration = getConfiguration( request );
-        checker.configure( configuration );
+        Checker checker = createChecker( request, configuration, projectClassLoader, suppressionsFile );
+
+        List<AuditListener> listeners = new ArrayList<AuditListener>();
 
         AuditListener listener = request.getListener();
 
         if ( listener != null )
         {
-            checker.addListener( listener );
+            listeners.add( listener );
         }
 
         if ( request.isConsoleOutput() )
         {
-            checker.addListener( request.getConsoleListener() );
+            listeners.add( request.getConsoleListener() );
         }
 
         CheckstyleReportListener sinkListener = new CheckstyleReportListener( configuration );
@@ -192,10 +209,37 @@ public class DefaultCheckstyleExecutor
             }
         }
 
-        checker.addListener( sinkListener );
+        listeners.add( sinkListener );
 
         List<File> filesList = Arrays.asList( files );
-        int nbErrors = checker.process( filesList );
+        boolean auditablePerFile = isAuditablePerFile( request, configuration, filesList );
+        CheckstyleResultCache resultCache = null;
+        int threads = 1;
+        if ( auditablePerFile )
+        {
+            resultCache = getResultCache( request, configuration, suppressionsFile, urls );
+            threads = Math.max( 1, request.getParallelThreads() );
+            if ( threads > 1 && usesRegexpDetector( configuration ) )
+            {
+                request.getLog().debug( "The Checkstyle configuration uses regular expression checks which are not "
+                                            + "thread safe, auditing the files with a single Checker" );
+                threads = 1;
+            }
+        }
+        int nbErrors;
+        if ( resultCache != null || threads > 1 )
+        {
+            nbErrors = processFiles( checker, filesList, listeners, resultCache, threads, request, configuration,
+                                     projectClassLoader, suppressionsFile );
+        }
+        else
+        {
+            for ( AuditListener auditListener : listeners )
+            {
+                checker.addListener( auditListener );
+            }
+            nbErrors = checker.process( filesList );
+        }
 
         checker.destroy();
 
@@ -219,6 +263,459 @@ public class DefaultCheckstyleExecutor
         return sinkListener.getResults();
     }
 
+    private Checker createChecker( CheckstyleExecutorRequest request, Configuration configuration,
+                                   ClassLoader projectClassLoader, File suppressionsFile )
+        throws CheckstyleExecutorException, CheckstyleException
+    {
+        Checker checker = new Checker();
+        checker.setClassloader( projectClassLoader );
+
+        checker.setModuleClassLoader( Thread.currentThread().getContextClassLoader() );
+
+        FilterSet filterSet = getSuppressions( request, suppressionsFile );
+        if ( filterSet != null )
+        {
+            checker.addFilter( filterSet );
+        }
+        checker.configure( configuration );
+        return checker;
+    }
+
+    /**
+     * Tells whether the files can be audited separately, i.e. by several Checkers or with cached results.
+     */
+    private boolean isAuditablePerFile( CheckstyleExecutorRequest request, Configuration configuration,
+                                        List<File> files )
+        throws CheckstyleExecutorException
+    {
+        if ( request.getResultCacheFile() == null && request.getParallelThreads() <= 1 )
+        {
+            return false;
+        }
+
+        try
+        {
+            if ( !CheckstyleResultCache.isCacheable( configuration, files ) )
+            {
+                request.getLog().debug( "The Checkstyle configuration audits several files at once, "
+                                            + "auditing all files with a single Checker" );
+                return false;
+            }
+            return true;
+        }
+        catch ( CheckstyleException e )
+        {
+            throw new CheckstyleExecutorException( "Failed to read the Checkstyle configuration", e );
+        }
+    }
+
+    private CheckstyleResultCache getResultCache( CheckstyleExecutorRequest request, Configuration configuration,
+                                                  File suppressionsFile, List<URL> classPath )
+        throws CheckstyleExecutorException
+    {
+        if ( request.getResultCacheFile() == null )
+        {
+            return null;
+        }
+
+        try
+        {
+            String fingerprint = CheckstyleResultCache.getFingerprint( configuration, suppressionsFile, classPath );
+            Set<String> classLoadingModules = CheckstyleResultCache.getClassLoadingModules( configuration );
+            String classPathSignature =
+                classLoadingModules.isEmpty() ? "" : CheckstyleResultCache.getClassPathSignature( classPath );
+            CheckstyleResultCache resultCache =
+                new CheckstyleResultCache( request.getResultCacheFile(), fingerprint, classPathSignature,
+                                           classLoadingModules );
+            resultCache.load();
+            return resultCache;
+        }
+        catch ( IOException e )
+        {
+            throw new CheckstyleExecutorException( "Failed to read the Checkstyle configuration", e );
+        }
+        catch ( CheckstyleException e )
+        {
+            throw new CheckstyleExecutorException( "Failed to read the Checkstyle configuration", e );
+        }
+    }
+
+    /**
+     * Audits the files whose results are not cached, with several Checkers if requested, and notifies the listeners
+     * of the events of all files in the order of the files, replaying the cached events of the unchanged files. The
+     * listeners are therefore notified exactly like a single Checker auditing all files would do.
+     *
+     * @param resultCache the result cache, or <code>null</code> to audit all files
+     * @param threads the number of Checkers auditing the files in parallel
+     * @return the number of errors, like {@link Checker#process(List)}.
+     */
+    private int processFiles( Checker checker, List<File> files, List<AuditListener> listeners,
+                              CheckstyleResultCache resultCache, int threads, CheckstyleExecutorRequest request,
+                              Configuration configuration, ClassLoader projectClassLoader, File suppressionsFile )
+        throws CheckstyleExecutorException, CheckstyleException
+    {
+        ClassLoader moduleClassLoader = Thread.currentThread().getContextClassLoader();
+        Map<File, List<AuditEvent>> events;
+        List<File> filesToProcess = new ArrayList<File>();
+        int nbErrors = 0;
+        try
+        {
+            List<File> filesToComplete = new ArrayList<File>();
+            if ( resultCache != null )
+            {
+                events = resultCache.getEvents( files, checker, moduleClassLoader );
+                if ( resultCache.isClassPathChanged() && !events.isEmpty() )
+                {
+                    for ( File file : files )
+                    {
+                        if ( events.containsKey( file ) )
+                        {
+                            filesToComplete.add( file );
+                        }
+                    }
+                    completeEvents( filesToComplete, events, request, configuration, projectClassLoader,
+                                    suppressionsFile );
+                }
+            }
+            else
+            {
+                events = new HashMap<File, List<AuditEvent>>();
+            }
+            for ( File file : files )
+            {
+                List<AuditEvent> fileEvents = events.get( file );
+                if ( fileEvents != null )
+                {
+                    nbErrors += countErrors( fileEvents );
+                }
+                else
+                {
+                    filesToProcess.add( file );
+                }
+            }
+
+            if ( resultCache != null && getLogger().isDebugEnabled() )
+            {
+                getLogger().debug( "Checkstyle results cached for " + events.size() + " of " + files.size()
+                                       + " files" );
+            }
+
+            threads = Math.min( threads, filesToProcess.size() );
+            if ( threads > 1 )
+            {
+                nbErrors += processFilesInParallel( checker, filesToProcess, events, threads, request, configuration,
+                                                    projectClassLoader, suppressionsFile );
+            }
+            else
+            {
+                RecordingListener recorder = new RecordingListener();
+                checker.addListener( recorder );
+                nbErrors += checker.process( filesToProcess );
+                recorder.getEvents( filesToProcess, events );
+            }
+
+            if ( resultCache != null )
+            {
+                for ( File file : filesToComplete )
+                {
+                    resultCache.putEvents( file, events.get( file ) );
+                }
+                for ( File file : filesToProcess )
+                {
+                    resultCache.putEvents( file, events.get( file ) );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new CheckstyleExecutorException( "Failed to read the files to process", e );
+        }
+
+        fireEvents( checker, files, events, listeners );
+
+        if ( resultCache != null )
+        {
+            try
+            {
+                resultCache.save();
+            }
+            catch ( IOException e )
+            {
+                request.getLog().warn( "Failed to write the Checkstyle result cache: " + e.getMessage() );
+            }
+        }
+
+        return nbErrors;
+    }
+
+    /**
+     * Audits the files whose cached events miss the events of the modules loading classes, because the classes changed
+     * since, with these modules only, and merges their events with the cached ones in the order of a single Checker.
+     */
+    private void completeEvents( List<File> files, Map<File, List<AuditEvent>> events,
+                                 CheckstyleExecutorRequest request, Configuration configuration,
+                                 ClassLoader projectClassLoader, File suppressionsFile )
+        throws CheckstyleExecutorException, CheckstyleException
+    {
+        if ( getLogger().isDebugEnabled() )
+        {
+            getLogger().debug( "The class path changed, auditing " + files.size()
+                                   + " cached files again with the checks loading classes" );
+        }
+
+        Configuration classLoadingConfiguration = CheckstyleResultCache.getClassLoadingConfiguration(
+            configuration, CheckstyleResultCache.getClassLoadingModules( configuration ) );
+        Checker classLoadingChecker =
+            createChecker( request, classLoadingConfiguration, projectClassLoader, suppressionsFile );
+        RecordingListener recorder = new RecordingListener();
+        classLoadingChecker.addListener( recorder );
+        try
+        {
+            classLoadingChecker.process( files );
+        }
+        finally
+        {
+            classLoadingChecker.destroy();
+        }
+
+        Map<File, List<AuditEvent>> classLoadingEvents = new HashMap<File, List<AuditEvent>>();
+        recorder.getEvents( files, classLoadingEvents );
+        for ( File file : files )
+        {
+            List<AuditEvent> fileEvents = new ArrayList<AuditEvent>( events.get( file ) );
+            fileEvents.addAll( classLoadingEvents.get( file ) );
+            // a Checker reports the events of a file sorted by line, column and message
+            Collections.sort( fileEvents, new Comparator<AuditEvent>()
+            {
+                public int compare( AuditEvent event1, AuditEvent event2 )
+                {
+                    return event1.getLocalizedMessage().compareTo( event2.getLocalizedMessage() );
+                }
+            } );
+            events.put( file, fileEvents );
+        }
+    }
+
+    /**
+     * Partitions the files across several Checkers, each with its own module tree, and audits the partitions in
+     * parallel. The files of a directory always go to the same Checker, in their order, so each Checker keeps a
+     * usable TreeWalker cache file and the checks reporting once per directory report on the same file.
+     */
+    private int processFilesInParallel( Checker checker, List<File> files, Map<File, List<AuditEvent>> events,
+                                        int threads, CheckstyleExecutorRequest request, Configuration configuration,
+                                        ClassLoader projectClassLoader, File suppressionsFile )
+        throws CheckstyleExecutorException, CheckstyleException
+    {
+        List<List<File>> partitions = new ArrayList<List<File>>( threads );
+        for ( int i = 0; i < threads; i++ )
+        {
+            partitions.add( new ArrayList<File>() );
+        }
+        for ( File file : files )
+        {
+            // some checks, like JavadocPackage, report on the first file of a directory only
+            String directory = file.getAbsoluteFile().getParent();
+            partitions.get( Math.abs( directory.hashCode() % threads ) ).add( file );
+        }
+
+        // Checkstyle caches the compiled patterns in a static HashMap which is not thread safe. The Checkers are
+        // configured one at a time, and the patterns compiled by Checkstyle's own audit code are compiled before the
+        // Checkers are started, so the map is only read while auditing. The regular expression checks compiling their
+        // pattern while auditing are audited by a single Checker, and custom checks must not use Utils.getPattern().
+        List<Checker> checkers = new ArrayList<Checker>( threads );
+        checkers.add( checker );
+        for ( int i = 1; i < threads; i++ )
+        {
+            checkers.add( createChecker( request, getWorkerConfiguration( configuration, i ), projectClassLoader,
+                                         suppressionsFile ) );
+        }
+
+        for ( int i = 0; i < AUDIT_PATTERNS.length; i++ )
+        {
+            Utils.getPattern( AUDIT_PATTERNS[i] );
+        }
+
+        if ( getLogger().isDebugEnabled() )
+        {
+            getLogger().debug( "Auditing " + files.size() + " files with " + threads + " Checkers" );
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>( threads );
+            List<RecordingListener> recorders = new ArrayList<RecordingListener>( threads );
+            for ( int i = 0; i < threads; i++ )
+            {
+                final Checker workerChecker = checkers.get( i );
+                final List<File> partition = partitions.get( i );
+                final boolean destroy = i > 0;
+                RecordingListener recorder = new RecordingListener();
+                workerChecker.addListener( recorder );
+                recorders.add( recorder );
+                results.add( executor.submit( new Callable<Integer>()
+                {
+                    public Integer call()
+                    {
+                        try
+                        {
+                            return new Integer( workerChecker.process( partition ) );
+                        }
+                        finally
+                        {
+                            if ( destroy )
+                            {
+                                workerChecker.destroy();
+                            }
+                        }
+                    }
+                } ) );
+            }
+
+            int nbErrors = 0;
+            for ( int i = 0; i < threads; i++ )
+            {
+                nbErrors += getResult( results.get( i ) ).intValue();
+                recorders.get( i ).getEvents( partitions.get( i ), events );
+            }
+            return nbErrors;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Integer getResult( Future<Integer> result )
+        throws CheckstyleExecutorException
+    {
+        try
+        {
+            return result.get();
+        }
+        catch ( InterruptedException e )
+        {
+            throw new CheckstyleExecutorException( "Interrupted while auditing the files", e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            if ( e.getCause() instanceof Error )
+            {
+                throw (Error) e.getCause();
+            }
+            throw new CheckstyleExecutorException( "Failed to audit the files", e.getCause() );
+        }
+    }
+
+    /**
+     * Copies the configuration for an additional Checker, with its own TreeWalker cache file, since the Checkers
+     * would overwrite a shared one.
+     */
+    private static Configuration getWorkerConfiguration( Configuration configuration, int worker )
+        throws CheckstyleException
+    {
+        DefaultConfiguration copy = new DefaultConfiguration( configuration.getName() );
+        boolean treeWalker = "TreeWalker".equals( configuration.getName() )
+            || "com.puppycrawl.tools.checkstyle.TreeWalker".equals( configuration.getName() );
+        String[] names = configuration.getAttributeNames();
+        for ( int i = 0; i < names.length; i++ )
+        {
+            String value = configuration.getAttribute( names[i] );
+            if ( treeWalker && "cacheFile".equals( names[i] ) && StringUtils.isNotEmpty( value ) )
+            {
+                value = value + "-" + worker;
+            }
+            copy.addAttribute( names[i], value );
+        }
+        for ( Map.Entry<String, String> message : configuration.getMessages().entrySet() )
+        {
+            copy.addMessage( message.getKey(), message.getValue() );
+        }
+        Configuration[] children = configuration.getChildren();
+        for ( int i = 0; i < children.length; i++ )
+        {
+            copy.addChild( getWorkerConfiguration( children[i], worker ) );
+        }
+        return copy;
+    }
+
+    /**
+     * Tells whether the configuration uses a module compiling a pattern of its configuration while auditing the files,
+     * which would write the static pattern cache of Checkstyle from several threads.
+     */
+    private static boolean usesRegexpDetector( Configuration configuration )
+    {
+        String name = configuration.getName();
+        name = name.substring( name.lastIndexOf( '.' ) + 1 );
+        if ( name.endsWith( "Check" ) )
+        {
+            name = name.substring( 0, name.length() - "Check".length() );
+        }
+        if ( REGEXP_DETECTORS.contains( name ) )
+        {
+            return true;
+        }
+
+        Configuration[] children = configuration.getChildren();
+        for ( int i = 0; i < children.length; i++ )
+        {
+            if ( usesRegexpDetector( children[i] ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int countErrors( List<AuditEvent> events )
+    {
+        int count = 0;
+        for ( AuditEvent event : events )
+        {
+            if ( SeverityLevel.ERROR.equals( event.getSeverityLevel() ) )
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void fireEvents( Checker checker, List<File> files, Map<File, List<AuditEvent>> events,
+                                    List<AuditListener> listeners )
+    {
+        for ( AuditListener listener : listeners )
+        {
+            listener.auditStarted( new AuditEvent( checker ) );
+        }
+        for ( File file : files )
+        {
+            String fileName = file.getAbsolutePath();
+            for ( AuditListener listener : listeners )
+            {
+                listener.fileStarted( new AuditEvent( checker, fileName ) );
+            }
+            for ( AuditEvent event : events.get( file ) )
+            {
+                for ( AuditListener listener : listeners )
+                {
+                    listener.addError( event );
+                }
+            }
+            for ( AuditListener listener : listeners )
+            {
+                listener.fileFinished( new AuditEvent( checker, fileName ) );
+            }
+        }
+        for ( AuditListener listener : listeners )
+        {
+            listener.auditFinished( new AuditEvent( checker ) );
+        }
+    }
+
     protected void addSourceDirectory( CheckstyleReportListener sinkListener, File sourceDirectory,
                                        File testSourceDirectory, CheckstyleExecutorRequest request )
     {
@@ -245,8 +742,7 @@ public class DefaultCheckstyleExecutor
             Thread.currentThread().setContextClassLoader( checkstyleClassLoader );
             String configFile = getConfigFile( request );
             Properties overridingProperties = getOverridingProperties( request );
-            Configuration config = ConfigurationLoader
-                .loadConfiguration( configFile, new PropertiesExpander( overridingProperties ) );
+            Configuration config = CheckstyleSessionCache.getConfiguration( configFile, overridingProperties );
             String effectiveEncoding = StringUtils.isNotEmpty( request.getEncoding() ) ? request.getEncoding() : System
                 .getProperty( "file.encoding", "UTF-8" );
             if ( StringUtils.isEmpty( request.getEncoding() ) )
@@ -316,6 +812,10 @@ public class DefaultCheckstyleExecutor
         {
             throw new CheckstyleExecutorException( "Failed during checkstyle configuration", e );
         }
+        catch ( IOException e )
+        {
+            throw new CheckstyleExecutorException( "Failed during checkstyle configuration", e );
+        }
     }
 
     private void prepareCheckstylePaths( CheckstyleExecutorRequest request, MavenProject project,
@@ -506,19 +1006,30 @@ public class DefaultCheckstyleExecutor
         }
     }
 
-    private FilterSet getSuppressions( CheckstyleExecutorRequest request )
+    private File getSuppressionsFile( CheckstyleExecutorRequest request )
         throws CheckstyleExecutorException
     {
         try
         {
-            File suppressionsFile = locator.resolveLocation( request.getSuppressionsLocation(),
-                                                             "checkstyle-suppressions.xml" );
+            return locator.resolveLocation( request.getSuppressionsLocation(), "checkstyle-suppressions.xml" );
+        }
+        catch ( IOException e )
+        {
+            throw new CheckstyleExecutorException( "Failed to process supressions location: "
+                + request.getSuppressionsLocation(), e );
+        }
+    }
 
-            if ( suppressionsFile == null )
-            {
-                return null;
-            }
+    private FilterSet getSuppressions( CheckstyleExecutorRequest request, File suppressionsFile )
+        throws CheckstyleExecutorException
+    {
+        if ( suppressionsFile == null )
+        {
+            return null;
+        }
 
+        try
+        {
             return SuppressionsLoader.loadSuppressions( suppressionsFile.getAbsolutePath() );
         }
         catch ( CheckstyleException ce )
@@ -526,11 +1037,6 @@ public class DefaultCheckstyleExecutor
             throw new CheckstyleExecutorException( "failed to load suppressions location: "
                 + request.getSuppressionsLocation(), ce );
         }
-        catch ( IOException e )
-        {
-            throw new CheckstyleExecutorException( "Failed to process supressions location: "
-                + request.getSuppressionsLocation(), e );
-        }
     }
 
     private String getConfigFile( CheckstyleExecutorRequest request )
@@ -575,4 +1081,63 @@ public class DefaultCheckstyleExecutor
         }
 
     }
+
+    /**
+     * Records the audit events of the processed files, after filtering.
+     */
+    private static class RecordingListener
+        implements AuditListener
+    {
+        private final Map<String, List<AuditEvent>> events;
+
+        RecordingListener()
+        {
+            events = new HashMap<String, List<AuditEvent>>();
+        }
+
+        void getEvents( List<File> files, Map<File, List<AuditEvent>> fileEvents )
+        {
+            for ( File file : files )
+            {
+                List<AuditEvent> recorded = events.get( file.getAbsolutePath() );
+                fileEvents.put( file, ( recorded != null ) ? recorded : new ArrayList<AuditEvent>() );
+            }
+        }
+
+        public void auditStarted( AuditEvent event )
+        {
+            events.clear();
+        }
+
+        public void auditFinished( AuditEvent event )
+        {
+            // nothing to do
+        }
+
+        public void fileStarted( AuditEvent event )
+        {
+            // nothing to do
+        }
+
+        public void fileFinished( AuditEvent event )
+        {
+            // nothing to do
+        }
+
+        public void addError( AuditEvent event )
+        {
+            List<AuditEvent> fileEvents = events.get( event.getFileName() );
+            if ( fileEvents == null )
+            {
+                fileEvents = new ArrayList<AuditEvent>();
+                events.put( event.getFileName(), fileEvents );
+            }
+            fileEvents.add( event );
+        }
+
+        public void addException( AuditEvent event, Throwable throwable )
+        {
+            // the Checker reports exceptions as errors
+        }
+    }
 }
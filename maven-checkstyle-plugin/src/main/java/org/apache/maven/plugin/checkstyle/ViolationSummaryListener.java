@@ -0,0 +1,109 @@
+package org.apache.maven.plugin.checkstyle;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+/**
+ * Writes the XML result file through another listener, and its violation summary along with it once the audit is
+ * finished, see {@link ViolationSummaryWriter}. The errors are recorded in the order of the result file.
+ *
+ * @version $Id$
+ * @since 2.10
+ */
+public class ViolationSummaryListener
+    implements AuditListener
+{
+    private final AuditListener resultListener;
+
+    private final File resultFile;
+
+    private final ViolationSummaryWriter summary;
+
+    /**
+     * @param resultListener the listener writing the XML result file, not null
+     * @param resultFile the XML result file, not null
+     */
+    public ViolationSummaryListener( AuditListener resultListener, File resultFile )
+    {
+        this.resultListener = resultListener;
+        this.resultFile = resultFile;
+        this.summary = new ViolationSummaryWriter();
+    }
+
+    /** {@inheritDoc} */
+    public void auditStarted( AuditEvent event )
+    {
+        resultListener.auditStarted( event );
+    }
+
+    /** {@inheritDoc} */
+    public void auditFinished( AuditEvent event )
+    {
+        resultListener.auditFinished( event );
+
+        try
+        {
+            summary.write( resultFile );
+        }
+        catch ( IOException e )
+        {
+            // the check goal parses the result file instead
+            ViolationSummaryWriter.getSummaryFile( resultFile ).delete();
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void fileStarted( AuditEvent event )
+    {
+        resultListener.fileStarted( event );
+    }
+
+    /** {@inheritDoc} */
+    public void fileFinished( AuditEvent event )
+    {
+        resultListener.fileFinished( event );
+    }
+
+    /** {@inheritDoc} */
+    public void addError( AuditEvent event )
+    {
+        resultListener.addError( event );
+
+        // like the XMLLogger
+        if ( !SeverityLevel.IGNORE.equals( event.getSeverityLevel() ) )
+        {
+            summary.add( new String[] { event.getFileName(), String.valueOf( event.getLine() ),
+                event.getColumn() > 0 ? String.valueOf( event.getColumn() ) : null,
+                event.getSeverityLevel().getName(), event.getMessage() } );
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void addException( AuditEvent event, Throwable throwable )
+    {
+        resultListener.addException( event, throwable );
+    }
+}
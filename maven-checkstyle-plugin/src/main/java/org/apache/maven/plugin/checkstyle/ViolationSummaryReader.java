@@ -0,0 +1,140 @@
+package org.apache.maven.plugin.checkstyle;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Reads the violations of a violation summary one at a time, see {@link ViolationSummaryWriter}.
+ *
+ * @version $Id$
+ * @since 2.10
+ */
+public class ViolationSummaryReader
+{
+    private final BufferedReader reader;
+
+    private ViolationSummaryReader( BufferedReader reader )
+    {
+        this.reader = reader;
+    }
+
+    /**
+     * Opens the violation summary of a result file.
+     *
+     * @param resultFile the result file, not null
+     * @return the reader of the summary, or <code>null</code> if there is no summary of the current result file.
+     * @throws IOException if the summary could not be read.
+     */
+    public static ViolationSummaryReader open( File resultFile )
+        throws IOException
+    {
+        File summaryFile = ViolationSummaryWriter.getSummaryFile( resultFile );
+        if ( !summaryFile.isFile() )
+        {
+            return null;
+        }
+
+        BufferedReader reader =
+            new BufferedReader( new InputStreamReader( new FileInputStream( summaryFile ), "UTF-8" ) );
+        if ( !ViolationSummaryWriter.getHeader( resultFile ).equals( reader.readLine() ) )
+        {
+            IOUtil.close( reader );
+            return null;
+        }
+        return new ViolationSummaryReader( reader );
+    }
+
+    /**
+     * Reads the next violation.
+     *
+     * @return the fields of the violation, or <code>null</code> if there are no more violations.
+     * @throws IOException if the summary could not be read.
+     */
+    public String[] read()
+        throws IOException
+    {
+        String line = reader.readLine();
+        if ( line == null )
+        {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<String>();
+        int start = 0;
+        int end;
+        while ( ( end = line.indexOf( '\t', start ) ) >= 0 )
+        {
+            fields.add( unescape( line.substring( start, end ) ) );
+            start = end + 1;
+        }
+        fields.add( unescape( line.substring( start ) ) );
+        return fields.toArray( new String[fields.size()] );
+    }
+
+    private static String unescape( String field )
+    {
+        if ( ViolationSummaryWriter.NULL.equals( field ) )
+        {
+            return null;
+        }
+        if ( field.indexOf( '\\' ) < 0 )
+        {
+            return field;
+        }
+
+        StringBuffer sb = new StringBuffer( field.length() );
+        for ( int i = 0; i < field.length(); i++ )
+        {
+            char c = field.charAt( i );
+            if ( c == '\\' && i + 1 < field.length() )
+            {
+                c = field.charAt( ++i );
+                if ( c == 't' )
+                {
+                    c = '\t';
+                }
+                else if ( c == 'n' )
+                {
+                    c = '\n';
+                }
+                else if ( c == 'r' )
+                {
+                    c = '\r';
+                }
+            }
+            sb.append( c );
+        }
+        return sb.toString();
+    }
+
+    public void close()
+    {
+        IOUtil.close( reader );
+    }
+}
@@ -0,0 +1,143 @@
+package org.apache.maven.plugin.checkstyle;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Writes the violation summary of a result file: one line per violation, with tab separated fields, so the check
+ * goals can count and print the violations without parsing the result file. The summary records the length and the
+ * modification time of the result file, and is ignored when the result file was written again since.
+ *
+ * @version $Id$
+ * @since 2.10
+ */
+public class ViolationSummaryWriter
+{
+    static final String HEADER = "maven-checkstyle-plugin violation summary 1";
+
+    /** The field standing for <code>null</code>. */
+    static final String NULL = "\\0";
+
+    private final StringBuffer records;
+
+    public ViolationSummaryWriter()
+    {
+        this.records = new StringBuffer();
+    }
+
+    /**
+     * Adds a violation.
+     *
+     * @param fields the fields of the violation, which may be <code>null</code>
+     */
+    public void add( String[] fields )
+    {
+        for ( int i = 0; i < fields.length; i++ )
+        {
+            if ( i > 0 )
+            {
+                records.append( '\t' );
+            }
+            escape( fields[i] );
+        }
+        records.append( '\n' );
+    }
+
+    private void escape( String field )
+    {
+        if ( field == null )
+        {
+            records.append( NULL );
+            return;
+        }
+
+        for ( int i = 0; i < field.length(); i++ )
+        {
+            char c = field.charAt( i );
+            switch ( c )
+            {
+                case '\\':
+                    records.append( "\\\\" );
+                    break;
+                case '\t':
+                    records.append( "\\t" );
+                    break;
+                case '\n':
+                    records.append( "\\n" );
+                    break;
+                case '\r':
+                    records.append( "\\r" );
+                    break;
+                default:
+                    records.append( c );
+            }
+        }
+    }
+
+    /**
+     * Writes the summary of a result file, once the result file is complete.
+     *
+     * @param resultFile the result file, not null
+     * @throws IOException if the summary could not be written.
+     */
+    public void write( File resultFile )
+        throws IOException
+    {
+        Writer writer = null;
+        try
+        {
+            writer = new OutputStreamWriter( new FileOutputStream( getSummaryFile( resultFile ) ), "UTF-8" );
+            writer.write( getHeader( resultFile ) );
+            writer.write( '\n' );
+            writer.write( records.toString() );
+            writer.close();
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+    }
+
+    static String getHeader( File resultFile )
+    {
+        return HEADER + '\t' + resultFile.length() + '\t' + resultFile.lastModified();
+    }
+
+    /**
+     * @param resultFile the result file, not null
+     * @return the file holding the violation summary of the result file, never null
+     */
+    public static File getSummaryFile( File resultFile )
+    {
+        String name = resultFile.getName();
+        if ( name.lastIndexOf( '.' ) > 0 )
+        {
+            name = name.substring( 0, name.lastIndexOf( '.' ) );
+        }
+        return new File( resultFile.getParentFile(), name + "-summary.txt" );
+    }
+}
@@ -23,7 +23,9 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
 
 
@@ -163,6 +165,52 @@ public class CheckstyleReportTest
         generateReport( "test-source-directory-plugin-config.xml" );
     }
 
+    public void testResultCache()
+        throws Exception
+    {
+        File resultCacheFile = new File( getBasedir(), "target/test-harness/checkstyle/min/checkstyle-result-cache" );
+        resultCacheFile.delete();
+        Map<String, Object> parameters = new HashMap<String, Object>();
+        parameters.put( "resultCacheFile", resultCacheFile );
+        parameters.put( "useResultCache", Boolean.TRUE );
+
+        File outputFile = runReport( "min-plugin-config.xml", parameters );
+        assertTrue( "Test result cache file exists", resultCacheFile.exists() );
+        String result = FileUtils.fileRead( outputFile );
+
+        // the results are replayed from the cache
+        outputFile.delete();
+        runReport( "min-plugin-config.xml", parameters );
+        assertEquals( result, FileUtils.fileRead( outputFile ) );
+    }
+
+    public void testParallel()
+        throws Exception
+    {
+        Map<String, Object> parameters = new HashMap<String, Object>();
+        parameters.put( "sourceDirectory", new File( getBasedir(), "src/main/java" ) );
+        parameters.put( "parallelThreads", new Integer( 1 ) );
+        String result = FileUtils.fileRead( runReport( "min-plugin-config.xml", parameters ) );
+        assertTrue( "Test violations found", result.indexOf( "<error " ) > 0 );
+
+        // the merged results of the Checkers are in the order of the files
+        parameters.put( "parallelThreads", new Integer( 4 ) );
+        assertEquals( result, FileUtils.fileRead( runReport( "min-plugin-config.xml", parameters ) ) );
+    }
+
+    private File runReport( String pluginXml, Map<String, Object> parameters )
+        throws Exception
+    {
+        File pluginXmlFile = new File( getBasedir(), "src/test/plugin-configs/" + pluginXml );
+        CheckstyleReport mojo = (CheckstyleReport) lookupMojo( "checkstyle", pluginXmlFile );
+        for ( Map.Entry<String, Object> parameter : parameters.entrySet() )
+        {
+            setVariableValueToObject( mojo, parameter.getKey(), parameter.getValue() );
+        }
+        mojo.execute();
+        return (File) getVariableValueFromObject( mojo, "outputFile" );
+    }
+
     private File generateReport( String pluginXml )
         throws Exception
     {
@@ -0,0 +1,280 @@
+package org.apache.maven.plugin.checkstyle;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import com.puppycrawl.tools.checkstyle.checks.coding.RedundantThrowsCheck;
+import com.puppycrawl.tools.checkstyle.checks.naming.ConstantNameCheck;
+
+/**
+ * @version $Id$
+ */
+public class CheckstyleResultCacheTest
+    extends TestCase
+{
+    private File baseDir;
+
+    private File cacheFile;
+
+    /** {@inheritDoc} */
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        baseDir = new File( "target/test/unit/result-cache" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( baseDir );
+        baseDir.mkdirs();
+        cacheFile = new File( baseDir, "checkstyle-result-cache" );
+    }
+
+    public void testReplay()
+        throws Exception
+    {
+        File source = new File( baseDir, "Foo.java" );
+        FileUtils.fileWrite( source.getAbsolutePath(), "class Foo {}" );
+
+        String message = "Name 'foo' must match pattern '^[A-Z]{1,3}$'.";
+        LocalizedMessage localizedMessage =
+            new LocalizedMessage( 3, 12, "com.puppycrawl.tools.checkstyle.checks.naming.messages", "name.invalidPattern",
+                                  new Object[] { "foo", "^[A-Z]{1,3}$" }, SeverityLevel.WARNING, "constants",
+                                  ConstantNameCheck.class, message );
+        List<AuditEvent> events = new ArrayList<AuditEvent>();
+        events.add( new AuditEvent( this, source.getAbsolutePath(), localizedMessage ) );
+
+        List<File> files = Collections.singletonList( source );
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        CheckstyleResultCache cache = new CheckstyleResultCache( cacheFile, "fingerprint" );
+        cache.load();
+        assertTrue( cache.getEvents( files, this, classLoader ).isEmpty() );
+        cache.putEvents( source, events );
+        cache.save();
+
+        cache = new CheckstyleResultCache( cacheFile, "fingerprint" );
+        cache.load();
+        List<AuditEvent> replayed = cache.getEvents( files, this, classLoader ).get( source );
+        assertNotNull( replayed );
+        assertEquals( 1, replayed.size() );
+        AuditEvent event = replayed.get( 0 );
+        assertEquals( source.getAbsolutePath(), event.getFileName() );
+        assertEquals( 3, event.getLine() );
+        assertEquals( 12, event.getColumn() );
+        assertEquals( SeverityLevel.WARNING, event.getSeverityLevel() );
+        assertEquals( "constants", event.getModuleId() );
+        assertEquals( ConstantNameCheck.class.getName(), event.getSourceName() );
+        assertEquals( "name.invalidPattern", event.getLocalizedMessage().getKey() );
+        assertEquals( events.get( 0 ).getMessage(), event.getMessage() );
+
+        // another configuration
+        cache = new CheckstyleResultCache( cacheFile, "other fingerprint" );
+        cache.load();
+        assertTrue( cache.getEvents( files, this, classLoader ).isEmpty() );
+
+        // a changed file
+        cache = new CheckstyleResultCache( cacheFile, "fingerprint" );
+        cache.load();
+        FileUtils.fileWrite( source.getAbsolutePath(), "class Foo { }" );
+        assertTrue( cache.getEvents( files, this, classLoader ).isEmpty() );
+    }
+
+    public void testDirectory()
+        throws Exception
+    {
+        File foo = new File( baseDir, "Foo.java" );
+        FileUtils.fileWrite( foo.getAbsolutePath(), "class Foo {}" );
+        File bar = new File( baseDir, "Bar.java" );
+        FileUtils.fileWrite( bar.getAbsolutePath(), "class Bar {}" );
+        List<File> files = Arrays.asList( new File[] { foo, bar } );
+        List<AuditEvent> none = Collections.emptyList();
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        CheckstyleResultCache cache = new CheckstyleResultCache( cacheFile, "fingerprint" );
+        cache.load();
+        assertTrue( cache.getEvents( files, this, classLoader ).isEmpty() );
+        cache.putEvents( foo, none );
+        cache.putEvents( bar, none );
+        cache.save();
+
+        cache = new CheckstyleResultCache( cacheFile, "fingerprint" );
+        cache.load();
+        assertEquals( 2, cache.getEvents( files, this, classLoader ).size() );
+
+        // a removed file invalidates the other files of its directory
+        cache = new CheckstyleResultCache( cacheFile, "fingerprint" );
+        cache.load();
+        assertTrue( cache.getEvents( Collections.singletonList( bar ), this, classLoader ).isEmpty() );
+
+        // as well as a changed file
+        FileUtils.fileWrite( foo.getAbsolutePath(), "class Foo { }" );
+        cache = new CheckstyleResultCache( cacheFile, "fingerprint" );
+        cache.load();
+        assertTrue( cache.getEvents( files, this, classLoader ).isEmpty() );
+    }
+
+    public void testFingerprint()
+        throws Exception
+    {
+        File header = new File( baseDir, "LICENSE.txt" );
+        FileUtils.fileWrite( header.getAbsolutePath(), "header" );
+
+        DefaultConfiguration configuration = new DefaultConfiguration( "Checker" );
+        DefaultConfiguration headerCheck = new DefaultConfiguration( "Header" );
+        headerCheck.addAttribute( "headerFile", header.getAbsolutePath() );
+        configuration.addChild( headerCheck );
+        List<URL> classPath = Collections.emptyList();
+
+        String fingerprint = CheckstyleResultCache.getFingerprint( configuration, null, classPath );
+        assertEquals( fingerprint, CheckstyleResultCache.getFingerprint( configuration, null, classPath ) );
+
+        FileUtils.fileWrite( header.getAbsolutePath(), "another header" );
+        assertFalse( fingerprint.equals( CheckstyleResultCache.getFingerprint( configuration, null, classPath ) ) );
+
+        List<File> files = Collections.singletonList( new File( baseDir, "Foo.java" ) );
+        assertTrue( CheckstyleResultCache.isCacheable( configuration, files ) );
+        configuration.addChild( new DefaultConfiguration( "Translation" ) );
+        assertTrue( CheckstyleResultCache.isCacheable( configuration, files ) );
+        assertFalse( CheckstyleResultCache.isCacheable( configuration, Collections
+            .singletonList( new File( baseDir, "messages.properties" ) ) ) );
+        configuration.addChild(
+            new DefaultConfiguration( "com.puppycrawl.tools.checkstyle.checks.duplicates.StrictDuplicateCodeCheck" ) );
+        assertFalse( CheckstyleResultCache.isCacheable( configuration, files ) );
+
+        assertFalse( CheckstyleResultCache.isLoadingClasses( configuration ) );
+        DefaultConfiguration javadocMethod = new DefaultConfiguration( "JavadocMethod" );
+        configuration.addChild( javadocMethod );
+        assertFalse( CheckstyleResultCache.isLoadingClasses( configuration ) );
+        javadocMethod.addAttribute( "allowUndeclaredRTE", "true" );
+        assertTrue( CheckstyleResultCache.isLoadingClasses( configuration ) );
+
+        configuration = new DefaultConfiguration( "Checker" );
+        DefaultConfiguration treeWalker = new DefaultConfiguration( "TreeWalker" );
+        configuration.addChild( treeWalker );
+        treeWalker.addChild( new DefaultConfiguration( "RedundantThrowsCheck" ) );
+        assertTrue( CheckstyleResultCache.isLoadingClasses( configuration ) );
+    }
+
+    public void testClassPathSignature()
+        throws Exception
+    {
+        File classes = new File( baseDir, "classes" );
+        File exception = new File( classes, "foo/FooException.class" );
+        exception.getParentFile().mkdirs();
+        FileUtils.fileWrite( exception.getAbsolutePath(), "extends Exception" );
+        List<URL> classPath = Collections.singletonList( classes.toURI().toURL() );
+
+        DefaultConfiguration configuration = new DefaultConfiguration( "Checker" );
+        DefaultConfiguration treeWalker = new DefaultConfiguration( "TreeWalker" );
+        configuration.addChild( treeWalker );
+        treeWalker.addChild( new DefaultConfiguration( "RedundantThrows" ) );
+        String fingerprint = CheckstyleResultCache.getFingerprint( configuration, null, classPath );
+        String signature = CheckstyleResultCache.getClassPathSignature( classPath );
+
+        // the classes only change the signature, which only matters to the checks loading them
+        FileUtils.fileWrite( exception.getAbsolutePath(), "extends RuntimeException" );
+        assertEquals( fingerprint, CheckstyleResultCache.getFingerprint( configuration, null, classPath ) );
+        assertFalse( signature.equals( CheckstyleResultCache.getClassPathSignature( classPath ) ) );
+    }
+
+    public void testClassPathChanged()
+        throws Exception
+    {
+        File source = new File( baseDir, "Foo.java" );
+        FileUtils.fileWrite( source.getAbsolutePath(), "class Foo {}" );
+
+        List<AuditEvent> events = new ArrayList<AuditEvent>();
+        events.add( new AuditEvent( this, source.getAbsolutePath(),
+                                    new LocalizedMessage( 1, 1, null, "name", new Object[0], SeverityLevel.ERROR,
+                                                          null, ConstantNameCheck.class, "constant name" ) ) );
+        events.add( new AuditEvent( this, source.getAbsolutePath(),
+                                    new LocalizedMessage( 2, 1, null, "throws", new Object[0], SeverityLevel.ERROR,
+                                                          null, RedundantThrowsCheck.class, "redundant throws" ) ) );
+
+        List<File> files = Collections.singletonList( source );
+        ClassLoader classLoader = getClass().getClassLoader();
+        Set<String> modules = Collections.singleton( "RedundantThrows" );
+
+        CheckstyleResultCache cache = new CheckstyleResultCache( cacheFile, "fingerprint", "classes", modules );
+        cache.load();
+        cache.putEvents( source, events );
+        cache.save();
+
+        cache = new CheckstyleResultCache( cacheFile, "fingerprint", "classes", modules );
+        cache.load();
+        assertFalse( cache.isClassPathChanged() );
+        assertEquals( 2, cache.getEvents( files, this, classLoader ).get( source ).size() );
+
+        // the events of the other checks are still replayed
+        cache = new CheckstyleResultCache( cacheFile, "fingerprint", "recompiled classes", modules );
+        cache.load();
+        assertTrue( cache.isClassPathChanged() );
+        List<AuditEvent> replayed = cache.getEvents( files, this, classLoader ).get( source );
+        assertEquals( 1, replayed.size() );
+        assertEquals( ConstantNameCheck.class.getName(), replayed.get( 0 ).getSourceName() );
+    }
+
+    public void testClassLoadingConfiguration()
+        throws Exception
+    {
+        DefaultConfiguration configuration = new DefaultConfiguration( "Checker" );
+        configuration.addAttribute( "charset", "UTF-8" );
+        configuration.addChild( new DefaultConfiguration( "JavadocPackage" ) );
+        configuration.addChild( new DefaultConfiguration( "SuppressionCommentFilter" ) );
+        DefaultConfiguration treeWalker = new DefaultConfiguration( "TreeWalker" );
+        treeWalker.addAttribute( "cacheFile", new File( baseDir, "cache" ).getAbsolutePath() );
+        treeWalker.addAttribute( "tabWidth", "4" );
+        configuration.addChild( treeWalker );
+        treeWalker.addChild( new DefaultConfiguration( "FileContentsHolder" ) );
+        treeWalker.addChild( new DefaultConfiguration( "ConstantName" ) );
+        DefaultConfiguration redundantThrows = new DefaultConfiguration( "RedundantThrowsCheck" );
+        redundantThrows.addAttribute( "allowUnchecked", "true" );
+        treeWalker.addChild( redundantThrows );
+
+        Set<String> modules = CheckstyleResultCache.getClassLoadingModules( configuration );
+        assertEquals( Collections.singleton( "RedundantThrows" ), modules );
+
+        Configuration reduced = CheckstyleResultCache.getClassLoadingConfiguration( configuration, modules );
+        assertEquals( "UTF-8", reduced.getAttribute( "charset" ) );
+        assertEquals( 2, reduced.getChildren().length );
+        assertEquals( "SuppressionCommentFilter", reduced.getChildren()[0].getName() );
+        Configuration reducedTreeWalker = reduced.getChildren()[1];
+        assertEquals( Arrays.asList( new String[] { "tabWidth" } ),
+                      Arrays.asList( reducedTreeWalker.getAttributeNames() ) );
+        assertEquals( 2, reducedTreeWalker.getChildren().length );
+        assertEquals( "FileContentsHolder", reducedTreeWalker.getChildren()[0].getName() );
+        assertEquals( "true", reducedTreeWalker.getChildren()[1].getAttribute( "allowUnchecked" ) );
+    }
+}
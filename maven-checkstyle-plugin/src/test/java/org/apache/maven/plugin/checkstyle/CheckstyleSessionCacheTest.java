@@ -0,0 +1,128 @@
+package org.apache.maven.plugin.checkstyle;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Properties;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+
+/**
+ * @version $Id$
+ */
+public class CheckstyleSessionCacheTest
+    extends TestCase
+{
+    private static final String CONFIG = "<?xml version=\"1.0\"?>\n"
+        + "<!DOCTYPE module PUBLIC \"-//Puppy Crawl//DTD Check Configuration 1.3//EN\" "
+        + "\"http://www.puppycrawl.com/dtds/configuration_1_3.dtd\">\n"
+        + "<module name=\"Checker\">\n"
+        + "  <module name=\"TreeWalker\">\n"
+        + "    <property name=\"cacheFile\" value=\"${checkstyle.cache.file}\"/>\n"
+        + "    <module name=\"LineLength\">\n"
+        + "      <property name=\"max\" value=\"${max}\" default=\"80\"/>\n"
+        + "      <property name=\"ignorePattern\" value=\"$${literal}\"/>\n"
+        + "    </module>\n"
+        + "  </module>\n"
+        + "</module>\n";
+
+    private File baseDir;
+
+    /** {@inheritDoc} */
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        baseDir = new File( "target/test/unit/session-cache" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( baseDir );
+        baseDir.mkdirs();
+        CheckstyleSessionCache.clear();
+    }
+
+    /** {@inheritDoc} */
+    protected void tearDown()
+        throws Exception
+    {
+        CheckstyleSessionCache.clear();
+
+        super.tearDown();
+    }
+
+    public void testGetConfiguration()
+        throws Exception
+    {
+        File configFile = new File( baseDir, "checkstyle-checker.xml" );
+        FileUtils.fileWrite( configFile.getAbsolutePath(), "UTF-8", CONFIG );
+
+        Properties properties = new Properties();
+        properties.setProperty( "checkstyle.cache.file", "module1/checkstyle-cachefile" );
+        properties.setProperty( "max", "100" );
+        Configuration configuration = CheckstyleSessionCache.getConfiguration( configFile.getPath(), properties );
+        assertConfiguration( configuration, "module1/checkstyle-cachefile", "100" );
+
+        // another module, with the same content in another file
+        File otherConfigFile = new File( baseDir, "other-checkstyle-checker.xml" );
+        FileUtils.fileWrite( otherConfigFile.getAbsolutePath(), "UTF-8", CONFIG );
+        properties.setProperty( "checkstyle.cache.file", "module2/checkstyle-cachefile" );
+        configuration = CheckstyleSessionCache.getConfiguration( otherConfigFile.getPath(), properties );
+        assertConfiguration( configuration, "module2/checkstyle-cachefile", "100" );
+
+        // the default value of a missing property
+        properties.remove( "max" );
+        configuration = CheckstyleSessionCache.getConfiguration( configFile.getPath(), properties );
+        assertConfiguration( configuration, "module2/checkstyle-cachefile", "80" );
+    }
+
+    private void assertConfiguration( Configuration configuration, String cacheFile, String max )
+        throws Exception
+    {
+        Configuration treeWalker = configuration.getChildren()[0];
+        assertEquals( cacheFile, treeWalker.getAttribute( "cacheFile" ) );
+        Configuration lineLength = treeWalker.getChildren()[0];
+        assertEquals( "LineLength", lineLength.getName() );
+        assertEquals( max, lineLength.getAttribute( "max" ) );
+        assertEquals( "${literal}", lineLength.getAttribute( "ignorePattern" ) );
+    }
+
+    public void testGetClassLoader()
+        throws Exception
+    {
+        File jar = new File( baseDir, "lib.jar" );
+        FileUtils.fileWrite( jar.getAbsolutePath(), "" );
+        File classes1 = new File( baseDir, "module1/classes" );
+        File classes2 = new File( baseDir, "module2/classes" );
+
+        ClassLoader classLoader1 =
+            CheckstyleSessionCache.getClassLoader( Arrays.asList( new URL[] { classes1.toURI().toURL(),
+                jar.toURI().toURL() } ) );
+        ClassLoader classLoader2 =
+            CheckstyleSessionCache.getClassLoader( Arrays.asList( new URL[] { classes2.toURI().toURL(),
+                jar.toURI().toURL() } ) );
+        assertNotSame( classLoader1, classLoader2 );
+        assertSame( classLoader1.getParent(), classLoader2.getParent() );
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.maven.plugin.checkstyle;
  */
 
 import java.io.File;
+import java.util.Arrays;
 
 import org.apache.maven.model.Build;
 import org.apache.maven.plugin.Mojo;
@@ -27,6 +28,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 import org.apache.maven.plugin.testing.stubs.MavenProjectStub;
+import org.codehaus.plexus.util.FileUtils;
 
 /**
  * @author Edwin Punzalan
@@ -120,6 +122,53 @@ public class CheckstyleViolationCheckMojoTest
         mojo.execute();
     }
     
+    public void testSummary()
+        throws Exception
+    {
+        File pluginXmlFile = new File( getBasedir(), "src/test/plugin-configs/min-plugin-config.xml" );
+        Mojo mojo = lookupMojo( "checkstyle", pluginXmlFile );
+        mojo.execute();
+        File outputFile = (File) getVariableValueFromObject( mojo, "outputFile" );
+        File summaryFile = ViolationSummaryWriter.getSummaryFile( outputFile );
+        assertTrue( "Test summary file exists", summaryFile.exists() );
+        String summary = FileUtils.fileRead( summaryFile, "UTF-8" );
+
+        // without the summary, the result file is parsed
+        summaryFile.delete();
+        String message = getFailureMessage( outputFile );
+
+        // the check must not need the result file when its summary is up to date
+        FileUtils.fileWrite( summaryFile.getAbsolutePath(), "UTF-8", summary );
+        long lastModified = outputFile.lastModified();
+        char[] garbage = new char[(int) outputFile.length()];
+        Arrays.fill( garbage, 'x' );
+        FileUtils.fileWrite( outputFile.getAbsolutePath(), new String( garbage ) );
+        outputFile.setLastModified( lastModified );
+        assertEquals( message, getFailureMessage( outputFile ) );
+    }
+
+    private String getFailureMessage( File outputFile )
+        throws Exception
+    {
+        File pluginXmlFile = new File( getBasedir(), "src/test/plugin-configs/check-plugin-config.xml" );
+        Mojo mojo = lookupMojo( "check", pluginXmlFile );
+        mojoSetup( mojo );
+        setVariableValueToObject( mojo, "outputFile", outputFile );
+        setVariableValueToObject( mojo, "violationSeverity", "info" );
+        setVariableValueToObject( mojo, "logViolationsToConsole", Boolean.TRUE );
+        try
+        {
+            mojo.execute();
+
+            fail( "Must throw an exception on violations" );
+            return null;
+        }
+        catch ( MojoFailureException e )
+        {
+            return e.getMessage();
+        }
+    }
+
     protected void mojoSetup( Mojo mojo )
         throws Exception
     {
@@ -0,0 +1,192 @@
+package org.apache.maven.plugin.clean;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the tombstones of the directories renamed by a fast clean in a background thread, shared by all the clean
+ * executions of the JVM. The JVM waits for the pending deletions before exiting.
+ */
+class BackgroundCleaner
+{
+
+    private static final String TOMBSTONE_INFIX = ".maven-clean-";
+
+    private static ExecutorService executor;
+
+    private static boolean shutdownHookAdded;
+
+    /** The tombstones scheduled for deletion and not deleted yet. */
+    private static final Set<File> PENDING = new HashSet<File>();
+
+    private BackgroundCleaner()
+    {
+        // static methods only
+    }
+
+    /**
+     * Gets a new tombstone for the specified directory, in the same parent directory so the directory can be renamed
+     * atomically.
+     *
+     * @param directory The directory to delete, must not be <code>null</code>.
+     * @return The tombstone, never <code>null</code>.
+     */
+    public static File getTombstone( File directory )
+    {
+        String prefix = getTombstonePrefix( directory );
+        long time = System.currentTimeMillis();
+        File tombstone = new File( directory.getParentFile(), prefix + time );
+        while ( tombstone.exists() )
+        {
+            tombstone = new File( directory.getParentFile(), prefix + ( ++time ) );
+        }
+        return tombstone;
+    }
+
+    private static String getTombstonePrefix( File directory )
+    {
+        return "." + directory.getName() + TOMBSTONE_INFIX;
+    }
+
+    /**
+     * Schedules the deletion of the tombstones of the specified directory left over by earlier builds.
+     *
+     * @param directory The directory deleted by a fast clean, must not be <code>null</code>.
+     * @param cleaner The cleaner deleting the tombstones, must not be <code>null</code>.
+     * @param retryOnError Whether to undertake additional delete attempts in case the first attempt failed.
+     */
+    public static void deleteLeftovers( File directory, Cleaner cleaner, boolean retryOnError )
+    {
+        String prefix = getTombstonePrefix( directory );
+        File[] siblings = directory.getParentFile().listFiles();
+        if ( siblings != null )
+        {
+            for ( int i = 0; i < siblings.length; i++ )
+            {
+                if ( siblings[i].getName().startsWith( prefix ) && siblings[i].isDirectory() )
+                {
+                    delete( siblings[i], cleaner, retryOnError );
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules the deletion of the specified tombstone, unless it is already scheduled.
+     *
+     * @param tombstone The renamed directory to delete, must not be <code>null</code>.
+     * @param cleaner The cleaner deleting the tombstone, must not be <code>null</code>.
+     * @param retryOnError Whether to undertake additional delete attempts in case the first attempt failed.
+     */
+    public static synchronized void delete( final File tombstone, final Cleaner cleaner, final boolean retryOnError )
+    {
+        if ( !PENDING.add( tombstone ) )
+        {
+            return;
+        }
+
+        if ( executor == null )
+        {
+            executor = Executors.newSingleThreadExecutor( new ThreadFactory()
+            {
+                public Thread newThread( Runnable r )
+                {
+                    Thread thread = new Thread( r, "maven-clean-background" );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+        }
+
+        if ( !shutdownHookAdded )
+        {
+            Runtime.getRuntime().addShutdownHook( new Thread()
+            {
+                public void run()
+                {
+                    awaitCompletion();
+                }
+            } );
+            shutdownHookAdded = true;
+        }
+
+        executor.execute( new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    // failures are reported as warnings, the build already went on
+                    cleaner.delete( tombstone, null, false, false, retryOnError );
+                }
+                catch ( Exception e )
+                {
+                    cleaner.warn( "Failed to delete " + tombstone + ": " + e.getMessage() );
+                }
+                finally
+                {
+                    synchronized ( BackgroundCleaner.class )
+                    {
+                        PENDING.remove( tombstone );
+                    }
+                }
+
+                if ( tombstone.exists() )
+                {
+                    cleaner.warn( "Failed to delete " + tombstone + ", it will be deleted by the next fast clean" );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Waits for the pending deletions to complete.
+     */
+    public static void awaitCompletion()
+    {
+        ExecutorService pending;
+        synchronized ( BackgroundCleaner.class )
+        {
+            pending = executor;
+            executor = null;
+        }
+
+        if ( pending != null )
+        {
+            pending.shutdown();
+            try
+            {
+                pending.awaitTermination( Long.MAX_VALUE, TimeUnit.MILLISECONDS );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
@@ -155,6 +155,26 @@ public class CleanMojo
      */
     private boolean retryOnError;
 
+    /**
+     * The number of threads deleting the contents of each directory. Deleting a huge output directory in parallel can
+     * be much faster, especially on network or solid-state drives. A value less than 2 deletes the files sequentially.
+     * 
+     * @parameter expression="${clean.parallelThreads}" default-value="1"
+     * @since 2.5
+     */
+    private int parallelThreads = 1;
+
+    /**
+     * Deletes the default output directories of the project in the background. Each directory is renamed first, so the
+     * build can go on right away, and is then deleted by a background thread. Maven waits for the pending deletions
+     * before exiting, and the renamed directories left over by an interrupted build are deleted by the next fast clean.
+     * The file sets are always deleted right away.
+     * 
+     * @parameter expression="${clean.fast}" default-value="false"
+     * @since 2.5
+     */
+    private boolean fast;
+
     /**
      * Disables the deletion of the default output directories configured for a project. If set to <code>true</code>,
      * only the files/directories selected via the parameter {@link #filesets} will be deleted.
@@ -180,7 +200,7 @@ public class CleanMojo
             return;
         }
 
-        Cleaner cleaner = new Cleaner( getLog(), isVerbose() );
+        Cleaner cleaner = new Cleaner( getLog(), isVerbose(), parallelThreads );
 
         try
         {
@@ -188,7 +208,15 @@ public class CleanMojo
             for ( int i = 0; i < directories.length; i++ )
             {
                 File directory = directories[i];
-                if ( directory != null )
+                if ( directory == null )
+                {
+                    continue;
+                }
+                if ( fast )
+                {
+                    cleaner.fastDelete( directory, followSymLinks, failOnError, retryOnError );
+                }
+                else
                 {
                     cleaner.delete( directory, null, followSymLinks, failOnError, retryOnError );
                 }
@@ -21,6 +21,14 @@ package org.apache.maven.plugin.clean;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.plugin.logging.Log;
 import org.codehaus.plexus.util.Os;
@@ -35,6 +43,31 @@ class Cleaner
 
     private static final boolean ON_WINDOWS = Os.isFamily( Os.FAMILY_WINDOWS );
 
+    /** <code>File.toPath()</code>, or <code>null</code> before Java 7. */
+    private static final Method TO_PATH;
+
+    /** <code>Files.isSymbolicLink( Path )</code>, or <code>null</code> before Java 7. */
+    private static final Method IS_SYMBOLIC_LINK;
+
+    static
+    {
+        Method toPath = null;
+        Method isSymbolicLink = null;
+        try
+        {
+            toPath = File.class.getMethod( "toPath" );
+            isSymbolicLink =
+                Class.forName( "java.nio.file.Files" ).getMethod( "isSymbolicLink", toPath.getReturnType() );
+        }
+        catch ( Exception e )
+        {
+            toPath = null;
+            isSymbolicLink = null;
+        }
+        TO_PATH = toPath;
+        IS_SYMBOLIC_LINK = isSymbolicLink;
+    }
+
     private final Logger logDebug;
 
     private final Logger logInfo;
@@ -43,6 +76,8 @@ class Cleaner
 
     private final Logger logWarn;
 
+    private final int threads;
+
     /**
      * Creates a new cleaner.
      * 
@@ -51,6 +86,21 @@ class Cleaner
      */
     public Cleaner( final Log log, boolean verbose )
     {
+        this( log, verbose, 1 );
+    }
+
+    /**
+     * Creates a new cleaner.
+     * 
+     * @param log The logger to use, may be <code>null</code> to disable logging.
+     * @param verbose Whether to perform verbose logging.
+     * @param threads The number of threads deleting the contents of a directory, directories are deleted sequentially
+     *            if less than 2.
+     */
+    public Cleaner( final Log log, boolean verbose, int threads )
+    {
+        this.threads = threads;
+
         logDebug = ( log == null || !log.isDebugEnabled() ) ? null : new Logger()
         {
             public void log( CharSequence message )
@@ -114,7 +164,76 @@ class Cleaner
 
         File file = followSymlinks ? basedir : basedir.getCanonicalFile();
 
-        delete( file, "", selector, followSymlinks, failOnError, retryOnError );
+        if ( threads > 1 )
+        {
+            new ParallelDeletion( selector, followSymlinks, failOnError, retryOnError ).delete( file );
+        }
+        else
+        {
+            delete( file, "", selector, followSymlinks, failOnError, retryOnError );
+        }
+    }
+
+    /**
+     * Deletes the specified directory and its contents in the background. The directory is renamed to a tombstone
+     * first, which is deleted by a background thread, so the directory is gone when this method returns. The
+     * tombstones left over by earlier builds are deleted as well. If the directory can't be renamed, it is deleted
+     * like {@link #delete(File, Selector, boolean, boolean, boolean)} does.
+     * 
+     * @param basedir The directory to delete, must not be <code>null</code>. Non-existing directories will be silently
+     *            ignored.
+     * @param followSymlinks Whether to follow symlinks.
+     * @param failOnError Whether to abort with an exception in case the directory could not be deleted.
+     * @param retryOnError Whether to undertake additional delete attempts in case the first attempt failed.
+     * @throws IOException If the directory could not be deleted and <code>failOnError</code> is <code>true</code>.
+     */
+    public void fastDelete( File basedir, boolean followSymlinks, boolean failOnError, boolean retryOnError )
+        throws IOException
+    {
+        File file = followSymlinks ? basedir.getAbsoluteFile() : basedir.getCanonicalFile();
+        if ( file.getParentFile() == null )
+        {
+            delete( basedir, null, followSymlinks, failOnError, retryOnError );
+            return;
+        }
+
+        BackgroundCleaner.deleteLeftovers( file, this, retryOnError );
+
+        if ( !file.isDirectory() || isSymlink( file ) )
+        {
+            delete( basedir, null, followSymlinks, failOnError, retryOnError );
+            return;
+        }
+
+        File tombstone = BackgroundCleaner.getTombstone( file );
+        if ( !file.renameTo( tombstone ) )
+        {
+            if ( logDebug != null )
+            {
+                logDebug.log( "Failed to rename " + file + " to " + tombstone );
+            }
+            delete( basedir, null, followSymlinks, failOnError, retryOnError );
+            return;
+        }
+
+        if ( logInfo != null )
+        {
+            logInfo.log( "Deleting " + basedir + " in the background (renamed to " + tombstone.getName() + ")" );
+        }
+        BackgroundCleaner.delete( tombstone, this, retryOnError );
+    }
+
+    /**
+     * Logs a warning.
+     * 
+     * @param message The message to log, must not be <code>null</code>.
+     */
+    void warn( String message )
+    {
+        if ( logWarn != null )
+        {
+            logWarn.log( message );
+        }
     }
 
     /**
@@ -144,17 +263,16 @@ class Cleaner
         {
             if ( selector == null || selector.couldHoldSelected( pathname ) )
             {
-                File canonical = followSymlinks ? file : file.getCanonicalFile();
-                if ( followSymlinks || file.equals( canonical ) )
+                if ( followSymlinks || !isSymlink( file ) )
                 {
-                    String[] filenames = canonical.list();
+                    String[] filenames = file.list();
                     if ( filenames != null )
                     {
                         String prefix = ( pathname.length() > 0 ) ? pathname + File.separatorChar : "";
                         for ( int i = filenames.length - 1; i >= 0; i-- )
                         {
                             String filename = filenames[i];
-                            File child = new File( canonical, filename );
+                            File child = new File( file, filename );
                             result.update( delete( child, prefix + filename, selector, followSymlinks, failOnError,
                                                    retryOnError ) );
                         }
@@ -173,21 +291,7 @@ class Cleaner
 
         if ( !result.excluded && ( selector == null || selector.isSelected( pathname ) ) )
         {
-            if ( logVerbose != null )
-            {
-                if ( isDirectory )
-                {
-                    logVerbose.log( "Deleting directory " + file );
-                }
-                else if ( file.exists() )
-                {
-                    logVerbose.log( "Deleting file " + file );
-                }
-                else
-                {
-                    logVerbose.log( "Deleting dangling symlink " + file );
-                }
-            }
+            logDeletion( file, isDirectory );
             result.failures += delete( file, failOnError, retryOnError );
         }
         else
@@ -198,6 +302,54 @@ class Cleaner
         return result;
     }
 
+    private void logDeletion( File file, boolean isDirectory )
+    {
+        if ( logVerbose != null )
+        {
+            if ( isDirectory )
+            {
+                logVerbose.log( "Deleting directory " + file );
+            }
+            else if ( file.exists() )
+            {
+                logVerbose.log( "Deleting file " + file );
+            }
+            else
+            {
+                logVerbose.log( "Deleting dangling symlink " + file );
+            }
+        }
+    }
+
+    /**
+     * Indicates whether the specified directory is a symlink. The file attributes are read with NIO when available,
+     * which is much cheaper than canonicalizing the path.
+     * 
+     * @param file The directory to check, must not be <code>null</code>. Its parent file is assumed to be canonical.
+     * @return <code>true</code> if the directory is a symlink, <code>false</code> otherwise.
+     * @throws IOException If the path could not be canonicalized.
+     */
+    private static boolean isSymlink( File file )
+        throws IOException
+    {
+        if ( IS_SYMBOLIC_LINK != null )
+        {
+            try
+            {
+                return ( (Boolean) IS_SYMBOLIC_LINK.invoke( null, TO_PATH.invoke( file ) ) ).booleanValue();
+            }
+            catch ( IllegalAccessException e )
+            {
+                // fall back to the canonical path
+            }
+            catch ( InvocationTargetException e )
+            {
+                // fall back to the canonical path
+            }
+        }
+        return !file.equals( file.getCanonicalFile() );
+    }
+
     /**
      * Deletes the specified file, directory. If the path denotes a symlink, only the link is removed, its target is
      * left untouched.
@@ -262,6 +414,224 @@ class Cleaner
         return 0;
     }
 
+    /**
+     * Deletes a directory with several threads: each directory is listed by a task of its own, and is deleted by the
+     * thread completing the last of its children, so no thread ever waits for another one.
+     */
+    private class ParallelDeletion
+    {
+
+        private final Selector selector;
+
+        private final boolean followSymlinks;
+
+        private final boolean failOnError;
+
+        private final boolean retryOnError;
+
+        private final ExecutorService executor;
+
+        private final CountDownLatch done;
+
+        private volatile Exception failure;
+
+        public ParallelDeletion( Selector selector, boolean followSymlinks, boolean failOnError,
+                                 boolean retryOnError )
+        {
+            this.selector = selector;
+            this.followSymlinks = followSymlinks;
+            this.failOnError = failOnError;
+            this.retryOnError = retryOnError;
+            this.executor = Executors.newFixedThreadPool( threads );
+            this.done = new CountDownLatch( 1 );
+        }
+
+        /**
+         * Deletes the specified directory and waits for the deletion to complete.
+         * 
+         * @param basedir The directory to delete, must not be <code>null</code>. If <code>followSymlinks</code> is
+         *            <code>false</code>, it is assumed to be canonical.
+         * @throws IOException If a file/directory could not be deleted and <code>failOnError</code> is
+         *             <code>true</code>.
+         */
+        public void delete( File basedir )
+            throws IOException
+        {
+            try
+            {
+                submit( new Node( basedir, "", null, true ) );
+                done.await();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException( "Interrupted while deleting " + basedir );
+            }
+            finally
+            {
+                executor.shutdownNow();
+            }
+
+            if ( failure instanceof IOException )
+            {
+                throw (IOException) failure;
+            }
+            if ( failure instanceof RuntimeException )
+            {
+                throw (RuntimeException) failure;
+            }
+        }
+
+        private void submit( final Node node )
+        {
+            try
+            {
+                executor.execute( new Runnable()
+                {
+                    public void run()
+                    {
+                        try
+                        {
+                            visit( node );
+                        }
+                        catch ( Exception e )
+                        {
+                            fail( e );
+                        }
+                    }
+                } );
+            }
+            catch ( RejectedExecutionException e )
+            {
+                // the deletion already failed
+            }
+        }
+
+        private void fail( Exception e )
+        {
+            if ( failure == null )
+            {
+                failure = e;
+            }
+            done.countDown();
+        }
+
+        /**
+         * Lists the specified directory, deletes its files and submits its subdirectories.
+         */
+        private void visit( Node node )
+            throws IOException
+        {
+            if ( failure != null )
+            {
+                return;
+            }
+
+            if ( selector == null || selector.couldHoldSelected( node.pathname ) )
+            {
+                if ( followSymlinks || !isSymlink( node.file ) )
+                {
+                    String[] filenames = node.file.list();
+                    if ( filenames != null )
+                    {
+                        String prefix = ( node.pathname.length() > 0 ) ? node.pathname + File.separatorChar : "";
+                        for ( int i = filenames.length - 1; i >= 0; i-- )
+                        {
+                            String filename = filenames[i];
+                            File file = new File( node.file, filename );
+                            Node child = new Node( file, prefix + filename, node, file.isDirectory() );
+                            node.pending.incrementAndGet();
+                            if ( child.isDirectory )
+                            {
+                                submit( child );
+                            }
+                            else
+                            {
+                                finish( child );
+                            }
+                        }
+                    }
+                }
+                else if ( logDebug != null )
+                {
+                    logDebug.log( "Not recursing into symlink " + node.file );
+                }
+            }
+            else if ( logDebug != null )
+            {
+                logDebug.log( "Not recursing into directory without included files " + node.file );
+            }
+
+            finish( node );
+        }
+
+        /**
+         * Deletes the specified file or directory once all its children are done, and then notifies its parent.
+         */
+        private void finish( Node node )
+            throws IOException
+        {
+            if ( node.pending.decrementAndGet() > 0 )
+            {
+                return;
+            }
+
+            if ( !node.excluded && ( selector == null || selector.isSelected( node.pathname ) ) )
+            {
+                logDeletion( node.file, node.isDirectory );
+                Cleaner.this.delete( node.file, failOnError, retryOnError );
+            }
+            else
+            {
+                node.excluded = true;
+            }
+
+            if ( node.parent != null )
+            {
+                if ( node.excluded )
+                {
+                    node.parent.excluded = true;
+                }
+                finish( node.parent );
+            }
+            else
+            {
+                done.countDown();
+            }
+        }
+
+    }
+
+    /**
+     * A file or directory being deleted by a {@link ParallelDeletion}.
+     */
+    private static class Node
+    {
+
+        public final File file;
+
+        public final String pathname;
+
+        public final Node parent;
+
+        public final boolean isDirectory;
+
+        /** The number of children not done yet, plus one while the directory is being listed. */
+        public final AtomicInteger pending;
+
+        public volatile boolean excluded;
+
+        public Node( File file, String pathname, Node parent, boolean isDirectory )
+        {
+            this.file = file;
+            this.pathname = pathname;
+            this.parent = parent;
+            this.isDirectory = isDirectory;
+            this.pending = new AtomicInteger( 1 );
+        }
+
+    }
+
     private static class Result
     {
 
@@ -20,6 +20,7 @@ package org.apache.maven.plugin.clean;
  */
 
 import java.io.File;
+import java.io.FilenameFilter;
 import java.io.RandomAccessFile;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
@@ -78,6 +79,47 @@ public class CleanMojoTest
             + "buildTestDirectory" ) );
     }
 
+    /**
+     * Tests the removal of directories in the background
+     *
+     * @throws Exception
+     */
+    public void testFastClean()
+        throws Exception
+    {
+        String pluginPom = getBasedir() + "/src/test/resources/unit/basic-clean-test/plugin-pom.xml";
+
+        // safety
+        FileUtils.copyDirectory( new File( getBasedir(), "src/test/resources/unit/basic-clean-test" ),
+                                 new File( getBasedir(), "target/test-classes/unit/basic-clean-test" ), null, "**/.svn,**/.svn/**" );
+        File basedir = new File( getBasedir(), "target/test-classes/unit/basic-clean-test" );
+        new File( basedir, "buildDirectory/classes" ).mkdirs();
+        new File( basedir, ".buildDirectory.maven-clean-1/classes" ).mkdirs();
+
+        CleanMojo mojo = (CleanMojo) lookupMojo( "clean", pluginPom );
+        assertNotNull( mojo );
+        setVariableValueToObject( mojo, "fast", Boolean.TRUE );
+
+        mojo.execute();
+
+        assertFalse( "Directory exists", checkExists( getBasedir() + "/target/test-classes/unit/"
+            + "basic-clean-test/buildDirectory" ) );
+        assertFalse( "Directory exists", checkExists( getBasedir() + "/target/test-classes/unit/basic-clean-test/"
+            + "buildOutputDirectory" ) );
+        assertFalse( "Directory exists", checkExists( getBasedir() + "/target/test-classes/unit/basic-clean-test/"
+            + "buildTestDirectory" ) );
+
+        BackgroundCleaner.awaitCompletion();
+
+        assertEquals( 0, basedir.list( new FilenameFilter()
+        {
+            public boolean accept( File dir, String name )
+            {
+                return name.startsWith( ".buildDirectory" );
+            }
+        } ).length );
+    }
+
     /**
      * Tests the removal of files and nested directories
      *
@@ -102,6 +144,36 @@ public class CleanMojoTest
         assertFalse( checkExists( getBasedir() + "/target/test-classes/unit/nested-clean-test/target/test-classes" ) );
     }
 
+    /**
+     * Tests the removal of files and nested directories with several threads
+     *
+     * @throws Exception
+     */
+    public void testCleanNestedStructureInParallel()
+        throws Exception
+    {
+        String pluginPom = getBasedir() + "/src/test/resources/unit/nested-clean-test/plugin-pom.xml";
+
+        // safety
+        FileUtils.copyDirectory( new File( getBasedir(), "src/test/resources/unit/nested-clean-test" ),
+                                 new File( getBasedir(), "target/test-classes/unit/nested-clean-test" ), null, "**/.svn,**/.svn/**" );
+        File generated = new File( getBasedir(), "target/test-classes/unit/nested-clean-test/target/generated" );
+        for ( int i = 0; i < 20; i++ )
+        {
+            File dir = new File( generated, "dir" + i + "/sub" );
+            dir.mkdirs();
+            FileUtils.fileWrite( new File( dir, "file.txt" ).getAbsolutePath(), "content" );
+        }
+
+        CleanMojo mojo = (CleanMojo) lookupMojo( "clean", pluginPom );
+        assertNotNull( mojo );
+        setVariableValueToObject( mojo, "parallelThreads", new Integer( 4 ) );
+
+        mojo.execute();
+
+        assertFalse( checkExists( getBasedir() + "/target/test-classes/unit/nested-clean-test/target" ) );
+    }
+
     /**
      * Tests that no exception is thrown when all internal variables are empty and that it doesn't
      * just remove whats there
@@ -150,6 +222,34 @@ public class CleanMojoTest
 
         mojo.execute();
 
+        assertFilesetsCleaned();
+    }
+
+    /**
+     * Tests the removal of files using fileset with several threads
+     *
+     * @throws Exception
+     */
+    public void testFilesetsCleanInParallel()
+        throws Exception
+    {
+        String pluginPom = getBasedir() + "/src/test/resources/unit/fileset-clean-test/plugin-pom.xml";
+
+        // safety
+        FileUtils.copyDirectory( new File( getBasedir(), "src/test/resources/unit/fileset-clean-test" ),
+                                 new File( getBasedir(), "target/test-classes/unit/fileset-clean-test" ), null, "**/.svn,**/.svn/**" );
+
+        CleanMojo mojo = (CleanMojo) lookupMojo( "clean", pluginPom );
+        assertNotNull( mojo );
+        setVariableValueToObject( mojo, "parallelThreads", new Integer( 4 ) );
+
+        mojo.execute();
+
+        assertFilesetsCleaned();
+    }
+
+    private void assertFilesetsCleaned()
+    {
         // fileset 1
         assertTrue( checkExists( getBasedir() + "/target/test-classes/unit/fileset-clean-test/target" ) );
         assertTrue( checkExists( getBasedir() + "/target/test-classes/unit/fileset-clean-test/target/classes" ) );
@@ -38,8 +38,10 @@ import org.codehaus.plexus.util.ReaderFactory;
 import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -185,6 +187,40 @@ public abstract class AbstractCompilerMojo
      */
     private String executable;
 
+    /**
+     * Set to <code>true</code> to keep an index of the source directories under
+     * <code>${project.build.directory}/maven-status</code>, so that only the directories in which files were added
+     * or removed are listed again to find the stale sources. This speeds up builds of modules with many sources
+     * where little or nothing changed.
+     *
+     * @parameter expression="${maven.compiler.useSourceIndex}" default-value="false"
+     * @since 2.5
+     */
+    private boolean useSourceIndex;
+
+    /**
+     * Set to <code>true</code> to write the timings of the phases of this execution (compiler lookup, configuration,
+     * stale source scan and compilation) and the number of sources scanned, stale sources, classes emitted, warnings
+     * and errors to a JSON report under <code>${project.build.directory}/maven-status</code>. The reports of all the
+     * modules of a reactor can then be aggregated to find where the compilation time is spent.
+     *
+     * @parameter expression="${maven.compiler.metrics}" default-value="false"
+     * @since 2.5
+     */
+    private boolean compilerMetrics;
+
+    /**
+     * Set to <code>true</code> to run forked compilations in long-lived compiler processes, which are shared by
+     * all the executions of the Maven session instead of starting a new <code>javac</code> process for each of them.
+     * Only applies to the <code>javac</code> compiler if {@link #fork} is set to <code>true</code>. The compiler
+     * processes are not stopped at the end of the build but when the JVM running Maven exits, so IDEs and other
+     * embedders which keep their JVM running also keep the idle compiler processes.
+     *
+     * @parameter expression="${maven.compiler.reuseForkedCompiler}" default-value="false"
+     * @since 2.5
+     */
+    private boolean reuseForkedCompiler;
+
     /**
      * <p>
      * Sets whether annotation processing is performed or not. Only applies to JDK 1.6+
@@ -334,6 +370,23 @@ public abstract class AbstractCompilerMojo
      */
     private boolean skipMultiThreadWarning;
 
+    /**
+     * <p>
+     * Set to <code>true</code> to only recompile the sources affected by a change instead of relying on the
+     * timestamps of the sources alone. The classes produced by each source, their dependencies and a hash of their
+     * signature are recorded under <code>${project.build.directory}/maven-status</code>: when the signature of a class
+     * changes its dependents are recompiled, and the class files of deleted sources are removed.
+     * </p>
+     * <p>
+     * Only applies to compilers producing one class file per source file. A change of the classpath or of the
+     * compiler options results in a full compilation.
+     * </p>
+     *
+     * @parameter expression="${maven.compiler.incrementalBuild}" default-value="false"
+     * @since 2.5
+     */
+    private boolean incrementalBuild;
+
     protected abstract SourceInclusionScanner getSourceInclusionScanner( int staleMillis );
 
     protected abstract SourceInclusionScanner getSourceInclusionScanner( String inputFileEnding );
@@ -354,9 +407,47 @@ public abstract class AbstractCompilerMojo
 
     protected abstract File getGeneratedSourcesDirectory();
 
+    protected abstract Set<String> getIncludes();
+
+    protected abstract Set<String> getExcludes();
+
     public void execute()
         throws MojoExecutionException, CompilationFailureException
     {
+        CompilerMetrics metrics = new CompilerMetrics();
+        try
+        {
+            execute( metrics );
+        }
+        finally
+        {
+            metrics.endPhase();
+            if ( getLog().isDebugEnabled() )
+            {
+                getLog().debug( "Compiler phase timings (ms): " + metrics.getPhases() );
+            }
+            if ( compilerMetrics )
+            {
+                File report = getStatusFile( "-metrics.json" );
+                try
+                {
+                    metrics.write( report );
+                }
+                catch ( IOException e )
+                {
+                    getLog().warn( "Unable to write compiler metrics to " + report + ": " + e.getMessage() );
+                }
+            }
+        }
+    }
+
+    private void execute( CompilerMetrics metrics )
+        throws MojoExecutionException, CompilationFailureException
+    {
+        metrics.setProperty( "basedir", basedir != null ? basedir.getAbsolutePath() : null );
+        metrics.setProperty( "outputDirectory", String.valueOf( getOutputDirectory() ) );
+        metrics.setProperty( "compilerId", compilerId );
+
         // ----------------------------------------------------------------------
         // Look up the compiler. This is done before other code than can
         // cause the mojo to return before the lookup is done possibly resulting
@@ -367,6 +458,8 @@ public abstract class AbstractCompilerMojo
 
         getLog().debug( "Using compiler '" + compilerId + "'." );
 
+        metrics.startPhase( "compilerLookup" );
+
         try
         {
             compiler = compilerManager.getCompiler( compilerId );
@@ -393,10 +486,14 @@ public abstract class AbstractCompilerMojo
                 executable = tc.findTool( compilerId );
             }
         }
+
+        metrics.setProperty( "fork", String.valueOf( fork ) );
         // ----------------------------------------------------------------------
         //
         // ----------------------------------------------------------------------
 
+        metrics.startPhase( "configuration" );
+
         List<String> compileSourceRoots = removeEmptyCompileSourceRoots( getCompileSourceRoots() );
 
         if ( compileSourceRoots.isEmpty() )
@@ -574,39 +671,92 @@ public abstract class AbstractCompilerMojo
 
         boolean canUpdateTarget;
 
+        IncrementalBuildHelper incrementalBuildHelper = null;
+
+        metrics.startPhase( "staleSourceScan" );
+
         try
         {
-            staleSources =
-                computeStaleSources( compilerConfiguration, compiler, getSourceInclusionScanner( staleMillis ) );
+            SourceFileIndex sourceFileIndex = null;
+            if ( useSourceIndex )
+            {
+                sourceFileIndex = new SourceFileIndex( getStatusFile( ".index" ), getIncludes(), getExcludes(),
+                                                       getLog() );
+                sourceFileIndex.load();
+            }
+
+            staleSources = computeStaleSources( compilerConfiguration, compiler, sourceFileIndex != null
+                ? sourceFileIndex.getStaleSourceScanner( staleMillis )
+                : getSourceInclusionScanner( staleMillis ), metrics );
 
             canUpdateTarget = compiler.canUpdateTarget( compilerConfiguration );
 
             if ( compiler.getCompilerOutputStyle().equals( CompilerOutputStyle.ONE_OUTPUT_FILE_FOR_ALL_INPUT_FILES )
                 && !canUpdateTarget )
             {
-                getLog().info( "RESCANNING!" );
-                // TODO: This second scan for source files is sub-optimal
-                String inputFileEnding = compiler.getInputFileEnding( compilerConfiguration );
+                if ( sourceFileIndex == null )
+                {
+                    getLog().info( "RESCANNING!" );
+                }
 
                 Set<File> sources = computeStaleSources( compilerConfiguration, compiler,
-                                                         getSourceInclusionScanner( inputFileEnding ) );
+                                                         getSourceScanner( compilerConfiguration, compiler,
+                                                                           sourceFileIndex ), metrics );
 
                 compilerConfiguration.setSourceFiles( sources );
             }
             else
             {
+                if ( incrementalBuild )
+                {
+                    incrementalBuildHelper = getIncrementalBuildHelper( compilerConfiguration, compiler );
+                }
+
+                if ( incrementalBuildHelper != null )
+                {
+                    Set<File> sources = computeStaleSources( compilerConfiguration, compiler,
+                                                             getSourceScanner( compilerConfiguration, compiler,
+                                                                               sourceFileIndex ), metrics );
+
+                    staleSources = incrementalBuildHelper.getSourcesToCompile( sources, staleSources );
+                }
+
                 compilerConfiguration.setSourceFiles( staleSources );
             }
+
+            if ( sourceFileIndex != null )
+            {
+                sourceFileIndex.save();
+            }
         }
         catch ( CompilerException e )
         {
             throw new MojoExecutionException( "Error while computing stale sources.", e );
         }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Error while reading the incremental build state.", e );
+        }
+
+        metrics.setCount( "sourcesStale", staleSources.size() );
 
         if ( staleSources.isEmpty() )
         {
             getLog().info( "Nothing to compile - all classes are up to date" );
 
+            if ( incrementalBuildHelper != null )
+            {
+                // records the removal of orphaned classes, if any
+                try
+                {
+                    incrementalBuildHelper.save();
+                }
+                catch ( IOException e )
+                {
+                    throw new MojoExecutionException( "Error while writing the incremental build state.", e );
+                }
+            }
+
             return;
         }
 
@@ -673,9 +823,12 @@ public abstract class AbstractCompilerMojo
 
         List<CompilerError> messages;
 
+        metrics.startPhase( "compilation" );
+        long compilationStart = System.currentTimeMillis();
+
         try
         {
-            messages = compiler.compile( compilerConfiguration );
+            messages = compile( compiler, compilerConfiguration, incrementalBuildHelper );
         }
         catch ( Exception e )
         {
@@ -683,6 +836,8 @@ public abstract class AbstractCompilerMojo
             throw new MojoExecutionException( "Fatal error compiling", e );
         }
 
+        metrics.endPhase();
+
         List<CompilerError> warnings = new ArrayList<CompilerError>();
         List<CompilerError> errors = new ArrayList<CompilerError>();
         if ( messages != null )
@@ -700,6 +855,22 @@ public abstract class AbstractCompilerMojo
             }
         }
 
+        metrics.setCount( "warnings", warnings.size() );
+        metrics.setCount( "errors", errors.size() );
+        if ( compilerMetrics )
+        {
+            try
+            {
+                String outputFileEnding = compiler.getOutputFileEnding( compilerConfiguration );
+                metrics.setCount( "classesEmitted", countOutputFiles( getOutputDirectory(), outputFileEnding,
+                                                                      compilationStart - compilationStart % 1000 ) );
+            }
+            catch ( CompilerException e )
+            {
+                getLog().debug( "Unable to count the compiled classes: " + e.getMessage() );
+            }
+        }
+
         if ( failOnError && !errors.isEmpty() )
         {
             if ( !warnings.isEmpty() )
@@ -737,6 +908,191 @@ public abstract class AbstractCompilerMojo
         }
     }
 
+    /**
+     * Runs the compiler. With an incremental build, further rounds are compiled as long as ABI changes are detected
+     * in the produced classes, and the build state is saved once all rounds succeeded.
+     */
+    private List<CompilerError> compile( Compiler compiler, CompilerConfiguration compilerConfiguration,
+                                         IncrementalBuildHelper incrementalBuildHelper )
+        throws CompilerException, IOException
+    {
+        if ( incrementalBuildHelper == null )
+        {
+            return runCompiler( compiler, compilerConfiguration );
+        }
+
+        List<CompilerError> messages = new ArrayList<CompilerError>();
+
+        Set<File> sources = compilerConfiguration.getSourceFiles();
+        while ( !sources.isEmpty() )
+        {
+            long roundStart = incrementalBuildHelper.beforeCompile( sources );
+
+            List<CompilerError> roundMessages = runCompiler( compiler, compilerConfiguration );
+            if ( roundMessages != null )
+            {
+                messages.addAll( roundMessages );
+                for ( CompilerError message : roundMessages )
+                {
+                    if ( message.isError() )
+                    {
+                        return messages;
+                    }
+                }
+            }
+
+            sources = incrementalBuildHelper.afterCompile( roundStart );
+            if ( !sources.isEmpty() )
+            {
+                getLog().info( "Compiling " + sources.size() + " source file" + ( sources.size() > 1 ? "s" : "" )
+                                   + " depending on changed classes" );
+                compilerConfiguration.setSourceFiles( sources );
+            }
+        }
+
+        incrementalBuildHelper.save();
+
+        return messages;
+    }
+
+    private List<CompilerError> runCompiler( Compiler compiler, CompilerConfiguration compilerConfiguration )
+        throws CompilerException
+    {
+        if ( !( reuseForkedCompiler && compilerConfiguration.isFork() ) )
+        {
+            return compiler.compile( compilerConfiguration );
+        }
+        if ( !"javac".equals( compilerId ) )
+        {
+            getLog().warn( "Reusing forked compilers is only supported by the javac compiler, ignoring it." );
+            return compiler.compile( compilerConfiguration );
+        }
+
+        List<String> jvmArguments = new ArrayList<String>();
+        if ( compilerConfiguration.getMeminitial() != null )
+        {
+            jvmArguments.add( "-Xms" + compilerConfiguration.getMeminitial() );
+        }
+        if ( compilerConfiguration.getMaxmem() != null )
+        {
+            jvmArguments.add( "-Xmx" + compilerConfiguration.getMaxmem() );
+        }
+
+        getLog().info( "Compiling " + compilerConfiguration.getSourceFiles().size() + " source file"
+                           + ( compilerConfiguration.getSourceFiles().size() > 1 ? "s" : "" ) + " to "
+                           + compilerConfiguration.getOutputLocation() + " with a reused forked compiler" );
+
+        // javac does not create the output directories by itself
+        new File( compilerConfiguration.getOutputLocation() ).mkdirs();
+        if ( compilerConfiguration.getGeneratedSourcesDirectory() != null )
+        {
+            compilerConfiguration.getGeneratedSourcesDirectory().mkdirs();
+        }
+
+        return ForkedCompilerWorkerPool.compile( compilerConfiguration.getExecutable(),
+                                                 compilerConfiguration.getWorkingDirectory(), jvmArguments,
+                                                 compiler.createCommandLine( compilerConfiguration ), getLog() );
+    }
+
+    /**
+     * @return the number of files with the given ending in the directory which were modified after the given time.
+     */
+    private static int countOutputFiles( File directory, String ending, long since )
+    {
+        int count = 0;
+        File[] files = directory.listFiles();
+        if ( files != null )
+        {
+            for ( int i = 0; i < files.length; i++ )
+            {
+                if ( files[i].isDirectory() )
+                {
+                    count += countOutputFiles( files[i], ending, since );
+                }
+                else if ( files[i].getName().endsWith( ending ) && files[i].lastModified() >= since )
+                {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the scanner returning all the sources to compile, regardless of their timestamps.
+     */
+    private SourceInclusionScanner getSourceScanner( CompilerConfiguration compilerConfiguration, Compiler compiler,
+                                                     SourceFileIndex sourceFileIndex )
+        throws CompilerException
+    {
+        if ( sourceFileIndex != null )
+        {
+            // shares the walk of the stale source scan
+            return sourceFileIndex.getSourceScanner();
+        }
+
+        String inputFileEnding = compiler.getInputFileEnding( compilerConfiguration );
+        if ( inputFileEnding.startsWith( "." ) )
+        {
+            inputFileEnding = inputFileEnding.substring( 1 );
+        }
+        return getSourceInclusionScanner( inputFileEnding );
+    }
+
+    /**
+     * @param extension the extension of the status file.
+     * @return a file in the build directory to keep the status of this execution between builds.
+     */
+    private File getStatusFile( String extension )
+    {
+        return new File( buildDirectory,
+                         "maven-status/maven-compiler-plugin/" + getOutputDirectory().getName() + extension );
+    }
+
+    /**
+     * @return the incremental build helper with the state of the previous build loaded, or <code>null</code> if the
+     *         compiler does not produce one class file per source file.
+     */
+    private IncrementalBuildHelper getIncrementalBuildHelper( CompilerConfiguration compilerConfiguration,
+                                                              Compiler compiler )
+        throws CompilerException, IOException
+    {
+        if ( compiler.getCompilerOutputStyle() != CompilerOutputStyle.ONE_OUTPUT_FILE_PER_INPUT_FILE
+            || !compiler.getOutputFileEnding( compilerConfiguration ).endsWith( "class" ) )
+        {
+            getLog().warn( "Incremental build is not supported by compiler '" + compilerId + "', ignoring it." );
+            return null;
+        }
+
+        File stateFile = getStatusFile( ".incremental" );
+
+        IncrementalBuildHelper helper =
+            new IncrementalBuildHelper( stateFile, getOutputDirectory(), compilerConfiguration.getSourceLocations(),
+                                        getLog() );
+
+        List<String> fingerprint = new ArrayList<String>();
+        fingerprint.add( compilerId );
+        fingerprint.addAll( compilerConfiguration.getSourceLocations() );
+        fingerprint.addAll( compilerConfiguration.getClasspathEntries() );
+        fingerprint.add( getSource() );
+        fingerprint.add( getTarget() );
+        fingerprint.add( encoding );
+        fingerprint.add( debug + ":" + debuglevel );
+        fingerprint.add( proc );
+        if ( annotationProcessors != null )
+        {
+            fingerprint.addAll( Arrays.asList( annotationProcessors ) );
+        }
+        if ( compilerConfiguration.getCustomCompilerArguments() != null )
+        {
+            fingerprint.add( compilerConfiguration.getCustomCompilerArguments().toString() );
+        }
+
+        helper.load( helper.fingerprint( fingerprint ) );
+
+        return helper;
+    }
+
     /**
      * try to get thread count if a Maven 3 build, using reflection as the plugin must not be maven3 api dependant
      *
@@ -804,7 +1160,7 @@ public abstract class AbstractCompilerMojo
     }
 
     private Set<File> computeStaleSources( CompilerConfiguration compilerConfiguration, Compiler compiler,
-                                           SourceInclusionScanner scanner )
+                                           SourceInclusionScanner scanner, CompilerMetrics metrics )
         throws MojoExecutionException, CompilerException
     {
         CompilerOutputStyle outputStyle = compiler.getCompilerOutputStyle();
@@ -832,7 +1188,9 @@ public abstract class AbstractCompilerMojo
             throw new MojoExecutionException( "Unknown compiler output style: '" + outputStyle + "'." );
         }
 
-        scanner.addSourceMapping( mapping );
+        // the scanners map every included source, stale or not, so the mapping sees all the scanned sources
+        CountingSourceMapping countingMapping = new CountingSourceMapping( mapping );
+        scanner.addSourceMapping( countingMapping );
 
         Set<File> staleSources = new HashSet<File>();
 
@@ -856,6 +1214,8 @@ public abstract class AbstractCompilerMojo
             }
         }
 
+        metrics.setCount( "sourcesScanned", countingMapping.mappedSources );
+
         return staleSources;
     }
 
@@ -879,4 +1239,31 @@ public abstract class AbstractCompilerMojo
         }
         return newCompileSourceRootsList;
     }
+
+    /**
+     * Counts the sources which the wrapped mapping maps to at least one target.
+     */
+    private static class CountingSourceMapping
+        implements SourceMapping
+    {
+        private final SourceMapping mapping;
+
+        private int mappedSources;
+
+        CountingSourceMapping( SourceMapping mapping )
+        {
+            this.mapping = mapping;
+        }
+
+        public Set<File> getTargetFiles( File targetDir, String source )
+            throws InclusionScanException
+        {
+            Set<File> targetFiles = mapping.getTargetFiles( targetDir, source );
+            if ( !targetFiles.isEmpty() )
+            {
+                mappedSources++;
+            }
+            return targetFiles;
+        }
+    }
 }
@@ -0,0 +1,439 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The information the incremental build needs from a compiled class file: the class name, the name of the
+ * source file it was compiled from, the classes it references and a hash of its public signature (ABI).
+ * Only the constant pool and the member tables are read, method bodies are skipped.
+ *
+ * @author Maven Team
+ * @version $Id$
+ * @since 2.5
+ */
+public class ClassFileInfo
+{
+    private static final int ACC_PRIVATE = 0x0002;
+
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private final String className;
+
+    private final String sourceFileName;
+
+    private final Set<String> references;
+
+    private final Set<String> supertypes;
+
+    private final String abiHash;
+
+    private final boolean declaringConstants;
+
+    ClassFileInfo( String className, String sourceFileName, Set<String> references, Set<String> supertypes,
+                   String abiHash, boolean declaringConstants )
+    {
+        this.className = className;
+        this.sourceFileName = sourceFileName;
+        this.references = references;
+        this.supertypes = supertypes;
+        this.abiHash = abiHash;
+        this.declaringConstants = declaringConstants;
+    }
+
+    /**
+     * @return the internal name of the class, i.e. <code>org/example/Foo$Bar</code>.
+     */
+    public String getClassName()
+    {
+        return className;
+    }
+
+    /**
+     * @return the value of the <code>SourceFile</code> attribute, or <code>null</code> if the class was compiled
+     *         without source debug information.
+     */
+    public String getSourceFileName()
+    {
+        return sourceFileName;
+    }
+
+    /**
+     * @return the internal names of all classes referenced from the constant pool or from type descriptors.
+     */
+    public Set<String> getReferences()
+    {
+        return references;
+    }
+
+    /**
+     * @return the internal names of the direct superclass and of the directly implemented interfaces.
+     */
+    public Set<String> getSupertypes()
+    {
+        return supertypes;
+    }
+
+    /**
+     * @return a hash of the non-private signature of the class, including the values of its constants.
+     */
+    public String getAbiHash()
+    {
+        return abiHash;
+    }
+
+    /**
+     * @return <code>true</code> if the class declares non-private compile-time constants, which the compiler
+     *         inlines into dependent classes without leaving a reference behind.
+     */
+    public boolean isDeclaringConstants()
+    {
+        return declaringConstants;
+    }
+
+    /**
+     * Reads the relevant parts of a class file.
+     *
+     * @param classFile the class file to read, not <code>null</code>.
+     * @return the class information, never <code>null</code>.
+     * @throws IOException if the file could not be read or is not a class file.
+     */
+    public static ClassFileInfo parse( File classFile )
+        throws IOException
+    {
+        DataInputStream in = null;
+        try
+        {
+            in = new DataInputStream( new BufferedInputStream( new FileInputStream( classFile ) ) );
+            return parse( in );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    static ClassFileInfo parse( DataInputStream in )
+        throws IOException
+    {
+        if ( in.readInt() != 0xCAFEBABE )
+        {
+            throw new IOException( "Not a class file" );
+        }
+        in.readUnsignedShort(); // minor_version
+        in.readUnsignedShort(); // major_version
+
+        int poolSize = in.readUnsignedShort();
+        String[] utf8 = new String[poolSize];
+        int[] classNameIndex = new int[poolSize];
+        String[] constants = new String[poolSize];
+        for ( int i = 1; i < poolSize; i++ )
+        {
+            int tag = in.readUnsignedByte();
+            switch ( tag )
+            {
+                case 1: // Utf8
+                    utf8[i] = in.readUTF();
+                    break;
+                case 3: // Integer
+                    constants[i] = String.valueOf( in.readInt() );
+                    break;
+                case 4: // Float
+                    constants[i] = String.valueOf( in.readFloat() );
+                    break;
+                case 5: // Long
+                    constants[i] = String.valueOf( in.readLong() );
+                    i++;
+                    break;
+                case 6: // Double
+                    constants[i] = String.valueOf( in.readDouble() );
+                    i++;
+                    break;
+                case 7: // Class
+                    classNameIndex[i] = in.readUnsignedShort();
+                    break;
+                case 8: // String
+                    constants[i] = "#" + in.readUnsignedShort();
+                    break;
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    in.readUnsignedShort();
+                    break;
+                case 15: // MethodHandle
+                    in.readUnsignedByte();
+                    in.readUnsignedShort();
+                    break;
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    in.readInt();
+                    break;
+                default:
+                    throw new IOException( "Unknown constant pool tag " + tag );
+            }
+        }
+
+        Set<String> references = new TreeSet<String>();
+        for ( int i = 1; i < poolSize; i++ )
+        {
+            if ( classNameIndex[i] != 0 )
+            {
+                addClassName( references, utf8[classNameIndex[i]] );
+            }
+            else if ( utf8[i] != null )
+            {
+                addDescriptorReferences( references, utf8[i] );
+            }
+            else if ( constants[i] != null && constants[i].startsWith( "#" ) )
+            {
+                constants[i] = '"' + utf8[Integer.parseInt( constants[i].substring( 1 ) )] + '"';
+            }
+        }
+
+        List<String> signature = new ArrayList<String>();
+
+        int access = in.readUnsignedShort();
+        String className = utf8[classNameIndex[in.readUnsignedShort()]];
+        int superClass = in.readUnsignedShort();
+        signature.add( "class " + ( access & ~0x0020 ) + " " + className + " extends "
+            + ( superClass != 0 ? utf8[classNameIndex[superClass]] : "" ) );
+
+        references.remove( className );
+
+        Set<String> supertypes = new TreeSet<String>();
+        if ( superClass != 0 )
+        {
+            supertypes.add( utf8[classNameIndex[superClass]] );
+        }
+
+        int interfaceCount = in.readUnsignedShort();
+        for ( int i = 0; i < interfaceCount; i++ )
+        {
+            String interfaceName = utf8[classNameIndex[in.readUnsignedShort()]];
+            signature.add( "implements " + interfaceName );
+            supertypes.add( interfaceName );
+        }
+
+        boolean declaringConstants = false;
+        int fieldCount = in.readUnsignedShort();
+        for ( int i = 0; i < fieldCount; i++ )
+        {
+            String member = readMember( in, utf8, classNameIndex, constants, "field" );
+            if ( member != null )
+            {
+                signature.add( member );
+                declaringConstants |= member.indexOf( " = " ) >= 0;
+            }
+        }
+
+        int methodCount = in.readUnsignedShort();
+        for ( int i = 0; i < methodCount; i++ )
+        {
+            String member = readMember( in, utf8, classNameIndex, constants, "method" );
+            if ( member != null )
+            {
+                signature.add( member );
+            }
+        }
+
+        String sourceFileName = null;
+        int attributeCount = in.readUnsignedShort();
+        for ( int i = 0; i < attributeCount; i++ )
+        {
+            String name = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if ( "SourceFile".equals( name ) )
+            {
+                sourceFileName = utf8[in.readUnsignedShort()];
+            }
+            else if ( "Signature".equals( name ) )
+            {
+                signature.add( "signature " + utf8[in.readUnsignedShort()] );
+            }
+            else
+            {
+                skip( in, length );
+            }
+        }
+
+        Collections.sort( signature );
+
+        return new ClassFileInfo( className, sourceFileName, Collections.unmodifiableSet( references ),
+                                  Collections.unmodifiableSet( supertypes ), hash( signature ),
+                                  declaringConstants );
+    }
+
+    private static String readMember( DataInputStream in, String[] utf8, int[] classNameIndex, String[] constants,
+                                      String kind )
+        throws IOException
+    {
+        int access = in.readUnsignedShort();
+        String name = utf8[in.readUnsignedShort()];
+        String descriptor = utf8[in.readUnsignedShort()];
+
+        StringBuffer member = new StringBuffer();
+        member.append( kind ).append( ' ' ).append( access ).append( ' ' ).append( name ).append( ' ' );
+        member.append( descriptor );
+
+        int attributeCount = in.readUnsignedShort();
+        for ( int i = 0; i < attributeCount; i++ )
+        {
+            String attributeName = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if ( "ConstantValue".equals( attributeName ) )
+            {
+                member.append( " = " ).append( constants[in.readUnsignedShort()] );
+            }
+            else if ( "Signature".equals( attributeName ) )
+            {
+                member.append( ' ' ).append( utf8[in.readUnsignedShort()] );
+            }
+            else if ( "Exceptions".equals( attributeName ) )
+            {
+                int exceptionCount = in.readUnsignedShort();
+                for ( int j = 0; j < exceptionCount; j++ )
+                {
+                    member.append( " throws " ).append( utf8[classNameIndex[in.readUnsignedShort()]] );
+                }
+            }
+            else
+            {
+                skip( in, length );
+            }
+        }
+
+        if ( ( access & ( ACC_PRIVATE | ACC_SYNTHETIC ) ) != 0 )
+        {
+            return null;
+        }
+        return member.toString();
+    }
+
+    private static void addClassName( Set<String> references, String name )
+    {
+        if ( name == null )
+        {
+            return;
+        }
+        if ( name.startsWith( "[" ) )
+        {
+            addDescriptorReferences( references, name );
+        }
+        else
+        {
+            references.add( name );
+        }
+    }
+
+    /**
+     * Picks up the <code>Lpackage/Name;</code> type references of a descriptor or generic signature. Arbitrary
+     * strings in the pool may produce false positives, which is harmless since only names of classes known to
+     * the incremental build are ever looked up.
+     */
+    private static void addDescriptorReferences( Set<String> references, String descriptor )
+    {
+        int start = descriptor.indexOf( 'L' );
+        while ( start >= 0 )
+        {
+            int end = start + 1;
+            while ( end < descriptor.length() && descriptor.charAt( end ) != ';' && descriptor.charAt( end ) != '<' )
+            {
+                end++;
+            }
+            if ( end < descriptor.length() && end > start + 1 )
+            {
+                references.add( descriptor.substring( start + 1, end ) );
+            }
+            start = descriptor.indexOf( 'L', end );
+        }
+    }
+
+    private static void skip( DataInputStream in, int length )
+        throws IOException
+    {
+        int remaining = length;
+        while ( remaining > 0 )
+        {
+            int skipped = in.skipBytes( remaining );
+            if ( skipped <= 0 )
+            {
+                throw new IOException( "Unexpected end of class file" );
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static String hash( List<String> lines )
+        throws IOException
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance( "MD5" );
+            for ( String line : lines )
+            {
+                digest.update( line.getBytes( "UTF-8" ) );
+                digest.update( (byte) '\n' );
+            }
+            return toHex( digest.digest() );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "MD5 is not available: " + e.getMessage() );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( "UTF-8 is not available: " + e.getMessage() );
+        }
+    }
+
+    static String toHex( byte[] bytes )
+    {
+        StringBuffer hex = new StringBuffer( bytes.length * 2 );
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            int b = bytes[i] & 0xFF;
+            if ( b < 0x10 )
+            {
+                hex.append( '0' );
+            }
+            hex.append( Integer.toHexString( b ) );
+        }
+        return hex.toString();
+    }
+}
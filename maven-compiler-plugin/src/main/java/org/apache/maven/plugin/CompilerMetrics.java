@@ -0,0 +1,224 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Timings of the phases of a compiler execution and counts of what was processed, written as a small JSON document
+ * so that the reports of all the modules of a reactor can be aggregated.
+ *
+ * @author Maven Team
+ * @version $Id$
+ * @since 2.5
+ */
+public class CompilerMetrics
+{
+    private final Map<String, String> properties = new LinkedHashMap<String, String>();
+
+    private final Map<String, Long> phases = new LinkedHashMap<String, Long>();
+
+    private final Map<String, Long> counts = new LinkedHashMap<String, Long>();
+
+    private final long start = System.currentTimeMillis();
+
+    private String currentPhase;
+
+    private long currentPhaseStart;
+
+    /**
+     * Sets a descriptive property of the execution, like the module or the output directory.
+     */
+    public void setProperty( String name, String value )
+    {
+        properties.put( name, value );
+    }
+
+    /**
+     * Ends the current phase, if any, and starts a new one. Time spent in a phase entered several times is summed.
+     *
+     * @param phase the name of the phase.
+     */
+    public void startPhase( String phase )
+    {
+        endPhase();
+        currentPhase = phase;
+        currentPhaseStart = System.currentTimeMillis();
+    }
+
+    /**
+     * Ends the current phase.
+     */
+    public void endPhase()
+    {
+        if ( currentPhase != null )
+        {
+            Long previous = phases.get( currentPhase );
+            long duration = System.currentTimeMillis() - currentPhaseStart;
+            phases.put( currentPhase, Long.valueOf( ( previous != null ? previous.longValue() : 0 ) + duration ) );
+            currentPhase = null;
+        }
+    }
+
+    /**
+     * Sets a counter, like the number of stale sources.
+     */
+    public void setCount( String name, long value )
+    {
+        counts.put( name, Long.valueOf( value ) );
+    }
+
+    /**
+     * @return the duration of a phase in milliseconds, <code>0</code> if it was never entered.
+     */
+    public long getPhaseDuration( String phase )
+    {
+        Long duration = phases.get( phase );
+        return duration != null ? duration.longValue() : 0;
+    }
+
+    /**
+     * @return the value of a counter, <code>-1</code> if it was never set.
+     */
+    public long getCount( String name )
+    {
+        Long count = counts.get( name );
+        return count != null ? count.longValue() : -1;
+    }
+
+    /**
+     * @return the phases with their duration in milliseconds, in the order they were first entered.
+     */
+    public Map<String, Long> getPhases()
+    {
+        return phases;
+    }
+
+    /**
+     * Ends the current phase and writes the report.
+     *
+     * @param file the report file, its parent directories are created if needed.
+     * @throws IOException if the report could not be written.
+     */
+    public void write( File file )
+        throws IOException
+    {
+        endPhase();
+
+        file.getParentFile().mkdirs();
+
+        Writer writer = null;
+        try
+        {
+            writer = new OutputStreamWriter( new FileOutputStream( file ), "UTF-8" );
+            writer.write( toJson() );
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+    }
+
+    String toJson()
+    {
+        StringBuffer json = new StringBuffer( "{\n" );
+        for ( Map.Entry<String, String> property : properties.entrySet() )
+        {
+            json.append( "  " ).append( quote( property.getKey() ) ).append( ": " );
+            json.append( quote( property.getValue() ) ).append( ",\n" );
+        }
+        json.append( "  \"totalTimeMs\": " ).append( System.currentTimeMillis() - start ).append( ",\n" );
+        appendObject( json, "phasesMs", phases );
+        json.append( ",\n" );
+        appendObject( json, "counts", counts );
+        json.append( "\n}\n" );
+        return json.toString();
+    }
+
+    private static void appendObject( StringBuffer json, String name, Map<String, Long> values )
+    {
+        json.append( "  " ).append( quote( name ) ).append( ": {" );
+        boolean first = true;
+        for ( Map.Entry<String, Long> value : values.entrySet() )
+        {
+            json.append( first ? "\n" : ",\n" );
+            json.append( "    " ).append( quote( value.getKey() ) ).append( ": " ).append( value.getValue() );
+            first = false;
+        }
+        json.append( first ? "}" : "\n  }" );
+    }
+
+    private static String quote( String value )
+    {
+        if ( value == null )
+        {
+            return "null";
+        }
+        StringBuffer quoted = new StringBuffer( value.length() + 2 );
+        quoted.append( '"' );
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            switch ( c )
+            {
+                case '"':
+                    quoted.append( "\\\"" );
+                    break;
+                case '\\':
+                    quoted.append( "\\\\" );
+                    break;
+                case '\n':
+                    quoted.append( "\\n" );
+                    break;
+                case '\r':
+                    quoted.append( "\\r" );
+                    break;
+                case '\t':
+                    quoted.append( "\\t" );
+                    break;
+                default:
+                    if ( c < 0x20 )
+                    {
+                        String hex = Integer.toHexString( c );
+                        quoted.append( "\\u" );
+                        for ( int j = hex.length(); j < 4; j++ )
+                        {
+                            quoted.append( '0' );
+                        }
+                        quoted.append( hex );
+                    }
+                    else
+                    {
+                        quoted.append( c );
+                    }
+            }
+        }
+        quoted.append( '"' );
+        return quoted.toString();
+    }
+}
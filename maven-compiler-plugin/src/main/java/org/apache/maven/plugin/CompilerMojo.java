@@ -199,4 +199,13 @@ public class CompilerMojo
         return generatedSourcesDirectory;
     }
 
-}
\ No newline at end of file
+    protected Set<String> getIncludes()
+    {
+        return includes;
+    }
+
+    protected Set<String> getExcludes()
+    {
+        return excludes;
+    }
+}
@@ -0,0 +1,226 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Main class of the long-lived compiler processes started by {@link ForkedCompilerWorkerPool}. It reads compile
+ * requests from its standard input and runs <code>com.sun.tools.javac.Main</code> in-process for each of them, so
+ * that the JVM startup and the JIT warm-up of the compiler are only paid once per worker.
+ * <p>
+ * A request is the number of arguments followed by the arguments and the working directory of the compilation, each
+ * written as an UTF-8 byte array prefixed with its length, since a class path easily exceeds the 64 KB limit of
+ * {@link DataOutputStream#writeUTF(String)}. Since the worker can't
+ * change its own working directory, the relative paths of the arguments are resolved against the working directory of
+ * the request, like a <code>javac</code> process started in that directory would do. The response is the exit
+ * code of the compiler followed by its output, written as an UTF-8 byte array prefixed with its length. The worker
+ * exits when its standard input is closed.
+ * </p>
+ * This class must not depend on anything but the JDK, since it is the only class of the plugin loaded in the
+ * worker process.
+ *
+ * @author Maven Team
+ * @version $Id$
+ * @since 2.5
+ */
+public class ForkedCompilerWorker
+{
+    /** The options followed by a path. */
+    private static final List<String> PATH_OPTIONS = Arrays.asList( new String[] { "-d", "-s", "-h" } );
+
+    /** The options followed by a list of paths. */
+    private static final List<String> PATH_LIST_OPTIONS =
+        Arrays.asList( new String[] { "-classpath", "-cp", "-sourcepath", "-bootclasspath", "-extdirs",
+            "-endorseddirs", "-processorpath" } );
+
+    /** The prefixes of the options holding a list of paths. */
+    private static final String[] PATH_LIST_PREFIXES =
+        { "-Xbootclasspath/p:", "-Xbootclasspath/a:", "-Xbootclasspath:" };
+
+    private ForkedCompilerWorker()
+    {
+        // main class
+    }
+
+    public static void main( String[] args )
+        throws Exception
+    {
+        Class<?> javacMain = Class.forName( "com.sun.tools.javac.Main" );
+        Method compile = javacMain.getMethod( "compile", new Class[] { String[].class, PrintWriter.class } );
+
+        DataInputStream in = new DataInputStream( new BufferedInputStream( System.in ) );
+        DataOutputStream out = new DataOutputStream( new BufferedOutputStream( System.out ) );
+
+        // javac only writes to the given writer, anything else must not corrupt the responses
+        System.setOut( System.err );
+
+        while ( true )
+        {
+            String[] arguments;
+            try
+            {
+                arguments = new String[in.readInt()];
+            }
+            catch ( EOFException e )
+            {
+                return;
+            }
+            for ( int i = 0; i < arguments.length; i++ )
+            {
+                arguments[i] = readString( in );
+            }
+            arguments = resolvePaths( arguments, new File( readString( in ) ) );
+
+            StringWriter output = new StringWriter();
+            PrintWriter writer = new PrintWriter( output );
+            int exitCode;
+            try
+            {
+                exitCode = ( (Integer) compile.invoke( null, new Object[] { arguments, writer } ) ).intValue();
+            }
+            catch ( InvocationTargetException e )
+            {
+                e.getTargetException().printStackTrace( writer );
+                exitCode = -1;
+            }
+            writer.flush();
+
+            byte[] bytes = output.toString().getBytes( "UTF-8" );
+            out.writeInt( exitCode );
+            out.writeInt( bytes.length );
+            out.write( bytes );
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes a string of a request as an UTF-8 byte array prefixed with its length.
+     *
+     * @param out the stream to write to, not null
+     * @param value the string to write, not null
+     * @throws IOException if the string could not be written
+     */
+    static void writeString( DataOutputStream out, String value )
+        throws IOException
+    {
+        byte[] bytes = value.getBytes( "UTF-8" );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param in the stream to read from, not null
+     * @return the string, never null
+     * @throws IOException if the string could not be read
+     */
+    static String readString( DataInputStream in )
+        throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+        return new String( bytes, "UTF-8" );
+    }
+
+    /**
+     * Resolves the relative paths of the <code>javac</code> arguments against the given working directory: the values
+     * of the path options, the argument files and the source files.
+     *
+     * @param arguments the <code>javac</code> arguments, not null
+     * @param workingDirectory the working directory of the compilation, not null
+     * @return the arguments with absolute paths, never null
+     */
+    static String[] resolvePaths( String[] arguments, File workingDirectory )
+    {
+        String[] resolved = new String[arguments.length];
+        for ( int i = 0; i < arguments.length; i++ )
+        {
+            String argument = arguments[i];
+            if ( i > 0 && PATH_OPTIONS.contains( arguments[i - 1] ) )
+            {
+                resolved[i] = resolvePath( argument, workingDirectory );
+            }
+            else if ( i > 0 && PATH_LIST_OPTIONS.contains( arguments[i - 1] ) )
+            {
+                resolved[i] = resolvePathList( argument, workingDirectory );
+            }
+            else if ( argument.startsWith( "@" ) )
+            {
+                resolved[i] = "@" + resolvePath( argument.substring( 1 ), workingDirectory );
+            }
+            else if ( argument.endsWith( ".java" ) && !argument.startsWith( "-" ) )
+            {
+                resolved[i] = resolvePath( argument, workingDirectory );
+            }
+            else
+            {
+                resolved[i] = argument;
+                for ( int j = 0; j < PATH_LIST_PREFIXES.length; j++ )
+                {
+                    if ( argument.startsWith( PATH_LIST_PREFIXES[j] ) )
+                    {
+                        resolved[i] = PATH_LIST_PREFIXES[j]
+                            + resolvePathList( argument.substring( PATH_LIST_PREFIXES[j].length() ), workingDirectory );
+                        break;
+                    }
+                }
+            }
+        }
+        return resolved;
+    }
+
+    private static String resolvePathList( String paths, File workingDirectory )
+    {
+        StringBuffer resolved = new StringBuffer( paths.length() );
+        String[] elements = paths.split( File.pathSeparator, -1 );
+        for ( int i = 0; i < elements.length; i++ )
+        {
+            if ( i > 0 )
+            {
+                resolved.append( File.pathSeparatorChar );
+            }
+            resolved.append( resolvePath( elements[i], workingDirectory ) );
+        }
+        return resolved.toString();
+    }
+
+    private static String resolvePath( String path, File workingDirectory )
+    {
+        if ( path.length() == 0 || new File( path ).isAbsolute() )
+        {
+            return path;
+        }
+        return new File( workingDirectory, path ).getPath();
+    }
+}
@@ -0,0 +1,468 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.compiler.CompilerError;
+import org.codehaus.plexus.compiler.CompilerException;
+import org.codehaus.plexus.util.Os;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.cli.StreamPumper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A pool of {@link ForkedCompilerWorker} processes, so that forked compilations of the modules of a reactor reuse
+ * warmed up compilers instead of starting a new <code>javac</code> process each time. Workers are keyed by their JVM
+ * and JVM options; a worker serves one compilation at a time and parallel builds start as many workers as there are
+ * concurrent compilations.
+ * <p>
+ * The pool has no notion of a build: the workers live until {@link #shutdown()} is called or the JVM which loaded
+ * the plugin exits. Embedders which run several builds in the same JVM keep the idle workers in between.
+ * </p>
+ *
+ * @author Maven Team
+ * @version $Id$
+ * @since 2.5
+ */
+public class ForkedCompilerWorkerPool
+{
+    private static final Pattern MESSAGE_START = Pattern.compile( "^(.+\\.java):(\\d+): (.*)$" );
+
+    private static final Pattern MESSAGE_COUNT = Pattern.compile( "^\\d+ (error|warning)s?$" );
+
+    private static final Map<List<String>, LinkedList<Worker>> IDLE_WORKERS = new HashMap<List<String>, LinkedList<Worker>>();
+
+    private static final List<Worker> ALL_WORKERS = new ArrayList<Worker>();
+
+    private static boolean shutdownHookAdded;
+
+    private static int startedWorkers;
+
+    private ForkedCompilerWorkerPool()
+    {
+        // static pool
+    }
+
+    /**
+     * Compiles with a pooled worker, starting a new one if none is idle.
+     *
+     * @param executable the <code>javac</code> executable configured for the build, may be <code>null</code> to use
+     *            the JDK running Maven.
+     * @param workingDirectory the working directory of the compilation, the relative paths of the arguments are
+     *            resolved against it. May be <code>null</code> to use the working directory of Maven.
+     * @param jvmArguments the arguments of the worker JVM, i.e. memory settings.
+     * @param arguments the <code>javac</code> arguments. <code>-J</code> arguments are passed to the worker JVM.
+     * @param log the log of the calling mojo.
+     * @return the compiler messages, never <code>null</code>.
+     * @throws CompilerException if the worker could not be started or failed.
+     */
+    public static List<CompilerError> compile( String executable, File workingDirectory, List<String> jvmArguments,
+                                               String[] arguments, Log log )
+        throws CompilerException
+    {
+        List<String> command = new ArrayList<String>();
+        command.add( getJavaExecutable( executable ) );
+        command.addAll( jvmArguments );
+
+        List<String> compilerArguments = new ArrayList<String>();
+        for ( int i = 0; i < arguments.length; i++ )
+        {
+            if ( arguments[i].startsWith( "-J" ) )
+            {
+                command.add( arguments[i].substring( 2 ) );
+            }
+            else
+            {
+                compilerArguments.add( arguments[i] );
+            }
+        }
+
+        Worker worker = acquire( command, executable, log );
+
+        int exitCode;
+        String output;
+        try
+        {
+            exitCode = worker.compile( compilerArguments, workingDirectory );
+            output = worker.output;
+        }
+        catch ( IOException e )
+        {
+            destroy( worker );
+            throw new CompilerException( "Error while communicating with the forked compiler: " + e.getMessage(), e );
+        }
+
+        release( worker );
+
+        try
+        {
+            return parseMessages( output, exitCode );
+        }
+        catch ( IOException e )
+        {
+            throw new CompilerException( "Unable to parse the compiler output", e );
+        }
+    }
+
+    /**
+     * Stops all idle workers. Workers also stop by themselves when the Maven JVM exits.
+     */
+    public static synchronized void shutdown()
+    {
+        for ( LinkedList<Worker> workers : IDLE_WORKERS.values() )
+        {
+            for ( Worker worker : workers )
+            {
+                worker.stop();
+                ALL_WORKERS.remove( worker );
+            }
+        }
+        IDLE_WORKERS.clear();
+    }
+
+    /**
+     * @return the number of workers started so far, for the tests.
+     */
+    static synchronized int getStartedWorkers()
+    {
+        return startedWorkers;
+    }
+
+    private static synchronized Worker acquire( List<String> command, String executable, Log log )
+        throws CompilerException
+    {
+        LinkedList<Worker> idle = IDLE_WORKERS.get( command );
+        while ( idle != null && !idle.isEmpty() )
+        {
+            Worker worker = idle.removeFirst();
+            if ( worker.isAlive() )
+            {
+                log.debug( "Reusing forked compiler worker " + worker );
+                return worker;
+            }
+            ALL_WORKERS.remove( worker );
+        }
+
+        List<String> fullCommand = new ArrayList<String>( command );
+        fullCommand.add( "-classpath" );
+        fullCommand.add( getWorkerClasspath( executable ) );
+        fullCommand.add( ForkedCompilerWorker.class.getName() );
+
+        if ( log.isDebugEnabled() )
+        {
+            log.debug( "Starting forked compiler worker: " + StringUtils.join( fullCommand.iterator(), " " ) );
+        }
+
+        Worker worker;
+        try
+        {
+            worker = new Worker( command, new ProcessBuilder( fullCommand ).start() );
+        }
+        catch ( IOException e )
+        {
+            throw new CompilerException( "Unable to start a forked compiler: " + e.getMessage(), e );
+        }
+
+        ALL_WORKERS.add( worker );
+        startedWorkers++;
+        if ( !shutdownHookAdded )
+        {
+            Runtime.getRuntime().addShutdownHook( new Thread( "forked-compiler-shutdown" )
+            {
+                public void run()
+                {
+                    synchronized ( ForkedCompilerWorkerPool.class )
+                    {
+                        for ( Worker w : ALL_WORKERS )
+                        {
+                            w.stop();
+                        }
+                    }
+                }
+            } );
+            shutdownHookAdded = true;
+        }
+        return worker;
+    }
+
+    private static synchronized void release( Worker worker )
+    {
+        LinkedList<Worker> idle = IDLE_WORKERS.get( worker.key );
+        if ( idle == null )
+        {
+            idle = new LinkedList<Worker>();
+            IDLE_WORKERS.put( worker.key, idle );
+        }
+        idle.addFirst( worker );
+    }
+
+    private static synchronized void destroy( Worker worker )
+    {
+        worker.stop();
+        ALL_WORKERS.remove( worker );
+    }
+
+    /**
+     * The worker runs with the <code>java</code> launcher next to the configured <code>javac</code>, so that
+     * toolchains and explicit executables compile with the expected JDK.
+     */
+    private static String getJavaExecutable( String executable )
+    {
+        String java = Os.isFamily( Os.FAMILY_WINDOWS ) ? "java.exe" : "java";
+        if ( StringUtils.isNotEmpty( executable ) )
+        {
+            File javac = new File( executable );
+            if ( javac.getParentFile() != null )
+            {
+                File candidate = new File( javac.getParentFile(), java );
+                if ( candidate.isFile() )
+                {
+                    return candidate.getAbsolutePath();
+                }
+            }
+        }
+        return new File( new File( System.getProperty( "java.home" ), "bin" ), java ).getAbsolutePath();
+    }
+
+    private static String getWorkerClasspath( String executable )
+        throws CompilerException
+    {
+        URL location = ForkedCompilerWorker.class.getProtectionDomain().getCodeSource().getLocation();
+        File pluginClasses;
+        try
+        {
+            pluginClasses = new File( location.toURI() );
+        }
+        catch ( URISyntaxException e )
+        {
+            throw new CompilerException( "Unable to locate the compiler plugin classes: " + location, e );
+        }
+
+        File jdkHome;
+        if ( StringUtils.isNotEmpty( executable ) && new File( executable ).getParentFile() != null )
+        {
+            jdkHome = new File( executable ).getAbsoluteFile().getParentFile().getParentFile();
+        }
+        else
+        {
+            jdkHome = new File( System.getProperty( "java.home" ) );
+            if ( "jre".equals( jdkHome.getName() ) )
+            {
+                jdkHome = jdkHome.getParentFile();
+            }
+        }
+
+        // JDK 9+ provides the compiler in its runtime image
+        File toolsJar = new File( jdkHome, "lib/tools.jar" );
+        if ( toolsJar.isFile() )
+        {
+            return pluginClasses.getPath() + File.pathSeparator + toolsJar.getPath();
+        }
+        return pluginClasses.getPath();
+    }
+
+    /**
+     * Parses the messages of the modern <code>javac</code> output format, i.e.
+     * <code>File.java:12: error: message</code> followed by the source line and a caret marking the column.
+     */
+    static List<CompilerError> parseMessages( String output, int exitCode )
+        throws IOException
+    {
+        List<CompilerError> messages = new ArrayList<CompilerError>();
+
+        BufferedReader reader = new BufferedReader( new StringReader( output ) );
+
+        String file = null;
+        int line = 0;
+        int column = 0;
+        StringBuffer message = null;
+        boolean error = false;
+        boolean errorFound = false;
+        boolean sourceLineSeen = false;
+
+        String text;
+        while ( ( text = reader.readLine() ) != null )
+        {
+            Matcher matcher = MESSAGE_START.matcher( text );
+            if ( matcher.matches() || MESSAGE_COUNT.matcher( text ).matches() )
+            {
+                if ( message != null )
+                {
+                    messages.add( new CompilerError( file, error, line, column, line, column, message.toString() ) );
+                    message = null;
+                }
+                if ( !matcher.matches() )
+                {
+                    continue;
+                }
+
+                file = matcher.group( 1 );
+                line = Integer.parseInt( matcher.group( 2 ) );
+                column = 0;
+                sourceLineSeen = false;
+                String rest = matcher.group( 3 );
+                error = !rest.startsWith( "warning: " );
+                if ( rest.startsWith( "warning: " ) )
+                {
+                    rest = rest.substring( "warning: ".length() );
+                }
+                else if ( rest.startsWith( "error: " ) )
+                {
+                    rest = rest.substring( "error: ".length() );
+                }
+                errorFound |= error;
+                message = new StringBuffer( rest );
+            }
+            else if ( message != null && column == 0 && text.trim().equals( "^" ) )
+            {
+                column = text.indexOf( '^' ) + 1;
+            }
+            else if ( message != null && !text.startsWith( "Note: " )
+                && ( ( column == 0 && !sourceLineSeen ) || text.startsWith( "  " ) ) )
+            {
+                if ( column == 0 )
+                {
+                    // the source line quoted before the caret
+                    sourceLineSeen = true;
+                }
+                else
+                {
+                    // details following the caret, like the missing symbol
+                    message.append( '\n' ).append( text );
+                }
+            }
+            else
+            {
+                if ( message != null )
+                {
+                    messages.add( new CompilerError( file, error, line, column, line, column, message.toString() ) );
+                    message = null;
+                }
+                if ( text.length() > 0 )
+                {
+                    // "Note:" lines and warnings without a location
+                    messages.add( new CompilerError( text, false ) );
+                }
+            }
+        }
+        if ( message != null )
+        {
+            messages.add( new CompilerError( file, error, line, column, line, column, message.toString() ) );
+        }
+
+        if ( exitCode != 0 && !errorFound )
+        {
+            messages.add( new CompilerError( "Failure executing javac, but could not parse the error:\n" + output,
+                                             true ) );
+        }
+
+        return messages;
+    }
+
+    private static class Worker
+    {
+        private final List<String> key;
+
+        private final Process process;
+
+        private final DataOutputStream in;
+
+        private final DataInputStream out;
+
+        private final StreamPumper errorPumper;
+
+        private String output;
+
+        Worker( List<String> key, Process process )
+        {
+            this.key = key;
+            this.process = process;
+            this.in = new DataOutputStream( new BufferedOutputStream( process.getOutputStream() ) );
+            this.out = new DataInputStream( new BufferedInputStream( process.getInputStream() ) );
+            this.errorPumper = new StreamPumper( process.getErrorStream(), new PrintWriter( System.err ) );
+            this.errorPumper.setDaemon( true );
+            this.errorPumper.start();
+        }
+
+        int compile( List<String> arguments, File workingDirectory )
+            throws IOException
+        {
+            in.writeInt( arguments.size() );
+            for ( Iterator<String> it = arguments.iterator(); it.hasNext(); )
+            {
+                ForkedCompilerWorker.writeString( in, it.next() );
+            }
+            ForkedCompilerWorker.writeString( in, ( workingDirectory != null ? workingDirectory : new File( "." ) )
+                .getAbsolutePath() );
+            in.flush();
+
+            int exitCode = out.readInt();
+            byte[] bytes = new byte[out.readInt()];
+            out.readFully( bytes );
+            output = new String( bytes, "UTF-8" );
+            return exitCode;
+        }
+
+        boolean isAlive()
+        {
+            try
+            {
+                process.exitValue();
+                return false;
+            }
+            catch ( IllegalThreadStateException e )
+            {
+                return true;
+            }
+        }
+
+        void stop()
+        {
+            try
+            {
+                in.close();
+            }
+            catch ( IOException e )
+            {
+                // the process is gone already
+            }
+            process.destroy();
+        }
+    }
+}
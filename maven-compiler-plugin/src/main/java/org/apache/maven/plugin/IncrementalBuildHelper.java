@@ -0,0 +1,551 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps track of the classes produced from each source file, the classes they depend on and their ABI hashes,
+ * so that a source change only recompiles the sources which may be affected by it:
+ * <ul>
+ * <li>stale sources are compiled first, after removing the class files they produced last time;</li>
+ * <li>if the ABI of a produced class changed, the sources of the classes referencing it are compiled in a next
+ * round, until no more ABI changes are detected;</li>
+ * <li>if a changed class declares compile-time constants, which are inlined without leaving a reference behind,
+ * all remaining sources are compiled;</li>
+ * <li>class files of deleted sources are removed and their dependents are compiled.</li>
+ * </ul>
+ * The state is stored in a file next to the build output. It is removed as soon as a compilation starts and
+ * written back only once all rounds succeeded, so a failed or interrupted build falls back to a full
+ * compilation of the sources.
+ *
+ * @author Maven Team
+ * @version $Id$
+ * @since 2.5
+ */
+public class IncrementalBuildHelper
+{
+    private static final String HEADER = "# maven-compiler-plugin incremental build state 2";
+
+    private static final String FINGERPRINT = "fingerprint=";
+
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private final File stateFile;
+
+    private final File outputDirectory;
+
+    private final List<String> compileSourceRoots;
+
+    private final Log log;
+
+    private final Map<String, ClassEntry> classes = new TreeMap<String, ClassEntry>();
+
+    private final Set<File> compiledSources = new HashSet<File>();
+
+    private final Map<String, ClassEntry> recompiledClasses = new HashMap<String, ClassEntry>();
+
+    private Set<File> allSources = new HashSet<File>();
+
+    private String fingerprint;
+
+    private boolean stateLoaded;
+
+    public IncrementalBuildHelper( File stateFile, File outputDirectory, List<String> compileSourceRoots, Log log )
+    {
+        this.stateFile = stateFile;
+        this.outputDirectory = outputDirectory;
+        this.compileSourceRoots = compileSourceRoots;
+        this.log = log;
+    }
+
+    /**
+     * Loads the state of the previous build, if it was made with the same fingerprint.
+     *
+     * @param fingerprint a hash of everything outside the sources which affects the compiler output, i.e. the
+     *            classpath and the compiler options.
+     * @return <code>true</code> if a usable state was found, <code>false</code> if all sources have to be compiled.
+     * @throws IOException if the state file could not be read.
+     */
+    public boolean load( String fingerprint )
+        throws IOException
+    {
+        this.fingerprint = fingerprint;
+
+        classes.clear();
+        stateLoaded = false;
+
+        if ( !stateFile.isFile() )
+        {
+            log.debug( "No incremental build state found at " + stateFile );
+            return false;
+        }
+
+        BufferedReader reader = null;
+        try
+        {
+            reader = new BufferedReader( new InputStreamReader( new FileInputStream( stateFile ), "UTF-8" ) );
+
+            String line = reader.readLine();
+            if ( !HEADER.equals( line ) )
+            {
+                log.debug( "Ignoring incremental build state with unknown format " + stateFile );
+                return false;
+            }
+            line = reader.readLine();
+            if ( line == null || !line.equals( FINGERPRINT + fingerprint ) )
+            {
+                log.info( "Classpath or compiler options changed - recompiling all sources" );
+                return false;
+            }
+
+            while ( ( line = reader.readLine() ) != null )
+            {
+                String[] tokens = line.split( "\t", -1 );
+                if ( tokens.length < 6 )
+                {
+                    continue;
+                }
+                ClassEntry entry = new ClassEntry( new File( tokens[1] ), tokens[2], "1".equals( tokens[3] ) );
+                entry.supertypes.addAll( Arrays.asList( StringUtils.split( tokens[4], " " ) ) );
+                entry.references.addAll( Arrays.asList( StringUtils.split( tokens[5], " " ) ) );
+                classes.put( tokens[0], entry );
+            }
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+
+        stateLoaded = true;
+        return true;
+    }
+
+    /**
+     * Computes the sources of the first compilation round and removes the class files of deleted sources.
+     *
+     * @param sources all sources of the compile source roots.
+     * @param staleSources the sources which are newer than their class files.
+     * @return the sources to compile first, never <code>null</code>.
+     */
+    public Set<File> getSourcesToCompile( Set<File> sources, Set<File> staleSources )
+    {
+        allSources = new HashSet<File>( sources );
+
+        if ( !stateLoaded )
+        {
+            return new HashSet<File>( allSources );
+        }
+
+        Set<File> sourcesToCompile = new HashSet<File>( staleSources );
+
+        Set<String> removedClasses = new HashSet<String>();
+        boolean removedConstants = false;
+        for ( Iterator<Map.Entry<String, ClassEntry>> it = classes.entrySet().iterator(); it.hasNext(); )
+        {
+            Map.Entry<String, ClassEntry> entry = it.next();
+            if ( !allSources.contains( entry.getValue().source ) )
+            {
+                File classFile = getClassFile( entry.getKey() );
+                if ( classFile.exists() && !classFile.delete() )
+                {
+                    log.warn( "Unable to delete orphaned class file " + classFile );
+                }
+                else
+                {
+                    log.debug( "Removed orphaned class file " + classFile );
+                }
+                removedClasses.add( entry.getKey() );
+                removedConstants |= entry.getValue().declaringConstants;
+                it.remove();
+            }
+        }
+
+        if ( removedConstants )
+        {
+            return new HashSet<File>( allSources );
+        }
+
+        sourcesToCompile.addAll( getDependentSources( removedClasses ) );
+
+        return sourcesToCompile;
+    }
+
+    /**
+     * Prepares a compilation round: the class files previously produced by the given sources are removed, so
+     * that classes which are not produced anymore do not survive the compilation.
+     *
+     * @param sources the sources about to be compiled.
+     * @return the time from which files in the output directory are considered as produced by this round.
+     */
+    public long beforeCompile( Set<File> sources )
+    {
+        if ( stateFile.exists() && !stateFile.delete() )
+        {
+            log.warn( "Unable to delete incremental build state " + stateFile );
+        }
+
+        recompiledClasses.clear();
+        for ( Iterator<Map.Entry<String, ClassEntry>> it = classes.entrySet().iterator(); it.hasNext(); )
+        {
+            Map.Entry<String, ClassEntry> entry = it.next();
+            if ( sources.contains( entry.getValue().source ) )
+            {
+                recompiledClasses.put( entry.getKey(), entry.getValue() );
+                getClassFile( entry.getKey() ).delete();
+                it.remove();
+            }
+        }
+
+        compiledSources.addAll( sources );
+
+        // file systems may store modification times with a granularity of a second
+        long now = System.currentTimeMillis();
+        return now - now % 1000;
+    }
+
+    /**
+     * Records the classes produced by a compilation round and computes the sources which need to be compiled
+     * in the next round because of ABI changes.
+     *
+     * @param roundStart the value returned by {@link #beforeCompile(Set)}.
+     * @return the sources of the next round, empty if the compilation is complete.
+     * @throws IOException if a produced class file could not be read.
+     */
+    public Set<File> afterCompile( long roundStart )
+        throws IOException
+    {
+        List<File> producedFiles = new ArrayList<File>();
+        collectClassFiles( outputDirectory, roundStart, producedFiles );
+
+        Set<String> changedClasses = new HashSet<String>();
+        boolean changedConstants = false;
+
+        Set<String> produced = new HashSet<String>();
+        for ( File classFile : producedFiles )
+        {
+            ClassFileInfo info = ClassFileInfo.parse( classFile );
+
+            ClassEntry previous = recompiledClasses.get( info.getClassName() );
+            if ( previous == null )
+            {
+                previous = classes.get( info.getClassName() );
+            }
+
+            if ( previous == null || !previous.abiHash.equals( info.getAbiHash() ) )
+            {
+                changedClasses.add( info.getClassName() );
+                changedConstants |= info.isDeclaringConstants() || ( previous != null && previous.declaringConstants );
+            }
+
+            File source = findSource( info );
+            if ( source == null )
+            {
+                log.debug( "Unable to find the source of " + classFile + ", it will not be tracked" );
+                continue;
+            }
+
+            ClassEntry entry = new ClassEntry( source, info.getAbiHash(), info.isDeclaringConstants() );
+            entry.supertypes.addAll( info.getSupertypes() );
+            entry.references.addAll( info.getReferences() );
+            classes.put( info.getClassName(), entry );
+            produced.add( info.getClassName() );
+            compiledSources.add( source );
+        }
+
+        for ( Map.Entry<String, ClassEntry> entry : recompiledClasses.entrySet() )
+        {
+            if ( !produced.contains( entry.getKey() ) )
+            {
+                changedClasses.add( entry.getKey() );
+                changedConstants |= entry.getValue().declaringConstants;
+            }
+        }
+        recompiledClasses.clear();
+
+        Set<File> nextRound;
+        if ( changedConstants )
+        {
+            log.debug( "Compile-time constants changed, all sources will be compiled" );
+            nextRound = new HashSet<File>( allSources );
+        }
+        else
+        {
+            nextRound = getDependentSources( changedClasses );
+        }
+        nextRound.removeAll( compiledSources );
+
+        return nextRound;
+    }
+
+    /**
+     * Writes the state of the incremental build once all rounds succeeded.
+     *
+     * @throws IOException if the state could not be written.
+     */
+    public void save()
+        throws IOException
+    {
+        stateFile.getParentFile().mkdirs();
+
+        PrintWriter writer = null;
+        try
+        {
+            writer = new PrintWriter( new OutputStreamWriter( new FileOutputStream( stateFile ), "UTF-8" ) );
+            writer.println( HEADER );
+            writer.println( FINGERPRINT + fingerprint );
+            for ( Map.Entry<String, ClassEntry> entry : classes.entrySet() )
+            {
+                ClassEntry value = entry.getValue();
+                writer.print( entry.getKey() );
+                writer.print( '\t' );
+                writer.print( value.source.getPath() );
+                writer.print( '\t' );
+                writer.print( value.abiHash );
+                writer.print( '\t' );
+                writer.print( value.declaringConstants ? '1' : '0' );
+                writer.print( '\t' );
+                printClassNames( writer, value.supertypes );
+                writer.print( '\t' );
+                printClassNames( writer, value.references );
+                writer.println();
+            }
+            if ( writer.checkError() )
+            {
+                throw new IOException( "Unable to write " + stateFile );
+            }
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+    }
+
+    private void printClassNames( PrintWriter writer, Set<String> classNames )
+    {
+        boolean first = true;
+        for ( String className : classNames )
+        {
+            // only classes of this output directory can trigger a recompilation
+            if ( classes.containsKey( className ) )
+            {
+                if ( !first )
+                {
+                    writer.print( ' ' );
+                }
+                writer.print( className );
+                first = false;
+            }
+        }
+    }
+
+    /**
+     * Computes a fingerprint of the given values, for use with {@link #load(String)}. Archives are identified by
+     * their path, size and modification time, class directories additionally by the size and modification time of
+     * every class file they contain, so that updating a dependency or recompiling a sibling module triggers a full
+     * compilation. The output directory itself is only identified by its path.
+     *
+     * @param values the compiler options and classpath elements.
+     * @return the fingerprint, never <code>null</code>.
+     */
+    public String fingerprint( List<String> values )
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance( "MD5" );
+            for ( String value : values )
+            {
+                String token = String.valueOf( value );
+                File file = new File( token );
+                if ( file.isFile() )
+                {
+                    token += ":" + file.length() + ":" + file.lastModified();
+                }
+                digest.update( token.getBytes( "UTF-8" ) );
+                digest.update( (byte) 0 );
+                if ( file.isDirectory() && !file.getAbsoluteFile().equals( outputDirectory.getAbsoluteFile() ) )
+                {
+                    List<File> classFiles = new ArrayList<File>();
+                    collectClassFiles( file, 0, classFiles );
+                    Collections.sort( classFiles );
+                    for ( File classFile : classFiles )
+                    {
+                        String classToken = classFile.getPath().substring( file.getPath().length() ) + ":"
+                            + classFile.length() + ":" + classFile.lastModified();
+                        digest.update( classToken.getBytes( "UTF-8" ) );
+                        digest.update( (byte) 0 );
+                    }
+                }
+            }
+            return ClassFileInfo.toHex( digest.digest() );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "MD5 is not available: " + e.getMessage() );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( "UTF-8 is not available: " + e.getMessage() );
+        }
+    }
+
+    private Set<File> getDependentSources( Set<String> changedClasses )
+    {
+        Set<File> dependentSources = new HashSet<File>();
+        if ( changedClasses.isEmpty() )
+        {
+            return dependentSources;
+        }
+
+        // the ABI of a class includes its inherited members, so its subtypes change along with it
+        changedClasses = new HashSet<String>( changedClasses );
+        boolean added;
+        do
+        {
+            added = false;
+            for ( Map.Entry<String, ClassEntry> entry : classes.entrySet() )
+            {
+                if ( !changedClasses.contains( entry.getKey() )
+                    && !Collections.disjoint( entry.getValue().supertypes, changedClasses ) )
+                {
+                    changedClasses.add( entry.getKey() );
+                    dependentSources.add( entry.getValue().source );
+                    added = true;
+                }
+            }
+        }
+        while ( added );
+
+        for ( ClassEntry entry : classes.values() )
+        {
+            for ( String reference : entry.references )
+            {
+                if ( changedClasses.contains( reference ) )
+                {
+                    dependentSources.add( entry.source );
+                    break;
+                }
+            }
+        }
+        if ( log.isDebugEnabled() && !dependentSources.isEmpty() )
+        {
+            log.debug( "ABI changed for " + new TreeSet<String>( changedClasses ) + ", recompiling dependent sources "
+                + dependentSources );
+        }
+        return dependentSources;
+    }
+
+    private File findSource( ClassFileInfo info )
+    {
+        String className = info.getClassName();
+        int slash = className.lastIndexOf( '/' );
+        String packagePath = slash >= 0 ? className.substring( 0, slash + 1 ) : "";
+
+        String fileName = info.getSourceFileName();
+        if ( fileName == null )
+        {
+            // compiled without -g:source, assume the top level class is named after its source
+            String simpleName = className.substring( slash + 1 );
+            int dollar = simpleName.indexOf( '$' );
+            fileName = ( dollar > 0 ? simpleName.substring( 0, dollar ) : simpleName ) + ".java";
+        }
+
+        for ( String sourceRoot : compileSourceRoots )
+        {
+            File source = new File( sourceRoot, packagePath + fileName );
+            if ( allSources.contains( source ) || source.isFile() )
+            {
+                return source;
+            }
+        }
+        return null;
+    }
+
+    private File getClassFile( String className )
+    {
+        return new File( outputDirectory, className.replace( '/', File.separatorChar ) + CLASS_FILE_SUFFIX );
+    }
+
+    private static void collectClassFiles( File directory, long since, List<File> classFiles )
+    {
+        File[] files = directory.listFiles();
+        if ( files == null )
+        {
+            return;
+        }
+        for ( int i = 0; i < files.length; i++ )
+        {
+            File file = files[i];
+            if ( file.isDirectory() )
+            {
+                collectClassFiles( file, since, classFiles );
+            }
+            else if ( file.getName().endsWith( CLASS_FILE_SUFFIX ) && file.lastModified() >= since )
+            {
+                classFiles.add( file );
+            }
+        }
+    }
+
+    private static class ClassEntry
+    {
+        private final File source;
+
+        private final String abiHash;
+
+        private final boolean declaringConstants;
+
+        private final Set<String> supertypes = new TreeSet<String>();
+
+        private final Set<String> references = new TreeSet<String>();
+
+        ClassEntry( File source, String abiHash, boolean declaringConstants )
+        {
+            this.source = source;
+            this.abiHash = abiHash;
+            this.declaringConstants = declaringConstants;
+        }
+    }
+}
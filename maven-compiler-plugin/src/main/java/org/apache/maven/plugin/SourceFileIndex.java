@@ -0,0 +1,430 @@
+package org.apache.maven.plugin;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.compiler.util.scan.AbstractSourceInclusionScanner;
+import org.codehaus.plexus.compiler.util.scan.InclusionScanException;
+import org.codehaus.plexus.compiler.util.scan.SourceInclusionScanner;
+import org.codehaus.plexus.compiler.util.scan.mapping.SourceMapping;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.SelectorUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A persistent index of the included files of the compile source roots, replacing the full directory walk of the
+ * {@link org.codehaus.plexus.compiler.util.scan.StaleSourceScanner} on each build. For every directory the index
+ * records its modification time, its subdirectories and its included files: as long as the modification time of a
+ * directory is unchanged no entry was added to or removed from it, so it is neither listed nor matched against the
+ * include and exclude patterns again.
+ * <p>
+ * The stale source and the all sources scanners returned by this index share the same walk, so a compiler which
+ * needs both of them only scans the source roots once. Sources and their targets are still checked for their
+ * modification time, since editing or deleting a file does not change the modification time of its directory.
+ * </p>
+ *
+ * @author Maven Team
+ * @version $Id$
+ * @since 2.5
+ */
+public class SourceFileIndex
+{
+    private static final String HEADER = "# maven-compiler-plugin source index";
+
+    /**
+     * Directories modified this close to the time the index was written are listed again, since a file system
+     * with a coarse timestamp granularity may not have updated their modification time for a later change.
+     */
+    private static final long RACY_MILLIS = 2000;
+
+    private final File indexFile;
+
+    private final String[] includes;
+
+    private final String[] excludes;
+
+    private final String patterns;
+
+    private final Log log;
+
+    private final Map<String, Map<String, DirectoryEntry>> roots = new TreeMap<String, Map<String, DirectoryEntry>>();
+
+    private final Map<String, List<String>> scannedRoots = new LinkedHashMap<String, List<String>>();
+
+    private long savedAt;
+
+    private boolean changed;
+
+    /**
+     * @param indexFile the file storing the index between builds.
+     * @param includes the include patterns, all files are included if empty.
+     * @param excludes the exclude patterns, the default excludes are always applied.
+     * @param log the log of the calling mojo.
+     */
+    public SourceFileIndex( File indexFile, Set<String> includes, Set<String> excludes, Log log )
+    {
+        this.indexFile = indexFile;
+        this.includes = normalizePatterns( includes.isEmpty() ? Collections.singleton( "**/*" ) : includes );
+        Set<String> allExcludes = new TreeSet<String>( excludes );
+        allExcludes.addAll( Arrays.asList( DirectoryScanner.DEFAULTEXCLUDES ) );
+        this.excludes = normalizePatterns( allExcludes );
+        this.patterns = Arrays.asList( this.includes ) + " " + Arrays.asList( this.excludes );
+        this.log = log;
+    }
+
+    /**
+     * Loads the index of the previous build, if it was made with the same patterns.
+     *
+     * @throws IOException if the index file could not be read.
+     */
+    public void load()
+        throws IOException
+    {
+        roots.clear();
+        if ( !indexFile.isFile() )
+        {
+            changed = true;
+            return;
+        }
+
+        BufferedReader reader = null;
+        try
+        {
+            reader = new BufferedReader( new InputStreamReader( new FileInputStream( indexFile ), "UTF-8" ) );
+            if ( !HEADER.equals( reader.readLine() ) || !patterns.equals( reader.readLine() ) )
+            {
+                log.debug( "Source index " + indexFile + " was created with other patterns, ignoring it" );
+                changed = true;
+                return;
+            }
+            savedAt = Long.parseLong( reader.readLine() );
+
+            Map<String, DirectoryEntry> directories = null;
+            DirectoryEntry directory = null;
+            String line;
+            while ( ( line = reader.readLine() ) != null )
+            {
+                if ( line.length() < 2 )
+                {
+                    continue;
+                }
+                char type = line.charAt( 0 );
+                String value = line.substring( 2 );
+                if ( type == 'r' )
+                {
+                    directories = new TreeMap<String, DirectoryEntry>();
+                    roots.put( value, directories );
+                }
+                else if ( type == 'D' && directories != null )
+                {
+                    int space = value.indexOf( ' ' );
+                    directory = new DirectoryEntry( Long.parseLong( value.substring( 0, space ) ) );
+                    directories.put( value.substring( space + 1 ), directory );
+                }
+                else if ( type == 'd' && directory != null )
+                {
+                    directory.directories.add( value );
+                }
+                else if ( type == 'f' && directory != null )
+                {
+                    directory.files.add( value );
+                }
+            }
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+    }
+
+    /**
+     * Writes the index if a directory was listed again during this build.
+     *
+     * @throws IOException if the index file could not be written.
+     */
+    public void save()
+        throws IOException
+    {
+        if ( !changed )
+        {
+            return;
+        }
+
+        indexFile.getParentFile().mkdirs();
+
+        PrintWriter writer = null;
+        try
+        {
+            writer = new PrintWriter( new OutputStreamWriter( new FileOutputStream( indexFile ), "UTF-8" ) );
+            writer.println( HEADER );
+            writer.println( patterns );
+            writer.println( System.currentTimeMillis() );
+            for ( Map.Entry<String, Map<String, DirectoryEntry>> root : roots.entrySet() )
+            {
+                writer.println( "r " + root.getKey() );
+                for ( Map.Entry<String, DirectoryEntry> directory : root.getValue().entrySet() )
+                {
+                    writer.println( "D " + directory.getValue().lastModified + " " + directory.getKey() );
+                    for ( String name : directory.getValue().directories )
+                    {
+                        writer.println( "d " + name );
+                    }
+                    for ( String name : directory.getValue().files )
+                    {
+                        writer.println( "f " + name );
+                    }
+                }
+            }
+            if ( writer.checkError() )
+            {
+                throw new IOException( "Unable to write " + indexFile );
+            }
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+
+        changed = false;
+    }
+
+    /**
+     * @param staleMillis the granularity of the modification times, as for the stale source scanner.
+     * @return a scanner returning the sources which are newer than one of their targets.
+     */
+    public SourceInclusionScanner getStaleSourceScanner( int staleMillis )
+    {
+        return new IndexedScanner( staleMillis );
+    }
+
+    /**
+     * @return a scanner returning all the sources which are mapped to a target, regardless of their timestamps.
+     */
+    public SourceInclusionScanner getSourceScanner()
+    {
+        return new IndexedScanner( -1 );
+    }
+
+    /**
+     * Returns the included files of a source root, relative to it. Each root is walked at most once per build.
+     */
+    private synchronized List<String> getIncludedFiles( File sourceRoot )
+    {
+        String key = sourceRoot.getAbsolutePath();
+        List<String> files = scannedRoots.get( key );
+        if ( files != null )
+        {
+            return files;
+        }
+
+        Map<String, DirectoryEntry> previous = roots.get( key );
+        if ( previous == null )
+        {
+            previous = Collections.emptyMap();
+        }
+        Map<String, DirectoryEntry> current = new TreeMap<String, DirectoryEntry>();
+
+        files = new ArrayList<String>();
+        walk( sourceRoot, "", previous, current, files );
+
+        if ( !current.equals( previous ) )
+        {
+            changed = true;
+        }
+        roots.put( key, current );
+        scannedRoots.put( key, files );
+        return files;
+    }
+
+    private void walk( File directory, String path, Map<String, DirectoryEntry> previous,
+                       Map<String, DirectoryEntry> current, List<String> includedFiles )
+    {
+        long lastModified = directory.lastModified();
+
+        DirectoryEntry entry = previous.get( path );
+        if ( entry == null || entry.lastModified != lastModified )
+        {
+            entry = list( directory, path, lastModified );
+        }
+        else if ( lastModified >= savedAt - RACY_MILLIS )
+        {
+            entry = list( directory, path, lastModified );
+            // written again so that the directory is trusted by the next build
+            changed = true;
+        }
+        current.put( path, entry );
+
+        for ( String name : entry.files )
+        {
+            includedFiles.add( path + name );
+        }
+        for ( String name : entry.directories )
+        {
+            walk( new File( directory, name ), path + name + File.separator, previous, current, includedFiles );
+        }
+    }
+
+    private DirectoryEntry list( File directory, String path, long lastModified )
+    {
+        DirectoryEntry entry = new DirectoryEntry( lastModified );
+
+        String[] names = directory.list();
+        if ( names == null )
+        {
+            return entry;
+        }
+        Arrays.sort( names );
+        for ( int i = 0; i < names.length; i++ )
+        {
+            File file = new File( directory, names[i] );
+            if ( file.isDirectory() )
+            {
+                entry.directories.add( names[i] );
+            }
+            else if ( isIncluded( path + names[i] ) )
+            {
+                entry.files.add( names[i] );
+            }
+        }
+        return entry;
+    }
+
+    private boolean isIncluded( String path )
+    {
+        boolean included = false;
+        for ( int i = 0; i < includes.length && !included; i++ )
+        {
+            included = SelectorUtils.matchPath( includes[i], path, true );
+        }
+        for ( int i = 0; i < excludes.length && included; i++ )
+        {
+            included = !SelectorUtils.matchPath( excludes[i], path, true );
+        }
+        return included;
+    }
+
+    /**
+     * Normalizes the patterns the way {@link DirectoryScanner} does.
+     */
+    private static String[] normalizePatterns( Set<String> patterns )
+    {
+        Set<String> normalized = new TreeSet<String>();
+        for ( String pattern : patterns )
+        {
+            String value = pattern.trim().replace( '/', File.separatorChar ).replace( '\\', File.separatorChar );
+            if ( value.endsWith( File.separator ) )
+            {
+                value += "**";
+            }
+            normalized.add( value );
+        }
+        return normalized.toArray( new String[normalized.size()] );
+    }
+
+    private class IndexedScanner
+        extends AbstractSourceInclusionScanner
+    {
+        private final long staleMillis;
+
+        IndexedScanner( long staleMillis )
+        {
+            this.staleMillis = staleMillis;
+        }
+
+        public Set<File> getIncludedSources( File sourceDir, File targetDir )
+            throws InclusionScanException
+        {
+            List<SourceMapping> mappings = getSourceMappings();
+            if ( mappings.isEmpty() )
+            {
+                return Collections.emptySet();
+            }
+
+            Set<File> sources = new HashSet<File>();
+            for ( String path : getIncludedFiles( sourceDir ) )
+            {
+                File source = new File( sourceDir, path );
+                long sourceLastModified = staleMillis >= 0 ? source.lastModified() : 0;
+                for ( SourceMapping mapping : mappings )
+                {
+                    for ( File target : mapping.getTargetFiles( targetDir, path ) )
+                    {
+                        if ( staleMillis < 0 || !target.exists()
+                            || target.lastModified() + staleMillis < sourceLastModified )
+                        {
+                            sources.add( source );
+                            break;
+                        }
+                    }
+                }
+            }
+            return sources;
+        }
+    }
+
+    private static class DirectoryEntry
+    {
+        private final long lastModified;
+
+        private final Set<String> directories = new TreeSet<String>();
+
+        private final Set<String> files = new TreeSet<String>();
+
+        DirectoryEntry( long lastModified )
+        {
+            this.lastModified = lastModified;
+        }
+
+        public boolean equals( Object obj )
+        {
+            if ( !( obj instanceof DirectoryEntry ) )
+            {
+                return false;
+            }
+            DirectoryEntry other = (DirectoryEntry) obj;
+            return lastModified == other.lastModified && directories.equals( other.directories )
+                && files.equals( other.files );
+        }
+
+        public int hashCode()
+        {
+            return (int) lastModified + 31 * directories.hashCode() + 17 * files.hashCode();
+        }
+    }
+}
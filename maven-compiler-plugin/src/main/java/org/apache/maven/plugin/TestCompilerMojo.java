@@ -243,4 +243,13 @@ public class TestCompilerMojo
         return generatedTestSourcesDirectory;
     }
 
+    protected Set<String> getIncludes()
+    {
+        return testIncludes;
+    }
+
+    protected Set<String> getExcludes()
+    {
+        return testExcludes;
+    }
 }
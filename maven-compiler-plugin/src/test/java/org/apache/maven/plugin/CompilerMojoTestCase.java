@@ -31,6 +31,8 @@ import org.apache.maven.plugin.stubs.CompilerManagerStub;
 import org.apache.maven.plugin.stubs.DebugEnabledLog;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 import org.apache.maven.plugin.testing.stubs.ArtifactStub;
+import org.codehaus.plexus.compiler.CompilerError;
+import org.codehaus.plexus.util.FileUtils;
 
 public class CompilerMojoTestCase
     extends AbstractMojoTestCase
@@ -65,6 +67,35 @@ public class CompilerMojoTestCase
         assertTrue( testClass.exists() );
     }
 
+    /**
+     * tests the report of the compiler metrics
+     *
+     * @throws Exception
+     */
+    public void testCompilerMetrics()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( new File( getBasedir(), "target/test/unit/compiler-basic-test" ) );
+
+        CompilerMojo compileMojo = getCompilerMojo( "target/test-classes/unit/compiler-basic-test/plugin-config.xml" );
+        setVariableValueToObject( compileMojo, "compilerMetrics", Boolean.TRUE );
+
+        compileMojo.execute();
+
+        File report = new File( getBasedir(),
+                                "target/test/unit/compiler-basic-test/target/maven-status/maven-compiler-plugin/"
+                                    + "classes-metrics.json" );
+        assertTrue( report.exists() );
+
+        String json = FileUtils.fileRead( report );
+        assertTrue( json, json.indexOf( "\"compilerId\": \"javac\"" ) >= 0 );
+        assertTrue( json, json.indexOf( "\"compilation\": " ) >= 0 );
+        assertTrue( json, json.indexOf( "\"sourcesScanned\": 1" ) >= 0 );
+        assertTrue( json, json.indexOf( "\"sourcesStale\": 1" ) >= 0 );
+        assertTrue( json, json.indexOf( "\"classesEmitted\": 1" ) >= 0 );
+        assertTrue( json, json.indexOf( "\"errors\": 0" ) >= 0 );
+    }
+
     /**
      * tests the ability of the plugin to respond to empty source
      *
@@ -166,6 +197,118 @@ public class CompilerMojoTestCase
         assertTrue( testClass.exists() );
     }
 
+    /**
+     * tests the ability of the plugin to compile through a reused forked compiler
+     *
+     * @throws Exception
+     */
+    public void testCompilerForkReused()
+        throws Exception
+    {
+        File buildDir = new File( getBasedir(), "target/test/unit/compiler-fork-test" );
+        FileUtils.deleteDirectory( buildDir );
+        int startedWorkers = ForkedCompilerWorkerPool.getStartedWorkers();
+
+        CompilerMojo compileMojo = getCompilerMojo( "target/test-classes/unit/compiler-fork-test/plugin-config.xml" );
+        setVariableValueToObject( compileMojo, "reuseForkedCompiler", Boolean.TRUE );
+
+        compileMojo.execute();
+
+        File testClass = new File( compileMojo.getOutputDirectory(), "TestCompile1.class" );
+        assertTrue( testClass.exists() );
+
+        TestCompilerMojo testCompileMojo =
+            getTestCompilerMojo( compileMojo, "target/test-classes/unit/compiler-fork-test/plugin-config.xml" );
+        setVariableValueToObject( testCompileMojo, "reuseForkedCompiler", Boolean.TRUE );
+
+        testCompileMojo.execute();
+
+        testClass = new File( testCompileMojo.getOutputDirectory(), "TestCompile1TestCase.class" );
+        assertTrue( testClass.exists() );
+
+        // the second compilation reused the worker of the first one
+        assertEquals( startedWorkers + 1, ForkedCompilerWorkerPool.getStartedWorkers() );
+
+        ForkedCompilerWorkerPool.shutdown();
+    }
+
+    /**
+     * tests that a reused forked compiler accepts a class path longer than 64 KB
+     *
+     * @throws Exception
+     */
+    public void testCompilerForkReusedLongClasspath()
+        throws Exception
+    {
+        File buildDir = new File( getBasedir(), "target/test/unit/compiler-fork-test" );
+        FileUtils.deleteDirectory( buildDir );
+
+        List<String> classpathElements = new ArrayList<String>();
+        int length = 0;
+        for ( int i = 0; length <= 65535; i++ )
+        {
+            String element = new File( buildDir, "lib/dependency-" + i + ".jar" ).getAbsolutePath();
+            classpathElements.add( element );
+            length += element.length() + 1;
+        }
+
+        CompilerMojo compileMojo = getCompilerMojo( "target/test-classes/unit/compiler-fork-test/plugin-config.xml" );
+        setVariableValueToObject( compileMojo, "reuseForkedCompiler", Boolean.TRUE );
+        setVariableValueToObject( compileMojo, "classpathElements", classpathElements );
+
+        compileMojo.execute();
+
+        assertTrue( new File( compileMojo.getOutputDirectory(), "TestCompile1.class" ).exists() );
+
+        ForkedCompilerWorkerPool.shutdown();
+    }
+
+    public void testForkedCompilerWorkingDirectory()
+    {
+        File basedir = new File( getBasedir() ).getAbsoluteFile();
+        File absolute = new File( basedir, "target/classes" );
+        String[] arguments =
+            { "-d", "target/classes", "-classpath", absolute.getPath() + File.pathSeparator + "lib/foo.jar",
+                "-encoding", "UTF-8", "-Xbootclasspath/p:lib/boot.jar", "@target/args", "src/main/java/Foo.java" };
+
+        String[] resolved = ForkedCompilerWorker.resolvePaths( arguments, basedir );
+
+        assertEquals( absolute.getPath(), resolved[1] );
+        assertEquals( absolute.getPath() + File.pathSeparator + new File( basedir, "lib/foo.jar" ).getPath(),
+                      resolved[3] );
+        assertEquals( "UTF-8", resolved[5] );
+        assertEquals( "-Xbootclasspath/p:" + new File( basedir, "lib/boot.jar" ).getPath(), resolved[6] );
+        assertEquals( "@" + new File( basedir, "target/args" ).getPath(), resolved[7] );
+        assertEquals( new File( basedir, "src/main/java/Foo.java" ).getPath(), resolved[8] );
+    }
+
+    public void testForkedCompilerMessages()
+        throws Exception
+    {
+        String output = "/src/Foo.java:3: error: cannot find symbol\n" + "        bar();\n" + "        ^\n"
+            + "  symbol:   method bar()\n" + "/src/Foo.java:5: warning: [deprecation] Date in java.util\n"
+            + "        new Date( 1, 1, 1 );\n" + "        ^\n"
+            + "Note: Some input files use unchecked or unsafe operations.\n" + "1 error\n" + "1 warning\n";
+
+        List<CompilerError> messages = ForkedCompilerWorkerPool.parseMessages( output, 1 );
+
+        assertEquals( 3, messages.size() );
+
+        CompilerError error = messages.get( 0 );
+        assertTrue( error.isError() );
+        assertEquals( "/src/Foo.java", error.getFile() );
+        assertEquals( 3, error.getStartLine() );
+        assertEquals( 9, error.getStartColumn() );
+        assertEquals( "cannot find symbol\n  symbol:   method bar()", error.getMessage() );
+
+        assertFalse( messages.get( 1 ).isError() );
+        assertEquals( 5, messages.get( 1 ).getStartLine() );
+        assertFalse( messages.get( 2 ).isError() );
+
+        messages = ForkedCompilerWorkerPool.parseMessages( "javac: invalid flag: -foo\n", 2 );
+        assertTrue( messages.get( messages.size() - 1 ).isError() );
+    }
+
     public void testOneOutputFileForAllInput()
         throws Exception
     {
@@ -278,6 +421,181 @@ public class CompilerMojoTestCase
         }
     }
 
+    /**
+     * tests that an incremental build recompiles the dependents of a changed class and removes orphaned classes
+     *
+     * @throws Exception
+     */
+    public void testIncrementalBuild()
+        throws Exception
+    {
+        File baseDir = new File( getBasedir(), "target/test/unit/compiler-incremental-test" );
+        FileUtils.deleteDirectory( baseDir );
+
+        File sourceDir = new File( baseDir, "src/main/java" );
+        sourceDir.mkdirs();
+        FileUtils.fileWrite( new File( sourceDir, "Base.java" ).getPath(),
+                             "public class Base { public int value() { return 1; } }" );
+        FileUtils.fileWrite( new File( sourceDir, "User.java" ).getPath(),
+                             "public class User { int use() { return new Base().value(); } }" );
+        FileUtils.fileWrite( new File( sourceDir, "Unrelated.java" ).getPath(), "public class Unrelated { }" );
+
+        String pomXml = "target/test-classes/unit/compiler-incremental-test/plugin-config.xml";
+
+        CompilerMojo compileMojo = getCompilerMojo( pomXml );
+        compileMojo.execute();
+
+        File outputDir = compileMojo.getOutputDirectory();
+        File userClass = new File( outputDir, "User.class" );
+        File unrelatedClass = new File( outputDir, "Unrelated.class" );
+        assertTrue( new File( outputDir, "Base.class" ).exists() );
+        assertTrue( userClass.exists() );
+        assertTrue( unrelatedClass.exists() );
+        assertTrue( new File( baseDir, "target/maven-status/maven-compiler-plugin/classes.incremental" ).exists() );
+
+        long past = System.currentTimeMillis() - 60000;
+        new File( sourceDir, "User.java" ).setLastModified( past - 60000 );
+        new File( sourceDir, "Unrelated.java" ).setLastModified( past - 60000 );
+        userClass.setLastModified( past );
+        unrelatedClass.setLastModified( past );
+
+        // an implementation change must not recompile the dependents
+        File baseSource = new File( sourceDir, "Base.java" );
+        FileUtils.fileWrite( baseSource.getPath(), "public class Base { public int value() { return 2; } }" );
+        baseSource.setLastModified( System.currentTimeMillis() + 10000 );
+
+        getCompilerMojo( pomXml ).execute();
+
+        assertEquals( past / 1000, userClass.lastModified() / 1000 );
+
+        // an ABI change must recompile the dependents only
+        FileUtils.fileWrite( baseSource.getPath(),
+                             "public class Base { public int value() { return 2; } public void added() { } }" );
+        baseSource.setLastModified( System.currentTimeMillis() + 20000 );
+
+        getCompilerMojo( pomXml ).execute();
+
+        assertTrue( userClass.lastModified() > past );
+        assertEquals( past / 1000, unrelatedClass.lastModified() / 1000 );
+
+        // the classes of a deleted source must be removed
+        assertTrue( new File( sourceDir, "Unrelated.java" ).delete() );
+
+        getCompilerMojo( pomXml ).execute();
+
+        assertFalse( unrelatedClass.exists() );
+        assertTrue( userClass.exists() );
+    }
+
+    /**
+     * tests that an incremental build recompiles the users of a class whose inherited members changed
+     *
+     * @throws Exception
+     */
+    public void testIncrementalBuildInheritedMember()
+        throws Exception
+    {
+        File baseDir = new File( getBasedir(), "target/test/unit/compiler-incremental-test" );
+        FileUtils.deleteDirectory( baseDir );
+
+        File sourceDir = new File( baseDir, "src/main/java" );
+        sourceDir.mkdirs();
+        File grandParentSource = new File( sourceDir, "GrandParent.java" );
+        FileUtils.fileWrite( grandParentSource.getPath(),
+                             "public class GrandParent { public int value() { return 1; } }" );
+        FileUtils.fileWrite( new File( sourceDir, "Parent.java" ).getPath(),
+                             "public class Parent extends GrandParent { }" );
+        FileUtils.fileWrite( new File( sourceDir, "Child.java" ).getPath(), "public class Child extends Parent { }" );
+        FileUtils.fileWrite( new File( sourceDir, "User.java" ).getPath(),
+                             "public class User { long use() { return new Child().value(); } }" );
+
+        String pomXml = "target/test-classes/unit/compiler-incremental-test/plugin-config.xml";
+
+        // from Java 1.2 on, the users of an inherited member reference the class they invoke it on
+        CompilerMojo compileMojo = getCompilerMojo( pomXml );
+        setVariableValueToObject( compileMojo, "source", "1.5" );
+        setVariableValueToObject( compileMojo, "target", "1.5" );
+        compileMojo.execute();
+
+        File outputDir = compileMojo.getOutputDirectory();
+        File childClass = new File( outputDir, "Child.class" );
+        File userClass = new File( outputDir, "User.class" );
+        assertTrue( childClass.exists() );
+        assertTrue( userClass.exists() );
+
+        long past = System.currentTimeMillis() - 60000;
+        String[] names = { "Parent", "Child", "User" };
+        for ( int i = 0; i < names.length; i++ )
+        {
+            new File( sourceDir, names[i] + ".java" ).setLastModified( past - 60000 );
+            new File( outputDir, names[i] + ".class" ).setLastModified( past );
+        }
+
+        // the users of a grandchild only reference the grandchild, yet they depend on the inherited members
+        FileUtils.fileWrite( grandParentSource.getPath(),
+                             "public class GrandParent { public long value() { return 2; } }" );
+        grandParentSource.setLastModified( System.currentTimeMillis() + 10000 );
+
+        compileMojo = getCompilerMojo( pomXml );
+        setVariableValueToObject( compileMojo, "source", "1.5" );
+        setVariableValueToObject( compileMojo, "target", "1.5" );
+        compileMojo.execute();
+
+        assertTrue( childClass.lastModified() > past );
+        assertTrue( userClass.lastModified() > past );
+    }
+
+    /**
+     * tests that the source index picks up added and modified sources
+     *
+     * @throws Exception
+     */
+    public void testSourceIndex()
+        throws Exception
+    {
+        File baseDir = new File( getBasedir(), "target/test/unit/compiler-source-index-test" );
+        FileUtils.deleteDirectory( baseDir );
+
+        File packageDir = new File( baseDir, "src/main/java/foo" );
+        packageDir.mkdirs();
+        File first = new File( packageDir, "First.java" );
+        FileUtils.fileWrite( first.getPath(), "package foo; public class First { }" );
+        FileUtils.fileWrite( new File( packageDir, "Unrelated.txt" ).getPath(), "not a source" );
+
+        String pomXml = "target/test-classes/unit/compiler-source-index-test/plugin-config.xml";
+
+        CompilerMojo compileMojo = getCompilerMojo( pomXml );
+        compileMojo.execute();
+
+        File firstClass = new File( compileMojo.getOutputDirectory(), "foo/First.class" );
+        assertTrue( firstClass.exists() );
+        assertTrue( new File( baseDir, "target/maven-status/maven-compiler-plugin/classes.index" ).exists() );
+
+        // pretend the index was written a while ago, so that the directories are trusted
+        long past = System.currentTimeMillis() - 60000;
+        packageDir.setLastModified( past );
+        packageDir.getParentFile().setLastModified( past );
+        first.setLastModified( past );
+        firstClass.setLastModified( past );
+        getCompilerMojo( pomXml ).execute();
+
+        // a new file updates the modification time of its directory
+        File second = new File( packageDir, "Second.java" );
+        FileUtils.fileWrite( second.getPath(), "package foo; public class Second { }" );
+
+        getCompilerMojo( pomXml ).execute();
+
+        assertTrue( new File( compileMojo.getOutputDirectory(), "foo/Second.class" ).exists() );
+        assertEquals( past / 1000, firstClass.lastModified() / 1000 );
+
+        // a modified file does not, but its timestamp is still checked
+        first.setLastModified( System.currentTimeMillis() + 10000 );
+
+        getCompilerMojo( pomXml ).execute();
+
+        assertTrue( firstClass.lastModified() > past );
+    }
+
     private CompilerMojo getCompilerMojo( String pomXml )
         throws Exception
     {
@@ -110,6 +110,17 @@ public abstract class AbstractGpgMojo
      */
     private String publicKeyring;
 
+    /**
+     * The number of gpg processes signing the files of a project in parallel, one process per file. This speeds up
+     * signing projects with many attached artifacts. A value less than 2 signs the files one at a time, and so does
+     * using the agent without a passphrase, since several gpg processes could then ask for the passphrase at once.
+     * The number of gpg processes stays the same, only the wall clock time of signing goes down.
+     * 
+     * @parameter expression="${gpg.parallelThreads}" default-value="1"
+     * @since 1.5
+     */
+    private int parallelThreads = 1;
+
     GpgSigner newSigner( MavenProject project )
         throws MojoExecutionException, MojoFailureException
     {
@@ -141,6 +152,16 @@ public abstract class AbstractGpgMojo
             }
         }
 
+        if ( parallelThreads > 1 && null == passphrase && useAgent )
+        {
+            getLog().warn( "No passphrase given to gpg, signing the files one at a time" );
+            signer.setParallelThreads( 1 );
+        }
+        else
+        {
+            signer.setParallelThreads( parallelThreads );
+        }
+
         return signer;
     }
 
@@ -127,7 +127,10 @@ public class GpgSignAttachedMojo
         signer.setBuildDirectory( new File( project.getBuild().getDirectory() ) );
         signer.setBaseDirectory( project.getBasedir() );
 
-        List signingBundles = new ArrayList();
+        // the files are signed together, in parallel if configured, and kept with their extension and classifier
+        List files = new ArrayList();
+        List extensions = new ArrayList();
+        List classifiers = new ArrayList();
 
         if ( !"pom".equals( project.getPackaging() ) )
         {
@@ -143,13 +146,9 @@ public class GpgSignAttachedMojo
             {
                 getLog().debug( "Generating signature for " + file );
 
-                File projectArtifactSignature = signer.generateSignatureForArtifact( file );
-
-                if ( projectArtifactSignature != null )
-                {
-                    signingBundles.add( new SigningBundle( artifact.getArtifactHandler().getExtension(),
-                                                           projectArtifactSignature ) );
-                }
+                files.add( file );
+                extensions.add( artifact.getArtifactHandler().getExtension() );
+                classifiers.add( null );
             }
             else if ( project.getAttachedArtifacts().isEmpty() )
             {
@@ -179,12 +178,9 @@ public class GpgSignAttachedMojo
 
         getLog().debug( "Generating signature for " + pomToSign );
 
-        File pomSignature = signer.generateSignatureForArtifact( pomToSign );
-
-        if ( pomSignature != null )
-        {
-            signingBundles.add( new SigningBundle( "pom", pomSignature ) );
-        }
+        files.add( pomToSign );
+        extensions.add( "pom" );
+        classifiers.add( null );
 
         // ----------------------------------------------------------------------------
         // Attached artifacts
@@ -198,12 +194,21 @@ public class GpgSignAttachedMojo
 
             getLog().debug( "Generating signature for " + file );
 
-            File signature = signer.generateSignatureForArtifact( file );
+            files.add( file );
+            extensions.add( artifact.getArtifactHandler().getExtension() );
+            classifiers.add( artifact.getClassifier() );
+        }
+
+        File[] signatures = signer.generateSignaturesForArtifacts( (File[]) files.toArray( new File[files.size()] ) );
 
-            if ( signature != null )
+        List signingBundles = new ArrayList();
+
+        for ( int i = 0; i < signatures.length; i++ )
+        {
+            if ( signatures[i] != null )
             {
-                signingBundles.add( new SigningBundle( artifact.getArtifactHandler().getExtension(),
-                                                       artifact.getClassifier(), signature ) );
+                signingBundles.add( new SigningBundle( (String) extensions.get( i ), (String) classifiers.get( i ),
+                                                       signatures[i] ) );
             }
         }
 
@@ -25,6 +25,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
@@ -64,6 +69,8 @@ public class GpgSigner
 
     private String publicKeyring;
 
+    private int parallelThreads = 1;
+
     public void setExecutable( String executable )
     {
         this.executable = executable;
@@ -124,8 +131,98 @@ public class GpgSigner
         publicKeyring = path;
     }
 
+    public void setParallelThreads( int threads )
+    {
+        parallelThreads = threads;
+    }
+
     public File generateSignatureForArtifact( File file )
         throws MojoExecutionException
+    {
+        return generateSignaturesForArtifacts( new File[] { file } )[0];
+    }
+
+    /**
+     * Signs several files in parallel, with one gpg process per file and up to the configured number of processes
+     * running at the same time. The signatures are the same as signing the files one at a time.
+     * <p>
+     * This does not reduce the number of gpg processes: gpg creates a single detached signature per invocation
+     * (<code>--sign</code> does not work with <code>--multifile</code>), and signing within the JVM would need an
+     * OpenPGP library the plugin does not depend on.
+     * </p>
+     * 
+     * @param files The files to sign, must not be <code>null</code>.
+     * @return The signatures, in the order of the files, never <code>null</code>.
+     * @throws MojoExecutionException If a file could not be signed.
+     */
+    public File[] generateSignaturesForArtifacts( File[] files )
+        throws MojoExecutionException
+    {
+        final File[] signatures = new File[files.length];
+        for ( int i = 0; i < files.length; i++ )
+        {
+            signatures[i] = getSignatureFile( files[i] );
+        }
+
+        if ( parallelThreads <= 1 || files.length <= 1 )
+        {
+            for ( int i = 0; i < files.length; i++ )
+            {
+                sign( files[i], signatures[i] );
+            }
+            return signatures;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( parallelThreads, files.length ) );
+        try
+        {
+            Future[] results = new Future[files.length];
+            for ( int i = 0; i < files.length; i++ )
+            {
+                final File file = files[i];
+                final File signature = signatures[i];
+                results[i] = executor.submit( new Callable()
+                {
+                    public Object call()
+                        throws MojoExecutionException
+                    {
+                        sign( file, signature );
+                        return signature;
+                    }
+                } );
+            }
+
+            // report the failure of the first file, like signing the files one at a time does
+            for ( int i = 0; i < results.length; i++ )
+            {
+                try
+                {
+                    results[i].get();
+                }
+                catch ( ExecutionException e )
+                {
+                    if ( e.getCause() instanceof MojoExecutionException )
+                    {
+                        throw (MojoExecutionException) e.getCause();
+                    }
+                    throw new MojoExecutionException( "Unable to sign " + files[i], e.getCause() );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new MojoExecutionException( "Interrupted while signing " + files[i] );
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        return signatures;
+    }
+
+    private File getSignatureFile( File file )
     {
         File signature = new File( file + SIGNATURE_EXTENSION );
 
@@ -162,6 +259,12 @@ public class GpgSigner
             signature = new File( signatureDirectory, file.getName() + SIGNATURE_EXTENSION );
         }
 
+        return signature;
+    }
+
+    private void sign( File file, File signature )
+        throws MojoExecutionException
+    {
         if ( signature.exists() )
         {
             signature.delete();
@@ -258,8 +361,6 @@ public class GpgSigner
         {
             throw new MojoExecutionException( "Unable to execute gpg command", e );
         }
-
-        return signature;
     }
 
     private MavenProject findReactorProject( MavenProject prj )
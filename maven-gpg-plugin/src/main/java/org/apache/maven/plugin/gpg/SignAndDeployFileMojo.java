@@ -488,11 +488,19 @@ public class SignAndDeployFileMojo
 
         List attachedArtifacts = project.getAttachedArtifacts();
 
-        for ( Iterator i = attachedArtifacts.iterator(); i.hasNext(); )
+        // sign the attached artifacts together, in parallel if configured
+        File[] attachedFiles = new File[attachedArtifacts.size()];
+        for ( int i = 0; i < attachedFiles.length; i++ )
         {
-            Artifact attached = (Artifact) i.next();
+            attachedFiles[i] = ( (Artifact) attachedArtifacts.get( i ) ).getFile();
+        }
+        File[] attachedSigs = signer.generateSignaturesForArtifacts( attachedFiles );
+
+        for ( int i = 0; i < attachedSigs.length; i++ )
+        {
+            Artifact attached = (Artifact) attachedArtifacts.get( i );
 
-            fileSig = signer.generateSignatureForArtifact( attached.getFile() );
+            fileSig = attachedSigs[i];
             attached = new AttachedSignedArtifact(attached, new AscArtifactMetadata( attached, fileSig, false ) );
             try
             {
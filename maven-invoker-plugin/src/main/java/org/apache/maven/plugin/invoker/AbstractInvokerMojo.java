@@ -22,6 +22,7 @@ package org.apache.maven.plugin.invoker;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Profile;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -66,6 +67,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -74,6 +76,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -82,10 +85,8 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.TreeMap;
 import java.util.TreeSet;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Provides common code for mojos invoking sub builds.
@@ -186,6 +187,18 @@ public abstract class AbstractInvokerMojo
      */
     private boolean cloneClean;
 
+    /**
+     * Only copy the files of the IT projects which changed since the previous clone to {@link #cloneProjectsTo}. The
+     * cloned files are recorded in a manifest in that directory, with the size, modification time and hash of their
+     * source, and the POMs are only filtered again if they changed or if the values they are filtered with changed.
+     * When combined with {@link #cloneClean}, the files of the clone directory which do not belong to the IT projects,
+     * like the output of their previous builds, are deleted instead of the whole directory.
+     *
+     * @parameter expression="${invoker.cloneIncremental}" default-value="false"
+     * @since 1.6
+     */
+    private boolean cloneIncremental;
+
     /**
      * A single POM to build, skipping any scanning parameters and behavior.
      *
@@ -552,6 +565,49 @@ public abstract class AbstractInvokerMojo
      */
     private int parallelThreads;
 
+    /**
+     * The maximum number of seconds a build job may take, including its hook scripts and all its invocations of
+     * Maven. A build job exceeding it is interrupted and reported as in error. A value of <code>0</code> disables the
+     * timeout.
+     *
+     * @parameter expression="${invoker.timeoutInSeconds}" default-value="0"
+     * @since 1.6
+     */
+    private int timeoutInSeconds;
+
+    /**
+     * Whether to run the builds of the integration tests in a pool of long-lived worker JVMs instead of forking a new
+     * Maven process for every invocation. A worker runs the builds in-process with the Maven installation given by
+     * {@link #mavenHome}, which must be Maven 3. Up to {@link #parallelThreads} workers are started, all using
+     * {@link #mavenOpts} and {@link #javaHome}; an invocation with other <code>MAVEN_OPTS</code> is still forked.
+     * Individual integration tests can opt in or out with the property <code>invoker.embedded</code> of their
+     * {@link #invokerPropertiesFile}.
+     *
+     * @parameter expression="${invoker.embedded}" default-value="false"
+     * @since 1.6
+     */
+    private boolean embedded;
+
+    /**
+     * The file keeping the rolling history of the build times of the integration tests, split into the phases of the
+     * build jobs. The history is used by the {@link InvokerReport} to show the slowest build jobs and the regressions
+     * in build time, and by parallel runs to schedule the longest build jobs first. Point it outside of the build
+     * directory to keep the history across clean builds.
+     *
+     * @parameter expression="${invoker.historyFile}" default-value="${project.build.directory}/invoker-history.txt"
+     * @since 1.6
+     */
+    private File historyFile;
+
+    /**
+     * The number of runs kept per build job in the {@link #historyFile}. A value of <code>0</code> disables the
+     * history.
+     *
+     * @parameter expression="${invoker.historySize}" default-value="10"
+     * @since 1.6
+     */
+    private int historySize;
+
     /**
      * @parameter expression="${plugin.artifacts}"
      * @required
@@ -569,6 +625,11 @@ public abstract class AbstractInvokerMojo
      */
     private boolean mergeUserSettings;
 
+    /**
+     * The name of the manifest of an incremental clone, in the {@link #cloneProjectsTo} directory.
+     */
+    private static final String CLONE_MANIFEST = ".invoker-clone-manifest";
+
     /**
      * The scripter runner that is responsible to execute hook scripts.
      */
@@ -581,6 +642,21 @@ public abstract class AbstractInvokerMojo
      */
     private String filteredPomPrefix = "interpolated-";
 
+    /**
+     * The pool of worker JVMs running the embedded builds, created on demand.
+     */
+    private EmbeddedMavenPool embeddedPool;
+
+    /**
+     * Whether the creation of the pool of worker JVMs has already been attempted.
+     */
+    private boolean embeddedPoolCreated;
+
+    /**
+     * The durations of the build jobs of the previous run, used to schedule the longest jobs first.
+     */
+    private Map<String, Double> previousDurations = Collections.emptyMap();
+
     /**
      * The format for elapsed build time.
      */
@@ -610,6 +686,28 @@ public abstract class AbstractInvokerMojo
             reportsDirectory.mkdirs();
         }
 
+        long runStart = System.currentTimeMillis();
+        BuildHistory history = null;
+        if ( historySize > 0 && !disableReports )
+        {
+            history = new BuildHistory( historyFile, historySize );
+            history.load();
+        }
+
+        // read before the reports of this run overwrite them
+        previousDurations = Collections.emptyMap();
+        if ( isParallelRun() )
+        {
+            if ( history != null )
+            {
+                previousDurations = history.getAverageDurations();
+            }
+            if ( previousDurations.isEmpty() )
+            {
+                previousDurations = BuildJobScheduler.loadDurations( reportsDirectory );
+            }
+        }
+
         BuildJob[] buildJobs;
         if ( pom != null )
         {
@@ -668,6 +766,9 @@ public abstract class AbstractInvokerMojo
         scriptRunner.setScriptEncoding( encoding );
         scriptRunner.setGlobalVariable( "localRepositoryPath", localRepositoryPath );
         scriptRunner.setClassPath( scriptClassPath );
+        ScriptCache scriptCache = new ScriptCache( !isParallelRun() );
+        scriptRunner.addScriptInterpreter( "bsh", scriptCache.getBeanShellInterpreter() );
+        scriptRunner.addScriptInterpreter( "groovy", scriptCache.getGroovyInterpreter() );
 
         Collection<String> collectedProjects = new LinkedHashSet<String>();
         for ( int i = 0; i < buildJobs.length; i++ )
@@ -679,7 +780,12 @@ public abstract class AbstractInvokerMojo
 
         if ( cloneProjectsTo != null )
         {
+            long milliseconds = System.currentTimeMillis();
             cloneProjects( collectedProjects );
+            if ( history != null )
+            {
+                history.add( runStart, BuildHistory.CLONE, secondsSince( milliseconds ) );
+            }
             projectsDir = cloneProjectsTo;
         }
         else
@@ -687,11 +793,47 @@ public abstract class AbstractInvokerMojo
             getLog().warn( "Filtering of parent/child POMs is not supported without cloning the projects" );
         }
 
-        runBuilds( projectsDir, buildJobs );
+        try
+        {
+            runBuilds( projectsDir, buildJobs );
+        }
+        finally
+        {
+            if ( history != null )
+            {
+                writeBuildHistory( history, runStart, buildJobs );
+            }
+        }
 
         processResults( new InvokerSession( buildJobs ) );
     }
 
+    /**
+     * Adds the build times of the specified build jobs to the history and saves it.
+     *
+     * @param history The history to update, must not be <code>null</code>.
+     * @param runStart The start time of this run, used to identify it in the history.
+     * @param buildJobs The build jobs of this run, must not be <code>null</code>.
+     */
+    private void writeBuildHistory( BuildHistory history, long runStart, BuildJob[] buildJobs )
+    {
+        for ( int i = 0; i < buildJobs.length; i++ )
+        {
+            if ( buildJobs[i].getResult() != null )
+            {
+                history.add( runStart, buildJobs[i] );
+            }
+        }
+        try
+        {
+            history.save();
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( "Failed to write the build history " + historyFile + ": " + e.getMessage() );
+        }
+    }
+
     /**
      * Processes the results of invoking the build jobs.
      *
@@ -824,7 +966,7 @@ public abstract class AbstractInvokerMojo
     private void cloneProjects( Collection<String> projectPaths )
         throws MojoExecutionException
     {
-        if ( !cloneProjectsTo.mkdirs() && cloneClean )
+        if ( !cloneProjectsTo.mkdirs() && cloneClean && !cloneIncremental )
         {
             try
             {
@@ -850,6 +992,15 @@ public abstract class AbstractInvokerMojo
 
         boolean filter = false;
 
+        CloneManifest manifest = null;
+        IncrementalClone incrementalClone = null;
+        if ( cloneIncremental )
+        {
+            manifest = new CloneManifest( new File( cloneProjectsTo, CLONE_MANIFEST ) );
+            manifest.load();
+            incrementalClone = new IncrementalClone( manifest );
+        }
+
         // clone project directories
         try
         {
@@ -873,8 +1024,12 @@ public abstract class AbstractInvokerMojo
                     {
                         String cloneSubdir = relativizePath( cloneProjectsTo, projectsDirectory.getCanonicalPath() );
 
+                        if ( incrementalClone != null )
+                        {
+                            incrementalClone.copy( projectsDirectory, "", cloneSubdir );
+                        }
                         // avoid infinite recursion if the cloneTo path is a subdirectory.
-                        if ( cloneSubdir != null )
+                        else if ( cloneSubdir != null )
                         {
                             File temp = File.createTempFile( "pre-invocation-clone.", "" );
                             temp.delete();
@@ -894,8 +1049,15 @@ public abstract class AbstractInvokerMojo
                     else
                     {
                         File srcDir = new File( projectsDirectory, subpath );
-                        File dstDir = new File( cloneProjectsTo, subpath );
-                        copyDirectoryStructure( srcDir, dstDir );
+                        if ( incrementalClone != null )
+                        {
+                            incrementalClone.copy( srcDir, subpath.replace( '\\', '/' ) + '/', null );
+                        }
+                        else
+                        {
+                            File dstDir = new File( cloneProjectsTo, subpath );
+                            copyDirectoryStructure( srcDir, dstDir );
+                        }
                     }
 
                     clonedSubpaths.add( subpath );
@@ -912,16 +1074,208 @@ public abstract class AbstractInvokerMojo
         // filter cloned POMs
         if ( filter )
         {
+            String filterFingerprint = ( manifest != null ) ? getFilterFingerprint() : null;
             for ( String projectPath : projectPaths )
             {
                 File pomFile = new File( cloneProjectsTo, projectPath );
                 if ( pomFile.isFile() )
                 {
-                    buildInterpolatedFile( pomFile, pomFile );
+                    if ( manifest == null )
+                    {
+                        buildInterpolatedFile( pomFile, pomFile );
+                    }
+                    else if ( incrementalClone.isCopied( projectPath )
+                        || !filterFingerprint.equals( manifest.getFilterFingerprint() ) )
+                    {
+                        // a clone which was not copied again is already filtered, so filter the source POM instead
+                        buildInterpolatedFile( new File( projectsDirectory, projectPath ), pomFile );
+                        manifest.updateClone( projectPath, pomFile );
+                    }
                 }
             }
             filteredPomPrefix = null;
+
+            if ( manifest != null )
+            {
+                manifest.setFilterFingerprint( filterFingerprint );
+            }
+        }
+
+        if ( incrementalClone != null )
+        {
+            try
+            {
+                if ( cloneClean )
+                {
+                    incrementalClone.deleteOtherFiles();
+                }
+                manifest.retainAll( incrementalClone.getClonedFiles() );
+                manifest.save();
+            }
+            catch ( IOException e )
+            {
+                throw new MojoExecutionException( "Failed to update the clone manifest. Reason: " + e.getMessage(), e );
+            }
+            getLog().info( "Cloned " + incrementalClone.getCopiedCount() + " changed files of "
+                               + incrementalClone.getClonedFiles().size() + " to " + cloneProjectsTo );
+        }
+    }
+
+    /**
+     * Computes a fingerprint of the values the cloned POMs are filtered with.
+     *
+     * @return The fingerprint, never <code>null</code>.
+     * @throws MojoExecutionException If the project model could not be serialized.
+     */
+    private String getFilterFingerprint()
+        throws MojoExecutionException
+    {
+        StringBuffer values = new StringBuffer();
+        values.append( new TreeMap<String, Object>( getInterpolationProperties() ) );
+        if ( project.getModel() != null )
+        {
+            StringWriter model = new StringWriter();
+            try
+            {
+                new MavenXpp3Writer().write( model, project.getModel() );
+            }
+            catch ( IOException e )
+            {
+                throw new MojoExecutionException( "Failed to serialize the project model", e );
+            }
+            values.append( model );
+        }
+        return CloneManifest.hash( values.toString() );
+    }
+
+    /**
+     * Clones directories to {@link #cloneProjectsTo}, copying only the files which changed since the previous clone.
+     */
+    private class IncrementalClone
+    {
+
+        private final CloneManifest manifest;
+
+        private final Set<String> clonedFiles = new HashSet<String>();
+
+        private final Set<String> clonedDirs = new HashSet<String>();
+
+        private final Set<String> copiedFiles = new HashSet<String>();
+
+        IncrementalClone( CloneManifest manifest )
+        {
+            this.manifest = manifest;
         }
+
+        /**
+         * Clones a directory.
+         *
+         * @param sourceDir The directory to clone, must not be <code>null</code>.
+         * @param prefix The path of the clone relative to {@link #cloneProjectsTo}, empty or ending with a slash.
+         * @param excludedSubdir A subdirectory not to clone, may be <code>null</code>.
+         * @throws IOException If a file could not be copied.
+         */
+        void copy( File sourceDir, String prefix, String excludedSubdir )
+            throws IOException
+        {
+            DirectoryScanner scanner = new DirectoryScanner();
+            scanner.setBasedir( sourceDir );
+            if ( excludedSubdir != null )
+            {
+                String excluded = excludedSubdir.replace( '\\', '/' );
+                scanner.setExcludes( new String[]{ excluded, excluded + "/**" } );
+            }
+            if ( !cloneAllFiles )
+            {
+                scanner.addDefaultExcludes();
+            }
+            scanner.scan();
+
+            File destDir = new File( cloneProjectsTo, prefix );
+            destDir.mkdirs();
+            for ( String path = prefix; path.length() > 0; path = getParentPath( path ) )
+            {
+                clonedDirs.add( trimSlash( path ) );
+                if ( path.indexOf( '/' ) < 0 )
+                {
+                    break;
+                }
+            }
+
+            String[] includedDirs = scanner.getIncludedDirectories();
+            for ( int i = 0; i < includedDirs.length; ++i )
+            {
+                new File( destDir, includedDirs[i] ).mkdirs();
+                clonedDirs.add( trimSlash( prefix + includedDirs[i].replace( '\\', '/' ) ) );
+            }
+
+            String[] includedFiles = scanner.getIncludedFiles();
+            for ( int i = 0; i < includedFiles.length; ++i )
+            {
+                String path = prefix + includedFiles[i].replace( '\\', '/' );
+                File sourceFile = new File( sourceDir, includedFiles[i] );
+                File destFile = new File( destDir, includedFiles[i] );
+                clonedFiles.add( path );
+                if ( !manifest.isUpToDate( path, sourceFile, destFile ) )
+                {
+                    FileUtils.copyFile( sourceFile, destFile );
+                    manifest.record( path, sourceFile, destFile );
+                    copiedFiles.add( path );
+                }
+            }
+        }
+
+        /**
+         * Deletes the files and directories of {@link #cloneProjectsTo} which were not cloned.
+         */
+        void deleteOtherFiles()
+        {
+            DirectoryScanner scanner = new DirectoryScanner();
+            scanner.setBasedir( cloneProjectsTo );
+            scanner.scan();
+
+            String[] files = scanner.getIncludedFiles();
+            for ( int i = 0; i < files.length; i++ )
+            {
+                String path = files[i].replace( '\\', '/' );
+                if ( !clonedFiles.contains( path ) && !CLONE_MANIFEST.equals( path ) )
+                {
+                    new File( cloneProjectsTo, files[i] ).delete();
+                }
+            }
+
+            String[] dirs = scanner.getIncludedDirectories();
+            // deepest directories first
+            Arrays.sort( dirs, Collections.reverseOrder() );
+            for ( int i = 0; i < dirs.length; i++ )
+            {
+                if ( dirs[i].length() > 0 && !clonedDirs.contains( dirs[i].replace( '\\', '/' ) ) )
+                {
+                    new File( cloneProjectsTo, dirs[i] ).delete();
+                }
+            }
+        }
+
+        boolean isCopied( String path )
+        {
+            return copiedFiles.contains( path.replace( '\\', '/' ) );
+        }
+
+        Set<String> getClonedFiles()
+        {
+            return clonedFiles;
+        }
+
+        int getCopiedCount()
+        {
+            return copiedFiles.size();
+        }
+
+        private String trimSlash( String path )
+        {
+            return path.endsWith( "/" ) ? path.substring( 0, path.length() - 1 ) : path;
+        }
+
     }
 
     /**
@@ -1108,54 +1462,44 @@ public abstract class AbstractInvokerMojo
 
         try
         {
+            BuildJobScheduler scheduler;
             if ( isParallelRun() )
             {
                 getLog().info( "use parallelThreads " + parallelThreads );
 
-                ExecutorService executorService = Executors.newFixedThreadPool( parallelThreads );
-                for ( int i = 0; i < buildJobs.length; i++ )
-                {
-                    final BuildJob project = buildJobs[i];
-                    executorService.execute( new Runnable()
-                    {
+                scheduler = new BuildJobScheduler( parallelThreads, timeoutInSeconds, getLog() );
+                scheduler.setPreviousDurations( previousDurations );
+            }
+            else
+            {
+                scheduler = new BuildJobScheduler( 1, timeoutInSeconds, getLog() );
+            }
 
-                        public void run()
-                        {
-                            try
-                            {
-                                runBuild( projectsDir, project, finalSettingsFile );
-                            }
-                            catch ( MojoExecutionException e )
-                            {
-                                throw new RuntimeException( e.getMessage(), e );
-                            }
-                        }
-                    } );
-                }
+            scheduler.run( buildJobs, new BuildJobScheduler.BuildJobRunner()
+            {
 
-                try
-                {
-                    executorService.shutdown();
-                    // TODO add a configurable time out
-                    executorService.awaitTermination( Long.MAX_VALUE, TimeUnit.MILLISECONDS );
-                }
-                catch ( InterruptedException e )
+                public void run( BuildJob buildJob )
+                    throws MojoExecutionException
                 {
-                    throw new MojoExecutionException( e.getMessage(), e );
+                    runBuild( projectsDir, buildJob, finalSettingsFile );
                 }
 
-            }
-            else
-            {
-                for ( int i = 0; i < buildJobs.length; i++ )
+                public void timedOut( BuildJob buildJob )
+                    throws MojoExecutionException
                 {
-                    BuildJob project = buildJobs[i];
-                    runBuild( projectsDir, project, finalSettingsFile );
+                    writeBuildReport( buildJob );
                 }
-            }
+
+            } );
         }
         finally
         {
+            if ( embeddedPool != null )
+            {
+                embeddedPool.close();
+                embeddedPool = null;
+            }
+            embeddedPoolCreated = false;
             if ( interpolatedSettingsFile != null && cloneProjectsTo == null )
             {
                 interpolatedSettingsFile.delete();
@@ -1231,7 +1575,7 @@ public abstract class AbstractInvokerMojo
                 boolean executed;
                 try
                 {
-                    executed = runBuild( basedir, interpolatedPomFile, settingsFile, invokerProperties );
+                    executed = runBuild( basedir, interpolatedPomFile, settingsFile, invokerProperties, buildJob );
                 }
                 finally
                 {
@@ -1370,6 +1714,17 @@ public abstract class AbstractInvokerMojo
         }
     }
 
+    /**
+     * Gets the number of seconds elapsed since the specified time.
+     *
+     * @param milliseconds The start time in milliseconds.
+     * @return The elapsed time in seconds.
+     */
+    private static double secondsSince( long milliseconds )
+    {
+        return ( System.currentTimeMillis() - milliseconds ) / 1000.0;
+    }
+
     /**
      * Formats the specified build duration time.
      *
@@ -1389,6 +1744,8 @@ public abstract class AbstractInvokerMojo
      * @param settingsFile      The (already interpolated) user settings file for the build, may be <code>null</code>. Will be
      *                          merged with the settings file of the invoking Maven process.
      * @param invokerProperties The properties to use.
+     * @param buildJob          The build job to record the time taken by the phases of the build in, must not be
+     *                          <code>null</code>.
      * @return <code>true</code> if the project was launched or <code>false</code> if the selector script indicated that
      *         the project should be skipped.
      * @throws org.apache.maven.plugin.MojoExecutionException
@@ -1396,7 +1753,8 @@ public abstract class AbstractInvokerMojo
      * @throws org.apache.maven.shared.scriptinterpreter.RunFailureException
      *          If either a hook script or the build itself failed.
      */
-    private boolean runBuild( File basedir, File pomFile, File settingsFile, InvokerProperties invokerProperties )
+    private boolean runBuild( File basedir, File pomFile, File settingsFile, InvokerProperties invokerProperties,
+                              BuildJob buildJob )
         throws MojoExecutionException, RunFailureException
     {
         if ( getLog().isDebugEnabled() && !invokerProperties.getProperties().isEmpty() )
@@ -1419,6 +1777,7 @@ public abstract class AbstractInvokerMojo
         FileLogger logger = setupLogger( basedir );
         try
         {
+            long milliseconds = System.currentTimeMillis();
             try
             {
                 scriptRunner.run( "selector script", basedir, selectorScript, context, logger, BuildJob.Result.SKIPPED,
@@ -1432,9 +1791,21 @@ public abstract class AbstractInvokerMojo
             {
                 return false;
             }
+            finally
+            {
+                buildJob.setSelectorTime( secondsSince( milliseconds ) );
+            }
 
-            scriptRunner.run( "pre-build script", basedir, preBuildHookScript, context, logger,
-                              BuildJob.Result.FAILURE_PRE_HOOK, false );
+            milliseconds = System.currentTimeMillis();
+            try
+            {
+                scriptRunner.run( "pre-build script", basedir, preBuildHookScript, context, logger,
+                                  BuildJob.Result.FAILURE_PRE_HOOK, false );
+            }
+            finally
+            {
+                buildJob.setPreBuildTime( secondsSince( milliseconds ) );
+            }
 
             final InvocationRequest request = new DefaultInvocationRequest();
 
@@ -1508,9 +1879,23 @@ public abstract class AbstractInvokerMojo
 
                 InvocationResult result;
 
+                milliseconds = System.currentTimeMillis();
                 try
                 {
-                    result = invoker.execute( request );
+                    EmbeddedMavenPool pool = null;
+                    if ( invokerProperties.isEmbedded( embedded ) )
+                    {
+                        pool = getEmbeddedPool();
+                    }
+                    if ( pool != null && pool.accepts( request ) )
+                    {
+                        getLog().debug( "Using embedded Maven worker" );
+                        result = pool.execute( request );
+                    }
+                    else
+                    {
+                        result = invoker.execute( request );
+                    }
                 }
                 catch ( final MavenInvocationException e )
                 {
@@ -1518,12 +1903,32 @@ public abstract class AbstractInvokerMojo
                     throw new RunFailureException( "Maven invocation failed. " + e.getMessage(),
                                                    BuildJob.Result.FAILURE_BUILD );
                 }
+                finally
+                {
+                    buildJob.setMavenTime( buildJob.getMavenTime() + secondsSince( milliseconds ) );
+                }
 
-                verify( result, invocationIndex, invokerProperties, logger );
+                milliseconds = System.currentTimeMillis();
+                try
+                {
+                    verify( result, invocationIndex, invokerProperties, logger );
+                }
+                finally
+                {
+                    buildJob.setVerifyTime( buildJob.getVerifyTime() + secondsSince( milliseconds ) );
+                }
             }
 
-            scriptRunner.run( "post-build script", basedir, postBuildHookScript, context, logger,
-                              BuildJob.Result.FAILURE_POST_HOOK, true );
+            milliseconds = System.currentTimeMillis();
+            try
+            {
+                scriptRunner.run( "post-build script", basedir, postBuildHookScript, context, logger,
+                                  BuildJob.Result.FAILURE_POST_HOOK, true );
+            }
+            finally
+            {
+                buildJob.setVerifyTime( buildJob.getVerifyTime() + secondsSince( milliseconds ) );
+            }
         }
         catch ( IOException e )
         {
@@ -1539,6 +1944,36 @@ public abstract class AbstractInvokerMojo
         return true;
     }
 
+    /**
+     * Gets the pool of worker JVMs running the embedded builds, creating it on first use.
+     *
+     * @return The pool or <code>null</code> if the Maven installation cannot be embedded.
+     */
+    private synchronized EmbeddedMavenPool getEmbeddedPool()
+    {
+        if ( !embeddedPoolCreated )
+        {
+            embeddedPoolCreated = true;
+
+            File home = mavenHome;
+            if ( home == null && System.getProperty( "maven.home" ) != null )
+            {
+                home = new File( System.getProperty( "maven.home" ) );
+            }
+
+            if ( EmbeddedMavenPool.isSupported( home ) )
+            {
+                embeddedPool =
+                    new EmbeddedMavenPool( home, javaHome, mavenOpts, parallelThreads, invoker.getLogger(), getLog() );
+            }
+            else
+            {
+                getLog().warn( "Embedded builds require Maven 3, forking Maven from " + home + " instead." );
+            }
+        }
+        return embeddedPool;
+    }
+
     /**
      * Initializes the build logger for the specified project.
      *
@@ -1917,6 +2352,16 @@ public abstract class AbstractInvokerMojo
      * @return The map-based value source for interpolation, never <code>null</code>.
      */
     private Map<String, Object> getInterpolationValueSource()
+    {
+        return new CompositeMap( this.project, getInterpolationProperties() );
+    }
+
+    /**
+     * Gets the user-specified and built-in properties available for interpolation, besides the project.
+     *
+     * @return The properties, never <code>null</code>.
+     */
+    private Map<String, Object> getInterpolationProperties()
     {
         Map<String, Object> props = new HashMap<String, Object>();
         if ( interpolationsProperties != null )
@@ -1934,7 +2379,7 @@ public abstract class AbstractInvokerMojo
             props.put( "localRepository", settings.getLocalRepository() );
             props.put( "localRepositoryUrl", toUrl( settings.getLocalRepository() ) );
         }
-        return new CompositeMap( this.project, props );
+        return props;
     }
 
     /**
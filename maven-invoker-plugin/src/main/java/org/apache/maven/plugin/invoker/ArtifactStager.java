@@ -0,0 +1,232 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Stages files into the local repository used by the integration tests. A file is only copied if its staged copy
+ * differs in size or content, and the files staged into a repository are remembered for the rest of the build, so that
+ * the reactor modules sharing the same <code>localRepositoryPath</code> do not stage the same artifacts over and over.
+ *
+ * @author Maven Team
+ * @since 1.6
+ */
+class ArtifactStager
+{
+
+    /**
+     * The stagers of the repositories used by the current build, keyed by the canonical path of the repository.
+     */
+    private static final Map<String, ArtifactStager> STAGERS = new HashMap<String, ArtifactStager>();
+
+    /**
+     * The stamps of the source files staged so far and of their staged copies, keyed by the path of the staged copy.
+     */
+    private final Map<String, String> staged = new ConcurrentHashMap<String, String>();
+
+    /**
+     * Gets the stager for the specified repository, shared by all executions of the current build.
+     *
+     * @param basedir The base directory of the repository, must not be <code>null</code>.
+     * @return The stager for the repository, never <code>null</code>.
+     */
+    public static synchronized ArtifactStager getInstance( File basedir )
+    {
+        String key;
+        try
+        {
+            key = basedir.getCanonicalPath();
+        }
+        catch ( IOException e )
+        {
+            key = basedir.getAbsolutePath();
+        }
+
+        ArtifactStager stager = STAGERS.get( key );
+        if ( stager == null )
+        {
+            stager = new ArtifactStager();
+            STAGERS.put( key, stager );
+        }
+        return stager;
+    }
+
+    /**
+     * Determines whether the specified file has already been staged to the given destination and neither of both
+     * changed since. The destination is checked by its size and modification time as well, so that a staged copy
+     * which was overwritten or corrupted, e.g. by an integration test, is staged again.
+     *
+     * @param src The file to stage, must not be <code>null</code>.
+     * @param dst The staged copy of the file, must not be <code>null</code>.
+     * @return <code>true</code> if the file does not need to be staged again, <code>false</code> otherwise.
+     */
+    public boolean isStaged( File src, File dst )
+    {
+        return stamp( src, dst ).equals( staged.get( dst.getAbsolutePath() ) ) && dst.isFile();
+    }
+
+    /**
+     * Remembers that the specified file has been staged to the given destination by other means, e.g. the artifact
+     * installer.
+     *
+     * @param src The staged file, must not be <code>null</code>.
+     * @param dst The staged copy of the file, must not be <code>null</code>.
+     */
+    public void markStaged( File src, File dst )
+    {
+        staged.put( dst.getAbsolutePath(), stamp( src, dst ) );
+    }
+
+    /**
+     * Copies the specified file to the given destination unless it has already been staged there. A destination with
+     * the same size but another modification time than the source is compared by content before being overwritten.
+     *
+     * @param src The file to stage, must not be <code>null</code>.
+     * @param dst The destination of the file, must not be <code>null</code>.
+     * @return <code>true</code> if the file was copied, <code>false</code> if the destination was already up to date.
+     * @throws IOException If the file could not be copied.
+     */
+    public boolean stage( File src, File dst )
+        throws IOException
+    {
+        if ( isStaged( src, dst ) )
+        {
+            return false;
+        }
+
+        boolean copy = true;
+        if ( dst.isFile() && src.length() == dst.length() )
+        {
+            if ( src.lastModified() == dst.lastModified() )
+            {
+                copy = false;
+            }
+            else if ( CloneManifest.hash( src ).equals( CloneManifest.hash( dst ) ) )
+            {
+                dst.setLastModified( src.lastModified() );
+                copy = false;
+            }
+        }
+
+        if ( copy )
+        {
+            FileUtils.copyFile( src, dst );
+            dst.setLastModified( src.lastModified() );
+        }
+
+        markStaged( src, dst );
+
+        return copy;
+    }
+
+    /**
+     * Stages the specified files, using the given number of threads.
+     *
+     * @param files The files to stage, keyed by their destination, must not be <code>null</code>.
+     * @param threads The number of threads to use, a value less than 2 stages the files sequentially.
+     * @return The number of files that were actually copied.
+     * @throws IOException If any file could not be copied.
+     */
+    public int stageAll( Map<File, File> files, int threads )
+        throws IOException
+    {
+        int copied = 0;
+
+        if ( threads < 2 || files.size() < 2 )
+        {
+            for ( Map.Entry<File, File> file : files.entrySet() )
+            {
+                if ( stage( file.getValue(), file.getKey() ) )
+                {
+                    copied++;
+                }
+            }
+            return copied;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( threads, files.size() ) );
+        try
+        {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>( files.size() );
+            for ( final Map.Entry<File, File> file : files.entrySet() )
+            {
+                results.add( executor.submit( new Callable<Boolean>()
+                {
+                    public Boolean call()
+                        throws IOException
+                    {
+                        return Boolean.valueOf( stage( file.getValue(), file.getKey() ) );
+                    }
+                } ) );
+            }
+
+            for ( Future<Boolean> result : results )
+            {
+                try
+                {
+                    if ( result.get().booleanValue() )
+                    {
+                        copied++;
+                    }
+                }
+                catch ( ExecutionException e )
+                {
+                    if ( e.getCause() instanceof IOException )
+                    {
+                        throw (IOException) e.getCause();
+                    }
+                    throw (IOException) new IOException( e.getCause().getMessage() ).initCause( e.getCause() );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IOException( "Interrupted while staging artifacts" );
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        return copied;
+    }
+
+    private static String stamp( File src, File dst )
+    {
+        return src.getAbsolutePath() + '|' + src.length() + '|' + src.lastModified() + '|' + dst.length() + '|'
+            + dst.lastModified();
+    }
+
+}
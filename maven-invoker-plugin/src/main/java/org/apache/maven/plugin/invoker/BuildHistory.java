@@ -0,0 +1,313 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import org.apache.maven.plugin.invoker.model.BuildJob;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * The rolling history of the build times of the integration tests. Each run of the invoker adds the durations of its
+ * build jobs, split into phases, and the history keeps the most recent entries of each build job only. The time taken
+ * to clone the projects and to install the artifacts of the main build are recorded alongside, under the keys
+ * {@link #CLONE} and {@link #INSTALL}.
+ *
+ * @author Maven Team
+ * @since 1.6
+ */
+class BuildHistory
+{
+
+    /**
+     * The key of the entries recording the time taken to clone the projects.
+     */
+    static final String CLONE = "@clone";
+
+    /**
+     * The key of the entries recording the time taken to install the artifacts of the main build.
+     */
+    static final String INSTALL = "@install";
+
+    private static final String HEADER = "# maven-invoker-plugin build history";
+
+    private final File historyFile;
+
+    private final int maxRuns;
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    /**
+     * Creates a new history.
+     *
+     * @param historyFile The file storing the history between runs, must not be <code>null</code>.
+     * @param maxRuns The number of entries to keep per build job.
+     */
+    public BuildHistory( File historyFile, int maxRuns )
+    {
+        this.historyFile = historyFile;
+        this.maxRuns = Math.max( 1, maxRuns );
+    }
+
+    /**
+     * Loads the history. A missing or unreadable history yields an empty one.
+     */
+    public void load()
+    {
+        entries.clear();
+        if ( !historyFile.isFile() )
+        {
+            return;
+        }
+
+        BufferedReader reader = null;
+        try
+        {
+            reader = new BufferedReader( new InputStreamReader( new FileInputStream( historyFile ), "UTF-8" ) );
+            if ( !HEADER.equals( reader.readLine() ) )
+            {
+                return;
+            }
+
+            String line;
+            while ( ( line = reader.readLine() ) != null )
+            {
+                String[] fields = line.split( "\t" );
+                if ( fields.length == 8 )
+                {
+                    Entry entry = new Entry();
+                    entry.run = Long.parseLong( fields[0] );
+                    entry.key = fields[1];
+                    entry.result = fields[2];
+                    entry.time = Double.parseDouble( fields[3] );
+                    entry.selectorTime = Double.parseDouble( fields[4] );
+                    entry.preBuildTime = Double.parseDouble( fields[5] );
+                    entry.mavenTime = Double.parseDouble( fields[6] );
+                    entry.verifyTime = Double.parseDouble( fields[7] );
+                    entries.add( entry );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            entries.clear();
+        }
+        catch ( NumberFormatException e )
+        {
+            entries.clear();
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+    }
+
+    /**
+     * Writes the history, dropping the oldest entries of the build jobs exceeding the configured number of runs.
+     *
+     * @throws IOException If the history could not be written.
+     */
+    public void save()
+        throws IOException
+    {
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        for ( ListIterator<Entry> it = entries.listIterator( entries.size() ); it.hasPrevious(); )
+        {
+            Entry entry = it.previous();
+            Integer count = counts.get( entry.key );
+            count = new Integer( ( count != null ) ? count.intValue() + 1 : 1 );
+            counts.put( entry.key, count );
+            if ( count.intValue() > maxRuns )
+            {
+                it.remove();
+            }
+        }
+
+        historyFile.getAbsoluteFile().getParentFile().mkdirs();
+
+        PrintWriter writer = null;
+        try
+        {
+            writer = new PrintWriter( new OutputStreamWriter( new FileOutputStream( historyFile ), "UTF-8" ) );
+            writer.println( HEADER );
+            for ( Entry entry : entries )
+            {
+                writer.println( entry.run + "\t" + entry.key + '\t' + entry.result + '\t' + entry.time + '\t'
+                    + entry.selectorTime + '\t' + entry.preBuildTime + '\t' + entry.mavenTime + '\t'
+                    + entry.verifyTime );
+            }
+            if ( writer.checkError() )
+            {
+                throw new IOException( "Failed to write " + historyFile );
+            }
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+    }
+
+    /**
+     * Adds the times of a build job.
+     *
+     * @param run The identifier of the run, usually its start time in milliseconds.
+     * @param buildJob The build job, must not be <code>null</code>.
+     */
+    public void add( long run, BuildJob buildJob )
+    {
+        Entry entry = new Entry();
+        entry.run = run;
+        entry.key = BuildJobScheduler.getJobKey( buildJob.getProject() );
+        entry.result = buildJob.getResult();
+        entry.time = buildJob.getTime();
+        entry.selectorTime = buildJob.getSelectorTime();
+        entry.preBuildTime = buildJob.getPreBuildTime();
+        entry.mavenTime = buildJob.getMavenTime();
+        entry.verifyTime = buildJob.getVerifyTime();
+        entries.add( entry );
+    }
+
+    /**
+     * Adds the time of a step of a run which is not a build job, like {@link #CLONE} or {@link #INSTALL}.
+     *
+     * @param run The identifier of the run, usually its start time in milliseconds.
+     * @param key The key of the step, must not be <code>null</code>.
+     * @param time The duration of the step in seconds.
+     */
+    public void add( long run, String key, double time )
+    {
+        Entry entry = new Entry();
+        entry.run = run;
+        entry.key = key;
+        entry.result = BuildJob.Result.SUCCESS;
+        entry.time = time;
+        entries.add( entry );
+    }
+
+    /**
+     * Gets the average durations of the build jobs, ignoring skipped jobs. The result can be used to schedule the
+     * longest jobs first.
+     *
+     * @return The average durations in seconds, keyed by the path of the project, never <code>null</code>.
+     */
+    public Map<String, Double> getAverageDurations()
+    {
+        return getAverageDurations( false );
+    }
+
+    /**
+     * Gets the average durations of the build jobs before their most recent run, ignoring skipped jobs. The result can
+     * be compared with the durations of the most recent run to detect regressions.
+     *
+     * @return The average durations in seconds, keyed by the path of the project, never <code>null</code>.
+     */
+    public Map<String, Double> getPreviousAverageDurations()
+    {
+        return getAverageDurations( true );
+    }
+
+    private Map<String, Double> getAverageDurations( boolean excludeLatest )
+    {
+        Map<String, Entry> latest = new HashMap<String, Entry>();
+        if ( excludeLatest )
+        {
+            for ( Entry entry : entries )
+            {
+                latest.put( entry.key, entry );
+            }
+        }
+
+        Map<String, double[]> sums = new HashMap<String, double[]>();
+        for ( Entry entry : entries )
+        {
+            if ( latest.get( entry.key ) != entry && !BuildJob.Result.SKIPPED.equals( entry.result ) )
+            {
+                double[] sum = sums.get( entry.key );
+                if ( sum == null )
+                {
+                    sum = new double[2];
+                    sums.put( entry.key, sum );
+                }
+                sum[0] += entry.time;
+                sum[1]++;
+            }
+        }
+
+        Map<String, Double> averages = new HashMap<String, Double>();
+        for ( Map.Entry<String, double[]> sum : sums.entrySet() )
+        {
+            averages.put( sum.getKey(), new Double( sum.getValue()[0] / sum.getValue()[1] ) );
+        }
+        return averages;
+    }
+
+    /**
+     * Gets the most recent duration of a build job or step.
+     *
+     * @param key The path of the project or the key of the step, like {@link #CLONE}, must not be <code>null</code>.
+     * @return The duration in seconds or <code>null</code> if never recorded.
+     */
+    public Double getLatestDuration( String key )
+    {
+        Entry latest = null;
+        for ( Entry entry : entries )
+        {
+            if ( entry.key.equals( key ) )
+            {
+                latest = entry;
+            }
+        }
+        return ( latest != null ) ? new Double( latest.time ) : null;
+    }
+
+    private static class Entry
+    {
+
+        private long run;
+
+        private String key;
+
+        private String result;
+
+        private double time;
+
+        private double selectorTime;
+
+        private double preBuildTime;
+
+        private double mavenTime;
+
+        private double verifyTime;
+
+    }
+
+}
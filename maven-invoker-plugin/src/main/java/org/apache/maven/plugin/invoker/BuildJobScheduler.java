@@ -0,0 +1,482 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.invoker.model.BuildJob;
+import org.apache.maven.plugin.invoker.model.io.xpp3.BuildJobXpp3Reader;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.ReaderFactory;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Runs build jobs on a pool of threads. The setup jobs are run first and all of them must have completed before any
+ * other job is started. When several threads are used, the jobs of each group are started longest first according to
+ * the durations recorded by a previous run, jobs without a known duration coming first, so that the threads idle as
+ * little as possible at the end of the run.
+ * <p>
+ * A job exceeding the timeout has its thread interrupted, which kills the forked Maven process, and is reported as in
+ * error. An exception thrown by a job stops the scheduling of the remaining jobs and is rethrown once the running jobs
+ * have completed.
+ * </p>
+ *
+ * @author Maven Team
+ * @since 1.6
+ */
+class BuildJobScheduler
+{
+
+    /**
+     * How long to wait for a timed out job to react to its interruption before it is abandoned.
+     */
+    private static final long TIMEOUT_GRACE_MILLIS = 10 * 1000;
+
+    /**
+     * Runs a single build job.
+     */
+    interface BuildJobRunner
+    {
+
+        /**
+         * Runs the specified build job and records its result.
+         *
+         * @param buildJob The build job to run, never <code>null</code>.
+         * @throws MojoExecutionException If the build job could not be launched.
+         */
+        void run( BuildJob buildJob )
+            throws MojoExecutionException;
+
+        /**
+         * Notifies that the specified build job timed out and that its result was changed accordingly.
+         *
+         * @param buildJob The build job which timed out, never <code>null</code>.
+         * @throws MojoExecutionException If the new result could not be recorded.
+         */
+        void timedOut( BuildJob buildJob )
+            throws MojoExecutionException;
+
+    }
+
+    private final int threads;
+
+    private final long timeoutMillis;
+
+    private final Log log;
+
+    private Map<String, Double> previousDurations = Collections.emptyMap();
+
+    private volatile boolean aborted;
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param threads The number of build jobs to run concurrently, must be positive.
+     * @param timeoutInSeconds The maximum duration of a build job, <code>0</code> for no timeout.
+     * @param log The mojo logger, must not be <code>null</code>.
+     */
+    public BuildJobScheduler( int threads, int timeoutInSeconds, Log log )
+    {
+        this.threads = Math.max( 1, threads );
+        this.timeoutMillis = timeoutInSeconds * 1000L;
+        this.log = log;
+    }
+
+    /**
+     * Sets the durations of the build jobs of a previous run, used to start the longest jobs first.
+     *
+     * @param previousDurations The durations in seconds, keyed by {@link #getJobKey(String)}, must not be
+     *            <code>null</code>.
+     */
+    public void setPreviousDurations( Map<String, Double> previousDurations )
+    {
+        this.previousDurations = previousDurations;
+    }
+
+    /**
+     * Runs the specified build jobs and waits for their completion.
+     *
+     * @param buildJobs The build jobs to run, must not be <code>null</code> nor contain <code>null</code> elements.
+     * @param runner The runner of the build jobs, must not be <code>null</code>.
+     * @throws MojoExecutionException If a build job could not be launched.
+     */
+    public void run( BuildJob[] buildJobs, BuildJobRunner runner )
+        throws MojoExecutionException
+    {
+        List<BuildJob> setupJobs = new ArrayList<BuildJob>();
+        List<BuildJob> otherJobs = new ArrayList<BuildJob>();
+        for ( int i = 0; i < buildJobs.length; i++ )
+        {
+            if ( BuildJob.Type.SETUP.equals( buildJobs[i].getType() ) )
+            {
+                setupJobs.add( buildJobs[i] );
+            }
+            else
+            {
+                otherJobs.add( buildJobs[i] );
+            }
+        }
+
+        aborted = false;
+        ExecutorService executor = Executors.newFixedThreadPool( threads, new BuildThreadFactory() );
+        ScheduledExecutorService timer =
+            timeoutMillis > 0 ? Executors.newSingleThreadScheduledExecutor( new BuildThreadFactory() ) : null;
+        try
+        {
+            Throwable failure = runAll( order( setupJobs ), runner, executor, timer );
+            if ( failure == null )
+            {
+                failure = runAll( order( otherJobs ), runner, executor, timer );
+            }
+
+            if ( failure instanceof MojoExecutionException )
+            {
+                throw (MojoExecutionException) failure;
+            }
+            else if ( failure != null )
+            {
+                throw new MojoExecutionException( failure.getMessage(), failure );
+            }
+        }
+        finally
+        {
+            // only interrupts abandoned jobs, all others have completed
+            executor.shutdownNow();
+            if ( timer != null )
+            {
+                timer.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Orders the specified build jobs longest first, unless they are run by a single thread in which case their order
+     * is kept.
+     *
+     * @param buildJobs The build jobs to order, must not be <code>null</code>.
+     * @return The ordered build jobs, never <code>null</code>.
+     */
+    List<BuildJob> order( List<BuildJob> buildJobs )
+    {
+        List<BuildJob> ordered = new ArrayList<BuildJob>( buildJobs );
+        if ( threads > 1 )
+        {
+            // a stable sort, jobs of unknown or equal durations keep their order
+            Collections.sort( ordered, new Comparator<BuildJob>()
+            {
+                public int compare( BuildJob job1, BuildJob job2 )
+                {
+                    return Double.compare( getPreviousDuration( job2 ), getPreviousDuration( job1 ) );
+                }
+            } );
+        }
+        return ordered;
+    }
+
+    private double getPreviousDuration( BuildJob buildJob )
+    {
+        Double duration = previousDurations.get( getJobKey( buildJob.getProject() ) );
+        return ( duration != null ) ? duration.doubleValue() : Double.MAX_VALUE;
+    }
+
+    private Throwable runAll( List<BuildJob> buildJobs, BuildJobRunner runner, ExecutorService executor,
+                              ScheduledExecutorService timer )
+        throws MojoExecutionException
+    {
+        List<ScheduledJob> scheduledJobs = new ArrayList<ScheduledJob>( buildJobs.size() );
+        for ( BuildJob buildJob : buildJobs )
+        {
+            ScheduledJob scheduledJob = new ScheduledJob( buildJob, runner, timer );
+            scheduledJobs.add( scheduledJob );
+            executor.execute( scheduledJob );
+        }
+
+        Throwable failure = null;
+        for ( ScheduledJob scheduledJob : scheduledJobs )
+        {
+            try
+            {
+                scheduledJob.await();
+            }
+            catch ( InterruptedException e )
+            {
+                aborted = true;
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException( "Interrupted while waiting for the build jobs", e );
+            }
+
+            if ( scheduledJob.isTimedOut() )
+            {
+                BuildJob buildJob = scheduledJob.getBuildJob();
+                buildJob.setResult( BuildJob.Result.ERROR );
+                buildJob.setFailureMessage( "The build job timed out after " + ( timeoutMillis / 1000 ) + " s." );
+                buildJob.setTime( timeoutMillis / 1000.0 );
+                log.error( "The build job " + buildJob.getProject() + " timed out after " + ( timeoutMillis / 1000 )
+                    + " s" );
+                runner.timedOut( buildJob );
+            }
+            else if ( failure == null )
+            {
+                failure = scheduledJob.getFailure();
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * Gets the key of a project for the recorded durations, a build job for a project directory being reported with
+     * the path to its POM.
+     *
+     * @param project The path to the project of a build job, must not be <code>null</code>.
+     * @return The key of the project, never <code>null</code>.
+     */
+    static String getJobKey( String project )
+    {
+        String key = project.replace( '\\', '/' );
+        if ( key.endsWith( "/pom.xml" ) )
+        {
+            key = key.substring( 0, key.length() - "/pom.xml".length() );
+        }
+        return key;
+    }
+
+    /**
+     * Loads the durations of the build jobs from the reports of a previous run. Unreadable reports are ignored.
+     *
+     * @param reportsDirectory The directory holding the reports, may be <code>null</code>.
+     * @return The durations in seconds, keyed by {@link #getJobKey(String)}, never <code>null</code>.
+     */
+    static Map<String, Double> loadDurations( File reportsDirectory )
+    {
+        Map<String, Double> durations = new HashMap<String, Double>();
+
+        File[] reportFiles = ReportUtils.getReportFiles( reportsDirectory );
+        for ( int i = 0; i < reportFiles.length; i++ )
+        {
+            if ( !reportFiles[i].getName().startsWith( "BUILD-" ) )
+            {
+                continue;
+            }
+            try
+            {
+                Reader reader = ReaderFactory.newXmlReader( reportFiles[i] );
+                try
+                {
+                    BuildJob buildJob = new BuildJobXpp3Reader().read( reader );
+                    if ( !BuildJob.Result.SKIPPED.equals( buildJob.getResult() ) )
+                    {
+                        durations.put( getJobKey( buildJob.getProject() ), new Double( buildJob.getTime() ) );
+                    }
+                }
+                finally
+                {
+                    IOUtil.close( reader );
+                }
+            }
+            catch ( XmlPullParserException e )
+            {
+                // not a usable report, the job will be scheduled as if its duration was unknown
+            }
+            catch ( IOException e )
+            {
+                // idem
+            }
+        }
+
+        return durations;
+    }
+
+    /**
+     * A build job submitted to the pool, guarded by a timeout.
+     */
+    private class ScheduledJob
+        implements Runnable
+    {
+
+        private final BuildJob buildJob;
+
+        private final BuildJobRunner runner;
+
+        private final ScheduledExecutorService timer;
+
+        private Thread thread;
+
+        private boolean done;
+
+        private boolean timedOut;
+
+        private long timedOutAt;
+
+        private Throwable failure;
+
+        ScheduledJob( BuildJob buildJob, BuildJobRunner runner, ScheduledExecutorService timer )
+        {
+            this.buildJob = buildJob;
+            this.runner = runner;
+            this.timer = timer;
+        }
+
+        public void run()
+        {
+            synchronized ( this )
+            {
+                if ( aborted )
+                {
+                    done = true;
+                    notifyAll();
+                    return;
+                }
+                thread = Thread.currentThread();
+            }
+
+            ScheduledFuture<?> watchdog = null;
+            if ( timer != null )
+            {
+                watchdog = timer.schedule( new Runnable()
+                {
+                    public void run()
+                    {
+                        timeout();
+                    }
+                }, timeoutMillis, TimeUnit.MILLISECONDS );
+            }
+
+            Throwable error = null;
+            try
+            {
+                runner.run( buildJob );
+            }
+            catch ( Throwable t )
+            {
+                error = t;
+            }
+            finally
+            {
+                if ( watchdog != null )
+                {
+                    watchdog.cancel( false );
+                }
+            }
+
+            synchronized ( this )
+            {
+                if ( error != null && !timedOut )
+                {
+                    failure = error;
+                    aborted = true;
+                }
+                thread = null;
+                done = true;
+                // clears an interruption of the watchdog, the thread is reused for the next job
+                Thread.interrupted();
+                notifyAll();
+            }
+        }
+
+        synchronized void timeout()
+        {
+            if ( !done && thread != null )
+            {
+                timedOut = true;
+                timedOutAt = System.currentTimeMillis();
+                thread.interrupt();
+                notifyAll();
+            }
+        }
+
+        /**
+         * Waits for the completion of the job, or for the end of the grace period if it timed out.
+         */
+        synchronized void await()
+            throws InterruptedException
+        {
+            while ( !done )
+            {
+                if ( timedOut )
+                {
+                    long remaining = timedOutAt + TIMEOUT_GRACE_MILLIS - System.currentTimeMillis();
+                    if ( remaining <= 0 )
+                    {
+                        log.warn( "Abandoning the build job " + buildJob.getProject()
+                            + " which did not react to its interruption" );
+                        return;
+                    }
+                    wait( remaining );
+                }
+                else
+                {
+                    wait();
+                }
+            }
+        }
+
+        synchronized boolean isTimedOut()
+        {
+            return timedOut;
+        }
+
+        synchronized Throwable getFailure()
+        {
+            return failure;
+        }
+
+        BuildJob getBuildJob()
+        {
+            return buildJob;
+        }
+
+    }
+
+    /**
+     * Creates daemon threads, so that an abandoned build job does not prevent the JVM from exiting.
+     */
+    private static class BuildThreadFactory
+        implements ThreadFactory
+    {
+
+        private static final AtomicInteger COUNTER = new AtomicInteger();
+
+        public Thread newThread( Runnable runnable )
+        {
+            Thread thread = new Thread( runnable, "invoker-build-" + COUNTER.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,339 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Records the files cloned to the directory given by the <code>cloneProjectsTo</code> parameter, so that an
+ * incremental clone only copies the files which changed since the previous one. For each file, the manifest holds the
+ * size, modification time and MD5 hash of its source and the size and modification time of its clone. A source whose
+ * modification time changed but whose content did not, like after a fresh checkout, is not copied again.
+ *
+ * @author Maven Team
+ * @since 1.6
+ */
+class CloneManifest
+{
+
+    private static final String HEADER = "# maven-invoker-plugin clone manifest";
+
+    private final File manifestFile;
+
+    private final Map<String, Entry> entries = new TreeMap<String, Entry>();
+
+    private String filterFingerprint;
+
+    /**
+     * Creates a new manifest.
+     *
+     * @param manifestFile The file storing the manifest between runs, must not be <code>null</code>.
+     */
+    public CloneManifest( File manifestFile )
+    {
+        this.manifestFile = manifestFile;
+    }
+
+    /**
+     * Loads the manifest of the previous clone. A missing or unreadable manifest yields an empty one.
+     */
+    public void load()
+    {
+        entries.clear();
+        filterFingerprint = null;
+        if ( !manifestFile.isFile() )
+        {
+            return;
+        }
+
+        BufferedReader reader = null;
+        try
+        {
+            reader = new BufferedReader( new InputStreamReader( new FileInputStream( manifestFile ), "UTF-8" ) );
+            if ( !HEADER.equals( reader.readLine() ) )
+            {
+                return;
+            }
+            filterFingerprint = reader.readLine();
+
+            String line;
+            while ( ( line = reader.readLine() ) != null )
+            {
+                String[] fields = line.split( "\t" );
+                if ( fields.length == 6 )
+                {
+                    Entry entry = new Entry();
+                    entry.length = Long.parseLong( fields[1] );
+                    entry.lastModified = Long.parseLong( fields[2] );
+                    entry.hash = fields[3];
+                    entry.cloneLength = Long.parseLong( fields[4] );
+                    entry.cloneLastModified = Long.parseLong( fields[5] );
+                    entries.put( fields[0], entry );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            entries.clear();
+            filterFingerprint = null;
+        }
+        catch ( NumberFormatException e )
+        {
+            entries.clear();
+            filterFingerprint = null;
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+    }
+
+    /**
+     * Writes the manifest.
+     *
+     * @throws IOException If the manifest could not be written.
+     */
+    public void save()
+        throws IOException
+    {
+        manifestFile.getParentFile().mkdirs();
+
+        PrintWriter writer = null;
+        try
+        {
+            writer = new PrintWriter( new OutputStreamWriter( new FileOutputStream( manifestFile ), "UTF-8" ) );
+            writer.println( HEADER );
+            writer.println( filterFingerprint );
+            for ( Map.Entry<String, Entry> entry : entries.entrySet() )
+            {
+                Entry value = entry.getValue();
+                writer.println( entry.getKey() + '\t' + value.length + '\t' + value.lastModified + '\t' + value.hash
+                    + '\t' + value.cloneLength + '\t' + value.cloneLastModified );
+            }
+            if ( writer.checkError() )
+            {
+                throw new IOException( "Failed to write " + manifestFile );
+            }
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+    }
+
+    /**
+     * Gets the fingerprint of the values the POMs were filtered with by the previous clone.
+     *
+     * @return The fingerprint or <code>null</code> if unknown.
+     */
+    public String getFilterFingerprint()
+    {
+        return filterFingerprint;
+    }
+
+    public void setFilterFingerprint( String filterFingerprint )
+    {
+        this.filterFingerprint = filterFingerprint;
+    }
+
+    /**
+     * Determines whether the clone of a file is up to date, i.e. whether neither the file nor its clone changed since
+     * they were recorded.
+     *
+     * @param path The path of the file, relative to the clone directory, must not be <code>null</code>.
+     * @param source The file to clone, must not be <code>null</code>.
+     * @param clone The clone of the file, must not be <code>null</code>.
+     * @return <code>true</code> if the file does not need to be copied again, <code>false</code> otherwise.
+     * @throws IOException If the source file could not be read.
+     */
+    public boolean isUpToDate( String path, File source, File clone )
+        throws IOException
+    {
+        Entry entry = entries.get( path );
+        if ( entry == null || clone.length() != entry.cloneLength || clone.lastModified() != entry.cloneLastModified
+            || !clone.isFile() || source.length() != entry.length )
+        {
+            return false;
+        }
+        if ( source.lastModified() == entry.lastModified )
+        {
+            return true;
+        }
+        if ( entry.hash.equals( hash( source ) ) )
+        {
+            entry.lastModified = source.lastModified();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a file which has just been cloned.
+     *
+     * @param path The path of the file, relative to the clone directory, must not be <code>null</code>.
+     * @param source The cloned file, must not be <code>null</code>.
+     * @param clone The clone of the file, must not be <code>null</code>.
+     * @throws IOException If the source file could not be read.
+     */
+    public void record( String path, File source, File clone )
+        throws IOException
+    {
+        Entry entry = new Entry();
+        entry.length = source.length();
+        entry.lastModified = source.lastModified();
+        entry.hash = hash( source );
+        entry.cloneLength = clone.length();
+        entry.cloneLastModified = clone.lastModified();
+        entries.put( path, entry );
+    }
+
+    /**
+     * Updates the recorded state of the clone of a file, after it was modified in place like a filtered POM.
+     *
+     * @param path The path of the file, relative to the clone directory, must not be <code>null</code>.
+     * @param clone The clone of the file, must not be <code>null</code>.
+     */
+    public void updateClone( String path, File clone )
+    {
+        Entry entry = entries.get( path );
+        if ( entry != null )
+        {
+            entry.cloneLength = clone.length();
+            entry.cloneLastModified = clone.lastModified();
+        }
+    }
+
+    /**
+     * Forgets the files which were not part of the current clone.
+     *
+     * @param paths The paths of the files of the current clone, must not be <code>null</code>.
+     */
+    public void retainAll( Set<String> paths )
+    {
+        for ( Iterator<String> it = entries.keySet().iterator(); it.hasNext(); )
+        {
+            if ( !paths.contains( it.next() ) )
+            {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Computes the MD5 hash of a file.
+     *
+     * @param file The file to hash, must not be <code>null</code>.
+     * @return The hash as an hexadecimal string, never <code>null</code>.
+     * @throws IOException If the file could not be read.
+     */
+    static String hash( File file )
+        throws IOException
+    {
+        MessageDigest digest = newDigest();
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( file );
+            byte[] buffer = new byte[8192];
+            for ( int read; ( read = in.read( buffer ) ) >= 0; )
+            {
+                digest.update( buffer, 0, read );
+            }
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+        return toHex( digest.digest() );
+    }
+
+    /**
+     * Computes the MD5 hash of a string.
+     *
+     * @param value The string to hash, must not be <code>null</code>.
+     * @return The hash as an hexadecimal string, never <code>null</code>.
+     */
+    static String hash( String value )
+    {
+        try
+        {
+            return toHex( newDigest().digest( value.getBytes( "UTF-8" ) ) );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( e.getMessage() );
+        }
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( "MD5" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "MD5 not supported by this JVM" );
+        }
+    }
+
+    private static String toHex( byte[] bytes )
+    {
+        StringBuffer hex = new StringBuffer( bytes.length * 2 );
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            hex.append( Character.forDigit( ( bytes[i] >> 4 ) & 0xF, 16 ) );
+            hex.append( Character.forDigit( bytes[i] & 0xF, 16 ) );
+        }
+        return hex.toString();
+    }
+
+    private static class Entry
+    {
+
+        private long length;
+
+        private long lastModified;
+
+        private String hash;
+
+        private long cloneLength;
+
+        private long cloneLastModified;
+
+    }
+
+}
@@ -0,0 +1,503 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.shared.invoker.CommandLineConfigurationException;
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.InvokerLogger;
+import org.apache.maven.shared.invoker.MavenCommandLineBuilder;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.codehaus.plexus.util.StringUtils;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+
+/**
+ * Runs Maven builds in a pool of long-lived worker JVMs instead of forking a new Maven process for every invocation.
+ * Each worker runs one build at a time, in-process, with the Maven 3 installation given by the Maven home directory, so
+ * that the JVM startup and the loading and JIT compilation of the Maven core are paid once per worker rather than
+ * once per build. The command line of a build is the one the forked Maven process would have been given, the system
+ * properties of a worker are restored after each build and the build output is passed to the output handler of the
+ * request, like for a forked build. A build whose thread is interrupted, e.g. by the timeout of its build job, has its
+ * worker killed, like a forked Maven process, and the worker is replaced by a new one for the next builds.
+ *
+ * @author Maven Team
+ * @since 1.6
+ * @see EmbeddedMavenWorker
+ */
+class EmbeddedMavenPool
+{
+
+    /**
+     * The marker of the end of the output of a worker, <code>readLine()</code> never returns a line terminator.
+     */
+    private static final String END_OF_OUTPUT = "\n";
+
+    private final File mavenHome;
+
+    private final File javaHome;
+
+    private final String mavenOpts;
+
+    private final int size;
+
+    private final InvokerLogger invokerLogger;
+
+    private final Log log;
+
+    private final LinkedList<Worker> idleWorkers = new LinkedList<Worker>();
+
+    private final List<Worker> workers = new ArrayList<Worker>();
+
+    private boolean closed;
+
+    /**
+     * Creates a new pool. The workers are started on demand.
+     *
+     * @param mavenHome The Maven 3 installation used by the workers, must not be <code>null</code>.
+     * @param javaHome The JRE used by the workers, may be <code>null</code> to use the one of the current build.
+     * @param mavenOpts The options of the worker JVMs, may be <code>null</code>.
+     * @param size The maximum number of workers.
+     * @param invokerLogger The logger used to build the Maven command lines, must not be <code>null</code>.
+     * @param log The mojo logger, must not be <code>null</code>.
+     */
+    public EmbeddedMavenPool( File mavenHome, File javaHome, String mavenOpts, int size, InvokerLogger invokerLogger,
+                              Log log )
+    {
+        this.mavenHome = mavenHome;
+        this.javaHome = javaHome;
+        this.mavenOpts = mavenOpts;
+        this.size = Math.max( 1, size );
+        this.invokerLogger = invokerLogger;
+        this.log = log;
+    }
+
+    /**
+     * Determines whether the specified Maven installation can be embedded, i.e. is a Maven 3 installation.
+     *
+     * @param mavenHome The Maven installation to check, may be <code>null</code>.
+     * @return <code>true</code> if the installation provides the Maven 3 command line, <code>false</code> otherwise.
+     */
+    public static boolean isSupported( File mavenHome )
+    {
+        if ( mavenHome == null )
+        {
+            return false;
+        }
+        File[] libs = new File( mavenHome, "lib" ).listFiles();
+        if ( libs != null )
+        {
+            for ( int i = 0; i < libs.length; i++ )
+            {
+                if ( libs[i].getName().startsWith( "maven-embedder-3" ) )
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether the specified request can be run by the workers of this pool. A request whose
+     * <code>MAVEN_OPTS</code> differ from the options of the workers needs a JVM of its own and must be forked.
+     *
+     * @param request The request to check, must not be <code>null</code>.
+     * @return <code>true</code> if the request can be run by this pool, <code>false</code> otherwise.
+     */
+    public boolean accepts( InvocationRequest request )
+    {
+        return StringUtils.equals( StringUtils.clean( mavenOpts ), StringUtils.clean( request.getMavenOpts() ) )
+            && ( request.getJavaHome() == null || request.getJavaHome().equals( javaHome ) );
+    }
+
+    /**
+     * Runs the specified request on a worker of this pool, starting a new worker if all workers are busy and the pool
+     * is not yet full.
+     *
+     * @param request The request to run, must not be <code>null</code>.
+     * @return The result of the build, never <code>null</code>.
+     * @throws MavenInvocationException If the command line could not be built, no worker could be started or the
+     *             calling thread was interrupted, in which case the worker running the build is killed.
+     */
+    public InvocationResult execute( InvocationRequest request )
+        throws MavenInvocationException
+    {
+        Commandline cli;
+        try
+        {
+            MavenCommandLineBuilder builder = new MavenCommandLineBuilder();
+            builder.setLogger( invokerLogger );
+            builder.setMavenHome( mavenHome );
+            cli = builder.build( request );
+        }
+        catch ( CommandLineConfigurationException e )
+        {
+            throw new MavenInvocationException( "Error configuring command-line. Reason: " + e.getMessage(), e );
+        }
+
+        InvocationOutputHandler outputHandler = request.getOutputHandler( null );
+
+        Worker worker = acquire();
+        boolean healthy = false;
+        try
+        {
+            final int exitCode = worker.run( cli.getArguments(), cli.getWorkingDirectory(), outputHandler );
+            healthy = true;
+            return new InvocationResult()
+            {
+                public CommandLineException getExecutionException()
+                {
+                    return null;
+                }
+
+                public int getExitCode()
+                {
+                    return exitCode;
+                }
+            };
+        }
+        catch ( final IOException e )
+        {
+            return new InvocationResult()
+            {
+                public CommandLineException getExecutionException()
+                {
+                    return new CommandLineException( "The embedded Maven worker failed: " + e.getMessage(), e );
+                }
+
+                public int getExitCode()
+                {
+                    return Integer.MIN_VALUE;
+                }
+            };
+        }
+        catch ( InterruptedException e )
+        {
+            // the worker is killed by its release, which ends the build
+            Thread.currentThread().interrupt();
+            throw new MavenInvocationException( "Interrupted while running the build on an embedded Maven worker" );
+        }
+        finally
+        {
+            release( worker, healthy );
+        }
+    }
+
+    /**
+     * Stops all workers of this pool.
+     */
+    public synchronized void close()
+    {
+        closed = true;
+        for ( Worker worker : workers )
+        {
+            worker.stop();
+        }
+        workers.clear();
+        idleWorkers.clear();
+        notifyAll();
+    }
+
+    private synchronized Worker acquire()
+        throws MavenInvocationException
+    {
+        while ( true )
+        {
+            if ( closed )
+            {
+                throw new MavenInvocationException( "The embedded Maven workers have been stopped" );
+            }
+            if ( !idleWorkers.isEmpty() )
+            {
+                return idleWorkers.removeFirst();
+            }
+            if ( workers.size() < size )
+            {
+                Worker worker = startWorker();
+                workers.add( worker );
+                return worker;
+            }
+            try
+            {
+                wait();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new MavenInvocationException( "Interrupted while waiting for an embedded Maven worker" );
+            }
+        }
+    }
+
+    private synchronized void release( Worker worker, boolean healthy )
+    {
+        if ( healthy && !closed )
+        {
+            idleWorkers.addLast( worker );
+        }
+        else
+        {
+            worker.stop();
+            workers.remove( worker );
+        }
+        notifyAll();
+    }
+
+    private Worker startWorker()
+        throws MavenInvocationException
+    {
+        List<String> command = new ArrayList<String>();
+
+        File jre = ( javaHome != null ) ? javaHome : new File( System.getProperty( "java.home" ) );
+        command.add( new File( new File( jre, "bin" ), "java" ).getAbsolutePath() );
+
+        if ( StringUtils.isNotEmpty( mavenOpts ) )
+        {
+            try
+            {
+                String[] opts = CommandLineUtils.translateCommandline( mavenOpts );
+                for ( int i = 0; i < opts.length; i++ )
+                {
+                    command.add( opts[i] );
+                }
+            }
+            catch ( Exception e )
+            {
+                throw new MavenInvocationException( "Invalid MAVEN_OPTS: " + mavenOpts, e );
+            }
+        }
+
+        command.add( "-Dmaven.home=" + mavenHome.getAbsolutePath() );
+        command.add( "-Dmaven.conf=" + new File( mavenHome, "conf" ).getAbsolutePath() );
+        command.add( "-Dclassworlds.conf=" + new File( mavenHome, "bin/m2.conf" ).getAbsolutePath() );
+        command.add( "-cp" );
+        command.add( getClassPath() );
+        command.add( EmbeddedMavenWorker.class.getName() );
+
+        log.debug( "Starting embedded Maven worker: " + command );
+
+        try
+        {
+            ProcessBuilder builder = new ProcessBuilder( command );
+            builder.redirectErrorStream( true );
+            builder.environment().put( "M2_HOME", mavenHome.getAbsolutePath() );
+            Worker worker = new Worker( builder.start() );
+            worker.awaitReady();
+            return worker;
+        }
+        catch ( IOException e )
+        {
+            throw new MavenInvocationException( "Failed to start embedded Maven worker: " + e.getMessage(), e );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new MavenInvocationException( "Interrupted while starting an embedded Maven worker" );
+        }
+    }
+
+    private String getClassPath()
+        throws MavenInvocationException
+    {
+        StringBuffer classPath = new StringBuffer( 4096 );
+
+        // the logging configuration of Maven 3.1+, usually added by m2.conf
+        File logging = new File( mavenHome, "conf/logging" );
+        if ( logging.isDirectory() )
+        {
+            classPath.append( logging.getAbsolutePath() ).append( File.pathSeparatorChar );
+        }
+
+        String[] dirs = { "boot", "lib", "lib/ext" };
+        for ( int i = 0; i < dirs.length; i++ )
+        {
+            File[] jars = new File( mavenHome, dirs[i] ).listFiles();
+            if ( jars != null )
+            {
+                for ( int j = 0; j < jars.length; j++ )
+                {
+                    if ( jars[j].getName().endsWith( ".jar" ) )
+                    {
+                        classPath.append( jars[j].getAbsolutePath() ).append( File.pathSeparatorChar );
+                    }
+                }
+            }
+        }
+
+        try
+        {
+            File pluginJar =
+                new File( EmbeddedMavenWorker.class.getProtectionDomain().getCodeSource().getLocation().toURI() );
+            classPath.append( pluginJar.getAbsolutePath() );
+        }
+        catch ( URISyntaxException e )
+        {
+            throw new MavenInvocationException( "Failed to locate the embedded Maven worker", e );
+        }
+
+        return classPath.toString();
+    }
+
+    /**
+     * A worker JVM. Its output is read by a thread of its own, so that a build waiting for the output can be
+     * interrupted.
+     */
+    private class Worker
+    {
+
+        private final Process process;
+
+        private final DataOutputStream requests;
+
+        private final BlockingQueue<String> responses = new LinkedBlockingQueue<String>();
+
+        Worker( Process process )
+            throws IOException
+        {
+            this.process = process;
+            this.requests = new DataOutputStream( process.getOutputStream() );
+
+            final BufferedReader output =
+                new BufferedReader( new InputStreamReader( process.getInputStream(), "UTF-8" ) );
+            Thread reader = new Thread( "invoker-worker-output" )
+            {
+                public void run()
+                {
+                    try
+                    {
+                        for ( String line; ( line = output.readLine() ) != null; )
+                        {
+                            responses.add( line );
+                        }
+                    }
+                    catch ( IOException e )
+                    {
+                        // the worker has been killed
+                    }
+                    finally
+                    {
+                        responses.add( END_OF_OUTPUT );
+                    }
+                }
+            };
+            reader.setDaemon( true );
+            reader.start();
+        }
+
+        void awaitReady()
+            throws IOException, InterruptedException
+        {
+            StringBuffer output = new StringBuffer();
+            try
+            {
+                for ( String line; ( line = readLine() ) != null; )
+                {
+                    if ( EmbeddedMavenWorker.READY.equals( line ) )
+                    {
+                        return;
+                    }
+                    output.append( line ).append( '\n' );
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                stop();
+                throw e;
+            }
+            stop();
+            throw new IOException( "The embedded Maven worker terminated during startup: " + output );
+        }
+
+        int run( String[] args, File workingDirectory, InvocationOutputHandler outputHandler )
+            throws IOException, InterruptedException
+        {
+            requests.writeInt( args.length );
+            for ( int i = 0; i < args.length; i++ )
+            {
+                requests.writeUTF( args[i] );
+            }
+            requests.writeUTF( workingDirectory.getAbsolutePath() );
+            requests.flush();
+
+            for ( String line; ( line = readLine() ) != null; )
+            {
+                if ( line.startsWith( EmbeddedMavenWorker.EXIT ) )
+                {
+                    return Integer.parseInt( line.substring( EmbeddedMavenWorker.EXIT.length() ) );
+                }
+                if ( line.startsWith( EmbeddedMavenWorker.OUTPUT ) )
+                {
+                    line = line.substring( EmbeddedMavenWorker.OUTPUT.length() );
+                }
+                if ( outputHandler != null )
+                {
+                    outputHandler.consumeLine( line );
+                }
+            }
+
+            throw new IOException( "The worker terminated unexpectedly" );
+        }
+
+        private String readLine()
+            throws InterruptedException
+        {
+            String line = responses.take();
+            if ( END_OF_OUTPUT.equals( line ) )
+            {
+                // for the next reads
+                responses.add( line );
+                return null;
+            }
+            return line;
+        }
+
+        void stop()
+        {
+            try
+            {
+                requests.writeInt( -1 );
+                requests.flush();
+            }
+            catch ( IOException e )
+            {
+                // already gone
+            }
+            process.destroy();
+        }
+
+    }
+
+}
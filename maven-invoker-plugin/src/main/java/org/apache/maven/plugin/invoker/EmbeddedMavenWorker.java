@@ -0,0 +1,209 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Properties;
+
+/**
+ * The main class of a worker JVM of the {@link EmbeddedMavenPool}. The worker runs Maven builds in-process, one at a
+ * time, using the <code>MavenCli</code> of the Maven 3 installation on its class path. This class is launched in a
+ * separate JVM and must therefore only depend on the JRE.
+ * <p>
+ * The requests are read from the standard input, each consisting of the number of arguments, the arguments and the
+ * working directory written by a {@link java.io.DataOutputStream}. A negative number of arguments stops the worker.
+ * The output of a build is written line by line to the standard output, prefixed with {@link #OUTPUT}, and followed by
+ * a line holding {@link #EXIT} and the exit code of the build.
+ * </p>
+ *
+ * @author Maven Team
+ * @since 1.6
+ */
+public final class EmbeddedMavenWorker
+{
+
+    /**
+     * The line written once the worker is ready to accept requests.
+     */
+    static final String READY = "@@invoker-worker-ready";
+
+    /**
+     * The prefix of the lines holding the output of a build.
+     */
+    static final String OUTPUT = "@@out ";
+
+    /**
+     * The prefix of the line holding the exit code of a build.
+     */
+    static final String EXIT = "@@exit ";
+
+    private EmbeddedMavenWorker()
+    {
+        // launched by main
+    }
+
+    public static void main( String[] args )
+        throws Exception
+    {
+        PrintStream channel = new PrintStream( new FileOutputStream( FileDescriptor.out ), true, "UTF-8" );
+        DataInputStream requests = new DataInputStream( new BufferedInputStream( System.in ) );
+
+        Class<?> cliClass = Class.forName( "org.apache.maven.cli.MavenCli" );
+        Method doMain =
+            cliClass.getMethod( "doMain", new Class[] { String[].class, String.class, PrintStream.class,
+                PrintStream.class } );
+
+        channel.println( READY );
+
+        while ( true )
+        {
+            int count;
+            try
+            {
+                count = requests.readInt();
+            }
+            catch ( EOFException e )
+            {
+                break;
+            }
+            if ( count < 0 )
+            {
+                break;
+            }
+
+            String[] cliArgs = new String[count];
+            for ( int i = 0; i < count; i++ )
+            {
+                cliArgs[i] = requests.readUTF();
+            }
+            String workingDirectory = requests.readUTF();
+
+            int exitCode = run( cliClass, doMain, cliArgs, workingDirectory, channel );
+
+            channel.println( EXIT + exitCode );
+        }
+    }
+
+    private static int run( Class<?> cliClass, Method doMain, String[] cliArgs, String workingDirectory,
+                            PrintStream channel )
+        throws IOException
+    {
+        Properties systemProperties = (Properties) System.getProperties().clone();
+        PrintStream origOut = System.out;
+        PrintStream origErr = System.err;
+
+        PrintStream output = new PrintStream( new LineOutputStream( channel ), true, "UTF-8" );
+        try
+        {
+            System.setOut( output );
+            System.setErr( output );
+            if ( System.getProperty( "maven.multiModuleProjectDirectory" ) == null )
+            {
+                // required by Maven 3.3+, set by its launcher scripts
+                System.setProperty( "maven.multiModuleProjectDirectory", workingDirectory );
+            }
+
+            Object result =
+                doMain.invoke( cliClass.newInstance(), new Object[] { cliArgs, workingDirectory, output, output } );
+            return ( (Integer) result ).intValue();
+        }
+        catch ( InvocationTargetException e )
+        {
+            e.getTargetException().printStackTrace( output );
+            return 1;
+        }
+        catch ( Exception e )
+        {
+            e.printStackTrace( output );
+            return 1;
+        }
+        finally
+        {
+            output.close();
+            System.setOut( origOut );
+            System.setErr( origErr );
+            System.setProperties( systemProperties );
+        }
+    }
+
+    /**
+     * Writes the output of a build line by line to the channel of the worker.
+     */
+    private static class LineOutputStream
+        extends OutputStream
+    {
+
+        private final PrintStream channel;
+
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream( 256 );
+
+        LineOutputStream( PrintStream channel )
+        {
+            this.channel = channel;
+        }
+
+        public synchronized void write( int b )
+            throws IOException
+        {
+            if ( b == '\n' )
+            {
+                flushLine();
+            }
+            else if ( b != '\r' )
+            {
+                line.write( b );
+            }
+        }
+
+        public synchronized void flush()
+            throws IOException
+        {
+            // lines are only written once complete
+        }
+
+        public synchronized void close()
+            throws IOException
+        {
+            if ( line.size() > 0 )
+            {
+                flushLine();
+            }
+        }
+
+        private void flushLine()
+            throws IOException
+        {
+            channel.println( OUTPUT + line.toString( "UTF-8" ) );
+            line.reset();
+        }
+
+    }
+
+}
@@ -25,6 +25,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -43,7 +44,6 @@ import org.apache.maven.model.Parent;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
-import org.codehaus.plexus.util.FileUtils;
 
 /**
  * Installs the project artifacts of the main build into the local repository as a preparation to run the sub projects.
@@ -137,6 +137,31 @@ public class InstallMojo
      */
     private Collection<String> copiedArtifacts;
 
+    /**
+     * The number of threads used to copy the artifacts resolved from the local repository into the repository given by
+     * <code>localRepositoryPath</code>. Copies whose destination already has the same size and content are skipped,
+     * and artifacts already staged by another module of the reactor are not looked at again.
+     * 
+     * @parameter expression="${invoker.installThreads}" default-value="1"
+     * @since 1.6
+     */
+    private int installThreads;
+
+    /**
+     * The stager of the test repository, shared with the other executions of this mojo using the same repository.
+     */
+    private ArtifactStager stager;
+
+    /**
+     * The files to copy into the test repository, keyed by their destination.
+     */
+    private Map<File, File> pendingCopies;
+
+    /**
+     * The artifacts copied into the test repository, keyed by their destination.
+     */
+    private Map<File, Artifact> pendingMetadata;
+
     /**
      * Extra dependencies that need to be installed on the local repository.<BR>
      * Format:
@@ -160,6 +185,23 @@ public class InstallMojo
      */
     private String[] extraArtifacts;
 
+    /**
+     * The file keeping the rolling history of the build times of the integration tests. The time taken by this mojo is
+     * recorded in it, to be shown by the {@link InvokerReport} alongside the build times of the integration tests.
+     * 
+     * @parameter expression="${invoker.historyFile}" default-value="${project.build.directory}/invoker-history.txt"
+     * @since 1.6
+     */
+    private File historyFile;
+
+    /**
+     * The number of runs kept per entry in the {@link #historyFile}. A value of <code>0</code> disables the history.
+     * 
+     * @parameter expression="${invoker.historySize}" default-value="10"
+     * @since 1.6
+     */
+    private int historySize;
+
     /**
      * @component
      */
@@ -196,16 +238,72 @@ public class InstallMojo
             return;
         }
 
+        long start = System.currentTimeMillis();
+
         ArtifactRepository testRepository = createTestRepository();
 
         installedArtifacts = new HashSet<String>();
         copiedArtifacts = new HashSet<String>();
+        stager = ArtifactStager.getInstance( new File( testRepository.getBasedir() ) );
+        pendingCopies = new LinkedHashMap<File, File>();
+        pendingMetadata = new LinkedHashMap<File, Artifact>();
 
         installProjectDependencies( project, reactorProjects, testRepository );
         installProjectParents( project, testRepository );
         installProjectArtifacts( project, testRepository );
 
         installExtraArtifacts( testRepository, extraArtifacts );
+
+        stageCopiedArtifacts();
+
+        if ( historySize > 0 )
+        {
+            BuildHistory history = new BuildHistory( historyFile, historySize );
+            history.load();
+            history.add( start, BuildHistory.INSTALL, ( System.currentTimeMillis() - start ) / 1000.0 );
+            try
+            {
+                history.save();
+            }
+            catch ( IOException e )
+            {
+                getLog().warn( "Failed to write the build history " + historyFile + ": " + e.getMessage() );
+            }
+        }
+    }
+
+    /**
+     * Copies the artifacts collected by {@link #copyArtifact(File, Artifact, ArtifactRepository)} into the test
+     * repository and creates their local metadata. The files are copied concurrently if requested, the metadata is
+     * always created sequentially as artifacts of the same group and artifact id share the metadata files.
+     * 
+     * @throws MojoExecutionException If any artifact could not be staged.
+     */
+    private void stageCopiedArtifacts()
+        throws MojoExecutionException
+    {
+        try
+        {
+            int copied = stager.stageAll( pendingCopies, installThreads );
+
+            getLog().debug( "Copied " + copied + " of " + pendingCopies.size() + " artifacts to the test repository" );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Failed to stage artifacts: " + e.getMessage(), e );
+        }
+
+        for ( Map.Entry<File, Artifact> entry : pendingMetadata.entrySet() )
+        {
+            try
+            {
+                MetadataUtils.createMetadata( entry.getKey(), entry.getValue() );
+            }
+            catch ( IOException e )
+            {
+                throw new MojoExecutionException( "Failed to stage artifact: " + entry.getValue(), e );
+            }
+        }
     }
 
     /**
@@ -276,7 +374,17 @@ public class InstallMojo
 
             if ( installedArtifacts.add( artifact.getId() ) )
             {
-                installer.install( file, artifact, testRepository );
+                File destination = new File( testRepository.getBasedir(), testRepository.pathOf( artifact ) );
+
+                if ( stager.isStaged( file, destination ) )
+                {
+                    getLog().debug( "Not re-installing " + artifact + ", already installed by another module" );
+                }
+                else
+                {
+                    installer.install( file, artifact, testRepository );
+                    stager.markStaged( file, destination );
+                }
             }
             else
             {
@@ -295,6 +403,7 @@ public class InstallMojo
      * from the user's local repository (and not the current build outputs). The subtle difference here is that
      * artifacts from the repository have already undergone transformations and these manipulations should not be redone
      * by the artifact installer. For this reason, this method performs plain copy operations to install the artifacts.
+     * The copies are only scheduled here and performed by {@link #stageCopiedArtifacts()}.
      * 
      * @param file The file associated with the artifact, must not be <code>null</code>.
      * @param artifact The artifact to install, must not be <code>null</code>.
@@ -321,9 +430,8 @@ public class InstallMojo
 
                 getLog().debug( "Installing " + file + " to " + destination );
 
-                copyFileIfDifferent( file, destination );
-
-                MetadataUtils.createMetadata( destination, artifact );
+                pendingCopies.put( destination, file );
+                pendingMetadata.put( destination, artifact );
             }
             else
             {
@@ -336,16 +444,6 @@ public class InstallMojo
         }
     }
 
-    private void copyFileIfDifferent( File src, File dst )
-        throws IOException
-    {
-        if ( src.lastModified() != dst.lastModified() || src.length() != dst.length() )
-        {
-            FileUtils.copyFile( src, dst );
-            dst.setLastModified( src.lastModified() );
-        }
-    }
-
     /**
      * Installs the main artifact and any attached artifacts of the specified project to the local repository.
      * 
@@ -153,6 +153,19 @@ class InvokerProperties
         return this.properties.getProperty( "invoker.os.family", "" );
     }
 
+    /**
+     * Determines whether the builds of this project should run in a worker JVM of the embedded mode.
+     *
+     * @param defaultValue The value to use if the invoker properties do not say.
+     * @return <code>true</code> if the builds should be embedded, <code>false</code> if they should be forked.
+     * @since 1.6
+     */
+    public boolean isEmbedded( boolean defaultValue )
+    {
+        String value = this.properties.getProperty( "invoker.embedded" );
+        return ( value != null ) ? Boolean.valueOf( value ).booleanValue() : defaultValue;
+    }
+
     /**
      * Determines whether these invoker properties contain a build definition for the specified invocation index.
      * 
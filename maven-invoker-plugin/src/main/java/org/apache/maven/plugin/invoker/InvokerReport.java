@@ -25,8 +25,11 @@ import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.siterenderer.Renderer;
@@ -94,6 +97,29 @@ public class InvokerReport
      */
     private File reportsDirectory; 
 
+    /**
+     * The file keeping the rolling history of the build times of the integration tests. If present, the report shows
+     * the slowest build jobs and the build jobs whose build time regressed compared to the previous runs.
+     *
+     * @parameter expression="${invoker.historyFile}" default-value="${project.build.directory}/invoker-history.txt"
+     * @since 1.6
+     */
+    private File historyFile;
+
+    /**
+     * The increase of the build time of a build job, in percent of its average build time in the previous runs, from
+     * which the build job is reported as a regression.
+     *
+     * @parameter expression="${invoker.regressionThreshold}" default-value="20"
+     * @since 1.6
+     */
+    private int regressionThreshold;
+
+    /**
+     * The maximum number of build jobs listed as the slowest build jobs.
+     */
+    private static final int SLOWEST_JOBS = 10;
+
     /**
      * The number format used to print percent values in the report locale.
      */
@@ -190,6 +216,10 @@ public class InvokerReport
         sinkTableHeader( sink, getText( locale, "report.invoker.detail.name" ) );
         sinkTableHeader( sink, getText( locale, "report.invoker.detail.result" ) );
         sinkTableHeader( sink, getText( locale, "report.invoker.detail.time" ) );
+        sinkTableHeader( sink, getText( locale, "report.invoker.detail.time.selector" ) );
+        sinkTableHeader( sink, getText( locale, "report.invoker.detail.time.prebuild" ) );
+        sinkTableHeader( sink, getText( locale, "report.invoker.detail.time.maven" ) );
+        sinkTableHeader( sink, getText( locale, "report.invoker.detail.time.verify" ) );
         sinkTableHeader( sink, getText( locale, "report.invoker.detail.message" ) );
 
         sink.tableRow_();
@@ -201,6 +231,17 @@ public class InvokerReport
 
         sink.table_();
 
+        // ----------------------------------
+        //  build time trends
+        // ----------------------------------
+
+        if ( historyFile != null && historyFile.isFile() )
+        {
+            BuildHistory history = new BuildHistory( historyFile, Integer.MAX_VALUE );
+            history.load();
+            constructTrendSection( buildJobs, history, locale );
+        }
+
         sink.body_();
 
         sink.flush();
@@ -277,10 +318,126 @@ public class InvokerReport
 
     }
 
-    private void renderBuildJob( BuildJob buildJob, Locale locale )
+    private void constructTrendSection( List<BuildJob> buildJobs, BuildHistory history, Locale locale )
     {
         Sink sink = getSink();
+
+        sink.section2();
+        sink.sectionTitle2();
+        sink.text( getText( locale, "report.invoker.trend.title" ) );
+        sink.sectionTitle2_();
+        sink.section2_();
+
+        // ------------------------------------------------------------------------
+        // clone time | install time
+        // ------------------------------------------------------------------------
+
+        sink.table();
+        sink.tableRow();
+        sinkTableHeader( sink, getText( locale, "report.invoker.trend.time.clone" ) );
+        sinkTableHeader( sink, getText( locale, "report.invoker.trend.time.install" ) );
+        sink.tableRow_();
+        sink.tableRow();
+        sinkCell( sink, formatSeconds( history.getLatestDuration( BuildHistory.CLONE ) ) );
+        sinkCell( sink, formatSeconds( history.getLatestDuration( BuildHistory.INSTALL ) ) );
+        sink.tableRow_();
+        sink.table_();
+
+        Map<String, Double> averages = history.getAverageDurations();
+        Map<String, Double> previousAverages = history.getPreviousAverageDurations();
+
+        // ------------------------------------------------------------------------
+        // name | time | avg time
+        // ------------------------------------------------------------------------
+
+        List<BuildJob> slowestJobs = new ArrayList<BuildJob>();
+        for ( BuildJob buildJob : buildJobs )
+        {
+            if ( !BuildJob.Result.SKIPPED.equals( buildJob.getResult() ) )
+            {
+                slowestJobs.add( buildJob );
+            }
+        }
+        Collections.sort( slowestJobs, new Comparator<BuildJob>()
+        {
+            public int compare( BuildJob job1, BuildJob job2 )
+            {
+                return Double.compare( job2.getTime(), job1.getTime() );
+            }
+        } );
+        if ( slowestJobs.size() > SLOWEST_JOBS )
+        {
+            slowestJobs = slowestJobs.subList( 0, SLOWEST_JOBS );
+        }
+
+        sink.paragraph();
+        sink.text( getText( locale, "report.invoker.trend.slowest" ) );
+        sink.paragraph_();
+
+        sink.table();
+        sink.tableRow();
+        sinkTableHeader( sink, getText( locale, "report.invoker.detail.name" ) );
+        sinkTableHeader( sink, getText( locale, "report.invoker.detail.time" ) );
+        sinkTableHeader( sink, getText( locale, "report.invoker.summary.time.avg" ) );
+        sink.tableRow_();
+        for ( BuildJob buildJob : slowestJobs )
+        {
+            sink.tableRow();
+            sinkCell( sink, getBuildJobName( buildJob ) );
+            sinkCell( sink, secondsFormat.format( buildJob.getTime() ) );
+            sinkCell( sink, formatSeconds( averages.get( BuildJobScheduler.getJobKey( buildJob.getProject() ) ) ) );
+            sink.tableRow_();
+        }
+        sink.table_();
+
+        // ------------------------------------------------------------------------
+        // name | time | previous avg time | change
+        // ------------------------------------------------------------------------
+
+        sink.paragraph();
+        sink.text( getText( locale, "report.invoker.trend.regressions" ) );
+        sink.paragraph_();
+
+        sink.table();
         sink.tableRow();
+        sinkTableHeader( sink, getText( locale, "report.invoker.detail.name" ) );
+        sinkTableHeader( sink, getText( locale, "report.invoker.detail.time" ) );
+        sinkTableHeader( sink, getText( locale, "report.invoker.trend.time.previous" ) );
+        sinkTableHeader( sink, getText( locale, "report.invoker.trend.change" ) );
+        sink.tableRow_();
+        for ( BuildJob buildJob : buildJobs )
+        {
+            if ( BuildJob.Result.SKIPPED.equals( buildJob.getResult() ) )
+            {
+                continue;
+            }
+            Double previous = previousAverages.get( BuildJobScheduler.getJobKey( buildJob.getProject() ) );
+            if ( previous != null && previous.doubleValue() > 0 )
+            {
+                double change = ( buildJob.getTime() - previous.doubleValue() ) / previous.doubleValue();
+                if ( change * 100 > regressionThreshold )
+                {
+                    getLog().warn( "The build time of " + buildJob.getProject() + " regressed by "
+                        + percentFormat.format( change ) );
+                    sink.tableRow();
+                    sinkCell( sink, getBuildJobName( buildJob ) );
+                    sinkCell( sink, secondsFormat.format( buildJob.getTime() ) );
+                    sinkCell( sink, secondsFormat.format( previous.doubleValue() ) );
+                    sinkCell( sink, percentFormat.format( change ) );
+                    sink.tableRow_();
+                }
+            }
+        }
+        sink.table_();
+    }
+
+    private String formatSeconds( Double seconds )
+    {
+        return ( seconds != null ) ? secondsFormat.format( seconds.doubleValue() ) : "";
+    }
+
+    private String getBuildJobName( BuildJob buildJob )
+    {
         StringBuffer buffer = new StringBuffer();
         if ( !StringUtils.isEmpty( buildJob.getName() ) && !StringUtils.isEmpty( buildJob.getDescription() ) )
         {
@@ -292,10 +449,21 @@ public class InvokerReport
         {
             buffer.append( buildJob.getProject() );
         }
-        sinkCell( sink, buffer.toString() );
+        return buffer.toString();
+    }
+
+    private void renderBuildJob( BuildJob buildJob, Locale locale )
+    {
+        Sink sink = getSink();
+        sink.tableRow();
+        sinkCell( sink, getBuildJobName( buildJob ) );
         // FIXME image
         sinkCell( sink, buildJob.getResult() );
         sinkCell( sink, secondsFormat.format( buildJob.getTime() ) );
+        sinkCell( sink, secondsFormat.format( buildJob.getSelectorTime() ) );
+        sinkCell( sink, secondsFormat.format( buildJob.getPreBuildTime() ) );
+        sinkCell( sink, secondsFormat.format( buildJob.getMavenTime() ) );
+        sinkCell( sink, secondsFormat.format( buildJob.getVerifyTime() ) );
         sinkCell( sink, buildJob.getFailureMessage() );
         sink.tableRow_();
     }
@@ -0,0 +1,342 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.shared.scriptinterpreter.ScriptEvaluationException;
+import org.apache.maven.shared.scriptinterpreter.ScriptInterpreter;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import bsh.Capabilities;
+import bsh.EvalError;
+import bsh.Interpreter;
+import bsh.TargetError;
+
+/**
+ * Caches the class loaders and compiled scripts used to evaluate the selector, pre-build and post-build hook scripts.
+ * The stock interpreters of the script runner create a new class loader from the script class path and re-compile the
+ * script for every build job. The interpreters provided by this cache create one class loader per class path and
+ * compile each Groovy script once per content and class path, for all build jobs of an execution. The cache may be
+ * used by concurrent build jobs.
+ *
+ * @author Maven Team
+ * @since 1.6
+ */
+class ScriptCache
+{
+
+    /**
+     * The class loaders for the script class paths, keyed by the class path.
+     */
+    private final Map<List<String>, ClassLoader> classLoaders = new HashMap<List<String>, ClassLoader>();
+
+    /**
+     * The Groovy class loaders compiling the scripts, keyed by the script class path.
+     */
+    private final Map<List<String>, GroovyClassLoader> groovyClassLoaders =
+        new HashMap<List<String>, GroovyClassLoader>();
+
+    /**
+     * The compiled Groovy scripts, keyed by the hash of their content and class path.
+     */
+    private final Map<String, Class<?>> groovyScripts = new HashMap<String, Class<?>>();
+
+    /**
+     * Whether the scripts are evaluated with the system output and error streams redirected to the build log. This is
+     * only safe if the build jobs do not run concurrently, the script output of concurrent build jobs is only
+     * redirected for the methods <code>print</code> and <code>println</code> of the scripts themselves.
+     */
+    private final boolean redirectSystemStreams;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param redirectSystemStreams Whether to redirect the system output and error streams while evaluating a script.
+     */
+    public ScriptCache( boolean redirectSystemStreams )
+    {
+        this.redirectSystemStreams = redirectSystemStreams;
+    }
+
+    /**
+     * Gets an interpreter for BeanShell scripts using the cached class loaders.
+     *
+     * @return The interpreter, never <code>null</code>.
+     */
+    public ScriptInterpreter getBeanShellInterpreter()
+    {
+        return new BeanShellInterpreter();
+    }
+
+    /**
+     * Gets an interpreter for Groovy scripts using the cached class loaders and compiled scripts.
+     *
+     * @return The interpreter, never <code>null</code>.
+     */
+    public ScriptInterpreter getGroovyInterpreter()
+    {
+        return new GroovyInterpreter();
+    }
+
+    /**
+     * Gets the class loader for the specified script class path.
+     *
+     * @param classPath The script class path, may be <code>null</code>.
+     * @return The class loader, never <code>null</code>.
+     */
+    synchronized ClassLoader getClassLoader( List<String> classPath )
+    {
+        List<String> key = toKey( classPath );
+        ClassLoader classLoader = classLoaders.get( key );
+        if ( classLoader == null )
+        {
+            ClassLoader parent = getClass().getClassLoader();
+            if ( key.isEmpty() )
+            {
+                classLoader = parent;
+            }
+            else
+            {
+                URL[] urls = new URL[key.size()];
+                for ( int i = 0; i < urls.length; i++ )
+                {
+                    try
+                    {
+                        urls[i] = new File( key.get( i ) ).toURI().toURL();
+                    }
+                    catch ( MalformedURLException e )
+                    {
+                        throw new IllegalArgumentException( "bad class path: " + key.get( i ) );
+                    }
+                }
+                classLoader = new URLClassLoader( urls, parent );
+            }
+            classLoaders.put( key, classLoader );
+        }
+        return classLoader;
+    }
+
+    /**
+     * Gets the compiled class of the specified Groovy script.
+     *
+     * @param script The source of the script, must not be <code>null</code>.
+     * @param classPath The script class path, may be <code>null</code>.
+     * @return The compiled script, never <code>null</code>.
+     */
+    synchronized Class<?> getGroovyScript( String script, List<String> classPath )
+    {
+        List<String> key = toKey( classPath );
+        String hash = CloneManifest.hash( script + '\n' + key );
+
+        Class<?> scriptClass = groovyScripts.get( hash );
+        if ( scriptClass == null )
+        {
+            GroovyClassLoader groovyClassLoader = groovyClassLoaders.get( key );
+            if ( groovyClassLoader == null )
+            {
+                CompilerConfiguration config = new CompilerConfiguration( CompilerConfiguration.DEFAULT );
+                groovyClassLoader = new GroovyClassLoader( getClassLoader( key ), config );
+                groovyClassLoaders.put( key, groovyClassLoader );
+            }
+            scriptClass = groovyClassLoader.parseClass( script, "Script_" + hash + ".groovy" );
+            groovyScripts.put( hash, scriptClass );
+        }
+        return scriptClass;
+    }
+
+    private static List<String> toKey( List<String> classPath )
+    {
+        if ( classPath == null )
+        {
+            return Collections.emptyList();
+        }
+        return new ArrayList<String>( classPath );
+    }
+
+    /**
+     * Evaluates a BeanShell script, the equivalent of the stock interpreter but with a cached class loader.
+     */
+    private class BeanShellInterpreter
+        implements ScriptInterpreter
+    {
+
+        public Object evaluateScript( String script, List<String> classPath,
+                                      Map<String, ? extends Object> globalVariables, PrintStream scriptOutput )
+            throws ScriptEvaluationException
+        {
+            PrintStream origOut = System.out;
+            PrintStream origErr = System.err;
+
+            try
+            {
+                Interpreter engine = new Interpreter();
+
+                if ( scriptOutput != null )
+                {
+                    if ( redirectSystemStreams )
+                    {
+                        System.setErr( scriptOutput );
+                        System.setOut( scriptOutput );
+                    }
+                    engine.setErr( scriptOutput );
+                    engine.setOut( scriptOutput );
+                }
+
+                if ( !Capabilities.haveAccessibility() )
+                {
+                    try
+                    {
+                        Capabilities.setAccessibility( true );
+                    }
+                    catch ( Exception e )
+                    {
+                        if ( scriptOutput != null )
+                        {
+                            e.printStackTrace( scriptOutput );
+                        }
+                    }
+                }
+
+                engine.setClassLoader( getClassLoader( classPath ) );
+
+                if ( globalVariables != null )
+                {
+                    for ( Map.Entry<String, ? extends Object> variable : globalVariables.entrySet() )
+                    {
+                        try
+                        {
+                            engine.set( variable.getKey(), variable.getValue() );
+                        }
+                        catch ( EvalError e )
+                        {
+                            throw new RuntimeException( e );
+                        }
+                    }
+                }
+
+                try
+                {
+                    return engine.eval( script );
+                }
+                catch ( TargetError e )
+                {
+                    throw new ScriptEvaluationException( e.getTarget() );
+                }
+                catch ( ThreadDeath e )
+                {
+                    throw e;
+                }
+                catch ( Throwable e )
+                {
+                    throw new ScriptEvaluationException( e );
+                }
+            }
+            finally
+            {
+                if ( redirectSystemStreams )
+                {
+                    System.setErr( origErr );
+                    System.setOut( origOut );
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Evaluates a Groovy script, the equivalent of the stock interpreter but with a cached class loader and compiled
+     * script.
+     */
+    private class GroovyInterpreter
+        implements ScriptInterpreter
+    {
+
+        public Object evaluateScript( String script, List<String> classPath,
+                                      Map<String, ? extends Object> globalVariables, PrintStream scriptOutput )
+            throws ScriptEvaluationException
+        {
+            PrintStream origOut = System.out;
+            PrintStream origErr = System.err;
+
+            try
+            {
+                Map<String, Object> variables = new HashMap<String, Object>();
+                if ( globalVariables != null )
+                {
+                    variables.putAll( globalVariables );
+                }
+
+                if ( scriptOutput != null )
+                {
+                    if ( redirectSystemStreams )
+                    {
+                        System.setErr( scriptOutput );
+                        System.setOut( scriptOutput );
+                    }
+                    if ( !variables.containsKey( "out" ) )
+                    {
+                        variables.put( "out", new PrintWriter( scriptOutput, true ) );
+                    }
+                }
+
+                try
+                {
+                    Script compiledScript =
+                        InvokerHelper.createScript( getGroovyScript( script, classPath ), new Binding( variables ) );
+                    return compiledScript.run();
+                }
+                catch ( ThreadDeath e )
+                {
+                    throw e;
+                }
+                catch ( Throwable e )
+                {
+                    throw new ScriptEvaluationException( e );
+                }
+            }
+            finally
+            {
+                if ( redirectSystemStreams )
+                {
+                    System.setErr( origErr );
+                    System.setOut( origOut );
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.apache.maven.cli;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * A stub of the Maven 3 command line, run by the embedded Maven workers of the EmbeddedMavenPoolTest. It prints the
+ * name of its JVM and the working directory of the build, and interprets the goals <code>exit-N</code>,
+ * <code>hang</code> and <code>crash</code>.
+ */
+public class MavenCli
+{
+
+    public int doMain( String[] args, String workingDirectory, PrintStream stdout, PrintStream stderr )
+        throws InterruptedException
+    {
+        stdout.println( "worker " + ManagementFactory.getRuntimeMXBean().getName() );
+        stdout.println( "directory " + workingDirectory );
+        for ( int i = 0; i < args.length; i++ )
+        {
+            if ( args[i].startsWith( "exit-" ) )
+            {
+                return Integer.parseInt( args[i].substring( "exit-".length() ) );
+            }
+            if ( "hang".equals( args[i] ) )
+            {
+                Thread.sleep( Long.MAX_VALUE );
+            }
+            if ( "crash".equals( args[i] ) )
+            {
+                Runtime.getRuntime().halt( 1 );
+            }
+        }
+        return 0;
+    }
+
+}
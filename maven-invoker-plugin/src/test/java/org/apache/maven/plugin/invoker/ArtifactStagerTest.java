@@ -0,0 +1,115 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Tests {@link ArtifactStager}.
+ */
+public class ArtifactStagerTest
+    extends TestCase
+{
+
+    private File dir;
+
+    protected void setUp()
+        throws Exception
+    {
+        dir = new File( "target/unit/artifact-stager" );
+        FileUtils.deleteDirectory( dir );
+        dir.mkdirs();
+    }
+
+    public void testSharedPerRepository()
+    {
+        assertSame( ArtifactStager.getInstance( new File( dir, "repo" ) ),
+                    ArtifactStager.getInstance( new File( dir, "repo/../repo" ) ) );
+        assertNotSame( ArtifactStager.getInstance( new File( dir, "repo" ) ),
+                       ArtifactStager.getInstance( new File( dir, "other" ) ) );
+    }
+
+    public void testStage()
+        throws Exception
+    {
+        File src = new File( dir, "src.jar" );
+        File dst = new File( dir, "repo/dst.jar" );
+        FileUtils.fileWrite( src.getPath(), "content" );
+
+        ArtifactStager stager = new ArtifactStager();
+        assertTrue( stager.stage( src, dst ) );
+        assertEquals( "content", FileUtils.fileRead( dst ) );
+        assertTrue( stager.isStaged( src, dst ) );
+        assertFalse( stager.stage( src, dst ) );
+
+        // same content, other timestamp: not copied by a fresh stager
+        dst.setLastModified( src.lastModified() - 10000 );
+        assertFalse( new ArtifactStager().stage( src, dst ) );
+        assertEquals( src.lastModified(), dst.lastModified() );
+
+        // same size, other content
+        FileUtils.fileWrite( src.getPath(), "CONTENT" );
+        src.setLastModified( dst.lastModified() + 10000 );
+        assertFalse( stager.isStaged( src, dst ) );
+        assertTrue( stager.stage( src, dst ) );
+        assertEquals( "CONTENT", FileUtils.fileRead( dst ) );
+
+        // staged copy overwritten
+        FileUtils.fileWrite( dst.getPath(), "overwritten" );
+        assertFalse( stager.isStaged( src, dst ) );
+        assertTrue( stager.stage( src, dst ) );
+        assertEquals( "CONTENT", FileUtils.fileRead( dst ) );
+
+        // staged copy corrupted, with the same size
+        FileUtils.fileWrite( dst.getPath(), "CORRUPT" );
+        dst.setLastModified( src.lastModified() + 10000 );
+        assertFalse( stager.isStaged( src, dst ) );
+        assertTrue( stager.stage( src, dst ) );
+        assertEquals( "CONTENT", FileUtils.fileRead( dst ) );
+
+        // staged copy deleted
+        dst.delete();
+        assertFalse( stager.isStaged( src, dst ) );
+    }
+
+    public void testStageAllConcurrently()
+        throws Exception
+    {
+        Map<File, File> files = new LinkedHashMap<File, File>();
+        for ( int i = 0; i < 20; i++ )
+        {
+            File src = new File( dir, "src-" + i + ".jar" );
+            FileUtils.fileWrite( src.getPath(), "content " + i );
+            files.put( new File( dir, "repo/" + i + "/dst.jar" ), src );
+        }
+
+        ArtifactStager stager = new ArtifactStager();
+        assertEquals( 20, stager.stageAll( files, 4 ) );
+        assertEquals( 0, stager.stageAll( files, 4 ) );
+        assertEquals( "content 7", FileUtils.fileRead( new File( dir, "repo/7/dst.jar" ) ) );
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.invoker.model.BuildJob;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Tests {@link BuildHistory}.
+ */
+public class BuildHistoryTest
+    extends TestCase
+{
+
+    private File historyFile;
+
+    protected void setUp()
+        throws Exception
+    {
+        File dir = new File( "target/unit/build-history" );
+        FileUtils.deleteDirectory( dir );
+        historyFile = new File( dir, "history.txt" );
+    }
+
+    private static BuildJob newBuildJob( String project, String result, double time )
+    {
+        BuildJob buildJob = new BuildJob( project, BuildJob.Type.NORMAL );
+        buildJob.setResult( result );
+        buildJob.setTime( time );
+        buildJob.setMavenTime( time / 2 );
+        return buildJob;
+    }
+
+    public void testMissingHistory()
+    {
+        BuildHistory history = new BuildHistory( historyFile, 5 );
+        history.load();
+        assertTrue( history.getAverageDurations().isEmpty() );
+        assertNull( history.getLatestDuration( BuildHistory.CLONE ) );
+    }
+
+    public void testAverageDurations()
+        throws Exception
+    {
+        BuildHistory history = new BuildHistory( historyFile, 5 );
+        history.add( 1, newBuildJob( "it1/pom.xml", BuildJob.Result.SUCCESS, 2.0 ) );
+        history.add( 1, newBuildJob( "it2/pom.xml", BuildJob.Result.SKIPPED, 0.0 ) );
+        history.add( 1, BuildHistory.CLONE, 3.0 );
+        history.add( 2, newBuildJob( "it1/pom.xml", BuildJob.Result.FAILURE_BUILD, 4.0 ) );
+        history.add( 2, newBuildJob( "it2/pom.xml", BuildJob.Result.SUCCESS, 1.0 ) );
+        history.save();
+
+        history = new BuildHistory( historyFile, 5 );
+        history.load();
+
+        Map<String, Double> averages = history.getAverageDurations();
+        assertEquals( 3.0, averages.get( "it1" ).doubleValue(), 0.0 );
+        assertEquals( 1.0, averages.get( "it2" ).doubleValue(), 0.0 );
+        assertEquals( 3.0, averages.get( BuildHistory.CLONE ).doubleValue(), 0.0 );
+
+        Map<String, Double> previousAverages = history.getPreviousAverageDurations();
+        assertEquals( 2.0, previousAverages.get( "it1" ).doubleValue(), 0.0 );
+        assertFalse( previousAverages.containsKey( "it2" ) );
+
+        assertEquals( 4.0, history.getLatestDuration( "it1" ).doubleValue(), 0.0 );
+    }
+
+    public void testRollingHistory()
+        throws Exception
+    {
+        BuildHistory history = new BuildHistory( historyFile, 2 );
+        for ( int run = 1; run <= 4; run++ )
+        {
+            history.add( run, newBuildJob( "it1/pom.xml", BuildJob.Result.SUCCESS, run ) );
+        }
+        history.add( 4, BuildHistory.INSTALL, 1.0 );
+        history.save();
+
+        history = new BuildHistory( historyFile, 2 );
+        history.load();
+        assertEquals( 3.5, history.getAverageDurations().get( "it1" ).doubleValue(), 0.0 );
+        assertEquals( 1.0, history.getLatestDuration( BuildHistory.INSTALL ).doubleValue(), 0.0 );
+    }
+
+    public void testCorruptHistory()
+        throws Exception
+    {
+        historyFile.getParentFile().mkdirs();
+        FileUtils.fileWrite( historyFile.getPath(), "garbage\n1\tit1\tsuccess\t1.0\n" );
+
+        BuildHistory history = new BuildHistory( historyFile, 5 );
+        history.load();
+        assertTrue( history.getAverageDurations().isEmpty() );
+    }
+
+}
@@ -0,0 +1,205 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.invoker.model.BuildJob;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+/**
+ * Tests {@link BuildJobScheduler}.
+ */
+public class BuildJobSchedulerTest
+    extends TestCase
+{
+
+    public void testLongestJobsFirst()
+    {
+        Map<String, Double> durations = new HashMap<String, Double>();
+        durations.put( "short", new Double( 1 ) );
+        durations.put( "long", new Double( 60 ) );
+        durations.put( "medium", new Double( 10 ) );
+
+        BuildJobScheduler scheduler = new BuildJobScheduler( 2, 0, new SystemStreamLog() );
+        scheduler.setPreviousDurations( durations );
+
+        List<BuildJob> ordered =
+            scheduler.order( Arrays.asList( new BuildJob[] { job( "short/pom.xml" ), job( "medium" ),
+                job( "unknown" ), job( "long/pom.xml" ) } ) );
+
+        assertEquals( "unknown", ordered.get( 0 ).getProject() );
+        assertEquals( "long/pom.xml", ordered.get( 1 ).getProject() );
+        assertEquals( "medium", ordered.get( 2 ).getProject() );
+        assertEquals( "short/pom.xml", ordered.get( 3 ).getProject() );
+    }
+
+    public void testSingleThreadKeepsOrder()
+    {
+        Map<String, Double> durations = new HashMap<String, Double>();
+        durations.put( "b", new Double( 60 ) );
+
+        BuildJobScheduler scheduler = new BuildJobScheduler( 1, 0, new SystemStreamLog() );
+        scheduler.setPreviousDurations( durations );
+
+        List<BuildJob> ordered = scheduler.order( Arrays.asList( new BuildJob[] { job( "a" ), job( "b" ) } ) );
+
+        assertEquals( "a", ordered.get( 0 ).getProject() );
+        assertEquals( "b", ordered.get( 1 ).getProject() );
+    }
+
+    public void testSetupJobsCompleteFirst()
+        throws Exception
+    {
+        final List<String> events = Collections.synchronizedList( new ArrayList<String>() );
+
+        BuildJob setup = new BuildJob( "setup", BuildJob.Type.SETUP );
+        BuildJob[] jobs = new BuildJob[] { job( "a" ), setup, job( "b" ) };
+
+        new BuildJobScheduler( 3, 0, new SystemStreamLog() ).run( jobs, new RecordingRunner( events )
+        {
+            public void run( BuildJob buildJob )
+                throws MojoExecutionException
+            {
+                if ( "setup".equals( buildJob.getProject() ) )
+                {
+                    sleep( 200 );
+                }
+                super.run( buildJob );
+            }
+        } );
+
+        assertEquals( 3, events.size() );
+        assertEquals( "setup", events.get( 0 ) );
+    }
+
+    public void testFailurePropagated()
+        throws Exception
+    {
+        final List<String> events = Collections.synchronizedList( new ArrayList<String>() );
+
+        BuildJob[] jobs = new BuildJob[] { job( "a" ), job( "fail" ), job( "b" ) };
+
+        try
+        {
+            new BuildJobScheduler( 1, 0, new SystemStreamLog() ).run( jobs, new RecordingRunner( events )
+            {
+                public void run( BuildJob buildJob )
+                    throws MojoExecutionException
+                {
+                    if ( "fail".equals( buildJob.getProject() ) )
+                    {
+                        throw new IllegalStateException( "boom" );
+                    }
+                    super.run( buildJob );
+                }
+            } );
+            fail( "failure not propagated" );
+        }
+        catch ( MojoExecutionException e )
+        {
+            assertTrue( e.getCause() instanceof IllegalStateException );
+        }
+
+        // the job after the failing one was not started
+        assertEquals( Arrays.asList( new String[] { "a" } ), events );
+    }
+
+    public void testTimeout()
+        throws Exception
+    {
+        final List<String> events = Collections.synchronizedList( new ArrayList<String>() );
+
+        BuildJob hung = job( "hung" );
+        BuildJob[] jobs = new BuildJob[] { hung, job( "b" ) };
+
+        new BuildJobScheduler( 1, 1, new SystemStreamLog() ).run( jobs, new RecordingRunner( events )
+        {
+            public void run( BuildJob buildJob )
+                throws MojoExecutionException
+            {
+                if ( "hung".equals( buildJob.getProject() ) )
+                {
+                    sleep( 60 * 1000 );
+                    buildJob.setResult( BuildJob.Result.FAILURE_BUILD );
+                    return;
+                }
+                super.run( buildJob );
+            }
+        } );
+
+        assertEquals( BuildJob.Result.ERROR, hung.getResult() );
+        assertNotNull( hung.getFailureMessage() );
+        assertEquals( 2, events.size() );
+        assertTrue( events.contains( "timedOut hung" ) );
+        assertTrue( events.contains( "b" ) );
+    }
+
+    private static BuildJob job( String project )
+    {
+        return new BuildJob( project, BuildJob.Type.NORMAL );
+    }
+
+    private static void sleep( long millis )
+    {
+        try
+        {
+            Thread.sleep( millis );
+        }
+        catch ( InterruptedException e )
+        {
+            // interrupted by the timeout
+        }
+    }
+
+    private static class RecordingRunner
+        implements BuildJobScheduler.BuildJobRunner
+    {
+
+        private final List<String> events;
+
+        RecordingRunner( List<String> events )
+        {
+            this.events = events;
+        }
+
+        public void run( BuildJob buildJob )
+            throws MojoExecutionException
+        {
+            events.add( buildJob.getProject() );
+            buildJob.setResult( BuildJob.Result.SUCCESS );
+        }
+
+        public void timedOut( BuildJob buildJob )
+        {
+            events.add( "timedOut " + buildJob.getProject() );
+        }
+
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Tests {@link CloneManifest}.
+ */
+public class CloneManifestTest
+    extends TestCase
+{
+
+    private File dir;
+
+    protected void setUp()
+        throws Exception
+    {
+        dir = new File( "target/unit/clone-manifest" );
+        FileUtils.deleteDirectory( dir );
+        dir.mkdirs();
+    }
+
+    public void testUpToDate()
+        throws Exception
+    {
+        File source = new File( dir, "source.txt" );
+        File clone = new File( dir, "clone.txt" );
+        FileUtils.fileWrite( source.getPath(), "content" );
+        FileUtils.copyFile( source, clone );
+
+        CloneManifest manifest = new CloneManifest( new File( dir, "manifest" ) );
+        manifest.load();
+        assertFalse( manifest.isUpToDate( "source.txt", source, clone ) );
+
+        manifest.record( "source.txt", source, clone );
+        manifest.setFilterFingerprint( "abc" );
+        manifest.save();
+
+        manifest = new CloneManifest( new File( dir, "manifest" ) );
+        manifest.load();
+        assertEquals( "abc", manifest.getFilterFingerprint() );
+        assertTrue( manifest.isUpToDate( "source.txt", source, clone ) );
+
+        // touched but same content
+        source.setLastModified( source.lastModified() - 10000 );
+        assertTrue( manifest.isUpToDate( "source.txt", source, clone ) );
+
+        // same size, other content
+        FileUtils.fileWrite( source.getPath(), "CONTENT" );
+        assertFalse( manifest.isUpToDate( "source.txt", source, clone ) );
+        FileUtils.copyFile( source, clone );
+        manifest.record( "source.txt", source, clone );
+        assertTrue( manifest.isUpToDate( "source.txt", source, clone ) );
+
+        // clone modified in place
+        FileUtils.fileWrite( clone.getPath(), "modified clone" );
+        assertFalse( manifest.isUpToDate( "source.txt", source, clone ) );
+        manifest.updateClone( "source.txt", clone );
+        assertTrue( manifest.isUpToDate( "source.txt", source, clone ) );
+
+        // clone deleted
+        clone.delete();
+        assertFalse( manifest.isUpToDate( "source.txt", source, clone ) );
+    }
+
+    public void testRetainAll()
+        throws Exception
+    {
+        File source = new File( dir, "source.txt" );
+        FileUtils.fileWrite( source.getPath(), "content" );
+
+        CloneManifest manifest = new CloneManifest( new File( dir, "manifest" ) );
+        manifest.record( "a", source, source );
+        manifest.record( "b", source, source );
+        manifest.retainAll( Collections.singleton( "b" ) );
+
+        assertFalse( manifest.isUpToDate( "a", source, source ) );
+        assertTrue( manifest.isUpToDate( "b", source, source ) );
+    }
+
+}
@@ -0,0 +1,206 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.cli.MavenCli;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.shared.invoker.DefaultInvocationRequest;
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.shared.invoker.SystemOutLogger;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * Tests {@link EmbeddedMavenPool}.
+ */
+public class EmbeddedMavenPoolTest
+    extends TestCase
+{
+
+    public void testIsSupported()
+        throws Exception
+    {
+        File home = new File( "target/unit/embedded-maven-home" );
+        FileUtils.deleteDirectory( home );
+        new File( home, "lib" ).mkdirs();
+
+        assertFalse( EmbeddedMavenPool.isSupported( null ) );
+        assertFalse( EmbeddedMavenPool.isSupported( home ) );
+
+        FileUtils.fileWrite( new File( home, "lib/maven-2.2.1-uber.jar" ).getPath(), "" );
+        assertFalse( EmbeddedMavenPool.isSupported( home ) );
+
+        FileUtils.fileWrite( new File( home, "lib/maven-embedder-3.0.3.jar" ).getPath(), "" );
+        assertTrue( EmbeddedMavenPool.isSupported( home ) );
+    }
+
+    public void testAccepts()
+    {
+        EmbeddedMavenPool pool =
+            new EmbeddedMavenPool( new File( "maven" ), null, "-Xmx512m", 1, new SystemOutLogger(),
+                                   new SystemStreamLog() );
+
+        InvocationRequest request = new DefaultInvocationRequest();
+        assertFalse( pool.accepts( request ) );
+
+        request.setMavenOpts( " -Xmx512m " );
+        assertTrue( pool.accepts( request ) );
+
+        request.setJavaHome( new File( "other-jdk" ) );
+        assertFalse( pool.accepts( request ) );
+    }
+
+    public void testExecute()
+        throws Exception
+    {
+        File basedir = new File( "target/unit/embedded-maven-build" ).getAbsoluteFile();
+        basedir.mkdirs();
+        FileUtils.fileWrite( new File( basedir, "pom.xml" ).getPath(), "<project/>" );
+
+        EmbeddedMavenPool pool =
+            new EmbeddedMavenPool( createStubMavenHome(), null, null, 1, new SystemOutLogger(),
+                                   new SystemStreamLog() );
+        try
+        {
+            List<String> output = new ArrayList<String>();
+            InvocationResult result = pool.execute( newRequest( basedir, "exit-3", output ) );
+            assertNull( result.getExecutionException() );
+            assertEquals( 3, result.getExitCode() );
+            assertEquals( "directory " + basedir.getPath(), output.get( 1 ) );
+            String worker = output.get( 0 );
+
+            // the worker is reused
+            output.clear();
+            result = pool.execute( newRequest( basedir, "exit-0", output ) );
+            assertEquals( 0, result.getExitCode() );
+            assertEquals( worker, output.get( 0 ) );
+
+            // a killed worker is replaced
+            output.clear();
+            result = pool.execute( newRequest( basedir, "crash", output ) );
+            assertNotNull( result.getExecutionException() );
+            assertEquals( worker, output.get( 0 ) );
+
+            output.clear();
+            result = pool.execute( newRequest( basedir, "exit-0", output ) );
+            assertEquals( 0, result.getExitCode() );
+            assertFalse( worker.equals( output.get( 0 ) ) );
+            worker = output.get( 0 );
+
+            // a timed out build, i.e. an interrupted one, kills its worker
+            final List<String> hangOutput = Collections.synchronizedList( new ArrayList<String>() );
+            final InvocationRequest hangRequest = newRequest( basedir, "hang", hangOutput );
+            final EmbeddedMavenPool hangPool = pool;
+            final List<Exception> failures = Collections.synchronizedList( new ArrayList<Exception>() );
+            Thread build = new Thread()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        hangPool.execute( hangRequest );
+                    }
+                    catch ( MavenInvocationException e )
+                    {
+                        failures.add( e );
+                    }
+                }
+            };
+            build.start();
+            for ( int i = 0; i < 200 && hangOutput.size() < 2; i++ )
+            {
+                Thread.sleep( 50 );
+            }
+            assertEquals( worker, hangOutput.get( 0 ) );
+            build.interrupt();
+            build.join( 10000 );
+            assertFalse( build.isAlive() );
+            assertEquals( 1, failures.size() );
+
+            output.clear();
+            result = pool.execute( newRequest( basedir, "exit-0", output ) );
+            assertEquals( 0, result.getExitCode() );
+            assertFalse( worker.equals( output.get( 0 ) ) );
+        }
+        finally
+        {
+            pool.close();
+        }
+    }
+
+    private static InvocationRequest newRequest( File basedir, String goal, final List<String> output )
+    {
+        InvocationRequest request = new DefaultInvocationRequest();
+        request.setBaseDirectory( basedir );
+        request.setGoals( Collections.singletonList( goal ) );
+        request.setOutputHandler( new InvocationOutputHandler()
+        {
+            public void consumeLine( String line )
+            {
+                output.add( line );
+            }
+        } );
+        return request;
+    }
+
+    /**
+     * Creates a Maven home whose command line is the stub {@link MavenCli}.
+     */
+    private static File createStubMavenHome()
+        throws Exception
+    {
+        File home = new File( "target/unit/embedded-maven-stub" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( home );
+        new File( home, "bin" ).mkdirs();
+        new File( home, "lib" ).mkdirs();
+        FileUtils.fileWrite( new File( home, "bin/mvn" ).getPath(), "" );
+
+        String entry = MavenCli.class.getName().replace( '.', '/' ) + ".class";
+        JarOutputStream jar = new JarOutputStream( new FileOutputStream( new File( home, "lib/maven-cli-stub.jar" ) ) );
+        InputStream in = MavenCli.class.getClassLoader().getResourceAsStream( entry );
+        try
+        {
+            jar.putNextEntry( new JarEntry( entry ) );
+            IOUtil.copy( in, jar );
+            jar.closeEntry();
+        }
+        finally
+        {
+            IOUtil.close( in );
+            jar.close();
+        }
+        return home;
+    }
+
+}
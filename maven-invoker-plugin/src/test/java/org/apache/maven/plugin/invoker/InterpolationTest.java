@@ -20,7 +20,10 @@ package org.apache.maven.plugin.invoker;
 
 import java.io.File;
 import java.io.Reader;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -29,6 +32,7 @@ import org.apache.maven.model.Scm;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 import org.apache.maven.plugin.testing.stubs.MavenProjectStub;
 import org.apache.maven.settings.Settings;
+import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.ReaderFactory;
 
@@ -127,6 +131,58 @@ public class InterpolationTest
         }
     }
 
+    public void testIncrementalCloneFiltering()
+        throws Exception
+    {
+        File projectsDir = new File( getBasedir(), "target/incremental-clone/projects" );
+        File cloneDir = new File( getBasedir(), "target/incremental-clone/clone" );
+        FileUtils.deleteDirectory( projectsDir.getParentFile() );
+        File pomFile = new File( projectsDir, "project/pom.xml" );
+        pomFile.getParentFile().mkdirs();
+        FileUtils.fileWrite( pomFile.getAbsolutePath(), "UTF-8",
+                             "<project><interpolateValue>@foo@</interpolateValue></project>" );
+
+        File clonedPomFile = new File( cloneDir, "project/pom.xml" );
+        cloneIncrementally( projectsDir, cloneDir, "bar" );
+        assertTrue( readFile( clonedPomFile ).indexOf( "<interpolateValue>bar</interpolateValue>" ) > 0 );
+
+        // only the filter value changed, the POM is not copied again
+        cloneIncrementally( projectsDir, cloneDir, "baz" );
+        assertTrue( readFile( clonedPomFile ).indexOf( "<interpolateValue>baz</interpolateValue>" ) > 0 );
+    }
+
+    private void cloneIncrementally( File projectsDir, File cloneDir, String foo )
+        throws Exception
+    {
+        InvokerMojo invokerMojo = new InvokerMojo();
+        setVariableValueToObject( invokerMojo, "project", buildMavenProjectStub() );
+        setVariableValueToObject( invokerMojo, "settings", new Settings() );
+        Properties properties = new Properties();
+        properties.put( "foo", foo );
+        setVariableValueToObject( invokerMojo, "interpolationsProperties", properties );
+        setVariableValueToObject( invokerMojo, "projectsDirectory", projectsDir );
+        setVariableValueToObject( invokerMojo, "cloneProjectsTo", cloneDir );
+        setVariableValueToObject( invokerMojo, "cloneIncremental", Boolean.TRUE );
+
+        Method cloneProjects = AbstractInvokerMojo.class.getDeclaredMethod( "cloneProjects", Collection.class );
+        cloneProjects.setAccessible( true );
+        cloneProjects.invoke( invokerMojo, Collections.singletonList( "project/pom.xml" ) );
+    }
+
+    private String readFile( File file )
+        throws Exception
+    {
+        Reader reader = ReaderFactory.newXmlReader( file );
+        try
+        {
+            return IOUtil.toString( reader );
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+    }
+
     public void testProfilesFromFile()
         throws Exception
     {
@@ -80,6 +80,22 @@ public class InvokerPropertiesTest
         assertTrue( facade.isExpectedResult( 1, 0 ) );
     }
 
+    public void testIsEmbedded()
+        throws Exception
+    {
+        Properties props = new Properties();
+        InvokerProperties facade = new InvokerProperties( props );
+
+        assertFalse( facade.isEmbedded( false ) );
+        assertTrue( facade.isEmbedded( true ) );
+
+        props.setProperty( "invoker.embedded", "true" );
+        assertTrue( facade.isEmbedded( false ) );
+
+        props.setProperty( "invoker.embedded", "false" );
+        assertFalse( facade.isEmbedded( true ) );
+    }
+
     public void testConfigureRequestGoals()
         throws Exception
     {
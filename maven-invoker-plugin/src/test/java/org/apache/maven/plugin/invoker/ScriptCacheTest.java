@@ -0,0 +1,105 @@
+package org.apache.maven.plugin.invoker;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.shared.scriptinterpreter.ScriptEvaluationException;
+
+/**
+ * Tests {@link ScriptCache}.
+ */
+public class ScriptCacheTest
+    extends TestCase
+{
+
+    private static final List<String> CLASS_PATH = Arrays.asList( new String[] { "target/classes" } );
+
+    public void testGroovyScriptCompiledOnce()
+        throws Exception
+    {
+        ScriptCache cache = new ScriptCache( false );
+
+        Class<?> compiled = cache.getGroovyScript( "return 1", CLASS_PATH );
+        assertSame( compiled, cache.getGroovyScript( "return 1", CLASS_PATH ) );
+        assertNotSame( compiled, cache.getGroovyScript( "return 2", CLASS_PATH ) );
+        assertNotSame( compiled, cache.getGroovyScript( "return 1", null ) );
+    }
+
+    public void testClassLoaderShared()
+    {
+        ScriptCache cache = new ScriptCache( false );
+
+        assertSame( cache.getClassLoader( CLASS_PATH ), cache.getClassLoader( CLASS_PATH ) );
+        assertSame( getClass().getClassLoader(), cache.getClassLoader( null ) );
+    }
+
+    public void testGroovyInterpreter()
+        throws Exception
+    {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream( buffer, true );
+        Map<String, Object> variables = Collections.singletonMap( "name", (Object) "world" );
+
+        ScriptCache cache = new ScriptCache( false );
+        for ( int i = 0; i < 2; i++ )
+        {
+            Object result =
+                cache.getGroovyInterpreter().evaluateScript( "println 'hello ' + name; return name.length()",
+                                                             CLASS_PATH, variables, out );
+            assertEquals( new Integer( 5 ), result );
+        }
+        assertEquals( 2, buffer.toString().split( "hello world" ).length - 1 );
+
+        try
+        {
+            cache.getGroovyInterpreter().evaluateScript( "throw new IllegalStateException()", CLASS_PATH, variables,
+                                                         out );
+            fail( "script failure not reported" );
+        }
+        catch ( ScriptEvaluationException e )
+        {
+            assertTrue( e.getCause() instanceof IllegalStateException );
+        }
+    }
+
+    public void testBeanShellInterpreter()
+        throws Exception
+    {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream( buffer, true );
+        Map<String, Object> variables = Collections.singletonMap( "name", (Object) "world" );
+
+        ScriptCache cache = new ScriptCache( false );
+        Object result =
+            cache.getBeanShellInterpreter().evaluateScript( "print( \"hello \" + name ); return name.length();",
+                                                            CLASS_PATH, variables, out );
+        assertEquals( new Integer( 5 ), result );
+        assertTrue( buffer.toString().indexOf( "hello world" ) >= 0 );
+    }
+
+}
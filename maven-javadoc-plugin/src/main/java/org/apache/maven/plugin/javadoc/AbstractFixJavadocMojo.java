@@ -21,8 +21,11 @@ package org.apache.maven.plugin.javadoc;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
@@ -33,6 +36,7 @@ import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -40,7 +44,13 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -331,6 +341,40 @@ public abstract class AbstractFixJavadocMojo
      */
     private Settings settings;
 
+    /**
+     * The number of threads used to fix the Java files. Each thread parses all the sources with its own QDox
+     * builder, so that the fixed files are identical to a serial run, and fixes its share of the files. The memory
+     * used to parse the sources grows accordingly.
+     * <br/>
+     * <b>Note</b>: with <code>ignoreClirr</code> and the <code>since</code> tag to fix, the
+     * <code>&#64;since</code> tags added to the methods depend on the classes fixed before, so the files are always
+     * fixed by a single thread.
+     *
+     * @parameter expression="${parallelThreads}" default-value="1"
+     * @since 2.8.2
+     */
+    private int parallelThreads;
+
+    /**
+     * Skip the Java files which needed no fix in a previous execution, as long as neither their content nor the
+     * configuration, the Clirr results and the project classpath have changed since. Only used when the files are
+     * fixed in place, i.e. if <code>outputDirectory</code> is the source directory.
+     *
+     * @parameter expression="${incremental}" default-value="true"
+     * @since 2.8.2
+     */
+    private boolean incremental;
+
+    /**
+     * The file recording the Java files which needed no fix, with the fingerprints of their content and of the
+     * configuration.
+     *
+     * @parameter default-value="${project.build.directory}/javadoc-fix-cache.properties"
+     * @readonly
+     * @since 2.8.2
+     */
+    private File fixCacheFile;
+
     // ----------------------------------------------------------------------
     // Internal fields
     // ----------------------------------------------------------------------
@@ -399,16 +443,11 @@ public abstract class AbstractFixJavadocMojo
         // run qdox and process
         try
         {
-            JavaClass[] javaClasses = getQdoxClasses();
+            Map<File, String> javaFiles = getJavaFiles();
 
-            if ( javaClasses != null )
+            if ( javaFiles != null )
             {
-                for ( int i = 0; i < javaClasses.length; i++ )
-                {
-                    JavaClass javaClass = javaClasses[i];
-
-                    processFix( javaClass );
-                }
+                processFix( javaFiles );
             }
         }
         catch ( IOException e )
@@ -805,15 +844,14 @@ public abstract class AbstractFixJavadocMojo
     }
 
     /**
-     * Calling Qdox to find {@link JavaClass} objects from the Maven project sources.
-     * Ignore java class if Qdox has parsing errors.
+     * Read the Java files of the Maven project sources, once for all the QDox builders parsing them.
      *
-     * @return an array of {@link JavaClass} found by QDox
+     * @return the content of the Java files keyed by file, in the order of the source roots, or <code>null</code>
+     * if the project has no Java sources.
      * @throws IOException if any
-     * @throws MojoExecutionException if any
      */
-    private JavaClass[] getQdoxClasses()
-        throws IOException, MojoExecutionException
+    private Map<File, String> getJavaFiles()
+        throws IOException
     {
         if ( "pom".equalsIgnoreCase( project.getPackaging() ) )
         {
@@ -838,9 +876,7 @@ public abstract class AbstractFixJavadocMojo
             }
         }
 
-        JavaDocBuilder builder = new JavaDocBuilder();
-        builder.getClassLibrary().addClassLoader( getProjectClassLoader() );
-        builder.setEncoding( encoding );
+        Map<File, String> contents = new LinkedHashMap<File, String>();
         for ( File f : javaFiles )
         {
             if ( !f.getAbsolutePath().toLowerCase( Locale.ENGLISH ).endsWith( ".java" )
@@ -850,13 +886,38 @@ public abstract class AbstractFixJavadocMojo
                 continue;
             }
 
+            contents.put( f, FileUtils.fileRead( f, encoding ) );
+        }
+
+        return contents;
+    }
+
+    /**
+     * Calling Qdox to find {@link JavaClass} objects from the Maven project sources.
+     * Ignore java class if Qdox has parsing errors.
+     *
+     * @param javaFiles the content of the Java files keyed by file, not null
+     * @param logErrors <code>true</code> to log the parsing errors, <code>false</code> otherwise
+     * @return an array of {@link JavaClass} found by QDox
+     * @throws IOException if any
+     * @throws MojoExecutionException if any
+     */
+    private JavaClass[] getQdoxClasses( Map<File, String> javaFiles, boolean logErrors )
+        throws IOException, MojoExecutionException
+    {
+        JavaDocBuilder builder = new JavaDocBuilder();
+        builder.getClassLibrary().addClassLoader( getProjectClassLoader() );
+        builder.setEncoding( encoding );
+        for ( Map.Entry<File, String> javaFile : javaFiles.entrySet() )
+        {
             try
             {
-                builder.addSource( f );
+                URL url = javaFile.getKey().toURL();
+                builder.addSource( new StringReader( javaFile.getValue() ), url.toExternalForm() ).setURL( url );
             }
             catch ( ParseException e )
             {
-                if ( getLog().isWarnEnabled() )
+                if ( logErrors && getLog().isWarnEnabled() )
                 {
                     getLog().warn( "QDOX ParseException: " + e.getMessage() + ". Can't fix it." );
                 }
@@ -866,6 +927,245 @@ public abstract class AbstractFixJavadocMojo
         return builder.getClasses();
     }
 
+    /**
+     * Fix the given Java files, by one or more threads, skipping the files which needed no fix in a previous
+     * execution.
+     *
+     * @param javaFiles the content of the Java files keyed by file, not null
+     * @throws IOException if any
+     * @throws MojoExecutionException if any
+     * @see #parallelThreads
+     * @see #incremental
+     */
+    private void processFix( final Map<File, String> javaFiles )
+        throws IOException, MojoExecutionException
+    {
+        // @since of the methods depends on the classes fixed before, see addSinceClasses()
+        boolean orderDependent = ignoreClirr && fixTag( SINCE_TAG );
+
+        boolean inPlace = outputDirectory == null
+            || outputDirectory.getAbsolutePath().equals( getProjectSourceDirectory().getAbsolutePath() );
+        Properties fixCache = null;
+        String fingerprint = null;
+        if ( incremental && inPlace && !orderDependent )
+        {
+            fixCache = readFixCache();
+            fingerprint = getFixFingerprint();
+        }
+
+        final Set<String> fixedFiles = new HashSet<String>();
+        List<File> fixedJavaFiles = new ArrayList<File>();
+        for ( Map.Entry<File, String> javaFile : javaFiles.entrySet() )
+        {
+            String key = javaFile.getKey().getAbsolutePath();
+            String value = JavadocUtil.getFingerprint( javaFile.getValue() ) + ':' + fingerprint;
+            if ( fixCache == null || !value.equals( fixCache.getProperty( key ) ) )
+            {
+                fixedFiles.add( javaFile.getKey().toURL().toExternalForm() );
+                fixedJavaFiles.add( javaFile.getKey() );
+            }
+        }
+        if ( fixCache != null && fixedFiles.size() < javaFiles.size() )
+        {
+            getLog().info( "Skipping " + ( javaFiles.size() - fixedFiles.size() )
+                + " Java files which needed no fix since the previous execution." );
+        }
+
+        // initialized once for all threads
+        getProjectClassLoader();
+
+        final int threads = orderDependent ? 1 : Math.max( 1, Math.min( parallelThreads, fixedFiles.size() ) );
+        if ( threads <= 1 )
+        {
+            processFix( getQdoxClasses( javaFiles, true ), fixedFiles, 0, 1 );
+        }
+        else
+        {
+            ExecutorService executor = Executors.newFixedThreadPool( threads );
+            try
+            {
+                List<Future<Object>> results = new ArrayList<Future<Object>>( threads );
+                for ( int i = 0; i < threads; i++ )
+                {
+                    final int part = i;
+                    results.add( executor.submit( new Callable<Object>()
+                    {
+                        public Object call()
+                            throws IOException, MojoExecutionException
+                        {
+                            processFix( getQdoxClasses( javaFiles, part == 0 ), fixedFiles, part, threads );
+                            return null;
+                        }
+                    } ) );
+                }
+
+                for ( Future<Object> result : results )
+                {
+                    try
+                    {
+                        result.get();
+                    }
+                    catch ( ExecutionException e )
+                    {
+                        if ( e.getCause() instanceof IOException )
+                        {
+                            throw (IOException) e.getCause();
+                        }
+                        if ( e.getCause() instanceof MojoExecutionException )
+                        {
+                            throw (MojoExecutionException) e.getCause();
+                        }
+                        throw new MojoExecutionException( "Unable to fix the Java files: " + e.getCause().getMessage(),
+                                                          e.getCause() );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        Thread.currentThread().interrupt();
+                        throw new MojoExecutionException( "Interrupted while fixing the Java files" );
+                    }
+                }
+            }
+            finally
+            {
+                executor.shutdownNow();
+            }
+        }
+
+        if ( fixCache != null )
+        {
+            for ( File javaFile : fixedJavaFiles )
+            {
+                String key = javaFile.getAbsolutePath();
+                String content = javaFile.isFile() ? FileUtils.fileRead( javaFile, encoding ) : null;
+                if ( javaFiles.get( javaFile ).equals( content ) )
+                {
+                    fixCache.setProperty( key, JavadocUtil.getFingerprint( content ) + ':' + fingerprint );
+                }
+                else
+                {
+                    fixCache.remove( key );
+                }
+            }
+            writeFixCache( fixCache );
+        }
+    }
+
+    /**
+     * Fix the top level classes of a share of the given Java files, in the order of the given classes.
+     *
+     * @param javaClasses the classes found by QDox, not null
+     * @param fixedFiles the URLs of the Java files to fix, not null
+     * @param part the index of the share of the Java files to fix
+     * @param parts the number of shares of the Java files
+     * @throws IOException if any
+     * @throws MojoExecutionException if any
+     */
+    private void processFix( JavaClass[] javaClasses, Set<String> fixedFiles, int part, int parts )
+        throws IOException, MojoExecutionException
+    {
+        for ( int i = 0; i < javaClasses.length; i++ )
+        {
+            JavaClass javaClass = javaClasses[i];
+
+            String url = javaClass.getSource().getURL().toExternalForm();
+            if ( !fixedFiles.contains( url ) || Math.abs( url.hashCode() % parts ) != part )
+            {
+                continue;
+            }
+
+            processFix( javaClass );
+        }
+    }
+
+    /**
+     * @return the fingerprint of everything but the content of a Java file the fix depends on: the configuration,
+     * the Clirr results and the project classpath.
+     * @throws IOException if any
+     * @throws MojoExecutionException if any
+     */
+    private String getFixFingerprint()
+        throws IOException, MojoExecutionException
+    {
+        List<String> arguments = new ArrayList<String>();
+        arguments.add( String.valueOf( getClass().getProtectionDomain().getCodeSource().getLocation() ) );
+        arguments.add( String.valueOf( getProjectSourceRoots( project ) ) );
+        arguments.add( defaultAuthor );
+        arguments.add( defaultSince );
+        arguments.add( defaultVersion );
+        arguments.add( encoding );
+        arguments.add( fixTags );
+        arguments.add( fixClassComment + "," + fixFieldComment + "," + fixMethodComment );
+        arguments.add( level );
+        arguments.add( String.valueOf( ignoreClirr ) );
+        arguments.add( String.valueOf( clirrNewClasses ) );
+        arguments.add( String.valueOf( clirrNewMethods ) );
+        try
+        {
+            // the content of the Java files is part of their own fingerprint
+            List<String> classPath = new ArrayList<String>( getCompileClasspathElements( project ) );
+            classPath.removeAll( getProjectSourceRoots( project ) );
+
+            arguments.add( "-classpath" );
+            arguments.add( StringUtils.join( classPath.iterator(), File.pathSeparator ) );
+        }
+        catch ( DependencyResolutionRequiredException e )
+        {
+            throw new MojoExecutionException( "DependencyResolutionRequiredException: " + e.getMessage(), e );
+        }
+
+        List<String> none = Collections.emptyList();
+        return JavadocUtil.getFingerprint( "fix", arguments, none, none, fixCacheFile );
+    }
+
+    /**
+     * @return the Java files which needed no fix in a previous execution, with their fingerprint, never null.
+     */
+    private Properties readFixCache()
+    {
+        Properties fixCache = new Properties();
+        if ( fixCacheFile.isFile() )
+        {
+            InputStream in = null;
+            try
+            {
+                in = new FileInputStream( fixCacheFile );
+                fixCache.load( in );
+            }
+            catch ( IOException e )
+            {
+                getLog().debug( "Unable to read " + fixCacheFile + ": " + e.getMessage() );
+                fixCache.clear();
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+        }
+        return fixCache;
+    }
+
+    /**
+     * @param fixCache the Java files which needed no fix, with their fingerprint, not null.
+     */
+    private void writeFixCache( Properties fixCache )
+    {
+        fixCacheFile.getParentFile().mkdirs();
+        OutputStream out = null;
+        try
+        {
+            out = new FileOutputStream( fixCacheFile );
+            fixCache.store( out, "maven-javadoc-plugin fix cache" );
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( "Unable to write " + fixCacheFile + ": " + e.getMessage() );
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+
     /**
      * @return the classLoader for the given project using lazy instantiation.
      * @throws MojoExecutionException if any
@@ -25,6 +25,7 @@ import static org.apache.maven.plugin.javadoc.JavadocUtil.toRelative;
 import static org.apache.maven.plugin.javadoc.JavadocUtil.isNotEmpty;
 import static org.apache.maven.plugin.javadoc.JavadocUtil.isEmpty;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
@@ -43,6 +44,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -98,7 +100,6 @@ import org.apache.maven.settings.Proxy;
 import org.apache.maven.settings.Settings;
 import org.apache.maven.shared.artifact.filter.PatternExcludesArtifactFilter;
 import org.apache.maven.shared.artifact.filter.PatternIncludesArtifactFilter;
-import org.apache.maven.shared.invoker.MavenInvocationException;
 import org.apache.maven.toolchain.Toolchain;
 import org.apache.maven.toolchain.ToolchainManager;
 import org.apache.maven.wagon.PathUtils;
@@ -451,6 +452,31 @@ public abstract class AbstractJavadocMojo
      */
     private float fJavadocVersion = 0.0f;
 
+    /**
+     * Specifies whether the Javadoc tool should run inside the Maven JVM, through the
+     * <code>javax.tools.DocumentationTool</code> API, instead of forking the javadoc executable. This saves the
+     * startup of a JVM per execution and requires Maven to run with Java 8 or later. The javadoc executable is still
+     * forked if a toolchain or the <code>javadocExecutable</code> parameter is used, or if options for the Javadoc JVM
+     * like <code>maxmemory</code>, <code>minmemory</code>, <code>additionalJOption</code> or a proxy are set.
+     * <br/>
+     *
+     * @since 2.8.2
+     * @parameter expression="${maven.javadoc.inProcess}" default-value="false"
+     */
+    private boolean inProcess;
+
+    /**
+     * Specifies whether the Javadoc generation should be skipped if neither the Javadoc options, nor the documented
+     * sources, nor the class path changed since the Javadoc was last generated into the output directory. If another
+     * execution already generated the same Javadoc into another output directory, e.g. the <code>site</code> before
+     * <code>javadoc:jar</code>, this Javadoc is copied instead of being generated again.
+     * <br/>
+     *
+     * @since 2.8.2
+     * @parameter expression="${maven.javadoc.incremental}" default-value="false"
+     */
+    private boolean incremental;
+
     /**
      * Specifies whether the Javadoc generation should be skipped.
      *
@@ -520,6 +546,9 @@ public abstract class AbstractJavadocMojo
      * <br/>
      * The added Javadoc <code>-linkoffline</code> parameter for <b>module2</b> will be
      * <code>/absolute/path/to/</code><b>module1</b><code>/target/site/apidocs</code>
+     * <br/>
+     * <b>Note</b>: since 2.8.2, if the Javadoc of a module has not been generated yet, its <code>package-list</code>
+     * is derived from its sources and written to <code>target/javadoc-package-lists</code> of the module.
      *
      * @parameter expression="${detectOfflineLinks}" default-value="true"
      * @see #offlineLinks
@@ -570,6 +599,28 @@ public abstract class AbstractJavadocMojo
      */
     private boolean validateLinks;
 
+    /**
+     * The number of minutes the remote <code>package-list</code> resources validated for the links, e.g. the ones
+     * of the {@link #detectLinks detected links}, are cached on disk. Once expired, a cached
+     * <code>package-list</code> is revalidated with a conditional request. A value of <code>0</code> disables the
+     * cache and fetches every <code>package-list</code> on every run.
+     *
+     * @parameter expression="${maven.javadoc.packageListCacheTtl}" default-value="1440"
+     * @see #packageListCacheDirectory
+     * @since 2.8.2
+     */
+    private int packageListCacheTtl;
+
+    /**
+     * The directory of the cache of the remote <code>package-list</code> resources, shared by all projects. Defaults
+     * to <code>.cache/maven-javadoc-plugin/package-lists</code> in the local repository.
+     *
+     * @parameter expression="${maven.javadoc.packageListCacheDirectory}"
+     * @see #packageListCacheTtl
+     * @since 2.8.2
+     */
+    private File packageListCacheDirectory;
+
     // ----------------------------------------------------------------------
     // Javadoc Options - all alphabetical
     // ----------------------------------------------------------------------
@@ -1652,6 +1703,15 @@ public abstract class AbstractJavadocMojo
      */
     private File javadocOptionsDir;
 
+    /**
+     * Directory into which the fingerprints of the generated Javadoc are written, see {@link #incremental}.
+     *
+     * @parameter default-value="${project.build.directory}/javadoc-fingerprints"
+     * @readonly
+     * @since 2.8.2
+     */
+    private File javadocFingerprintsDir;
+
     /**
      * Transient variable to allow lazy-resolution of javadoc bundles from dependencies, so they can
      * be used at various points in the javadoc generation process.
@@ -1881,16 +1941,27 @@ public abstract class AbstractJavadocMojo
         // Find the javadoc executable and version
         // ----------------------------------------------------------------------
 
+        boolean runInProcess = canRunInProcess();
+
         String jExecutable;
-        try
+        if ( runInProcess )
         {
-            jExecutable = getJavadocExecutable();
+            // only used for the debug script
+            jExecutable = "javadoc";
+            setFJavadocVersion( SystemUtils.JAVA_VERSION_FLOAT );
         }
-        catch ( IOException e )
+        else
         {
-            throw new MavenReportException( "Unable to find javadoc command: " + e.getMessage(), e );
+            try
+            {
+                jExecutable = getJavadocExecutable();
+            }
+            catch ( IOException e )
+            {
+                throw new MavenReportException( "Unable to find javadoc command: " + e.getMessage(), e );
+            }
+            setFJavadocVersion( new File( jExecutable ) );
         }
-        setFJavadocVersion( new File( jExecutable ) );
 
         // ----------------------------------------------------------------------
         // Javadoc output directory as File
@@ -1952,6 +2023,31 @@ public abstract class AbstractJavadocMojo
             addStandardDocletOptions( javadocOutputDirectory, arguments );
         }
 
+        // ----------------------------------------------------------------------
+        // Skip the generation if the Javadoc is up to date
+        // ----------------------------------------------------------------------
+
+        String fingerprint = null;
+        if ( incremental )
+        {
+            String tool = ( runInProcess ? System.getProperty( "java.home" ) : jExecutable ) + ' ' + fJavadocVersion;
+            try
+            {
+                fingerprint =
+                    JavadocUtil.getFingerprint( tool, arguments, packageNames, files, javadocOutputDirectory );
+            }
+            catch ( IOException e )
+            {
+                throw new MavenReportException( "Unable to compute the Javadoc fingerprint: " + e.getMessage(), e );
+            }
+
+            if ( isJavadocUpToDate( fingerprint, javadocOutputDirectory ) )
+            {
+                ReactorPackageLists.publish( javadocOutputDirectory );
+                return;
+            }
+        }
+
         // ----------------------------------------------------------------------
         // Write options file and include it in the command line
         // ----------------------------------------------------------------------
@@ -1994,7 +2090,21 @@ public abstract class AbstractJavadocMojo
         // Execute command line
         // ----------------------------------------------------------------------
 
-        executeJavadocCommandLine( cmd, javadocOutputDirectory );
+        if ( runInProcess )
+        {
+            executeJavadocInProcess( cmd, javadocOutputDirectory );
+        }
+        else
+        {
+            executeJavadocCommandLine( cmd, javadocOutputDirectory );
+        }
+
+        if ( fingerprint != null )
+        {
+            writeJavadocFingerprint( fingerprint, javadocOutputDirectory );
+        }
+
+        ReactorPackageLists.publish( javadocOutputDirectory );
 
         // delete generated javadoc files only if no error and no debug mode
         // [MJAVADOC-336] Use File.delete() instead of File.deleteOnExit() to
@@ -2025,6 +2135,134 @@ public abstract class AbstractJavadocMojo
         }
     }
 
+    /**
+     * Checks whether the Javadoc with the given fingerprint was already generated into the output directory, or into
+     * another output directory from which it is copied.
+     *
+     * @param fingerprint the fingerprint of the Javadoc to generate, not null
+     * @param javadocOutputDirectory the output directory, not null
+     * @return <code>true</code> if the Javadoc doesn't need to be generated, <code>false</code> otherwise
+     * @throws MavenReportException if the Javadoc could not be copied
+     * @see JavadocUtil#getFingerprint(String, List, List, List, File)
+     * @since 2.8.2
+     */
+    private boolean isJavadocUpToDate( String fingerprint, File javadocOutputDirectory )
+        throws MavenReportException
+    {
+        File fingerprintFile = getJavadocFingerprintFile( javadocOutputDirectory );
+        String[] stored = readJavadocFingerprint( fingerprintFile );
+        if ( stored != null && stored[0].equals( fingerprint ) && isJavadocGenerated( javadocOutputDirectory ) )
+        {
+            getLog().info( "Skipping javadoc generation, the Javadoc in " + javadocOutputDirectory
+                + " is up to date." );
+            return true;
+        }
+
+        // the output directory is about to change
+        fingerprintFile.delete();
+
+        File[] fingerprintFiles = javadocFingerprintsDir.listFiles();
+        for ( int i = 0; fingerprintFiles != null && i < fingerprintFiles.length; i++ )
+        {
+            stored = readJavadocFingerprint( fingerprintFiles[i] );
+            if ( stored == null || !stored[0].equals( fingerprint ) )
+            {
+                continue;
+            }
+
+            File generatedDirectory = new File( stored[1] );
+            if ( !generatedDirectory.equals( javadocOutputDirectory.getAbsoluteFile() )
+                && isJavadocGenerated( generatedDirectory ) )
+            {
+                getLog().info( "Copying the up to date Javadoc from " + generatedDirectory );
+                try
+                {
+                    FileUtils.copyDirectoryStructure( generatedDirectory, javadocOutputDirectory );
+                }
+                catch ( IOException e )
+                {
+                    throw new MavenReportException( "Unable to copy the Javadoc from " + generatedDirectory + ": "
+                        + e.getMessage(), e );
+                }
+                writeJavadocFingerprint( fingerprint, javadocOutputDirectory );
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param javadocOutputDirectory not null
+     * @return <code>true</code> if the output directory holds the output of the doclet.
+     */
+    private boolean isJavadocGenerated( File javadocOutputDirectory )
+    {
+        if ( StringUtils.isEmpty( doclet ) )
+        {
+            return new File( javadocOutputDirectory, "package-list" ).isFile()
+                || new File( javadocOutputDirectory, "index.html" ).isFile();
+        }
+
+        String[] names = javadocOutputDirectory.list();
+        return names != null && names.length > 0;
+    }
+
+    /**
+     * @param javadocOutputDirectory not null
+     * @return the file keeping the fingerprint of the Javadoc generated into the output directory.
+     */
+    private File getJavadocFingerprintFile( File javadocOutputDirectory )
+    {
+        String path = javadocOutputDirectory.getAbsolutePath();
+        return new File( javadocFingerprintsDir, javadocOutputDirectory.getName() + '-'
+            + Integer.toHexString( path.hashCode() ) + ".txt" );
+    }
+
+    /**
+     * @param fingerprintFile not null
+     * @return the fingerprint and the output directory stored in the file, or <code>null</code> if not readable.
+     */
+    private String[] readJavadocFingerprint( File fingerprintFile )
+    {
+        if ( !fingerprintFile.isFile() )
+        {
+            return null;
+        }
+
+        try
+        {
+            String[] lines = FileUtils.fileRead( fingerprintFile, "UTF-8" ).split( "\\r?\\n" );
+            return ( lines.length >= 2 ) ? lines : null;
+        }
+        catch ( IOException e )
+        {
+            getLog().debug( "Unable to read " + fingerprintFile + ": " + e.getMessage() );
+            return null;
+        }
+    }
+
+    /**
+     * Write the fingerprint of the Javadoc generated into the output directory.
+     *
+     * @param fingerprint not null
+     * @param javadocOutputDirectory not null
+     */
+    private void writeJavadocFingerprint( String fingerprint, File javadocOutputDirectory )
+    {
+        File fingerprintFile = getJavadocFingerprintFile( javadocOutputDirectory );
+        fingerprintFile.getParentFile().mkdirs();
+        try
+        {
+            FileUtils.fileWrite( fingerprintFile.getAbsolutePath(), "UTF-8", fingerprint + '\n'
+                + javadocOutputDirectory.getAbsolutePath() + '\n' );
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( "Unable to write the Javadoc fingerprint " + fingerprintFile + ": " + e.getMessage() );
+        }
+    }
+
     /**
      * Method to get the files on the specified source paths
      *
@@ -3446,6 +3684,51 @@ public abstract class AbstractJavadocMojo
         }
     }
 
+    /**
+     * Checks whether the Javadoc tool can run inside the Maven JVM, see {@link #inProcess}.
+     *
+     * @return <code>true</code> if the in-process mode is enabled and usable, <code>false</code> otherwise.
+     * @since 2.8.2
+     */
+    private boolean canRunInProcess()
+    {
+        if ( !inProcess )
+        {
+            return false;
+        }
+
+        String reason = null;
+        if ( getToolchain() != null )
+        {
+            reason = "a toolchain is used";
+        }
+        else if ( StringUtils.isNotEmpty( javadocExecutable ) )
+        {
+            reason = "the <javadocExecutable/> parameter is set";
+        }
+        else if ( StringUtils.isNotEmpty( maxmemory ) || StringUtils.isNotEmpty( minmemory )
+            || StringUtils.isNotEmpty( additionalJOption ) )
+        {
+            reason = "options for the Javadoc JVM are set";
+        }
+        else if ( StringUtils.isNotEmpty( proxyHost ) || ( settings != null && settings.getActiveProxy() != null ) )
+        {
+            reason = "a proxy is configured";
+        }
+        else if ( JavadocUtil.getSystemDocumentationTool() == null )
+        {
+            reason = "the running JVM doesn't provide the Javadoc tool";
+        }
+
+        if ( reason != null )
+        {
+            getLog().info( "Forking the javadoc executable since " + reason + "." );
+            return false;
+        }
+
+        return true;
+    }
+
     /**
      * Get the path of the Javadoc tool executable depending the user entry or try to find it depending the OS
      * or the <code>java.home</code> system property or the <code>JAVA_HOME</code> environment variable.
@@ -3598,6 +3881,18 @@ public abstract class AbstractJavadocMojo
             jVersion = SystemUtils.JAVA_VERSION_FLOAT;
         }
 
+        setFJavadocVersion( jVersion );
+    }
+
+    /**
+     * Set a new value for <code>fJavadocVersion</code>
+     *
+     * @param jVersion the version of the Javadoc tool used
+     * @throws MavenReportException if the <code>javadocVersion</code> parameter could not be parsed
+     */
+    private void setFJavadocVersion( float jVersion )
+        throws MavenReportException
+    {
         if ( StringUtils.isNotEmpty( javadocVersion ) )
         {
             try
@@ -5087,15 +5382,84 @@ public abstract class AbstractJavadocMojo
             throw new MavenReportException( "Unable to execute javadoc command: " + e.getMessage(), e );
         }
 
-        // ----------------------------------------------------------------------
-        // Handle Javadoc warnings
-        // ----------------------------------------------------------------------
+        logJavadocWarnings( err.getOutput() );
+    }
+
+    /**
+     * Execute the Javadoc tool inside the Maven JVM with the arguments of the given command line.
+     *
+     * @param cmd not null
+     * @param javadocOutputDirectory not null
+     * @throws MavenReportException if any errors occur
+     * @see JavadocUtil#executeJavadocInProcess(String[], File, java.io.OutputStream, java.io.OutputStream)
+     * @since 2.8.2
+     */
+    private void executeJavadocInProcess( Commandline cmd, File javadocOutputDirectory )
+        throws MavenReportException
+    {
+        String cmdLine = CommandLineUtils.toString( cmd.getCommandline() ).replaceAll( "'", "" );
+        if ( getLog().isDebugEnabled() )
+        {
+            getLog().debug( "In-process: " + cmdLine );
+        }
+
+        if ( debug )
+        {
+            writeDebugJavadocScript( cmdLine, javadocOutputDirectory );
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode;
+        try
+        {
+            exitCode = JavadocUtil.executeJavadocInProcess( cmd.getArguments(), javadocOutputDirectory, out, err );
+        }
+        catch ( IOException e )
+        {
+            throw new MavenReportException( "Unable to execute javadoc in-process: " + e.getMessage(), e );
+        }
+
+        String output = ( out.size() == 0 ? null : '\n' + out.toString().trim() );
+        if ( StringUtils.isNotEmpty( output ) )
+        {
+            getLog().info( output );
+        }
+
+        if ( exitCode != 0 )
+        {
+            writeDebugJavadocScript( cmdLine, javadocOutputDirectory );
+
+            StringBuffer msg = new StringBuffer( "\nExit code: " );
+            msg.append( exitCode );
+            if ( err.size() > 0 )
+            {
+                msg.append( " - " ).append( err.toString() );
+            }
+            msg.append( '\n' );
+            msg.append( "Command line was: " ).append( cmdLine ).append( '\n' ).append( '\n' );
+
+            msg.append( "Refer to the generated Javadoc files in '" ).append( javadocOutputDirectory )
+               .append( "' dir.\n" );
+
+            throw new MavenReportException( msg.toString() );
+        }
+
+        logJavadocWarnings( err.toString() );
+    }
 
-        if ( StringUtils.isNotEmpty( err.getOutput() ) && getLog().isWarnEnabled() )
+    /**
+     * Log the warnings written by the Javadoc tool.
+     *
+     * @param warnings the error output of the Javadoc tool, could be null
+     */
+    private void logJavadocWarnings( String warnings )
+    {
+        if ( StringUtils.isNotEmpty( warnings ) && getLog().isWarnEnabled() )
         {
             getLog().warn( "Javadoc Warnings" );
 
-            StringTokenizer token = new StringTokenizer( err.getOutput(), "\n" );
+            StringTokenizer token = new StringTokenizer( warnings, "\n" );
             while ( token.hasMoreTokens() )
             {
                 String current = token.nextToken().trim();
@@ -5231,61 +5595,6 @@ public abstract class AbstractJavadocMojo
         return javadocClassLoader.getResource( resource );
     }
 
-    /**
-     * Get the full javadoc goal. Loads the plugin's pom.properties to get the current plugin version.
-     *
-     * @return <code>org.apache.maven.plugins:maven-javadoc-plugin:CURRENT_VERSION:[test-]javadoc</code>
-     */
-    private String getFullJavadocGoal()
-    {
-        String javadocPluginVersion = null;
-        InputStream resourceAsStream = null;
-        try
-        {
-            String resource =
-                "META-INF/maven/org.apache.maven.plugins/maven-javadoc-plugin/pom.properties";
-            resourceAsStream = AbstractJavadocMojo.class.getClassLoader().getResourceAsStream( resource );
-
-            if ( resourceAsStream != null )
-            {
-                Properties properties = new Properties();
-                properties.load( resourceAsStream );
-
-                if ( StringUtils.isNotEmpty( properties.getProperty( "version" ) ) )
-                {
-                    javadocPluginVersion = properties.getProperty( "version" );
-                }
-            }
-        }
-        catch ( IOException e )
-        {
-            // nop
-        }
-        finally
-        {
-            IOUtil.close( resourceAsStream );
-        }
-
-        StringBuffer sb = new StringBuffer();
-
-        sb.append( "org.apache.maven.plugins:maven-javadoc-plugin:" );
-        if ( StringUtils.isNotEmpty( javadocPluginVersion ) )
-        {
-            sb.append( javadocPluginVersion ).append( ":" );
-        }
-
-        if ( this instanceof TestJavadocReport )
-        {
-            sb.append( "test-javadoc" );
-        }
-        else
-        {
-            sb.append( "javadoc" );
-        }
-
-        return sb.toString();
-    }
-
     /**
      * Using Maven, a Javadoc link is given by <code>${project.url}/apidocs</code>.
      *
@@ -5322,53 +5631,9 @@ public abstract class AbstractJavadocMojo
                 continue;
             }
 
-            File location = new File( p.getBasedir(), javadocDirRelative );
+            File location = getModulePackageListDirectory( p, new File( p.getBasedir(), javadocDirRelative ) );
 
-            if ( !location.exists() )
-            {
-                if ( getLog().isDebugEnabled() )
-                {
-                    getLog().debug( "Javadoc directory not found: " + location );
-                }
-
-                String javadocGoal = getFullJavadocGoal();
-                getLog().info( "The goal '" + javadocGoal + "' has not been previously called for the module: '"
-                                   + p.getId() + "'. Trying to invoke it..." );
-
-                File invokerDir = new File( project.getBuild().getDirectory(), "invoker" );
-                invokerDir.mkdirs();
-                File invokerLogFile = FileUtils.createTempFile( "maven-javadoc-plugin", ".txt", invokerDir );
-                try
-                {
-                    JavadocUtil.invokeMaven( getLog(), new File( localRepository.getBasedir() ), p.getFile(),
-                                             Collections.singletonList( javadocGoal ), null, invokerLogFile );
-                }
-                catch ( MavenInvocationException e )
-                {
-                    logError( "MavenInvocationException: " + e.getMessage(), e );
-
-                    String invokerLogContent = JavadocUtil.readFile( invokerLogFile, "UTF-8" );
-                    
-                    // TODO: Why are we only interested in cases where the JVM won't start?
-                    // [MJAVADOC-275][jdcasey] I changed the logic here to only throw an error WHEN 
-                    //   the JVM won't start (opposite of what it was).
-                    if ( invokerLogContent != null && invokerLogContent.contains( JavadocUtil.ERROR_INIT_VM ) )
-                    {
-                        throw new MavenReportException( e.getMessage(), e );
-                    }
-                }
-                finally
-                {
-                    // just create the directory to prevent repeated invocations..
-                    if ( !location.exists() )
-                    {
-                        getLog().warn( "Creating fake javadoc directory to prevent repeated invocations: " + location );
-                        location.mkdirs();
-                    }
-                }
-            }
-
-            if ( location.exists() )
+            if ( location != null )
             {
                 String url = getJavadocLink( p );
 
@@ -5388,6 +5653,61 @@ public abstract class AbstractJavadocMojo
         return modulesLinks;
     }
 
+    /**
+     * Get the directory holding the <code>package-list</code> of a reactor module: the one published by its
+     * Javadoc execution during the current build, its existing Javadoc directory, or a <code>package-list</code>
+     * derived from its source roots if its Javadoc was not generated yet.
+     *
+     * @param p a reactor module, not null
+     * @param javadocDirectory the Javadoc output directory of the module, not null
+     * @return the directory holding the <code>package-list</code> of the module, or <code>null</code> if the module
+     * has no Java sources.
+     * @see ReactorPackageLists
+     * @since 2.8.2
+     */
+    private File getModulePackageListDirectory( MavenProject p, File javadocDirectory )
+    {
+        File packageListDirectory = ReactorPackageLists.getPackageListDirectory( javadocDirectory );
+        if ( packageListDirectory != null )
+        {
+            return packageListDirectory;
+        }
+
+        if ( ReactorPackageLists.publish( javadocDirectory ) )
+        {
+            return javadocDirectory;
+        }
+
+        if ( getLog().isDebugEnabled() )
+        {
+            getLog().debug( "Javadoc directory not found: " + javadocDirectory );
+        }
+
+        List<String> packageNames =
+            ReactorPackageLists.getPackageNames( JavadocUtil.pruneDirs( p, getProjectSourceRoots( p ) ) );
+        if ( packageNames.isEmpty() )
+        {
+            return null;
+        }
+
+        packageListDirectory =
+            new File( p.getBuild().getDirectory(), "javadoc-package-lists/" + javadocDirectory.getName() );
+        try
+        {
+            ReactorPackageLists.writePackageList( javadocDirectory, packageListDirectory, packageNames );
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( "Unable to write the package-list of the module '" + p.getId() + "': " + e.getMessage() );
+            return null;
+        }
+
+        getLog().info( "The Javadoc of the module '" + p.getId() + "' has not been generated yet, linking it using "
+            + "the package-list derived from its sources." );
+
+        return packageListDirectory;
+    }
+
     /**
      * Using Maven, a Javadoc link is given by <code>${project.url}/apidocs</code>.
      *
@@ -5406,7 +5726,7 @@ public abstract class AbstractJavadocMojo
 
         getLog().debug( "Trying to add links for dependencies..." );
 
-        List<String> dependenciesLinks = new ArrayList<String>();
+        Map<String, String> candidateLinks = new LinkedHashMap<String, String>();
 
         final Set<Artifact> dependencies = project.getDependencyArtifacts();
         for ( Artifact artifact : dependencies )
@@ -5423,14 +5743,7 @@ public abstract class AbstractJavadocMojo
 
                 if ( StringUtils.isNotEmpty( artifactProject.getUrl() ) )
                 {
-                    String url = getJavadocLink( artifactProject );
-
-                    if ( isValidJavadocLink( url ) )
-                    {
-                        getLog().debug( "Added Javadoc link: " + url + " for " + artifactProject.getId() );
-
-                        dependenciesLinks.add( url );
-                    }
+                    candidateLinks.put( getJavadocLink( artifactProject ), artifactProject.getId() );
                 }
             }
             catch ( ProjectBuildingException e )
@@ -5439,6 +5752,38 @@ public abstract class AbstractJavadocMojo
             }
         }
 
+        // fetch the package lists missing in the cache at once
+        PackageListCache cache = getPackageListCache();
+        if ( cache != null )
+        {
+            List<URL> urls = new ArrayList<URL>();
+            for ( String url : candidateLinks.keySet() )
+            {
+                try
+                {
+                    urls.add( new URL( url + "/package-list" ) );
+                }
+                catch ( MalformedURLException e )
+                {
+                    // reported when validated
+                }
+            }
+            cache.prefetch( urls, settings );
+        }
+
+        List<String> dependenciesLinks = new ArrayList<String>();
+        for ( Map.Entry<String, String> link : candidateLinks.entrySet() )
+        {
+            String url = link.getKey();
+
+            if ( isValidJavadocLink( url ) )
+            {
+                getLog().debug( "Added Javadoc link: " + url + " for " + link.getValue() );
+
+                dependenciesLinks.add( url );
+            }
+        }
+
         return dependenciesLinks;
     }
 
@@ -5584,7 +5929,10 @@ public abstract class AbstractJavadocMojo
                 linkUri = new File( dir, "package-list" ).toURI();
             }
 
-            if ( !JavadocUtil.isValidPackageList( linkUri.toURL(), settings, validateLinks ) )
+            PackageListCache cache = getPackageListCache();
+            boolean valid = ( cache != null ) ? cache.isValidPackageList( linkUri.toURL(), settings, validateLinks )
+                            : JavadocUtil.isValidPackageList( linkUri.toURL(), settings, validateLinks );
+            if ( !valid )
             {
                 if ( getLog().isErrorEnabled() )
                 {
@@ -5614,6 +5962,31 @@ public abstract class AbstractJavadocMojo
         }
     }
 
+    /**
+     * @return the cache of the remote <code>package-list</code> resources, or <code>null</code> if disabled.
+     * @see #packageListCacheTtl
+     * @since 2.8.2
+     */
+    private PackageListCache getPackageListCache()
+    {
+        if ( packageListCacheTtl <= 0 )
+        {
+            return null;
+        }
+
+        File directory = packageListCacheDirectory;
+        if ( directory == null )
+        {
+            if ( localRepository == null )
+            {
+                return null;
+            }
+            directory = new File( localRepository.getBasedir(), ".cache/maven-javadoc-plugin/package-lists" );
+        }
+
+        return PackageListCache.getInstance( directory, packageListCacheTtl * 60L * 1000L );
+    }
+
     /**
      * Write a debug javadoc script in case of command line error or in debug mode.
      *
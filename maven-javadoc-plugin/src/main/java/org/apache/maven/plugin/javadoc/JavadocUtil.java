@@ -32,15 +32,22 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.Set;
@@ -101,6 +108,17 @@ public class JavadocUtil
         "Error occurred during initialization of VM, try to reduce the Java heap size for the MAVEN_OPTS "
         + "environnement variable using -Xms:<size> and -Xmx:<size>.";
 
+    /** The versions of the javadoc executables found so far, keyed by their path and modification time. */
+    private static final Map<String, Float> JAVADOC_VERSIONS = new HashMap<String, Float>();
+
+    /** The Javadoc options whose value is a path, the referenced files are part of the Javadoc fingerprint. */
+    private static final List<String> PATH_OPTIONS =
+        Arrays.asList( new String[] { "-bootclasspath", "-classpath", "-docletpath", "-extdirs", "-helpfile",
+            "-overview", "-sourcepath", "-stylesheetfile", "-tagletpath" } );
+
+    /** The lock serializing the in-process Javadoc executions, the Javadoc tool is not meant to run concurrently. */
+    private static final Object IN_PROCESS_LOCK = new Object();
+
     /**
      * Method that removes the invalid directories in the specified directories.
      * <b>Note</b>: All elements in <code>dirs</code> could be an absolute or relative against the project's base
@@ -551,6 +569,23 @@ public class JavadocUtil
             throw new IOException( "The javadoc executable '" + javadocExe + "' doesn't exist or is not a file. " );
         }
 
+        // the version is asked by every execution of the plugin, only fork once per executable
+        String key = javadocExe.getAbsolutePath() + '|' + javadocExe.lastModified();
+        synchronized ( JAVADOC_VERSIONS )
+        {
+            Float version = JAVADOC_VERSIONS.get( key );
+            if ( version == null )
+            {
+                version = new Float( forkJavadocVersion( javadocExe ) );
+                JAVADOC_VERSIONS.put( key, version );
+            }
+            return version.floatValue();
+        }
+    }
+
+    private static float forkJavadocVersion( File javadocExe )
+        throws CommandLineException, IllegalArgumentException, PatternSyntaxException
+    {
         Commandline cmd = new Commandline();
         cmd.setExecutable( javadocExe.getAbsolutePath() );
         cmd.setWorkingDirectory( javadocExe.getParentFile() );
@@ -581,6 +616,99 @@ public class JavadocUtil
         throw new IllegalArgumentException( "No output found from the command line 'javadoc -J-version'" );
     }
 
+    /**
+     * Get the Javadoc tool of the running JVM through the <code>javax.tools.DocumentationTool</code> API, i.e. with
+     * Java 8 or later.
+     *
+     * @return the Javadoc tool as <code>javax.tools.Tool</code> or <code>null</code> if the running JVM doesn't
+     * provide one.
+     * @since 2.8.2
+     */
+    protected static Object getSystemDocumentationTool()
+    {
+        try
+        {
+            Class<?> toolProvider = Class.forName( "javax.tools.ToolProvider" );
+            return toolProvider.getMethod( "getSystemDocumentationTool", new Class[0] ).invoke( null, new Object[0] );
+        }
+        catch ( ClassNotFoundException e )
+        {
+            return null;
+        }
+        catch ( NoSuchMethodException e )
+        {
+            return null;
+        }
+        catch ( IllegalAccessException e )
+        {
+            return null;
+        }
+        catch ( InvocationTargetException e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Execute the Javadoc tool of the running JVM with the given arguments, the in-process equivalent of the
+     * <code>javadoc</code> command line. Argument files, i.e. <code>@options</code>, are resolved against the given
+     * working directory.
+     *
+     * @param arguments the Javadoc arguments, not null
+     * @param workingDirectory the directory to resolve the argument files against, not null
+     * @param out the stream receiving the notices of the Javadoc tool, not null
+     * @param err the stream receiving the warnings and errors of the Javadoc tool, not null
+     * @return the exit code of the Javadoc tool
+     * @throws IOException if the running JVM doesn't provide the Javadoc tool or if it could not be executed.
+     * @see #getSystemDocumentationTool()
+     * @since 2.8.2
+     */
+    protected static int executeJavadocInProcess( String[] arguments, File workingDirectory, OutputStream out,
+                                                  OutputStream err )
+        throws IOException
+    {
+        Object tool = getSystemDocumentationTool();
+        if ( tool == null )
+        {
+            throw new IOException( "The running JVM doesn't provide the Javadoc tool, Java 8 or later is required." );
+        }
+
+        String[] args = new String[arguments.length];
+        for ( int i = 0; i < arguments.length; i++ )
+        {
+            args[i] = arguments[i];
+            if ( args[i].startsWith( "@" ) && !new File( args[i].substring( 1 ) ).isAbsolute() )
+            {
+                args[i] = "@" + new File( workingDirectory, args[i].substring( 1 ) ).getAbsolutePath();
+            }
+        }
+
+        try
+        {
+            Method run =
+                Class.forName( "javax.tools.Tool" ).getMethod( "run", new Class[] { InputStream.class,
+                    OutputStream.class, OutputStream.class, String[].class } );
+
+            synchronized ( IN_PROCESS_LOCK )
+            {
+                Object exitCode = run.invoke( tool, new Object[] { null, out, err, args } );
+                return ( (Integer) exitCode ).intValue();
+            }
+        }
+        catch ( InvocationTargetException e )
+        {
+            IOException ioe = new IOException( "Unable to execute the Javadoc tool: " + e.getTargetException() );
+            ioe.initCause( e.getTargetException() );
+            throw ioe;
+        }
+        catch ( Exception e )
+        {
+            IOException ioe = new IOException( "Unable to execute the Javadoc tool: " + e.getMessage() );
+            ioe.initCause( e );
+            throw ioe;
+        }
+    }
+
     /**
      * Parse the output for 'javadoc -J-version' and return the javadoc version recognized.
      * <br/>
@@ -1720,7 +1848,7 @@ public class JavadocUtil
         }
     }
 
-    private static boolean isValidPackageName( String str )
+    protected static boolean isValidPackageName( String str )
     {
         if ( StringUtils.isEmpty( str ) )
         {
@@ -1770,7 +1898,7 @@ public class JavadocUtil
      * @see #DEFAULT_TIMEOUT
      * @since 2.8
      */
-    private static HttpClient createHttpClient( Settings settings, URL url )
+    protected static HttpClient createHttpClient( Settings settings, URL url )
     {
         HttpClient httpClient = new HttpClient( new MultiThreadedHttpConnectionManager() );
         httpClient.getHttpConnectionManager().getParams().setConnectionTimeout( DEFAULT_TIMEOUT );
@@ -1806,6 +1934,157 @@ public class JavadocUtil
         return httpClient;
     }
 
+    /**
+     * Compute the fingerprint of a Javadoc execution, i.e. a digest of the tool, the options, the packages and files
+     * to document, and the content of all files referenced by the path options like <code>-sourcepath</code> or
+     * <code>-classpath</code>. The output directory is left out of the options, so that the same Javadoc generated
+     * into different output directories has the same fingerprint.
+     *
+     * @param tool the identifier of the Javadoc tool, i.e. its path and version, not null
+     * @param arguments the Javadoc options, not null
+     * @param packageNames the packages to document, not null
+     * @param files the files to document, not null
+     * @param javadocOutputDirectory the output directory, not null
+     * @return the fingerprint as hexadecimal string
+     * @throws IOException if any file could not be read
+     * @since 2.8.2
+     */
+    protected static String getFingerprint( String tool, List<String> arguments, List<String> packageNames,
+                                            List<String> files, File javadocOutputDirectory )
+        throws IOException
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "MD5" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "MD5 not supported: " + e.getMessage() );
+        }
+
+        String outputPath = javadocOutputDirectory.getAbsolutePath();
+        Set<File> hashed = new HashSet<File>();
+        hashed.add( javadocOutputDirectory.getAbsoluteFile() );
+
+        updateFingerprint( digest, tool );
+        for ( int i = 0; i < arguments.size(); i++ )
+        {
+            String argument = arguments.get( i );
+            argument = StringUtils.replace( argument, outputPath, "${outputDirectory}" );
+            argument = StringUtils.replace( argument, outputPath.replace( '\\', '/' ), "${outputDirectory}" );
+            updateFingerprint( digest, argument );
+
+            if ( PATH_OPTIONS.contains( arguments.get( i ) ) && i + 1 < arguments.size() )
+            {
+                String paths = arguments.get( i + 1 );
+                if ( paths.length() > 1 && paths.startsWith( "'" ) && paths.endsWith( "'" ) )
+                {
+                    paths = paths.substring( 1, paths.length() - 1 );
+                }
+                paths = StringUtils.replace( paths, "\\'", "'" );
+
+                StringTokenizer tokens = new StringTokenizer( paths, File.pathSeparator );
+                while ( tokens.hasMoreTokens() )
+                {
+                    updateFingerprint( digest, new File( tokens.nextToken() ).getAbsoluteFile(), hashed );
+                }
+            }
+        }
+        for ( String packageName : packageNames )
+        {
+            updateFingerprint( digest, packageName );
+        }
+        for ( String file : files )
+        {
+            updateFingerprint( digest, file );
+            updateFingerprint( digest, new File( file ).getAbsoluteFile(), hashed );
+        }
+
+        return toHex( digest.digest() );
+    }
+
+    /**
+     * Compute the fingerprint of a content, e.g. of a source file.
+     *
+     * @param content the content, not null
+     * @return the MD5 digest of the content as hexadecimal string
+     * @since 2.8.2
+     */
+    protected static String getFingerprint( String content )
+    {
+        try
+        {
+            return toHex( MessageDigest.getInstance( "MD5" ).digest( content.getBytes( "UTF-8" ) ) );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "MD5 not supported: " + e.getMessage() );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( "UTF-8 not supported: " + e.getMessage() );
+        }
+    }
+
+    private static String toHex( byte[] bytes )
+    {
+        StringBuffer hex = new StringBuffer( bytes.length * 2 );
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            hex.append( Character.forDigit( ( bytes[i] >> 4 ) & 0x0F, 16 ) );
+            hex.append( Character.forDigit( bytes[i] & 0x0F, 16 ) );
+        }
+        return hex.toString();
+    }
+
+    private static void updateFingerprint( MessageDigest digest, String value )
+        throws UnsupportedEncodingException
+    {
+        digest.update( value.getBytes( "UTF-8" ) );
+        digest.update( (byte) 0 );
+    }
+
+    private static void updateFingerprint( MessageDigest digest, File file, Set<File> hashed )
+        throws IOException
+    {
+        if ( !hashed.add( file ) )
+        {
+            return;
+        }
+
+        updateFingerprint( digest, file.getPath() );
+        if ( file.isDirectory() )
+        {
+            String[] names = file.list();
+            if ( names != null )
+            {
+                Arrays.sort( names );
+                for ( int i = 0; i < names.length; i++ )
+                {
+                    updateFingerprint( digest, new File( file, names[i] ), hashed );
+                }
+            }
+        }
+        else if ( file.isFile() )
+        {
+            InputStream in = new FileInputStream( file );
+            try
+            {
+                byte[] buffer = new byte[8192];
+                for ( int n; ( n = in.read( buffer ) ) >= 0; )
+                {
+                    digest.update( buffer, 0, n );
+                }
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+            digest.update( (byte) 0 );
+        }
+    }
+
     static boolean equalsIgnoreCase( String value, String... strings )
     {
         for ( String s : strings )
@@ -0,0 +1,507 @@
+package org.apache.maven.plugin.javadoc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.HttpStatus;
+import org.apache.commons.httpclient.methods.GetMethod;
+import org.apache.maven.settings.Settings;
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * An on-disk cache of the remote <code>package-list</code> resources validated for the Javadoc links. A cached
+ * <code>package-list</code> is used without any request for the configured time to live. Once expired, it is
+ * revalidated with a conditional request using its <code>ETag</code> and <code>Last-Modified</code> headers. Missing
+ * <code>package-list</code> resources are cached as well, to avoid fetching them over and over, and the resources which
+ * could not be fetched at all are remembered for the current build.
+ *
+ * @version $Id$
+ * @since 2.8.2
+ */
+public class PackageListCache
+{
+    /** The maximum number of <code>package-list</code> resources fetched concurrently. */
+    private static final int MAX_THREADS = 8;
+
+    /** The caches used by the current build, keyed by their directory. */
+    private static final Map<File, PackageListCache> CACHES = new HashMap<File, PackageListCache>();
+
+    /** The cache directory. */
+    private final File directory;
+
+    /** The time to live of the cached entries in milliseconds. */
+    private final long timeToLive;
+
+    /** The entries read or fetched so far, keyed by their URL. */
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    /**
+     * @param directory the cache directory, not null
+     * @param timeToLive the time to live of the cached entries in milliseconds
+     */
+    public PackageListCache( File directory, long timeToLive )
+    {
+        this.directory = directory;
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * @param directory the cache directory, not null
+     * @param timeToLive the time to live of the cached entries in milliseconds
+     * @return the cache for the given directory, shared by all executions of the current build
+     */
+    public static PackageListCache getInstance( File directory, long timeToLive )
+    {
+        synchronized ( CACHES )
+        {
+            File key = directory.getAbsoluteFile();
+            PackageListCache cache = CACHES.get( key );
+            if ( cache == null || cache.timeToLive != timeToLive )
+            {
+                cache = new PackageListCache( key, timeToLive );
+                CACHES.put( key, cache );
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Validates an <code>URL</code> to point to a valid <code>package-list</code> resource, the cached equivalent of
+     * {@link JavadocUtil#isValidPackageList(URL, Settings, boolean)}.
+     *
+     * @param url the URL to validate, not null
+     * @param settings the user settings used to configure the connection to the URL or {@code null}
+     * @param validateContent <code>true</code> to validate the content of the <code>package-list</code> resource;
+     * <code>false</code> to only check the existence of the <code>package-list</code> resource.
+     * @return <code>true</code> if <code>url</code> points to a valid <code>package-list</code> resource;
+     * <code>false</code> else.
+     * @throws IOException if the resource is missing or could not be fetched.
+     */
+    public boolean isValidPackageList( URL url, Settings settings, boolean validateContent )
+        throws IOException
+    {
+        if ( url == null )
+        {
+            throw new IllegalArgumentException( "The url is null" );
+        }
+
+        if ( "file".equals( url.getProtocol() ) )
+        {
+            return JavadocUtil.isValidPackageList( url, settings, validateContent );
+        }
+
+        Entry entry = getEntry( url, settings );
+        if ( entry.packageList == null )
+        {
+            throw new FileNotFoundException( "Unexpected HTTP status code " + entry.status + " getting resource "
+                + url.toExternalForm() + "." );
+        }
+
+        if ( validateContent )
+        {
+            BufferedReader reader = new BufferedReader( new StringReader( entry.packageList ) );
+            String line;
+            while ( ( line = reader.readLine() ) != null )
+            {
+                if ( !JavadocUtil.isValidPackageName( line ) )
+                {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Fetches the given <code>package-list</code> resources which are not cached yet, concurrently. The failures are
+     * ignored here and reported by {@link #isValidPackageList(URL, Settings, boolean)}.
+     *
+     * @param urls the URLs of the <code>package-list</code> resources, not null
+     * @param settings the user settings used to configure the connection to the URLs or {@code null}
+     */
+    public void prefetch( Collection<URL> urls, final Settings settings )
+    {
+        // URL.equals() resolves the host names, so the URLs are compared by their text
+        Map<String, URL> misses = new LinkedHashMap<String, URL>();
+        for ( URL url : urls )
+        {
+            if ( !"file".equals( url.getProtocol() ) && !misses.containsKey( url.toExternalForm() )
+                && getFreshEntry( url ) == null )
+            {
+                misses.put( url.toExternalForm(), url );
+            }
+        }
+        if ( misses.size() < 2 )
+        {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( MAX_THREADS, misses.size() ) );
+        try
+        {
+            List<Future<?>> results = new ArrayList<Future<?>>();
+            for ( final URL url : misses.values() )
+            {
+                results.add( executor.submit( new Runnable()
+                {
+                    public void run()
+                    {
+                        try
+                        {
+                            getEntry( url, settings );
+                        }
+                        catch ( IOException e )
+                        {
+                            // reported when validated
+                        }
+                    }
+                } ) );
+            }
+            for ( Future<?> result : results )
+            {
+                try
+                {
+                    result.get();
+                }
+                catch ( Exception e )
+                {
+                    // reported when validated
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param url not null
+     * @return the cached entry for the URL if it didn't expire yet, or <code>null</code>.
+     */
+    private Entry getFreshEntry( URL url )
+    {
+        Entry entry = getCachedEntry( url );
+        if ( entry != null && System.currentTimeMillis() - entry.fetched < timeToLive )
+        {
+            return entry;
+        }
+        return null;
+    }
+
+    private Entry getEntry( URL url, Settings settings )
+        throws IOException
+    {
+        Entry entry = getFreshEntry( url );
+        if ( entry == null )
+        {
+            try
+            {
+                entry = fetch( url, settings, getCachedEntry( url ) );
+            }
+            catch ( IOException e )
+            {
+                entry = new Entry();
+                entry.fetched = System.currentTimeMillis();
+                entry.failure = e;
+            }
+            synchronized ( entries )
+            {
+                entries.put( url.toExternalForm(), entry );
+            }
+            if ( entry.packageList != null || entry.status == HttpStatus.SC_NOT_FOUND
+                || entry.status == HttpStatus.SC_GONE )
+            {
+                // other failures could be temporary, only remember them for this build
+                write( url, entry );
+            }
+        }
+        if ( entry.failure != null )
+        {
+            throw entry.failure;
+        }
+        return entry;
+    }
+
+    private Entry getCachedEntry( URL url )
+    {
+        synchronized ( entries )
+        {
+            Entry entry = entries.get( url.toExternalForm() );
+            if ( entry == null )
+            {
+                entry = read( url );
+                if ( entry != null )
+                {
+                    entries.put( url.toExternalForm(), entry );
+                }
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Fetches a <code>package-list</code> resource, conditionally if a previous entry is available.
+     *
+     * @param url not null
+     * @param settings could be null
+     * @param previous the expired entry of the resource, could be null
+     * @return the fetched entry, not null
+     * @throws IOException if the resource could not be fetched
+     */
+    private Entry fetch( URL url, Settings settings, Entry previous )
+        throws IOException
+    {
+        HttpClient httpClient = JavadocUtil.createHttpClient( settings, url );
+
+        GetMethod httpMethod = new GetMethod( url.toString() );
+        try
+        {
+            if ( previous != null && previous.packageList != null )
+            {
+                if ( previous.etag != null )
+                {
+                    httpMethod.setRequestHeader( "If-None-Match", previous.etag );
+                }
+                if ( previous.lastModified != null )
+                {
+                    httpMethod.setRequestHeader( "If-Modified-Since", previous.lastModified );
+                }
+            }
+
+            int status;
+            try
+            {
+                status = httpClient.executeMethod( httpMethod );
+            }
+            catch ( SocketTimeoutException e )
+            {
+                // could be a sporadic failure, one more retry before we give up
+                status = httpClient.executeMethod( httpMethod );
+            }
+
+            Entry entry = new Entry();
+            entry.fetched = System.currentTimeMillis();
+            entry.status = status;
+
+            if ( status == HttpStatus.SC_NOT_MODIFIED && previous != null && previous.packageList != null )
+            {
+                entry.status = previous.status;
+                entry.etag = previous.etag;
+                entry.lastModified = previous.lastModified;
+                entry.packageList = previous.packageList;
+            }
+            else if ( status == HttpStatus.SC_OK )
+            {
+                entry.etag = getHeader( httpMethod, "ETag" );
+                entry.lastModified = getHeader( httpMethod, "Last-Modified" );
+
+                // Intentionally using the platform default encoding here since this is what Javadoc uses internally.
+                InputStream in = httpMethod.getResponseBodyAsStream();
+                try
+                {
+                    entry.packageList = ( in != null ) ? IOUtil.toString( in ) : "";
+                }
+                finally
+                {
+                    IOUtil.close( in );
+                }
+            }
+
+            return entry;
+        }
+        finally
+        {
+            httpMethod.releaseConnection();
+        }
+    }
+
+    private static String getHeader( GetMethod httpMethod, String name )
+    {
+        Header header = httpMethod.getResponseHeader( name );
+        return ( header != null ) ? header.getValue() : null;
+    }
+
+    private Entry read( URL url )
+    {
+        File file = getFile( url );
+        if ( !file.isFile() )
+        {
+            return null;
+        }
+
+        Properties props = new Properties();
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( file );
+            props.load( in );
+
+            if ( !url.toExternalForm().equals( props.getProperty( "url" ) ) )
+            {
+                return null;
+            }
+
+            Entry entry = new Entry();
+            entry.fetched = Long.parseLong( props.getProperty( "fetched" ) );
+            entry.status = Integer.parseInt( props.getProperty( "status" ) );
+            entry.etag = props.getProperty( "etag" );
+            entry.lastModified = props.getProperty( "lastModified" );
+            entry.packageList = props.getProperty( "packageList" );
+            return entry;
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+        catch ( RuntimeException e )
+        {
+            // corrupted entry
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    private void write( URL url, Entry entry )
+    {
+        Properties props = new Properties();
+        props.setProperty( "url", url.toExternalForm() );
+        props.setProperty( "fetched", Long.toString( entry.fetched ) );
+        props.setProperty( "status", Integer.toString( entry.status ) );
+        if ( entry.etag != null )
+        {
+            props.setProperty( "etag", entry.etag );
+        }
+        if ( entry.lastModified != null )
+        {
+            props.setProperty( "lastModified", entry.lastModified );
+        }
+        if ( entry.packageList != null )
+        {
+            props.setProperty( "packageList", entry.packageList );
+        }
+
+        File file = getFile( url );
+        File tmpFile = new File( file.getPath() + '.' + Thread.currentThread().getId() + ".tmp" );
+        OutputStream out = null;
+        try
+        {
+            file.getParentFile().mkdirs();
+            out = new FileOutputStream( tmpFile );
+            props.store( out, null );
+            out.close();
+            out = null;
+
+            // replace the entry at once for concurrent builds sharing the cache
+            if ( !tmpFile.renameTo( file ) )
+            {
+                file.delete();
+                tmpFile.renameTo( file );
+            }
+        }
+        catch ( IOException e )
+        {
+            // the cache is an optimization only
+        }
+        finally
+        {
+            IOUtil.close( out );
+            tmpFile.delete();
+        }
+    }
+
+    private File getFile( URL url )
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance( "MD5" );
+            byte[] bytes = digest.digest( url.toExternalForm().getBytes( "UTF-8" ) );
+            StringBuffer name = new StringBuffer( bytes.length * 2 + 11 );
+            for ( int i = 0; i < bytes.length; i++ )
+            {
+                name.append( Character.forDigit( ( bytes[i] >> 4 ) & 0x0F, 16 ) );
+                name.append( Character.forDigit( bytes[i] & 0x0F, 16 ) );
+            }
+            return new File( directory, name.append( ".properties" ).toString() );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "MD5 not supported: " + e.getMessage() );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( "UTF-8 not supported: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * A cached <code>package-list</code> resource.
+     */
+    private static class Entry
+    {
+        /** The time the resource was fetched or revalidated. */
+        private long fetched;
+
+        /** The HTTP status code of the resource. */
+        private int status;
+
+        /** The <code>ETag</code> of the resource, could be null. */
+        private String etag;
+
+        /** The <code>Last-Modified</code> header of the resource, could be null. */
+        private String lastModified;
+
+        /** The content of the resource, or <code>null</code> if missing. */
+        private String packageList;
+
+        /** The failure to fetch the resource, or <code>null</code> if it was fetched. Never written to disk. */
+        private IOException failure;
+    }
+}
@@ -0,0 +1,168 @@
+package org.apache.maven.plugin.javadoc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * The registry of the <code>package-list</code> files of the reactor modules, used to link the Javadoc of a module
+ * to the Javadoc of the modules it depends on with <code>-linkoffline</code>. Each Javadoc execution publishes the
+ * directory holding its <code>package-list</code>. When a module is linked before its Javadoc was generated, its
+ * <code>package-list</code> is derived from its source roots instead, which doesn't need another Maven build.
+ * The registry lives as long as the plugin class loader, i.e. for the current build.
+ *
+ * @version $Id$
+ * @since 2.8.2
+ */
+public class ReactorPackageLists
+{
+    /** The name of the <code>package-list</code> file. */
+    private static final String PACKAGE_LIST = "package-list";
+
+    /** The directories holding a <code>package-list</code>, keyed by the Javadoc output directory of a module. */
+    private static final Map<File, File> PACKAGE_LISTS = new HashMap<File, File>();
+
+    private ReactorPackageLists()
+    {
+        // static methods only
+    }
+
+    /**
+     * Publishes the <code>package-list</code> of a Javadoc execution, if the doclet generated one.
+     *
+     * @param javadocDirectory the Javadoc output directory of the module, not null
+     * @return <code>true</code> if a <code>package-list</code> was published, <code>false</code> otherwise
+     */
+    public static boolean publish( File javadocDirectory )
+    {
+        if ( !new File( javadocDirectory, PACKAGE_LIST ).isFile() )
+        {
+            return false;
+        }
+
+        publish( javadocDirectory, javadocDirectory );
+        return true;
+    }
+
+    /**
+     * Publishes a <code>package-list</code> for the given Javadoc output directory of a module.
+     *
+     * @param javadocDirectory the Javadoc output directory of the module, not null
+     * @param packageListDirectory the directory holding the <code>package-list</code>, not null
+     */
+    public static synchronized void publish( File javadocDirectory, File packageListDirectory )
+    {
+        PACKAGE_LISTS.put( javadocDirectory.getAbsoluteFile(), packageListDirectory.getAbsoluteFile() );
+    }
+
+    /**
+     * @param javadocDirectory the Javadoc output directory of a module, not null
+     * @return the directory holding the published <code>package-list</code> of the module, or <code>null</code> if
+     * none was published during the current build.
+     */
+    public static synchronized File getPackageListDirectory( File javadocDirectory )
+    {
+        File packageListDirectory = PACKAGE_LISTS.get( javadocDirectory.getAbsoluteFile() );
+        if ( packageListDirectory != null && !new File( packageListDirectory, PACKAGE_LIST ).isFile() )
+        {
+            // removed since, e.g. by a clean
+            PACKAGE_LISTS.remove( javadocDirectory.getAbsoluteFile() );
+            return null;
+        }
+        return packageListDirectory;
+    }
+
+    /**
+     * Forgets all the published <code>package-list</code> files.
+     */
+    public static synchronized void clear()
+    {
+        PACKAGE_LISTS.clear();
+    }
+
+    /**
+     * @param sourceRoots the source roots of a module, not null
+     * @return the sorted names of the packages holding Java sources in the given source roots, never null
+     */
+    public static List<String> getPackageNames( List<String> sourceRoots )
+    {
+        TreeSet<String> packageNames = new TreeSet<String>();
+        for ( String sourceRoot : sourceRoots )
+        {
+            File sourceDirectory = new File( sourceRoot );
+            if ( !sourceDirectory.isDirectory() )
+            {
+                continue;
+            }
+
+            DirectoryScanner scanner = new DirectoryScanner();
+            scanner.setBasedir( sourceDirectory );
+            scanner.setIncludes( new String[] { "**/*.java" } );
+            scanner.setExcludes( new String[] { "**/doc-files/**" } );
+            scanner.scan();
+
+            for ( String file : scanner.getIncludedFiles() )
+            {
+                file = file.replace( '\\', '/' );
+                if ( file.lastIndexOf( '/' ) != -1 )
+                {
+                    packageNames.add( file.substring( 0, file.lastIndexOf( '/' ) ).replace( '/', '.' ) );
+                }
+            }
+        }
+
+        return new ArrayList<String>( packageNames );
+    }
+
+    /**
+     * Writes a <code>package-list</code> holding the given package names and publishes it for the given Javadoc
+     * output directory of a module.
+     *
+     * @param javadocDirectory the Javadoc output directory of the module, not null
+     * @param packageListDirectory the directory to write the <code>package-list</code> to, not null
+     * @param packageNames the package names, not null
+     * @throws IOException if the <code>package-list</code> could not be written
+     */
+    public static void writePackageList( File javadocDirectory, File packageListDirectory,
+                                         List<String> packageNames )
+        throws IOException
+    {
+        StringBuffer sb = new StringBuffer();
+        for ( String packageName : packageNames )
+        {
+            sb.append( packageName ).append( '\n' );
+        }
+
+        packageListDirectory.mkdirs();
+        FileUtils.fileWrite( new File( packageListDirectory, PACKAGE_LIST ).getAbsolutePath(), "UTF-8",
+                             sb.toString() );
+
+        publish( javadocDirectory, packageListDirectory );
+    }
+}
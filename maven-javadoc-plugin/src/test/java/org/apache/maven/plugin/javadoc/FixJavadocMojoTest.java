@@ -20,11 +20,16 @@ package org.apache.maven.plugin.javadoc;
  */
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 import junitx.util.PrivateAccessor;
 
@@ -176,6 +181,69 @@ public class FixJavadocMojoTest
         executeMojoAndTest( testPomBasedir, new String[] { "ClassWithJavadoc.java", "InterfaceWithJavadoc.java" } );
     }
 
+    /**
+     * Test that fixing the files with several threads gives the same files as a serial run.
+     *
+     * @throws Exception if any
+     */
+    public void testFixParallel()
+        throws Exception
+    {
+        File testPomBasedir = new File( getBasedir(), "target/test/unit/fix-jdk5-test" );
+        FileUtils.deleteDirectory( new File( testPomBasedir, "target/generated" ) );
+
+        executeMojoAndTest( testPomBasedir, new String[] { "ClassWithJavadoc.java", "ClassWithNoJavadoc.java",
+            "InterfaceWithJavadoc.java", "InterfaceWithNoJavadoc.java", "SubClassWithJavadoc.java" }, 3, false );
+    }
+
+    /**
+     * Test that the files which needed no fix are skipped by the next executions.
+     *
+     * @throws Exception if any
+     */
+    public void testFixIncremental()
+        throws Exception
+    {
+        File testPomBasedir = new File( getBasedir(), "target/test/unit/fix-jdk5-test" );
+        String[] classes = new String[] { "ClassWithJavadoc.java", "ClassWithNoJavadoc.java",
+            "InterfaceWithJavadoc.java", "InterfaceWithNoJavadoc.java", "SubClassWithJavadoc.java" };
+
+        // fix in place, the changed files are not recorded
+        executeMojoAndTest( testPomBasedir, classes, 1, true );
+        File fixCacheFile = new File( testPomBasedir, "target/javadoc-fix-cache.properties" );
+        assertEquals( 0, readProperties( fixCacheFile ).size() );
+
+        // the files left unchanged by a fix are recorded
+        File sourceDir = new File( testPomBasedir, "src/main/java/fix/test" );
+        Map<String, String> contents = new HashMap<String, String>();
+        for ( int i = 0; i < classes.length; i++ )
+        {
+            contents.put( classes[i], readFile( new File( sourceDir, classes[i] ) ) );
+        }
+        FixJavadocMojo mojo = lookupFixMojo( testPomBasedir, 1, true );
+        mojo.execute();
+        Properties fixCache = readProperties( fixCacheFile );
+        assertFalse( fixCache.isEmpty() );
+        for ( int i = 0; i < classes.length; i++ )
+        {
+            File javaFile = new File( sourceDir, classes[i] );
+            boolean unchanged = contents.get( classes[i] ).equals( readFile( javaFile ) );
+            assertEquals( javaFile.getName(), unchanged, fixCache.containsKey( javaFile.getAbsolutePath() ) );
+        }
+
+        // the recorded files are skipped
+        for ( Object key : fixCache.keySet() )
+        {
+            new File( key.toString() ).setLastModified( 1000000000000L );
+        }
+        mojo = lookupFixMojo( testPomBasedir, 1, true );
+        mojo.execute();
+        for ( Object key : fixCache.keySet() )
+        {
+            assertEquals( 1000000000000L, new File( key.toString() ).lastModified() );
+        }
+    }
+
     // ----------------------------------------------------------------------
     // Test private static methods
     // ----------------------------------------------------------------------
@@ -587,16 +655,26 @@ public class FixJavadocMojoTest
     private void executeMojoAndTest( File testPomBasedir, String[] clazzToCompare )
         throws Exception
     {
-        prepareTestProjects( testPomBasedir.getName() );
+        executeMojoAndTest( testPomBasedir, clazzToCompare, 1, false );
+    }
 
-        File testPom = new File( testPomBasedir, "pom.xml" );
-        assertTrue( testPom.getAbsolutePath() + " should exist", testPom.exists() );
+    /**
+     * @param testPomBasedir the basedir for the test project
+     * @param clazzToCompare an array of the classes name to compare
+     * @param parallelThreads the number of threads fixing the classes
+     * @param inPlace <code>true</code> to fix the classes in place, with the incremental mode
+     * @throws Exception if any
+     */
+    private void executeMojoAndTest( File testPomBasedir, String[] clazzToCompare, int parallelThreads,
+                                     boolean inPlace )
+        throws Exception
+    {
+        prepareTestProjects( testPomBasedir.getName() );
 
-        FixJavadocMojo mojo = (FixJavadocMojo) lookupMojo( "fix", testPom );
-        assertNotNull( mojo );
+        FixJavadocMojo mojo = lookupFixMojo( testPomBasedir, parallelThreads, inPlace );
 
         // compile the test project
-        invokeCompileGoal( testPom, mojo.getLog() );
+        invokeCompileGoal( new File( testPomBasedir, "pom.xml" ), mojo.getLog() );
         assertTrue( new File( testPomBasedir, "target/classes" ).exists() );
 
         mojo.execute();
@@ -604,7 +682,7 @@ public class FixJavadocMojoTest
         File expectedDir = new File( testPomBasedir, "expected/src/main/java/fix/test" );
         assertTrue( expectedDir.exists() );
 
-        File generatedDir = new File( testPomBasedir, "target/generated/fix/test" );
+        File generatedDir = new File( testPomBasedir, inPlace ? "src/main/java/fix/test" : "target/generated/fix/test" );
         assertTrue( generatedDir.exists() );
 
         for ( int i = 0; i < clazzToCompare.length; i++ )
@@ -614,6 +692,34 @@ public class FixJavadocMojoTest
         }
     }
 
+    /**
+     * @param testPomBasedir the basedir for the test project
+     * @param parallelThreads the number of threads fixing the classes
+     * @param inPlace <code>true</code> to fix the classes in place, with the incremental mode
+     * @return the configured mojo
+     * @throws Exception if any
+     */
+    private FixJavadocMojo lookupFixMojo( File testPomBasedir, int parallelThreads, boolean inPlace )
+        throws Exception
+    {
+        File testPom = new File( testPomBasedir, "pom.xml" );
+        assertTrue( testPom.getAbsolutePath() + " should exist", testPom.exists() );
+
+        FixJavadocMojo mojo = (FixJavadocMojo) lookupMojo( "fix", testPom );
+        assertNotNull( mojo );
+
+        setVariableValueToObject( mojo, "parallelThreads", new Integer( parallelThreads ) );
+        if ( inPlace )
+        {
+            setVariableValueToObject( mojo, "outputDirectory", new File( testPomBasedir, "src/main/java" ) );
+            setVariableValueToObject( mojo, "incremental", Boolean.TRUE );
+            setVariableValueToObject( mojo, "fixCacheFile",
+                                      new File( testPomBasedir, "target/javadoc-fix-cache.properties" ) );
+        }
+
+        return mojo;
+    }
+
     /**
      * Invoke the compilation on the given pom file.
      *
@@ -656,6 +762,28 @@ public class FixJavadocMojoTest
             + actual.getAbsolutePath(), expectedContent, actualContent );
     }
 
+    /**
+     * @param file not null
+     * @return the properties read from the file
+     * @throws IOException if any
+     */
+    private static Properties readProperties( File file )
+        throws IOException
+    {
+        Properties properties = new Properties();
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( file );
+            properties.load( in );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+        return properties;
+    }
+
     /**
      * @param testProjectDirName not null
      * @throws IOException if any
@@ -693,6 +693,69 @@ public class JavadocReportTest
         assertTrue( true );
     }
 
+    /**
+     * Test the in-process execution of the Javadoc tool
+     *
+     * @throws Exception if any
+     */
+    public void testInProcess()
+        throws Exception
+    {
+        if ( JavadocUtil.getSystemDocumentationTool() == null )
+        {
+            // Java 8 or later is required
+            return;
+        }
+
+        File testPom = new File( unit, "in-process-test/in-process-test-plugin-config.xml" );
+        JavadocReport mojo = (JavadocReport) lookupMojo( "javadoc", testPom );
+        mojo.execute();
+
+        File apidocs = new File( getBasedir(), "target/test/unit/in-process-test/target/site/apidocs" );
+        assertTrue( new File( apidocs, "inprocess/test/App.html" ).exists() );
+        assertTrue( new File( apidocs, "package-list" ).exists() );
+        assertFalse( new File( apidocs, "options" ).exists() );
+        assertFalse( new File( apidocs, "packages" ).exists() );
+    }
+
+    /**
+     * Test the skipped generation of up to date Javadoc
+     *
+     * @throws Exception if any
+     */
+    public void testIncremental()
+        throws Exception
+    {
+        File target = new File( getBasedir(), "target/test/unit/incremental-test/target" );
+        FileUtils.deleteDirectory( target );
+
+        File testPom = new File( unit, "incremental-test/incremental-test-plugin-config.xml" );
+        JavadocReport mojo = (JavadocReport) lookupMojo( "javadoc", testPom );
+        mojo.execute();
+
+        File generatedFile = new File( target, "site/apidocs/incremental/test/App.html" );
+        assertTrue( generatedFile.exists() );
+        assertEquals( 1, new File( target, "javadoc-fingerprints" ).list().length );
+
+        // nothing changed
+        generatedFile.setLastModified( 0 );
+        mojo.execute();
+        assertEquals( 0, generatedFile.lastModified() );
+
+        // same Javadoc into another output directory
+        File otherOutputDirectory = new File( target, "apidocs" );
+        mojo.setReportOutputDirectory( otherOutputDirectory );
+        mojo.execute();
+        assertTrue( new File( otherOutputDirectory, "incremental/test/App.html" ).exists() );
+        assertEquals( 2, new File( target, "javadoc-fingerprints" ).list().length );
+
+        // changed option
+        mojo.setReportOutputDirectory( generatedFile.getParentFile().getParentFile().getParentFile() );
+        setVariableValueToObject( mojo, "windowtitle", "Changed" );
+        mojo.execute();
+        assertTrue( generatedFile.lastModified() > 0 );
+    }
+
     /**
      * Test newline in various string parameters
      *
@@ -19,12 +19,14 @@ package org.apache.maven.plugin.javadoc;
  * under the License.
  */
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -592,4 +594,83 @@ public class JavadocUtilTest
         assertEquals( path1 + ps + path2 + ps + path1 + ps + path2, JavadocUtil.unifyPathSeparator( path1 + ";"
             + path2 + ":" + path1 + ":" + path2 ) );
     }
+
+    /**
+     * Method to test executeJavadocInProcess()
+     *
+     * @throws Exception if any
+     */
+    public void testExecuteJavadocInProcess()
+        throws Exception
+    {
+        if ( JavadocUtil.getSystemDocumentationTool() == null )
+        {
+            // Java 8 or later is required
+            return;
+        }
+
+        File dir = new File( getBasedir(), "target/test/unit/in-process-test" );
+        FileUtils.deleteDirectory( dir );
+        File source = new File( dir, "src/foo/Foo.java" );
+        source.getParentFile().mkdirs();
+        FileUtils.fileWrite( source.getAbsolutePath(), "package foo;\n/** Foo. */\npublic class Foo\n{\n}\n" );
+        File output = new File( dir, "apidocs" );
+        output.mkdirs();
+        FileUtils.fileWrite( new File( output, "options" ).getAbsolutePath(), "-d\n'" + output.getAbsolutePath()
+            + "'\n-sourcepath\n'" + new File( dir, "src" ).getAbsolutePath() + "'" );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode =
+            JavadocUtil.executeJavadocInProcess( new String[] { "@options", "foo" }, output, out, err );
+
+        assertEquals( err.toString(), 0, exitCode );
+        assertTrue( new File( output, "foo/Foo.html" ).exists() );
+
+        exitCode = JavadocUtil.executeJavadocInProcess( new String[] { "-d", output.getAbsolutePath(), "bar" },
+                                                        output, out, err );
+        assertTrue( exitCode != 0 );
+    }
+
+    /**
+     * Method to test getFingerprint()
+     *
+     * @throws Exception if any
+     */
+    public void testGetFingerprint()
+        throws Exception
+    {
+        File dir = new File( getBasedir(), "target/test/unit/fingerprint-test" );
+        FileUtils.deleteDirectory( dir );
+        File source = new File( dir, "src/foo/Foo.java" );
+        source.getParentFile().mkdirs();
+        FileUtils.fileWrite( source.getAbsolutePath(), "package foo; public class Foo {}" );
+        File output = new File( dir, "apidocs" );
+
+        List<String> arguments = new ArrayList<String>();
+        arguments.add( "-d" );
+        arguments.add( JavadocUtil.quotedPathArgument( output.getAbsolutePath() ) );
+        arguments.add( "-sourcepath" );
+        arguments.add( JavadocUtil.quotedPathArgument( new File( dir, "src" ).getAbsolutePath() ) );
+        List<String> packageNames = Collections.singletonList( "foo" );
+        List<String> files = Collections.singletonList( source.getAbsolutePath() );
+
+        String fingerprint = JavadocUtil.getFingerprint( "javadoc", arguments, packageNames, files, output );
+        assertEquals( fingerprint, JavadocUtil.getFingerprint( "javadoc", arguments, packageNames, files, output ) );
+
+        // the output directory doesn't matter
+        File otherOutput = new File( dir, "other" );
+        List<String> otherArguments = new ArrayList<String>( arguments );
+        otherArguments.set( 1, JavadocUtil.quotedPathArgument( otherOutput.getAbsolutePath() ) );
+        assertEquals( fingerprint,
+                      JavadocUtil.getFingerprint( "javadoc", otherArguments, packageNames, files, otherOutput ) );
+
+        assertFalse( fingerprint.equals( JavadocUtil.getFingerprint( "javadoc 1.6", arguments, packageNames, files,
+                                                                     output ) ) );
+
+        // changed source
+        FileUtils.fileWrite( source.getAbsolutePath(), "package foo; public class Foo { int i; }" );
+        assertFalse( fingerprint.equals( JavadocUtil.getFingerprint( "javadoc", arguments, packageNames, files,
+                                                                     output ) ) );
+    }
 }
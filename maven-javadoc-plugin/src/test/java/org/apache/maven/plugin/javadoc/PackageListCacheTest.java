@@ -0,0 +1,267 @@
+package org.apache.maven.plugin.javadoc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.mortbay.jetty.Server;
+import org.mortbay.jetty.bio.SocketConnector;
+import org.mortbay.jetty.servlet.Context;
+import org.mortbay.jetty.servlet.ServletHolder;
+
+/**
+ * Tests {@link PackageListCache} against a local HTTP server.
+ *
+ * @version $Id$
+ */
+public class PackageListCacheTest
+    extends TestCase
+{
+    private Server server;
+
+    private String baseUrl;
+
+    private File cacheDir;
+
+    /** The requests received by the server, i.e. the path and whether it was conditional. */
+    private final List<String> requests = new ArrayList<String>();
+
+    /** {@inheritDoc} */
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        cacheDir = new File( "target/test/unit/package-list-cache" );
+        FileUtils.deleteDirectory( cacheDir );
+
+        server = new Server();
+        SocketConnector connector = new SocketConnector();
+        connector.setHost( "localhost" );
+        server.addConnector( connector );
+        Context context = new Context( server, "/", 0 );
+        context.addServlet( new ServletHolder( new HttpServlet()
+        {
+            protected void doGet( HttpServletRequest req, HttpServletResponse resp )
+                throws IOException
+            {
+                String etag = req.getHeader( "If-None-Match" );
+                synchronized ( requests )
+                {
+                    requests.add( req.getRequestURI() + ( etag != null ? " " + etag : "" ) );
+                }
+                if ( !req.getRequestURI().startsWith( "/api/" ) )
+                {
+                    resp.sendError( HttpServletResponse.SC_NOT_FOUND );
+                }
+                else if ( "\"v1\"".equals( etag ) )
+                {
+                    resp.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+                }
+                else
+                {
+                    resp.setHeader( "ETag", "\"v1\"" );
+                    resp.setContentType( "text/plain" );
+                    resp.getWriter().print( req.getRequestURI().endsWith( "/bad/package-list" ) ? "not a package\n"
+                                    : "org.apache.maven\norg.apache.maven.plugin\n" );
+                }
+            }
+        } ), "/" );
+        server.start();
+
+        baseUrl = "http://localhost:" + connector.getLocalPort();
+    }
+
+    /** {@inheritDoc} */
+    protected void tearDown()
+        throws Exception
+    {
+        server.stop();
+
+        super.tearDown();
+    }
+
+    /**
+     * @throws Exception if any
+     */
+    public void testCachedPackageList()
+        throws Exception
+    {
+        URL url = new URL( baseUrl + "/api/package-list" );
+
+        PackageListCache cache = new PackageListCache( cacheDir, 60000 );
+        assertTrue( cache.isValidPackageList( url, null, true ) );
+        assertTrue( cache.isValidPackageList( url, null, false ) );
+        assertEquals( 1, requests.size() );
+
+        // persisted
+        cache = new PackageListCache( cacheDir, 60000 );
+        assertTrue( cache.isValidPackageList( url, null, true ) );
+        assertEquals( 1, requests.size() );
+
+        // expired, revalidated with the ETag
+        cache = new PackageListCache( cacheDir, 0 );
+        assertTrue( cache.isValidPackageList( url, null, true ) );
+        assertEquals( 2, requests.size() );
+        assertEquals( "/api/package-list \"v1\"", requests.get( 1 ) );
+
+        // invalid content
+        URL badUrl = new URL( baseUrl + "/api/bad/package-list" );
+        assertTrue( cache.isValidPackageList( badUrl, null, false ) );
+        assertFalse( cache.isValidPackageList( badUrl, null, true ) );
+    }
+
+    /**
+     * @throws Exception if any
+     */
+    public void testMissingPackageList()
+        throws Exception
+    {
+        URL url = new URL( baseUrl + "/missing/package-list" );
+
+        PackageListCache cache = new PackageListCache( cacheDir, 60000 );
+        for ( int i = 0; i < 2; i++ )
+        {
+            try
+            {
+                cache.isValidPackageList( url, null, false );
+                fail( "missing package-list" );
+            }
+            catch ( FileNotFoundException e )
+            {
+                assertTrue( true );
+            }
+        }
+        assertEquals( 1, requests.size() );
+    }
+
+    /**
+     * @throws Exception if any
+     */
+    public void testPrefetch()
+        throws Exception
+    {
+        List<URL> urls = new ArrayList<URL>();
+        for ( int i = 0; i < 5; i++ )
+        {
+            urls.add( new URL( baseUrl + "/api/" + i + "/package-list" ) );
+        }
+
+        PackageListCache cache = new PackageListCache( cacheDir, 60000 );
+        cache.prefetch( urls, null );
+        assertEquals( 5, requests.size() );
+
+        for ( URL url : urls )
+        {
+            assertTrue( cache.isValidPackageList( url, null, true ) );
+        }
+        cache.prefetch( urls, null );
+        assertEquals( 5, requests.size() );
+    }
+
+    /**
+     * @throws Exception if any
+     */
+    public void testUnreachablePackageList()
+        throws Exception
+    {
+        // closes the connections without any response
+        final ServerSocket serverSocket = new ServerSocket( 0 );
+        final List<Socket> connections = new ArrayList<Socket>();
+        Thread acceptor = new Thread()
+        {
+            public void run()
+            {
+                try
+                {
+                    while ( true )
+                    {
+                        Socket socket = serverSocket.accept();
+                        synchronized ( connections )
+                        {
+                            connections.add( socket );
+                        }
+                        socket.close();
+                    }
+                }
+                catch ( IOException e )
+                {
+                    // closed
+                }
+            }
+        };
+        acceptor.start();
+
+        try
+        {
+            List<URL> urls = new ArrayList<URL>();
+            urls.add( new URL( "http://localhost:" + serverSocket.getLocalPort() + "/api/package-list" ) );
+            urls.add( new URL( baseUrl + "/api/package-list" ) );
+
+            PackageListCache cache = new PackageListCache( cacheDir, 60000 );
+            cache.prefetch( urls, null );
+            int attempts;
+            synchronized ( connections )
+            {
+                attempts = connections.size();
+            }
+            assertTrue( attempts > 0 );
+
+            for ( int i = 0; i < 2; i++ )
+            {
+                try
+                {
+                    cache.isValidPackageList( urls.get( 0 ), null, false );
+                    fail( "unreachable package-list" );
+                }
+                catch ( IOException e )
+                {
+                    assertTrue( true );
+                }
+            }
+            synchronized ( connections )
+            {
+                assertEquals( attempts, connections.size() );
+            }
+
+            // only remembered for this build
+            assertEquals( 1, cacheDir.list().length );
+        }
+        finally
+        {
+            serverSocket.close();
+            acceptor.join();
+        }
+    }
+}
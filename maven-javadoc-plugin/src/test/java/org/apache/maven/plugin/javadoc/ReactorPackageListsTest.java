@@ -0,0 +1,112 @@
+package org.apache.maven.plugin.javadoc;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * Tests {@link ReactorPackageLists}.
+ *
+ * @version $Id$
+ */
+public class ReactorPackageListsTest
+    extends TestCase
+{
+    private File baseDir;
+
+    /** {@inheritDoc} */
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        baseDir = new File( "target/test/unit/reactor-package-lists" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( baseDir );
+        ReactorPackageLists.clear();
+    }
+
+    /** {@inheritDoc} */
+    protected void tearDown()
+        throws Exception
+    {
+        ReactorPackageLists.clear();
+
+        super.tearDown();
+    }
+
+    /**
+     * Test the package names derived from the sources of a module.
+     *
+     * @throws Exception if any
+     */
+    public void testGetPackageNames()
+        throws Exception
+    {
+        File src = new File( baseDir, "src/main/java" );
+        FileUtils.fileWrite( touch( new File( src, "org/foo/bar/Bar.java" ) ), "package org.foo.bar;" );
+        FileUtils.fileWrite( touch( new File( src, "org/foo/Foo.java" ) ), "package org.foo;" );
+        FileUtils.fileWrite( touch( new File( src, "org/foo/doc-files/Sample.java" ) ), "" );
+        FileUtils.fileWrite( touch( new File( src, "Unnamed.java" ) ), "" );
+        FileUtils.fileWrite( touch( new File( src, "org/empty/package.html" ) ), "" );
+
+        List<String> packageNames = ReactorPackageLists.getPackageNames( Arrays.asList( new String[] {
+            src.getAbsolutePath(), new File( baseDir, "missing" ).getAbsolutePath() } ) );
+        assertEquals( Arrays.asList( new String[] { "org.foo", "org.foo.bar" } ), packageNames );
+    }
+
+    /**
+     * Test publishing the package-list of a module.
+     *
+     * @throws Exception if any
+     */
+    public void testPublish()
+        throws Exception
+    {
+        File apidocs = new File( baseDir, "target/site/apidocs" );
+        assertNull( ReactorPackageLists.getPackageListDirectory( apidocs ) );
+        assertFalse( ReactorPackageLists.publish( apidocs ) );
+
+        File derived = new File( baseDir, "target/javadoc-package-lists/apidocs" );
+        ReactorPackageLists.writePackageList( apidocs, derived, Collections.singletonList( "org.foo" ) );
+        assertEquals( derived, ReactorPackageLists.getPackageListDirectory( apidocs ) );
+        assertEquals( "org.foo\n", FileUtils.fileRead( new File( derived, "package-list" ), "UTF-8" ) );
+
+        FileUtils.fileWrite( touch( new File( apidocs, "package-list" ) ), "org.foo\n" );
+        assertTrue( ReactorPackageLists.publish( apidocs ) );
+        assertEquals( apidocs, ReactorPackageLists.getPackageListDirectory( apidocs ) );
+
+        // a removed package-list is forgotten
+        FileUtils.deleteDirectory( apidocs );
+        assertNull( ReactorPackageLists.getPackageListDirectory( apidocs ) );
+    }
+
+    private static String touch( File file )
+    {
+        file.getParentFile().mkdirs();
+        return file.getAbsolutePath();
+    }
+}
@@ -0,0 +1,358 @@
+package org.apache.maven.plugin.pmd;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.codehaus.plexus.util.IOUtil;
+
+/**
+ * The persistent cache of the results of the analysis of single files. The result of a file is recorded with the hash
+ * of its content, and is only valid for the fingerprint of the configuration it was produced with, so the result of an
+ * unchanged file can be reused instead of analysing the file again.
+ *
+ * @param <T> the type of the result of a file
+ * @version $Id$
+ * @since 2.7.2
+ */
+public abstract class AbstractFileCache<T>
+{
+    private final File cacheFile;
+
+    private final String fingerprint;
+
+    private final Map<String, CachedFile<T>> entries;
+
+    private final Map<String, CachedFile<T>> currentEntries;
+
+    private final Map<String, String> hashes;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param cacheFile the file storing the cache between runs, not null
+     * @param fingerprint the fingerprint of the configuration of the analysis, not null
+     */
+    protected AbstractFileCache( File cacheFile, String fingerprint )
+    {
+        this.cacheFile = cacheFile;
+        this.fingerprint = fingerprint;
+        this.entries = new HashMap<String, CachedFile<T>>();
+        this.currentEntries = new LinkedHashMap<String, CachedFile<T>>();
+        this.hashes = new HashMap<String, String>();
+    }
+
+    /**
+     * @return the header identifying the format of the cache file, not null
+     */
+    protected abstract String getHeader();
+
+    /**
+     * Reads the result of a file.
+     *
+     * @param in the cache file, not null
+     * @return the result, or <code>null</code> if it can't be used anymore.
+     * @throws IOException if the result could not be read.
+     */
+    protected abstract T readResult( DataInputStream in )
+        throws IOException;
+
+    /**
+     * Writes the result of a file.
+     *
+     * @param out the cache file, not null
+     * @param result the result, not null
+     * @throws IOException if the result could not be written.
+     */
+    protected abstract void writeResult( DataOutputStream out, T result )
+        throws IOException;
+
+    /**
+     * Loads the cache. A missing or unreadable cache, or a cache recorded with another fingerprint, yields an empty
+     * one.
+     */
+    public void load()
+    {
+        entries.clear();
+        if ( !cacheFile.isFile() )
+        {
+            return;
+        }
+
+        DataInputStream in = null;
+        try
+        {
+            in = new DataInputStream( new BufferedInputStream( new FileInputStream( cacheFile ) ) );
+            if ( !getHeader().equals( in.readUTF() ) || !fingerprint.equals( in.readUTF() ) )
+            {
+                return;
+            }
+
+            int count = in.readInt();
+            for ( int i = 0; i < count; i++ )
+            {
+                String fileName = in.readUTF();
+                String hash = in.readUTF();
+                T result = readResult( in );
+                if ( result != null )
+                {
+                    entries.put( fileName, new CachedFile<T>( hash, result ) );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            entries.clear();
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    /**
+     * Writes the cache, holding the results of the files looked up or added since it was loaded.
+     *
+     * @throws IOException if the cache could not be written.
+     */
+    public void save()
+        throws IOException
+    {
+        cacheFile.getAbsoluteFile().getParentFile().mkdirs();
+
+        DataOutputStream out = null;
+        try
+        {
+            out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( cacheFile ) ) );
+            out.writeUTF( getHeader() );
+            out.writeUTF( fingerprint );
+            out.writeInt( currentEntries.size() );
+            for ( Map.Entry<String, CachedFile<T>> entry : currentEntries.entrySet() )
+            {
+                out.writeUTF( entry.getKey() );
+                out.writeUTF( entry.getValue().hash );
+                writeResult( out, entry.getValue().result );
+            }
+            out.close();
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+
+    /**
+     * Gets the recorded result of a file which didn't change since.
+     *
+     * @param file the file, not null
+     * @return the result, or <code>null</code> if the file must be analysed.
+     */
+    public T getResult( File file )
+    {
+        String fileName = file.getAbsolutePath();
+        CachedFile<T> entry = entries.get( fileName );
+        if ( entry == null )
+        {
+            return null;
+        }
+
+        try
+        {
+            if ( !entry.hash.equals( getHash( file ) ) )
+            {
+                return null;
+            }
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+        currentEntries.put( fileName, entry );
+        return entry.result;
+    }
+
+    /**
+     * Records the result of a file.
+     *
+     * @param file the analysed file, not null
+     * @param result the result of the file, not null
+     */
+    public void putResult( File file, T result )
+    {
+        try
+        {
+            currentEntries.put( file.getAbsolutePath(), new CachedFile<T>( getHash( file ), result ) );
+        }
+        catch ( IOException e )
+        {
+            // the file can't be read, so it must be analysed again
+            currentEntries.remove( file.getAbsolutePath() );
+        }
+    }
+
+    private String getHash( File file )
+        throws IOException
+    {
+        String hash = hashes.get( file.getAbsolutePath() );
+        if ( hash == null )
+        {
+            hash = getContentHash( file );
+            hashes.put( file.getAbsolutePath(), hash );
+        }
+        return hash;
+    }
+
+    /**
+     * Writes a string which may be <code>null</code> or longer than {@link DataOutputStream#writeUTF(String)}
+     * supports.
+     *
+     * @param out the cache file, not null
+     * @param s the string, may be null
+     * @throws IOException if the string could not be written.
+     */
+    protected static void writeString( DataOutputStream out, String s )
+        throws IOException
+    {
+        if ( s == null )
+        {
+            out.writeInt( -1 );
+        }
+        else
+        {
+            out.writeInt( s.length() );
+            out.writeChars( s );
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param in the cache file, not null
+     * @return the string, may be null
+     * @throws IOException if the string could not be read.
+     */
+    protected static String readString( DataInputStream in )
+        throws IOException
+    {
+        int length = in.readInt();
+        if ( length < 0 )
+        {
+            return null;
+        }
+
+        char[] chars = new char[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            chars[i] = in.readChar();
+        }
+        return new String( chars );
+    }
+
+    /**
+     * Gets the hash of a string, typically the description of the configuration of the analysis.
+     *
+     * @param s the string, not null
+     * @return the hash, never null
+     * @throws IOException if the string could not be encoded.
+     */
+    protected static String getHash( String s )
+        throws IOException
+    {
+        return toHex( getDigest().digest( s.getBytes( "UTF-8" ) ) );
+    }
+
+    /**
+     * Gets the hash of the content of a file.
+     *
+     * @param file the file, not null
+     * @return the hash, never null
+     * @throws IOException if the file could not be read.
+     */
+    protected static String getContentHash( File file )
+        throws IOException
+    {
+        MessageDigest digest = getDigest();
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( file );
+            byte[] buffer = new byte[8192];
+            int read;
+            while ( ( read = in.read( buffer ) ) != -1 )
+            {
+                digest.update( buffer, 0, read );
+            }
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+        return toHex( digest.digest() );
+    }
+
+    private static MessageDigest getDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( "MD5" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "MD5 is not supported: " + e.getMessage() );
+        }
+    }
+
+    private static String toHex( byte[] bytes )
+    {
+        StringBuffer sb = new StringBuffer( bytes.length * 2 );
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            sb.append( Character.forDigit( ( bytes[i] >> 4 ) & 0xf, 16 ) );
+            sb.append( Character.forDigit( bytes[i] & 0xf, 16 ) );
+        }
+        return sb.toString();
+    }
+
+    private static class CachedFile<T>
+    {
+        private final String hash;
+
+        private final T result;
+
+        CachedFile( String hash, T result )
+        {
+            this.hash = hash;
+            this.result = result;
+        }
+    }
+}
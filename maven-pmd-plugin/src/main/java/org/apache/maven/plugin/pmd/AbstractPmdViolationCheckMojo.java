@@ -170,7 +170,12 @@ public abstract class AbstractPmdViolationCheckMojo<D>
         List<D> failures = new ArrayList<D>();
         List<D> warnings = new ArrayList<D>();
 
-        List<D> violations = getErrorDetails( analysisFile );
+        // the summary written along with the result file is much cheaper to read than the XML
+        List<D> violations = getSummaryErrorDetails( analysisFile );
+        if ( violations == null )
+        {
+            violations = getErrorDetails( analysisFile );
+        }
         
         for( D violation : violations )
         {
@@ -191,6 +196,37 @@ public abstract class AbstractPmdViolationCheckMojo<D>
         return details;
     }
     
+    /**
+     * Reads the violations from the violation summary of the result file.
+     *
+     * @param analysisFile the result file, not null
+     * @return the violations, or <code>null</code> if there is no summary of the current result file.
+     * @throws IOException if the summary could not be read.
+     */
+    private List<D> getSummaryErrorDetails( File analysisFile )
+        throws IOException
+    {
+        ViolationSummaryReader reader = ViolationSummaryReader.open( analysisFile );
+        if ( reader == null )
+        {
+            return null;
+        }
+
+        try
+        {
+            List<D> violations = new ArrayList<D>();
+            for ( String[] fields = reader.read(); fields != null; fields = reader.read() )
+            {
+                violations.add( getErrorDetail( fields ) );
+            }
+            return violations;
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
     protected abstract int getPriority( D errorDetail );
     
     protected abstract ViolationDetails<D> newViolationDetailsInstance();
@@ -270,4 +306,12 @@ public abstract class AbstractPmdViolationCheckMojo<D>
      */
     protected abstract List<D> getErrorDetails( File analisysFile )
         throws XmlPullParserException, IOException;
+
+    /**
+     * Creates a violation from the fields written to the violation summary by the report.
+     *
+     * @param fields the fields of the violation, not null
+     * @return the violation, never null
+     */
+    protected abstract D getErrorDetail( String[] fields );
 }
\ No newline at end of file
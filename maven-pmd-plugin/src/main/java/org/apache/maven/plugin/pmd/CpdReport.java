@@ -26,6 +26,9 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
@@ -35,7 +38,9 @@ import net.sourceforge.pmd.cpd.CPD;
 import net.sourceforge.pmd.cpd.CSVRenderer;
 import net.sourceforge.pmd.cpd.JavaLanguage;
 import net.sourceforge.pmd.cpd.JavaTokenizer;
+import net.sourceforge.pmd.cpd.Match;
 import net.sourceforge.pmd.cpd.Renderer;
+import net.sourceforge.pmd.cpd.TokenEntry;
 import net.sourceforge.pmd.cpd.XMLRenderer;
 
 import org.apache.maven.reporting.MavenReportException;
@@ -92,6 +97,23 @@ public class CpdReport
      */
     private boolean ignoreIdentifiers;
 
+    /**
+     * Reuse the tokens of the files which didn't change since the previous run with the same options, instead of
+     * tokenizing these files again. The duplications are still looked for in all the files.
+     *
+     * @parameter expression="${cpd.useTokenCache}" default-value="true"
+     * @since 2.7.2
+     */
+    private boolean useTokenCache;
+
+    /**
+     * The file recording the tokens of the analysed files between runs.
+     *
+     * @parameter default-value="${project.build.directory}/cpd-token-cache"
+     * @since 2.7.2
+     */
+    private File tokenCacheFile;
+
     /** {@inheritDoc} */
     public String getName( Locale locale )
     {
@@ -158,7 +180,18 @@ public class CpdReport
         {
             p.setProperty( JavaTokenizer.IGNORE_IDENTIFIERS, "true" );
         }
-        CPD cpd = new CPD( minimumTokens, new JavaLanguage( p ) );
+        String encoding =
+            StringUtils.isNotEmpty( getSourceEncoding() ) ? getSourceEncoding() : WriterFactory.FILE_ENCODING;
+        CpdTokenCache tokenCache = getTokenCache( encoding );
+        CPD cpd;
+        if ( tokenCache != null )
+        {
+            cpd = new IncrementalCpd( minimumTokens, new JavaLanguage( p ), encoding, tokenCache );
+        }
+        else
+        {
+            cpd = new CPD( minimumTokens, new JavaLanguage( p ) );
+        }
 
         Map<File, PmdFileInfo> files = null;
         try
@@ -194,6 +227,18 @@ public class CpdReport
         }
         cpd.go();
 
+        if ( tokenCache != null )
+        {
+            try
+            {
+                tokenCache.save();
+            }
+            catch ( IOException e )
+            {
+                getLog().warn( "Unable to write the CPD token cache " + tokenCacheFile + ": " + e.getMessage() );
+            }
+        }
+
         CpdReportGenerator gen =
             new CpdReportGenerator( getSink(), files, getBundle( locale ), aggregate );
         gen.generate( cpd.getMatches() );
@@ -201,6 +246,29 @@ public class CpdReport
         return cpd;
     }
 
+    private CpdTokenCache getTokenCache( String encoding )
+    {
+        if ( !useTokenCache || tokenCacheFile == null )
+        {
+            return null;
+        }
+
+        String fingerprint;
+        try
+        {
+            fingerprint = CpdTokenCache.getFingerprint( ignoreLiterals, ignoreIdentifiers, encoding );
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( "Unable to use the CPD token cache: " + e.getMessage() );
+            return null;
+        }
+
+        CpdTokenCache tokenCache = new CpdTokenCache( tokenCacheFile, fingerprint );
+        tokenCache.load();
+        return tokenCache;
+    }
+
     void writeNonHtml( CPD cpd )
         throws MavenReportException
     {
@@ -211,7 +279,13 @@ public class CpdReport
             return;
         }
 
-        String buffer = r.render( cpd.getMatches() );
+        List<Match> matches = new ArrayList<Match>();
+        for ( Iterator<Match> it = cpd.getMatches(); it.hasNext(); )
+        {
+            matches.add( it.next() );
+        }
+
+        String buffer = r.render( matches.iterator() );
         Writer writer = null;
         try
         {
@@ -222,6 +296,11 @@ public class CpdReport
             writer.write( buffer );
             writer.close();
 
+            if ( "xml".equals( format ) )
+            {
+                writeSummary( matches, targetFile );
+            }
+
             File siteDir = getReportOutputDirectory();
             siteDir.mkdirs();
             FileUtils.copyFile( targetFile, new File( siteDir, "cpd." + format ) );
@@ -236,6 +315,34 @@ public class CpdReport
         }
     }
 
+    /**
+     * Writes the duplication summary read by the check goal, in the order of the XML report.
+     *
+     * @param matches the duplications, not null
+     * @param targetFile the XML report, not null
+     * @throws IOException if the summary could not be written.
+     */
+    private void writeSummary( List<Match> matches, File targetFile )
+        throws IOException
+    {
+        ViolationSummaryWriter summary = new ViolationSummaryWriter();
+        for ( Match match : matches )
+        {
+            List<String> fields = new ArrayList<String>();
+            fields.add( String.valueOf( match.getLineCount() ) );
+            fields.add( String.valueOf( match.getTokenCount() ) );
+            fields.add( StringUtils.trim( match.getSourceCodeSlice() ) );
+            for ( Iterator<TokenEntry> it = match.iterator(); it.hasNext(); )
+            {
+                TokenEntry mark = it.next();
+                fields.add( mark.getTokenSrcID() );
+                fields.add( String.valueOf( mark.getBeginLine() ) );
+            }
+            summary.add( fields.toArray( new String[fields.size()] ) );
+        }
+        summary.write( targetFile );
+    }
+
     /** {@inheritDoc} */
     public String getOutputName()
     {
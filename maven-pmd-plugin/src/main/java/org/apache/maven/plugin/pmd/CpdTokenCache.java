@@ -0,0 +1,138 @@
+package org.apache.maven.plugin.pmd;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The persistent cache of the CPD token streams of the analysed files. Duplications span several files, so they are
+ * looked for at each run, but the files which didn't change since the previous run don't need to be tokenized again.
+ * The token streams are only valid for the fingerprint of the tokenizer options they were produced with, see
+ * {@link #getFingerprint(boolean, boolean, String)}.
+ *
+ * @version $Id$
+ * @since 2.7.2
+ */
+public class CpdTokenCache
+    extends AbstractFileCache<CpdTokenCache.FileTokens>
+{
+    private static final String HEADER = "maven-pmd-plugin CPD token cache 1";
+
+    /**
+     * Creates a new cache.
+     *
+     * @param cacheFile the file storing the cache between runs, not null
+     * @param fingerprint the fingerprint of the tokenizer options, not null
+     */
+    public CpdTokenCache( File cacheFile, String fingerprint )
+    {
+        super( cacheFile, fingerprint );
+    }
+
+    /** {@inheritDoc} */
+    protected String getHeader()
+    {
+        return HEADER;
+    }
+
+    /** {@inheritDoc} */
+    protected FileTokens readResult( DataInputStream in )
+        throws IOException
+    {
+        int count = in.readInt();
+        FileTokens tokens = new FileTokens( new String[count], new int[count] );
+        for ( int i = 0; i < count; i++ )
+        {
+            tokens.images[i] = readString( in );
+            tokens.lines[i] = in.readInt();
+        }
+        return tokens;
+    }
+
+    /** {@inheritDoc} */
+    protected void writeResult( DataOutputStream out, FileTokens tokens )
+        throws IOException
+    {
+        out.writeInt( tokens.images.length );
+        for ( int i = 0; i < tokens.images.length; i++ )
+        {
+            writeString( out, tokens.images[i] );
+            out.writeInt( tokens.lines[i] );
+        }
+    }
+
+    /**
+     * Gets the fingerprint of the CPD tokenizer options.
+     *
+     * @param ignoreLiterals whether the literals are ignored
+     * @param ignoreIdentifiers whether the identifiers are ignored
+     * @param sourceEncoding the encoding of the sources, not null
+     * @return the fingerprint, never null
+     * @throws IOException if the fingerprint could not be computed.
+     */
+    public static String getFingerprint( boolean ignoreLiterals, boolean ignoreIdentifiers, String sourceEncoding )
+        throws IOException
+    {
+        StringBuffer sb = new StringBuffer();
+        sb.append( "pmd=" ).append( AbstractPmdReport.getPmdVersion() ).append( '\n' );
+        sb.append( "ignoreLiterals=" ).append( ignoreLiterals ).append( '\n' );
+        sb.append( "ignoreIdentifiers=" ).append( ignoreIdentifiers ).append( '\n' );
+        sb.append( "encoding=" ).append( sourceEncoding ).append( '\n' );
+        return getHash( sb.toString() );
+    }
+
+    /**
+     * The tokens of a file, without the end of file marker.
+     */
+    public static class FileTokens
+    {
+        private final String[] images;
+
+        private final int[] lines;
+
+        /**
+         * @param images the images of the tokens, not null
+         * @param lines the lines of the tokens, not null
+         */
+        public FileTokens( String[] images, int[] lines )
+        {
+            this.images = images;
+            this.lines = lines;
+        }
+
+        public int size()
+        {
+            return images.length;
+        }
+
+        public String getImage( int index )
+        {
+            return images[index];
+        }
+
+        public int getLine( int index )
+        {
+            return lines[index];
+        }
+    }
+}
@@ -98,6 +98,23 @@ public class CpdViolationCheckMojo
         return details.getDuplications();
     }
     
+    @Override
+    protected Duplication getErrorDetail( String[] fields )
+    {
+        Duplication duplication = new Duplication();
+        duplication.setLines( Integer.parseInt( fields[0] ) );
+        duplication.setTokens( Integer.parseInt( fields[1] ) );
+        duplication.setCodefragment( fields[2] );
+        for ( int i = 3; i + 1 < fields.length; i += 2 )
+        {
+            CpdFile file = new CpdFile();
+            file.setPath( fields[i] );
+            file.setLine( Integer.parseInt( fields[i + 1] ) );
+            duplication.addFile( file );
+        }
+        return duplication;
+    }
+
     @Override
     protected int getPriority( Duplication errorDetail )
     {
@@ -0,0 +1,217 @@
+package org.apache.maven.plugin.pmd;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.sourceforge.pmd.cpd.CPD;
+import net.sourceforge.pmd.cpd.Language;
+import net.sourceforge.pmd.cpd.Match;
+import net.sourceforge.pmd.cpd.MatchAlgorithm;
+import net.sourceforge.pmd.cpd.SourceCode;
+import net.sourceforge.pmd.cpd.TokenEntry;
+import net.sourceforge.pmd.cpd.Tokens;
+
+/**
+ * A CPD reusing the token streams of the files which didn't change since the previous run, see
+ * {@link CpdTokenCache}. The tokens are added in the same order as CPD does, so the duplications found are the same.
+ *
+ * @version $Id$
+ * @since 2.7.2
+ */
+public class IncrementalCpd
+    extends CPD
+{
+    private final int minimumTileSize;
+
+    private final Language language;
+
+    private final String encoding;
+
+    private final CpdTokenCache tokenCache;
+
+    private final Map<String, SourceCode> source;
+
+    private final Tokens tokens;
+
+    /** The files tokenized during this run, with the index of their first token. */
+    private final Map<File, Integer> tokenizedFiles;
+
+    private MatchAlgorithm matchAlgorithm;
+
+    /**
+     * Creates a new CPD.
+     *
+     * @param minimumTileSize the minimum number of tokens of a duplication
+     * @param language the language of the files, not null
+     * @param encoding the encoding of the files, not null
+     * @param tokenCache the cache of the token streams, loaded, not null
+     */
+    public IncrementalCpd( int minimumTileSize, Language language, String encoding, CpdTokenCache tokenCache )
+    {
+        super( minimumTileSize, language );
+        this.minimumTileSize = minimumTileSize;
+        this.language = language;
+        this.encoding = encoding;
+        this.tokenCache = tokenCache;
+        this.source = new TreeMap<String, SourceCode>();
+        this.tokens = new Tokens();
+        this.tokenizedFiles = new HashMap<File, Integer>();
+    }
+
+    /** {@inheritDoc} */
+    public void add( File file )
+        throws IOException
+    {
+        if ( !file.getCanonicalPath().equals( new File( file.getAbsolutePath() ).getCanonicalPath() ) )
+        {
+            // like CPD, skip the symbolic links
+            return;
+        }
+
+        SourceCode sourceCode = new SourceCode( new SourceCode.FileCodeLoader( file, encoding ) );
+        CpdTokenCache.FileTokens cached = tokenCache.getResult( file );
+        if ( cached != null )
+        {
+            for ( int i = 0; i < cached.size(); i++ )
+            {
+                tokens.add( new TokenEntry( cached.getImage( i ), sourceCode.getFileName(), cached.getLine( i ) ) );
+            }
+            tokens.add( TokenEntry.getEOF() );
+        }
+        else
+        {
+            tokenizedFiles.put( file, new Integer( tokens.size() ) );
+            language.getTokenizer().tokenize( sourceCode, tokens );
+        }
+        source.put( sourceCode.getFileName(), sourceCode );
+    }
+
+    /** {@inheritDoc} */
+    public void add( List<File> files )
+        throws IOException
+    {
+        for ( File file : files )
+        {
+            add( file );
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void go()
+    {
+        recordTokens();
+
+        TokenEntry.clearImages();
+        matchAlgorithm = new MatchAlgorithm( source, tokens, minimumTileSize );
+        matchAlgorithm.findMatches();
+    }
+
+    /** {@inheritDoc} */
+    public Iterator<Match> getMatches()
+    {
+        return matchAlgorithm.matches();
+    }
+
+    /**
+     * Records the tokens of the files tokenized during this run in the cache.
+     */
+    private void recordTokens()
+    {
+        Map<Integer, String> images = getImages();
+        if ( images == null )
+        {
+            return;
+        }
+
+        List<TokenEntry> entries = tokens.getTokens();
+        for ( Map.Entry<File, Integer> tokenizedFile : tokenizedFiles.entrySet() )
+        {
+            List<String> fileImages = new ArrayList<String>();
+            List<Integer> fileLines = new ArrayList<Integer>();
+            for ( int i = tokenizedFile.getValue().intValue(); i < entries.size(); i++ )
+            {
+                TokenEntry entry = entries.get( i );
+                if ( entry == TokenEntry.getEOF() )
+                {
+                    break;
+                }
+                fileImages.add( images.get( new Integer( entry.getIdentifier() ) ) );
+                fileLines.add( new Integer( entry.getBeginLine() ) );
+            }
+
+            int[] lines = new int[fileLines.size()];
+            for ( int i = 0; i < lines.length; i++ )
+            {
+                lines[i] = fileLines.get( i ).intValue();
+            }
+            tokenCache.putResult( tokenizedFile.getKey(),
+                                  new CpdTokenCache.FileTokens( fileImages.toArray( new String[lines.length] ),
+                                                                lines ) );
+        }
+    }
+
+    /**
+     * Gets the images of the tokens created so far. CPD only keeps the identifiers of the images in the tokens.
+     *
+     * @return the images of the tokens, keyed by identifier, or <code>null</code> if they are not available with this
+     *         version of PMD.
+     */
+    private static Map<Integer, String> getImages()
+    {
+        try
+        {
+            Field field = TokenEntry.class.getDeclaredField( "Tokens" );
+            field.setAccessible( true );
+            Map<?, ?> identifiers = (Map<?, ?>) field.get( null );
+
+            Map<Integer, String> images = new HashMap<Integer, String>();
+            for ( Map.Entry<?, ?> identifier : identifiers.entrySet() )
+            {
+                images.put( (Integer) identifier.getValue(), (String) identifier.getKey() );
+            }
+            return images;
+        }
+        catch ( NoSuchFieldException e )
+        {
+            return null;
+        }
+        catch ( IllegalAccessException e )
+        {
+            return null;
+        }
+        catch ( SecurityException e )
+        {
+            return null;
+        }
+        catch ( ClassCastException e )
+        {
+            return null;
+        }
+    }
+}
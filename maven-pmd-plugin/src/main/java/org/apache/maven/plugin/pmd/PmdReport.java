@@ -29,9 +29,20 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import net.sourceforge.pmd.IRuleViolation;
 import net.sourceforge.pmd.PMD;
@@ -39,8 +50,8 @@ import net.sourceforge.pmd.PMDException;
 import net.sourceforge.pmd.Report;
 import net.sourceforge.pmd.Rule;
 import net.sourceforge.pmd.RuleContext;
-import net.sourceforge.pmd.RuleSet;
 import net.sourceforge.pmd.RuleSetFactory;
+import net.sourceforge.pmd.RuleSets;
 import net.sourceforge.pmd.SourceType;
 import net.sourceforge.pmd.renderers.CSVRenderer;
 import net.sourceforge.pmd.renderers.HTMLRenderer;
@@ -110,6 +121,33 @@ public class PmdReport
     private String[] rulesets =
         new String[]{ "rulesets/basic.xml", "rulesets/unusedcode.xml", "rulesets/imports.xml", };
 
+    /**
+     * The number of threads processing the files in parallel. Each thread uses its own rulesets, and the violations
+     * are reported in the order of the files, so the report is the same as with a single thread. Custom rules must
+     * not share state between their instances to be processed in parallel.
+     *
+     * @parameter expression="${pmd.parallelThreads}" default-value="1"
+     * @since 2.7.2
+     */
+    private int parallelThreads = 1;
+
+    /**
+     * Reuse the violations of the files which didn't change since the previous run with the same rulesets and
+     * options, instead of processing these files again.
+     *
+     * @parameter expression="${pmd.useResultCache}" default-value="true"
+     * @since 2.7.2
+     */
+    private boolean useResultCache;
+
+    /**
+     * The file recording the violations of the processed files between runs.
+     *
+     * @parameter default-value="${project.build.directory}/pmd-result-cache"
+     * @since 2.7.2
+     */
+    private File resultCacheFile;
+
     /**
      * @component
      * @required
@@ -200,9 +238,130 @@ public class PmdReport
         ruleContext.setReport( report );
         reportSink.beginDocument();
 
-        RuleSetFactory ruleSetFactory = new RuleSetFactory();
-        ruleSetFactory.setMinimumPriority( this.minimumPriority );
-        RuleSet[] sets = new RuleSet[rulesets.length];
+        List<File> ruleSetFiles = getRuleSetFiles();
+        // all the rulesets are applied to a single parse of each file, the rules keep the name of their ruleset
+        RuleSets sets = createRuleSets( ruleSetFiles );
+        sets.start( ruleContext );
+
+        Map<File, PmdFileInfo> files;
+        try
+        {
+            files = getFilesToProcess();
+        }
+        catch ( IOException e )
+        {
+            throw new MavenReportException( "Can't get file list", e );
+        }
+
+        if ( StringUtils.isEmpty( getSourceEncoding() ) && !files.isEmpty() )
+        {
+            getLog().warn( "File encoding has not been set, using platform encoding " + ReaderFactory.FILE_ENCODING
+                               + ", i.e. build is platform dependent!" );
+        }
+
+        PmdResultCache resultCache = getResultCache( ruleSetFiles, sets );
+        Map<File, FileResult> results = new HashMap<File, FileResult>();
+        List<File> filesToProcess = new ArrayList<File>();
+        for ( File file : files.keySet() )
+        {
+            List<IRuleViolation> violations = ( resultCache != null ) ? resultCache.getResult( file ) : null;
+            if ( violations != null )
+            {
+                results.put( file, new FileResult( violations, null ) );
+            }
+            else
+            {
+                filesToProcess.add( file );
+            }
+        }
+        if ( getLog().isDebugEnabled() && resultCache != null )
+        {
+            getLog().debug( "Reusing the PMD violations of " + results.size() + " unchanged files" );
+        }
+        results.putAll( processFiles( pmd, sets, ruleSetFiles, filesToProcess ) );
+        Set<File> processedFiles = new HashSet<File>( filesToProcess );
+
+        // the violations are reported in the order of the files, whatever thread found them
+        for ( Map.Entry<File, PmdFileInfo> entry : files.entrySet() )
+        {
+            File file = entry.getKey();
+            PmdFileInfo fileInfo = entry.getValue();
+            FileResult result = results.get( file );
+
+            // TODO: lazily call beginFile in case there are no rules
+
+            reportSink.beginFile( file, fileInfo );
+            for ( IRuleViolation violation : result.violations )
+            {
+                report.addRuleViolation( violation );
+            }
+            if ( result.failure == null )
+            {
+                if ( resultCache != null && processedFiles.contains( file ) )
+                {
+                    resultCache.putResult( file, result.violations );
+                }
+            }
+            else if ( result.failure instanceof UnsupportedEncodingException )
+            {
+                throw new MavenReportException( "Encoding '" + getSourceEncoding() + "' is not supported.",
+                                                result.failure );
+            }
+            else if ( result.failure instanceof PMDException )
+            {
+                String msg = result.failure.getLocalizedMessage();
+                Throwable r = result.failure.getCause();
+                if ( r != null )
+                {
+                    msg = msg + ": " + r.getLocalizedMessage();
+                }
+                getLog().warn( msg );
+                reportSink.ruleViolationAdded( new ProcessingErrorRuleViolation( file, msg ) );
+            }
+            else if ( result.failure instanceof FileNotFoundException )
+            {
+                getLog().warn( "Error opening source file: " + file );
+                reportSink.ruleViolationAdded(
+                    new ProcessingErrorRuleViolation( file, result.failure.getLocalizedMessage() ) );
+            }
+            else
+            {
+                getLog().warn( "Failure executing PMD for: " + file, result.failure );
+                reportSink.ruleViolationAdded(
+                    new ProcessingErrorRuleViolation( file, result.failure.getLocalizedMessage() ) );
+            }
+            reportSink.endFile( file );
+        }
+
+        sets.end( ruleContext );
+
+        if ( resultCache != null )
+        {
+            try
+            {
+                resultCache.save();
+            }
+            catch ( IOException e )
+            {
+                getLog().warn( "Unable to write the PMD result cache " + resultCacheFile + ": " + e.getMessage() );
+            }
+        }
+
+        reportSink.endDocument();
+
+        return report;
+    }
+
+    /**
+     * Resolves the configured rulesets to local files.
+     *
+     * @return the ruleset files, in the configured order
+     * @throws MavenReportException if a ruleset could not be resolved.
+     */
+    private List<File> getRuleSetFiles()
+        throws MavenReportException
+    {
+        List<File> ruleSetFiles = new ArrayList<File>( rulesets.length );
         try
         {
             for ( int idx = 0; idx < rulesets.length; idx++ )
@@ -215,14 +374,41 @@ public class PmdReport
                 {
                     throw new MavenReportException( "Could not resolve " + set );
                 }
+                ruleSetFiles.add( ruleset );
+            }
+        }
+        catch ( ResourceNotFoundException e )
+        {
+            throw new MavenReportException( e.getMessage(), e );
+        }
+        catch ( FileResourceCreationException e )
+        {
+            throw new MavenReportException( e.getMessage(), e );
+        }
+        return ruleSetFiles;
+    }
 
+    /**
+     * Loads the rulesets. The rules hold state while processing a file, so each thread needs its own rulesets.
+     *
+     * @param ruleSetFiles the ruleset files, not null
+     * @return the rulesets, never null
+     * @throws MavenReportException if a ruleset could not be read.
+     */
+    private RuleSets createRuleSets( List<File> ruleSetFiles )
+        throws MavenReportException
+    {
+        RuleSetFactory ruleSetFactory = new RuleSetFactory();
+        ruleSetFactory.setMinimumPriority( this.minimumPriority );
+        RuleSets sets = new RuleSets();
+        try
+        {
+            for ( File ruleset : ruleSetFiles )
+            {
                 InputStream rulesInput = new FileInputStream( ruleset );
                 try
                 {
-                    RuleSet ruleSet = ruleSetFactory.createRuleSet( rulesInput );
-                    sets[idx] = ruleSet;
-
-                    ruleSet.start( ruleContext );
+                    sets.addRuleSet( ruleSetFactory.createRuleSet( rulesInput ) );
                 }
                 finally
                 {
@@ -234,102 +420,117 @@ public class PmdReport
         {
             throw new MavenReportException( e.getMessage(), e );
         }
-        catch ( ResourceNotFoundException e )
-        {
-            throw new MavenReportException( e.getMessage(), e );
-        }
-        catch ( FileResourceCreationException e )
+        return sets;
+    }
+
+    private PmdResultCache getResultCache( List<File> ruleSetFiles, RuleSets sets )
+    {
+        if ( !useResultCache || resultCacheFile == null )
         {
-            throw new MavenReportException( e.getMessage(), e );
+            return null;
         }
 
-        Map<File, PmdFileInfo> files;
+        String fingerprint;
         try
         {
-            files = getFilesToProcess();
+            fingerprint = PmdResultCache.getFingerprint( ruleSetFiles, targetJdk, minimumPriority,
+                                                         getSourceEncoding() );
         }
         catch ( IOException e )
         {
-            throw new MavenReportException( "Can't get file list", e );
+            getLog().warn( "Unable to use the PMD result cache: " + e.getMessage() );
+            return null;
         }
 
-        if ( StringUtils.isEmpty( getSourceEncoding() ) && !files.isEmpty() )
+        PmdResultCache resultCache = new PmdResultCache( resultCacheFile, fingerprint, sets );
+        resultCache.load();
+        return resultCache;
+    }
+
+    /**
+     * Processes the files, in parallel when several threads are configured.
+     *
+     * @param pmd the PMD used by the current thread, not null
+     * @param sets the rulesets used by the current thread, not null
+     * @param ruleSetFiles the ruleset files, to load the rulesets of the other threads, not null
+     * @param files the files to process, not null
+     * @return the results of the files, keyed by file, never null
+     * @throws MavenReportException if the files could not be processed.
+     */
+    private Map<File, FileResult> processFiles( PMD pmd, RuleSets sets, List<File> ruleSetFiles, List<File> files )
+        throws MavenReportException
+    {
+        int threads = Math.min( parallelThreads, files.size() );
+        if ( threads <= 1 )
         {
-            getLog().warn( "File encoding has not been set, using platform encoding " + ReaderFactory.FILE_ENCODING
-                               + ", i.e. build is platform dependent!" );
+            return new FileProcessor( pmd, sets, files, getSourceEncoding(), false ).call();
         }
 
-        for ( Map.Entry<File, PmdFileInfo> entry : files.entrySet() )
+        if ( getLog().isDebugEnabled() )
         {
-            File file = entry.getKey();
-            PmdFileInfo fileInfo = entry.getValue();
-
-            // TODO: lazily call beginFile in case there are no rules
+            getLog().debug( "Processing " + files.size() + " files with " + threads + " threads" );
+        }
 
-            reportSink.beginFile( file, fileInfo );
-            ruleContext.setSourceCodeFilename( file.getAbsolutePath() );
-            for ( int idx = 0; idx < rulesets.length; idx++ )
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<Map<File, FileResult>>> futures = new ArrayList<Future<Map<File, FileResult>>>( threads );
+            for ( int i = 0; i < threads; i++ )
             {
-                try
-                {
-                    // PMD closes this Reader even though it did not open it so we have
-                    // to open a new one with every call to processFile().
-                    Reader reader;
-                    if ( StringUtils.isNotEmpty( getSourceEncoding() ) )
-                    {
-                        reader = ReaderFactory.newReader( file, getSourceEncoding() );
-                    }
-                    else
-                    {
-                        reader = ReaderFactory.newPlatformReader( file );
-                    }
-
-                    try
-                    {
-                        pmd.processFile( reader, sets[idx], ruleContext );
-                    }
-                    finally
-                    {
-                        reader.close();
-                    }
-                }
-                catch ( UnsupportedEncodingException e1 )
+                List<File> partition = new ArrayList<File>();
+                for ( int j = i; j < files.size(); j += threads )
                 {
-                    throw new MavenReportException( "Encoding '" + getSourceEncoding() + "' is not supported.", e1 );
+                    partition.add( files.get( j ) );
                 }
-                catch ( PMDException pe )
+                FileProcessor processor;
+                if ( i == 0 )
                 {
-                    String msg = pe.getLocalizedMessage();
-                    Throwable r = pe.getCause();
-                    if ( r != null )
-                    {
-                        msg = msg + ": " + r.getLocalizedMessage();
-                    }
-                    getLog().warn( msg );
-                    reportSink.ruleViolationAdded( new ProcessingErrorRuleViolation( file, msg ) );
+                    processor = new FileProcessor( pmd, sets, partition, getSourceEncoding(), false );
                 }
-                catch ( FileNotFoundException e2 )
+                else
                 {
-                    getLog().warn( "Error opening source file: " + file );
-                    reportSink.ruleViolationAdded( new ProcessingErrorRuleViolation( file, e2.getLocalizedMessage() ) );
-                }
-                catch ( Exception e3 )
-                {
-                    getLog().warn( "Failure executing PMD for: " + file, e3 );
-                    reportSink.ruleViolationAdded( new ProcessingErrorRuleViolation( file, e3.getLocalizedMessage() ) );
+                    processor = new FileProcessor( getPMD(), createRuleSets( ruleSetFiles ), partition,
+                                                   getSourceEncoding(), true );
                 }
+                futures.add( executor.submit( processor ) );
             }
-            reportSink.endFile( file );
-        }
 
-        for ( int idx = 0; idx < rulesets.length; idx++ )
+            Map<File, FileResult> results = new HashMap<File, FileResult>();
+            for ( Future<Map<File, FileResult>> future : futures )
+            {
+                results.putAll( getResult( future ) );
+            }
+            return results;
+        }
+        finally
         {
-            sets[idx].end( ruleContext );
+            executor.shutdownNow();
         }
+    }
 
-        reportSink.endDocument();
-
-        return report;
+    private static Map<File, FileResult> getResult( Future<Map<File, FileResult>> future )
+        throws MavenReportException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( InterruptedException e )
+        {
+            throw new MavenReportException( "Interrupted while processing the files", e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            if ( e.getCause() instanceof Error )
+            {
+                throw (Error) e.getCause();
+            }
+            throw new MavenReportException( "Failed to process the files", (Exception) e.getCause() );
+        }
     }
 
     /**
@@ -363,6 +564,11 @@ public class PmdReport
             r.end();
             writer.close();
 
+            if ( "xml".equals( format ) )
+            {
+                writeSummary( report, targetFile );
+            }
+
             File siteDir = getReportOutputDirectory();
             siteDir.mkdirs();
             FileUtils.copyFile( targetFile, new File( siteDir, "pmd." + format ) );
@@ -377,6 +583,29 @@ public class PmdReport
         }
     }
 
+    /**
+     * Writes the violation summary read by the check goal, in the order of the XML report.
+     *
+     * @param report the report, not null
+     * @param targetFile the XML report, not null
+     * @throws IOException if the summary could not be written.
+     */
+    private void writeSummary( Report report, File targetFile )
+        throws IOException
+    {
+        ViolationSummaryWriter summary = new ViolationSummaryWriter();
+        for ( Iterator<IRuleViolation> it = report.iterator(); it.hasNext(); )
+        {
+            IRuleViolation violation = it.next();
+            summary.add( new String[] { violation.getFilename(), String.valueOf( violation.getBeginLine() ),
+                String.valueOf( violation.getRule().getPriority() ), violation.getRule().getName(),
+                StringUtils.isEmpty( violation.getPackageName() ) ? null : violation.getPackageName(),
+                StringUtils.isEmpty( violation.getClassName() ) ? null : violation.getClassName(),
+                StringUtils.trim( violation.getDescription() ) } );
+        }
+        summary.write( targetFile );
+    }
+
     /**
      * Convenience method to get the location of the specified file name.
      *
@@ -487,6 +716,113 @@ public class PmdReport
         return renderer;
     }
 
+    /**
+     * The violations found in a file, and the failure which stopped its processing, if any.
+     */
+    private static class FileResult
+    {
+        private final List<IRuleViolation> violations;
+
+        private final Exception failure;
+
+        public FileResult( List<IRuleViolation> violations, Exception failure )
+        {
+            this.violations = violations;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Processes files with its own PMD and rule context, recording the violations of each file separately.
+     */
+    private static class FileProcessor
+        implements Callable<Map<File, FileResult>>
+    {
+        private final PMD pmd;
+
+        private final RuleSets sets;
+
+        private final List<File> files;
+
+        private final String sourceEncoding;
+
+        private final boolean ownRuleSets;
+
+        public FileProcessor( PMD pmd, RuleSets sets, List<File> files, String sourceEncoding, boolean ownRuleSets )
+        {
+            this.pmd = pmd;
+            this.sets = sets;
+            this.files = files;
+            this.sourceEncoding = sourceEncoding;
+            this.ownRuleSets = ownRuleSets;
+        }
+
+        /** {@inheritDoc} */
+        public Map<File, FileResult> call()
+        {
+            RuleContext ruleContext = new RuleContext();
+            ruleContext.setReport( new Report() );
+            if ( ownRuleSets )
+            {
+                sets.start( ruleContext );
+            }
+
+            Map<File, FileResult> results = new HashMap<File, FileResult>();
+            for ( File file : files )
+            {
+                results.put( file, processFile( file, ruleContext ) );
+            }
+
+            if ( ownRuleSets )
+            {
+                sets.end( ruleContext );
+            }
+            return results;
+        }
+
+        private FileResult processFile( File file, RuleContext ruleContext )
+        {
+            Report report = new Report();
+            ruleContext.setReport( report );
+            ruleContext.setSourceCodeFilename( file.getAbsolutePath() );
+
+            Exception failure = null;
+            try
+            {
+                // PMD closes this Reader even though it did not open it
+                Reader reader;
+                if ( StringUtils.isNotEmpty( sourceEncoding ) )
+                {
+                    reader = ReaderFactory.newReader( file, sourceEncoding );
+                }
+                else
+                {
+                    reader = ReaderFactory.newPlatformReader( file );
+                }
+
+                try
+                {
+                    pmd.processFile( reader, sets, ruleContext );
+                }
+                finally
+                {
+                    reader.close();
+                }
+            }
+            catch ( Exception e )
+            {
+                failure = e;
+            }
+
+            List<IRuleViolation> violations = new ArrayList<IRuleViolation>( report.size() );
+            for ( Iterator<IRuleViolation> it = report.iterator(); it.hasNext(); )
+            {
+                violations.add( it.next() );
+            }
+            return new FileResult( violations, failure );
+        }
+    }
+
     private static class PmdXMLRenderer
         extends XMLRenderer
     {
@@ -0,0 +1,258 @@
+package org.apache.maven.plugin.pmd;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sourceforge.pmd.IRuleViolation;
+import net.sourceforge.pmd.Rule;
+import net.sourceforge.pmd.RuleSets;
+
+/**
+ * The persistent cache of the PMD violations of the analysed files. The violations are only valid for the fingerprint
+ * of the rulesets they were found with, see {@link #getFingerprint(List, String, int, String)}.
+ *
+ * @version $Id$
+ * @since 2.7.2
+ */
+public class PmdResultCache
+    extends AbstractFileCache<List<IRuleViolation>>
+{
+    private static final String HEADER = "maven-pmd-plugin result cache 1";
+
+    private final Map<String, Rule> rules;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param cacheFile the file storing the cache between runs, not null
+     * @param fingerprint the fingerprint of the rulesets, not null
+     * @param ruleSets the rulesets the replayed violations are attributed to, not null
+     */
+    public PmdResultCache( File cacheFile, String fingerprint, RuleSets ruleSets )
+    {
+        super( cacheFile, fingerprint );
+        this.rules = new HashMap<String, Rule>();
+        for ( Rule rule : ruleSets.getAllRules() )
+        {
+            rules.put( getRuleKey( rule.getRuleSetName(), rule.getName() ), rule );
+        }
+    }
+
+    private static String getRuleKey( String ruleSetName, String ruleName )
+    {
+        return ruleSetName + '\n' + ruleName;
+    }
+
+    /** {@inheritDoc} */
+    protected String getHeader()
+    {
+        return HEADER;
+    }
+
+    /** {@inheritDoc} */
+    protected List<IRuleViolation> readResult( DataInputStream in )
+        throws IOException
+    {
+        boolean valid = true;
+        int count = in.readInt();
+        List<IRuleViolation> violations = new ArrayList<IRuleViolation>( count );
+        for ( int i = 0; i < count; i++ )
+        {
+            CachedRuleViolation violation = new CachedRuleViolation();
+            String ruleSetName = readString( in );
+            String ruleName = readString( in );
+            violation.rule = rules.get( getRuleKey( ruleSetName, ruleName ) );
+            violation.filename = readString( in );
+            violation.beginLine = in.readInt();
+            violation.beginColumn = in.readInt();
+            violation.endLine = in.readInt();
+            violation.endColumn = in.readInt();
+            violation.description = readString( in );
+            violation.packageName = readString( in );
+            violation.className = readString( in );
+            violation.methodName = readString( in );
+            violation.variableName = readString( in );
+            violations.add( violation );
+
+            // read the whole result anyway to get to the next file
+            valid &= violation.rule != null;
+        }
+        return valid ? violations : null;
+    }
+
+    /** {@inheritDoc} */
+    protected void writeResult( DataOutputStream out, List<IRuleViolation> violations )
+        throws IOException
+    {
+        out.writeInt( violations.size() );
+        for ( IRuleViolation violation : violations )
+        {
+            writeString( out, violation.getRule().getRuleSetName() );
+            writeString( out, violation.getRule().getName() );
+            writeString( out, violation.getFilename() );
+            out.writeInt( violation.getBeginLine() );
+            out.writeInt( violation.getBeginColumn() );
+            out.writeInt( violation.getEndLine() );
+            out.writeInt( violation.getEndColumn() );
+            writeString( out, violation.getDescription() );
+            writeString( out, violation.getPackageName() );
+            writeString( out, violation.getClassName() );
+            writeString( out, violation.getMethodName() );
+            writeString( out, violation.getVariableName() );
+        }
+    }
+
+    /**
+     * Gets the fingerprint of a PMD configuration: the PMD version, the content of the rulesets and the options
+     * changing the violations found.
+     *
+     * @param ruleSetFiles the resolved ruleset files, not null
+     * @param targetJdk the target JDK, may be null
+     * @param minimumPriority the rule priority threshold
+     * @param sourceEncoding the encoding of the sources, may be null
+     * @return the fingerprint, never null
+     * @throws IOException if a ruleset could not be read.
+     */
+    public static String getFingerprint( List<File> ruleSetFiles, String targetJdk, int minimumPriority,
+                                         String sourceEncoding )
+        throws IOException
+    {
+        StringBuffer sb = new StringBuffer();
+        sb.append( "pmd=" ).append( AbstractPmdReport.getPmdVersion() ).append( '\n' );
+        sb.append( "targetJdk=" ).append( targetJdk ).append( '\n' );
+        sb.append( "minimumPriority=" ).append( minimumPriority ).append( '\n' );
+        sb.append( "encoding=" ).append( sourceEncoding ).append( '\n' );
+        for ( File ruleSetFile : ruleSetFiles )
+        {
+            sb.append( "ruleset=" ).append( getContentHash( ruleSetFile ) ).append( '\n' );
+        }
+        return getHash( sb.toString() );
+    }
+
+    /**
+     * A violation replayed from the cache.
+     */
+    private static class CachedRuleViolation
+        implements IRuleViolation
+    {
+        private Rule rule;
+
+        private String filename;
+
+        private int beginLine;
+
+        private int beginColumn;
+
+        private int endLine;
+
+        private int endColumn;
+
+        private String description;
+
+        private String packageName;
+
+        private String className;
+
+        private String methodName;
+
+        private String variableName;
+
+        /** {@inheritDoc} */
+        public String getFilename()
+        {
+            return filename;
+        }
+
+        /** {@inheritDoc} */
+        public int getBeginLine()
+        {
+            return beginLine;
+        }
+
+        /** {@inheritDoc} */
+        public int getBeginColumn()
+        {
+            return beginColumn;
+        }
+
+        /** {@inheritDoc} */
+        public int getEndLine()
+        {
+            return endLine;
+        }
+
+        /** {@inheritDoc} */
+        public int getEndColumn()
+        {
+            return endColumn;
+        }
+
+        /** {@inheritDoc} */
+        public Rule getRule()
+        {
+            return rule;
+        }
+
+        /** {@inheritDoc} */
+        public String getDescription()
+        {
+            return description;
+        }
+
+        /** {@inheritDoc} */
+        public String getPackageName()
+        {
+            return packageName;
+        }
+
+        /** {@inheritDoc} */
+        public String getMethodName()
+        {
+            return methodName;
+        }
+
+        /** {@inheritDoc} */
+        public String getClassName()
+        {
+            return className;
+        }
+
+        /** {@inheritDoc} */
+        public boolean isSuppressed()
+        {
+            // suppressed violations are not recorded
+            return false;
+        }
+
+        /** {@inheritDoc} */
+        public String getVariableName()
+        {
+            return variableName;
+        }
+    }
+}
@@ -125,6 +125,20 @@ public class PmdViolationCheckMojo
         return violations;
     }
     
+    @Override
+    protected Violation getErrorDetail( String[] fields )
+    {
+        Violation violation = new Violation();
+        violation.setBeginline( Integer.parseInt( fields[1] ) );
+        violation.setPriority( Integer.parseInt( fields[2] ) );
+        violation.setRule( fields[3] );
+        violation.setViolationPackage( fields[4] );
+        violation.setViolationClass( fields[5] );
+        violation.setText( fields[6] );
+        violation.setFileName( getFilename( fields[0], violation.getViolationPackage() ) );
+        return violation;
+    }
+
     @Override
     protected int getPriority( Violation errorDetail )
     {
@@ -134,6 +134,41 @@ public class CpdReportTest
 
     }
 
+    /**
+     * Test the reuse of the tokens of the unchanged files.
+     *
+     * @throws Exception
+     */
+    public void testTokenCache()
+        throws Exception
+    {
+        File cacheFile = new File( getBasedir(), "target/test/unit/default-configuration/target/cpd-token-cache" );
+        File generatedFile = new File( getBasedir(), "target/test/unit/default-configuration/target/cpd.xml" );
+
+        runCpd( null );
+        String expected = readFile( generatedFile );
+        assertTrue( expected.indexOf( "<duplication" ) != -1 );
+
+        runCpd( cacheFile );
+        assertTrue( cacheFile.isFile() );
+        assertEquals( expected, readFile( generatedFile ) );
+
+        runCpd( cacheFile );
+        assertEquals( expected, readFile( generatedFile ) );
+    }
+
+    private void runCpd( File tokenCacheFile )
+        throws Exception
+    {
+        File testPom =
+            new File( getBasedir(),
+                      "src/test/resources/unit/default-configuration/cpd-default-configuration-plugin-config.xml" );
+        CpdReport mojo = (CpdReport) lookupMojo( "cpd", testPom );
+        setVariableValueToObject( mojo, "useTokenCache", Boolean.valueOf( tokenCacheFile != null ) );
+        setVariableValueToObject( mojo, "tokenCacheFile", tokenCacheFile );
+        mojo.execute();
+    }
+
     /**
      * Test CPDReport with invalid format
      *
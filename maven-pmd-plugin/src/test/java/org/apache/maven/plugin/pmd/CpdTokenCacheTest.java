@@ -0,0 +1,81 @@
+package org.apache.maven.plugin.pmd;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+/**
+ * @version $Id$
+ */
+public class CpdTokenCacheTest
+    extends TestCase
+{
+    private File baseDir;
+
+    /** {@inheritDoc} */
+    protected void setUp()
+        throws Exception
+    {
+        super.setUp();
+
+        baseDir = new File( "target/test/unit/token-cache" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( baseDir );
+        baseDir.mkdirs();
+    }
+
+    public void testReplay()
+        throws Exception
+    {
+        File source = new File( baseDir, "Foo.java" );
+        FileUtils.fileWrite( source.getAbsolutePath(), "class Foo {}" );
+        File cacheFile = new File( baseDir, "cpd-token-cache" );
+        String fingerprint = CpdTokenCache.getFingerprint( false, false, "UTF-8" );
+
+        CpdTokenCache cache = new CpdTokenCache( cacheFile, fingerprint );
+        cache.load();
+        assertNull( cache.getResult( source ) );
+        cache.putResult( source, new CpdTokenCache.FileTokens( new String[] { "class", "Foo", "{", "}" }, new int[] {
+            1, 1, 1, 1 } ) );
+        cache.save();
+
+        cache = new CpdTokenCache( cacheFile, fingerprint );
+        cache.load();
+        CpdTokenCache.FileTokens tokens = cache.getResult( source );
+        assertNotNull( tokens );
+        assertEquals( 4, tokens.size() );
+        assertEquals( "Foo", tokens.getImage( 1 ) );
+        assertEquals( 1, tokens.getLine( 3 ) );
+
+        // other tokenizer options
+        cache = new CpdTokenCache( cacheFile, CpdTokenCache.getFingerprint( true, false, "UTF-8" ) );
+        cache.load();
+        assertNull( cache.getResult( source ) );
+
+        // a changed file
+        cache = new CpdTokenCache( cacheFile, fingerprint );
+        cache.load();
+        FileUtils.fileWrite( source.getAbsolutePath(), "class Foo { }" );
+        assertNull( cache.getResult( source ) );
+    }
+}
@@ -20,8 +20,10 @@ package org.apache.maven.plugin.pmd;
  */
 
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
+import org.codehaus.plexus.util.FileUtils;
 
 import java.io.File;
+import java.util.Arrays;
 
 
 /**
@@ -73,6 +75,29 @@ public class CpdViolationCheckMojoTest
         assertTrue( true );
     }
 
+    public void testSummary()
+        throws Exception
+    {
+        File testPom = new File( getBasedir(),
+                                 "src/test/resources/unit/default-configuration/cpd-default-configuration-plugin-config.xml" );
+        CpdReport mojo = (CpdReport) lookupMojo( "cpd", testPom );
+        mojo.execute();
+
+        // the check must not need the XML report when its summary is up to date
+        File cpdXml = new File( getBasedir(), "target/test/unit/default-configuration/target/cpd.xml" );
+        assertTrue( ViolationSummaryWriter.getSummaryFile( cpdXml ).exists() );
+        long lastModified = cpdXml.lastModified();
+        char[] garbage = new char[(int) cpdXml.length()];
+        Arrays.fill( garbage, 'x' );
+        FileUtils.fileWrite( cpdXml.getAbsolutePath(), new String( garbage ) );
+        cpdXml.setLastModified( lastModified );
+
+        testPom = new File( getBasedir(),
+                            "src/test/resources/unit/default-configuration/pmd-check-notfailonviolation-plugin-config.xml" );
+        CpdViolationCheckMojo cpdViolationMojo = (CpdViolationCheckMojo) lookupMojo( "cpd-check", testPom );
+        cpdViolationMojo.execute();
+    }
+
     public void testException()
         throws Exception
     {
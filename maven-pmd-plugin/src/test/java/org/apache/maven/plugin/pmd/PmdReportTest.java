@@ -68,13 +68,18 @@ public class PmdReportTest
         generatedFile = new File( getBasedir(), "target/test/unit/default-configuration/target/unusedcode.xml" );
         assertTrue( FileUtils.fileExists( generatedFile.getAbsolutePath() ) );
 
+        //check if the violations are attributed to the ruleset of their rule
+        String str = readFile( new File( getBasedir(), "target/test/unit/default-configuration/target/pmd.xml" ) );
+        assertTrue( str.indexOf( "ruleset=\"Basic Rules\"" ) != -1 );
+        assertTrue( str.indexOf( "ruleset=\"Import Statement Rules\"" ) != -1 );
+        assertTrue( str.indexOf( "ruleset=\"Unused Code Rules\"" ) != -1 );
+
         generatedFile = new File( getBasedir(), "target/test/unit/default-configuration/target/site/pmd.html" );
         renderer( mojo, generatedFile );
         assertTrue( FileUtils.fileExists( generatedFile.getAbsolutePath() ) );
 
         //check if there's a link to the JXR files
-        String str =
-            readFile( new File( getBasedir(), "target/test/unit/default-configuration/target/site/pmd.html" ) );
+        str = readFile( new File( getBasedir(), "target/test/unit/default-configuration/target/site/pmd.html" ) );
 
 
         assertTrue( str.indexOf( "/xref/def/configuration/App.html#31" ) != -1 );
@@ -255,6 +260,59 @@ public class PmdReportTest
         return str.toString();
     }
 
+    /**
+     * Test the reuse of the violations of the unchanged files.
+     *
+     * @throws Exception
+     */
+    public void testResultCache()
+        throws Exception
+    {
+        File cacheFile = new File( getBasedir(), "target/test/unit/default-configuration/target/pmd-result-cache" );
+
+        runPmd( 1, cacheFile );
+        assertTrue( cacheFile.isFile() );
+        String expected = readPmdXml();
+
+        runPmd( 1, cacheFile );
+        assertEquals( expected, readPmdXml() );
+    }
+
+    /**
+     * Test processing the files with several threads.
+     *
+     * @throws Exception
+     */
+    public void testParallel()
+        throws Exception
+    {
+        runPmd( 1, null );
+        String expected = readPmdXml();
+
+        runPmd( 2, null );
+        assertEquals( expected, readPmdXml() );
+    }
+
+    private void runPmd( int parallelThreads, File resultCacheFile )
+        throws Exception
+    {
+        File testPom = new File( getBasedir(),
+                                 "src/test/resources/unit/default-configuration/default-configuration-plugin-config.xml" );
+        PmdReport mojo = (PmdReport) lookupMojo( "pmd", testPom );
+        setVariableValueToObject( mojo, "parallelThreads", new Integer( parallelThreads ) );
+        setVariableValueToObject( mojo, "useResultCache", Boolean.valueOf( resultCacheFile != null ) );
+        setVariableValueToObject( mojo, "resultCacheFile", resultCacheFile );
+        mojo.execute();
+    }
+
+    private String readPmdXml()
+        throws IOException
+    {
+        String str = readFile( new File( getBasedir(), "target/test/unit/default-configuration/target/pmd.xml" ) );
+        assertTrue( str.indexOf( "<violation" ) != -1 );
+        return str.replaceAll( "timestamp=\"[^\"]*\"", "" );
+    }
+
     /**
      * Verify the correct working of the localtionTemp method
      * 
@@ -21,8 +21,10 @@ package org.apache.maven.plugin.pmd;
 
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
+import org.codehaus.plexus.util.FileUtils;
 
 import java.io.File;
+import java.util.Arrays;
 
 /**
  * @author <a href="mailto:oching@apache.org">Maria Odea Ching</a>
@@ -95,6 +97,37 @@ public class PmdViolationCheckMojoTest
 
     }
 
+    public void testSummary()
+        throws Exception
+    {
+        File testPom = new File( getBasedir(),
+                                 "src/test/resources/unit/default-configuration/default-configuration-plugin-config.xml" );
+        PmdReport mojo = (PmdReport) lookupMojo( "pmd", testPom );
+        mojo.execute();
+
+        // the check must not need the XML report when its summary is up to date
+        File pmdXml = new File( getBasedir(), "target/test/unit/default-configuration/target/pmd.xml" );
+        assertTrue( ViolationSummaryWriter.getSummaryFile( pmdXml ).exists() );
+        long lastModified = pmdXml.lastModified();
+        char[] garbage = new char[(int) pmdXml.length()];
+        Arrays.fill( garbage, 'x' );
+        FileUtils.fileWrite( pmdXml.getAbsolutePath(), new String( garbage ) );
+        pmdXml.setLastModified( lastModified );
+
+        testPom = new File( getBasedir(),
+                            "src/test/resources/unit/default-configuration/pmd-check-failandwarnonpriority-plugin-config.xml" );
+        PmdViolationCheckMojo pmdViolationMojo = (PmdViolationCheckMojo) lookupMojo( "check", testPom );
+        try
+        {
+            pmdViolationMojo.execute();
+            fail( "MojoFailureException should be thrown." );
+        }
+        catch ( MojoFailureException e )
+        {
+            assertTrue( e.getMessage().startsWith( "You have " ) );
+        }
+    }
+
     public void testException()
         throws Exception
     {
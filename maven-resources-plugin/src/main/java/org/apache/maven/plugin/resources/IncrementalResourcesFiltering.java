@@ -0,0 +1,567 @@
+package org.apache.maven.plugin.resources;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Resource;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.filtering.MavenFileFilter;
+import org.apache.maven.shared.filtering.MavenFilteringException;
+import org.apache.maven.shared.filtering.MavenResourcesExecution;
+import org.apache.maven.shared.filtering.MavenResourcesFiltering;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Copies and filters the resources of a {@link MavenResourcesExecution} like
+ * {@link MavenResourcesFiltering#filterResources(MavenResourcesExecution)} does, but only for the files which changed
+ * since the previous build.
+ * <p>
+ * A state file records a hash of everything the filtered files depend on (the filter files, the project model, the
+ * execution and environment properties and the filtering settings) and, for each copied file, the size and
+ * modification time of its source and of its destination. A file is copied again if one of them changed, or if it is
+ * filtered and the hash changed. The remaining files are copied on a bounded pool of threads.
+ * </p>
+ *
+ * @author Maven Team
+ * @version $Id$
+ * @since 2.6
+ */
+public class IncrementalResourcesFiltering
+{
+    private static final String HEADER = "# maven-resources-plugin incremental state";
+
+    private final MavenResourcesFiltering mavenResourcesFiltering;
+
+    private final MavenFileFilter mavenFileFilter;
+
+    private final File stateFile;
+
+    private final int threads;
+
+    private final Log log;
+
+    /**
+     * @param mavenResourcesFiltering the component telling which files are filtered.
+     * @param mavenFileFilter the component copying and filtering a single file.
+     * @param stateFile the file storing the state between builds.
+     * @param threads the maximum number of files copied concurrently.
+     * @param log the log of the calling mojo.
+     */
+    public IncrementalResourcesFiltering( MavenResourcesFiltering mavenResourcesFiltering,
+                                          MavenFileFilter mavenFileFilter, File stateFile, int threads, Log log )
+    {
+        this.mavenResourcesFiltering = mavenResourcesFiltering;
+        this.mavenFileFilter = mavenFileFilter;
+        this.stateFile = stateFile;
+        this.threads = Math.max( 1, threads );
+        this.log = log;
+    }
+
+    public void filterResources( final MavenResourcesExecution execution )
+        throws MavenFilteringException
+    {
+        if ( execution.getResources() == null )
+        {
+            log.info( "No resources configured skip copying/filtering" );
+            return;
+        }
+        if ( execution.getOutputDirectory() == null )
+        {
+            throw new MavenFilteringException( "outputDirectory cannot be null" );
+        }
+
+        String filteringHash = getFilteringHash( execution );
+        Map previous = new HashMap();
+        String previousFilteringHash = load( previous );
+        boolean filteringChanged = !filteringHash.equals( previousFilteringHash );
+
+        // the last resource wins when several of them copy a file to the same destination
+        Map entries = new LinkedHashMap();
+        for ( Iterator it = execution.getResources().iterator(); it.hasNext(); )
+        {
+            scan( (Resource) it.next(), execution, entries );
+        }
+
+        List stale = new ArrayList();
+        for ( Iterator it = entries.values().iterator(); it.hasNext(); )
+        {
+            Entry entry = (Entry) it.next();
+            Entry old = (Entry) previous.get( entry.destination.getAbsolutePath() );
+            if ( execution.isOverwrite() || old == null || !entry.isSameSource( old )
+                || ( entry.filtered && filteringChanged ) || old.destinationLength != entry.destination.length()
+                || old.destinationLastModified != entry.destination.lastModified() )
+            {
+                stale.add( entry );
+            }
+        }
+
+        log.info( "Copying " + stale.size() + " resource" + ( stale.size() > 1 ? "s" : "" ) + " ("
+            + ( entries.size() - stale.size() ) + " up to date)" );
+
+        // save a state without the stale files first, so that an interrupted build copies them again
+        save( filteringHash, entries, stale );
+
+        copy( stale, execution );
+
+        save( filteringHash, entries, Collections.EMPTY_LIST );
+    }
+
+    private void scan( Resource resource, MavenResourcesExecution execution, Map entries )
+        throws MavenFilteringException
+    {
+        File resourceDirectory = new File( resource.getDirectory() );
+        if ( !resourceDirectory.isAbsolute() )
+        {
+            resourceDirectory = new File( execution.getResourcesBaseDirectory(), resourceDirectory.getPath() );
+        }
+        if ( !resourceDirectory.exists() )
+        {
+            log.info( "skip non existing resourceDirectory " + resourceDirectory.getPath() );
+            return;
+        }
+
+        DirectoryScanner scanner = new DirectoryScanner();
+        scanner.setBasedir( resourceDirectory );
+        if ( resource.getIncludes() != null && !resource.getIncludes().isEmpty() )
+        {
+            scanner.setIncludes( (String[]) resource.getIncludes().toArray( new String[0] ) );
+        }
+        else
+        {
+            scanner.setIncludes( new String[] { "**/**" } );
+        }
+        if ( resource.getExcludes() != null && !resource.getExcludes().isEmpty() )
+        {
+            scanner.setExcludes( (String[]) resource.getExcludes().toArray( new String[0] ) );
+        }
+        scanner.addDefaultExcludes();
+        scanner.scan();
+
+        if ( execution.isIncludeEmptyDirs() )
+        {
+            String[] directories = scanner.getIncludedDirectories();
+            for ( int i = 0; i < directories.length; i++ )
+            {
+                File directory = getDestinationFile( execution.getOutputDirectory(), resource.getTargetPath(),
+                                                     directories[i] );
+                if ( !directory.isDirectory() && !directory.mkdirs() )
+                {
+                    throw new MavenFilteringException( "Cannot create resource output directory: " + directory );
+                }
+            }
+        }
+
+        String[] files = scanner.getIncludedFiles();
+        for ( int i = 0; i < files.length; i++ )
+        {
+            Entry entry = new Entry();
+            entry.source = new File( resourceDirectory, files[i] );
+            entry.destination = getDestinationFile( execution.getOutputDirectory(), resource.getTargetPath(), files[i] );
+            entry.filtered = resource.isFiltering()
+                && mavenResourcesFiltering.filteredFileExtension( entry.source.getName(),
+                                                                  execution.getNonFilteredFileExtensions() );
+            entry.sourceLength = entry.source.length();
+            entry.sourceLastModified = entry.source.lastModified();
+
+            String key = entry.destination.getAbsolutePath();
+            entries.remove( key );
+            entries.put( key, entry );
+        }
+    }
+
+    private void copy( List stale, final MavenResourcesExecution execution )
+        throws MavenFilteringException
+    {
+        if ( stale.isEmpty() )
+        {
+            return;
+        }
+
+        final List filterWrappers = getFilterWrappers( stale, execution );
+
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( threads, stale.size() ) );
+        try
+        {
+            List futures = new ArrayList( stale.size() );
+            for ( Iterator it = stale.iterator(); it.hasNext(); )
+            {
+                final Entry entry = (Entry) it.next();
+                File parent = entry.destination.getParentFile();
+                if ( !parent.isDirectory() && !parent.mkdirs() )
+                {
+                    throw new MavenFilteringException( "Cannot create resource output directory: " + parent );
+                }
+                futures.add( executor.submit( new Callable()
+                {
+                    public Object call()
+                        throws MavenFilteringException
+                    {
+                        mavenFileFilter.copyFile( entry.source, entry.destination, entry.filtered, filterWrappers,
+                                                  execution.getEncoding(), true );
+                        return null;
+                    }
+                } ) );
+            }
+
+            for ( Iterator it = futures.iterator(); it.hasNext(); )
+            {
+                try
+                {
+                    ( (Future) it.next() ).get();
+                }
+                catch ( ExecutionException e )
+                {
+                    if ( e.getCause() instanceof MavenFilteringException )
+                    {
+                        throw (MavenFilteringException) e.getCause();
+                    }
+                    throw new MavenFilteringException( e.getCause().getMessage(), e.getCause() );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new MavenFilteringException( "Interrupted while copying resources", e );
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates the filter wrappers once for all the files, since loading the filter files is the costly part of it and
+     * each wrapper creates a new interpolator for each file.
+     */
+    private List getFilterWrappers( List stale, MavenResourcesExecution execution )
+        throws MavenFilteringException
+    {
+        boolean filtering = false;
+        for ( Iterator it = stale.iterator(); it.hasNext() && !filtering; )
+        {
+            filtering = ( (Entry) it.next() ).filtered;
+        }
+        if ( !filtering )
+        {
+            return Collections.EMPTY_LIST;
+        }
+
+        List filterWrappers = new ArrayList();
+        if ( execution.isUseDefaultFilterWrappers() )
+        {
+            filterWrappers.addAll( mavenFileFilter.getDefaultFilterWrappers( execution ) );
+        }
+        if ( execution.getFilterWrappers() != null )
+        {
+            filterWrappers.addAll( execution.getFilterWrappers() );
+        }
+        return filterWrappers;
+    }
+
+    private static File getDestinationFile( File outputDirectory, String targetPath, String name )
+    {
+        String destination = targetPath != null ? targetPath + "/" + name : name;
+        File destinationFile = new File( destination );
+        if ( !destinationFile.isAbsolute() )
+        {
+            destinationFile = new File( outputDirectory, destination );
+        }
+        return destinationFile;
+    }
+
+    /**
+     * Computes a hash of everything a filtered file depends on, beside its own content.
+     */
+    String getFilteringHash( MavenResourcesExecution execution )
+        throws MavenFilteringException
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "MD5" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new MavenFilteringException( e.getMessage(), e );
+        }
+
+        update( digest, "encoding=" + execution.getEncoding() );
+        update( digest, "escapeString=" + execution.getEscapeString() );
+        update( digest, "escapeWindowsPaths=" + execution.isEscapeWindowsPaths() );
+        update( digest, "supportMultiLineFiltering=" + execution.isSupportMultiLineFiltering() );
+        update( digest, "delimiters=" + execution.getDelimiters() );
+        update( digest, "nonFilteredFileExtensions=" + execution.getNonFilteredFileExtensions() );
+        update( digest, "projectStartExpressions=" + execution.getProjectStartExpressions() );
+        update( digest, "injectProjectBuildFilters=" + execution.isInjectProjectBuildFilters() );
+        if ( execution.getAdditionalProperties() != null )
+        {
+            update( digest, "additionalProperties=" + new TreeMap( execution.getAdditionalProperties() ) );
+        }
+        if ( execution.getFilters() != null )
+        {
+            update( digest, "filters=" + execution.getFilters() );
+        }
+
+        MavenProject project = execution.getMavenProject();
+        if ( project != null )
+        {
+            update( digest, "basedir=" + project.getBasedir() );
+            update( digest, "properties=" + new TreeMap( project.getProperties() ) );
+            if ( project.getModel() != null )
+            {
+                StringWriter model = new StringWriter();
+                try
+                {
+                    new MavenXpp3Writer().write( model, project.getModel() );
+                }
+                catch ( IOException e )
+                {
+                    throw new MavenFilteringException( e.getMessage(), e );
+                }
+                update( digest, model.toString() );
+            }
+        }
+
+        MavenSession session = execution.getMavenSession();
+        if ( session != null && session.getExecutionProperties() != null )
+        {
+            update( digest, "executionProperties=" + new TreeMap( session.getExecutionProperties() ) );
+        }
+        update( digest, "environment=" + new TreeMap( System.getenv() ) );
+
+        if ( execution.getFileFilters() != null )
+        {
+            for ( Iterator it = execution.getFileFilters().iterator(); it.hasNext(); )
+            {
+                String filter = (String) it.next();
+                File filterFile = new File( filter );
+                if ( !filterFile.isAbsolute() && project != null && project.getBasedir() != null )
+                {
+                    filterFile = new File( project.getBasedir(), filter );
+                }
+                update( digest, "filter=" + filter );
+                if ( filterFile.isFile() )
+                {
+                    updateFile( digest, filterFile );
+                }
+            }
+        }
+
+        StringBuffer hash = new StringBuffer();
+        byte[] bytes = digest.digest();
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            hash.append( Integer.toHexString( ( bytes[i] >> 4 ) & 0xF ) ).append( Integer.toHexString( bytes[i] & 0xF ) );
+        }
+        return hash.toString();
+    }
+
+    private static void update( MessageDigest digest, String value )
+        throws MavenFilteringException
+    {
+        try
+        {
+            digest.update( value.getBytes( "UTF-8" ) );
+            digest.update( (byte) 0 );
+        }
+        catch ( UnsupportedEncodingException e )
+        {
+            throw new MavenFilteringException( e.getMessage(), e );
+        }
+    }
+
+    private static void updateFile( MessageDigest digest, File file )
+        throws MavenFilteringException
+    {
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( file );
+            byte[] buffer = new byte[8192];
+            int read;
+            while ( ( read = in.read( buffer ) ) >= 0 )
+            {
+                digest.update( buffer, 0, read );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new MavenFilteringException( "Error reading filter file " + file + ": " + e.getMessage(), e );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    /**
+     * Loads the entries of the previous build, keyed by the absolute path of their destination.
+     *
+     * @return the filtering hash of the previous build, <code>null</code> if there is no usable state.
+     */
+    private String load( Map entries )
+    {
+        if ( !stateFile.isFile() )
+        {
+            return null;
+        }
+
+        BufferedReader reader = null;
+        try
+        {
+            reader = new BufferedReader( new InputStreamReader( new FileInputStream( stateFile ), "UTF-8" ) );
+            if ( !HEADER.equals( reader.readLine() ) )
+            {
+                return null;
+            }
+            String filteringHash = reader.readLine();
+
+            String line;
+            while ( ( line = reader.readLine() ) != null )
+            {
+                String[] fields = line.split( "\t" );
+                if ( fields.length != 7 )
+                {
+                    continue;
+                }
+                Entry entry = new Entry();
+                entry.destination = new File( fields[0] );
+                entry.source = new File( fields[1] );
+                entry.filtered = "1".equals( fields[2] );
+                entry.sourceLength = Long.parseLong( fields[3] );
+                entry.sourceLastModified = Long.parseLong( fields[4] );
+                entry.destinationLength = Long.parseLong( fields[5] );
+                entry.destinationLastModified = Long.parseLong( fields[6] );
+                entries.put( fields[0], entry );
+            }
+            return filteringHash;
+        }
+        catch ( IOException e )
+        {
+            log.debug( "Unable to read " + stateFile + ", copying all the resources: " + e.getMessage() );
+            entries.clear();
+            return null;
+        }
+        catch ( NumberFormatException e )
+        {
+            log.debug( "Corrupted state file " + stateFile + ", copying all the resources" );
+            entries.clear();
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+    }
+
+    private void save( String filteringHash, Map entries, List stale )
+        throws MavenFilteringException
+    {
+        Set excluded = new HashSet( stale );
+        stateFile.getParentFile().mkdirs();
+
+        PrintWriter writer = null;
+        try
+        {
+            writer = new PrintWriter( new OutputStreamWriter( new FileOutputStream( stateFile ), "UTF-8" ) );
+            writer.println( HEADER );
+            writer.println( filteringHash );
+            for ( Iterator it = entries.values().iterator(); it.hasNext(); )
+            {
+                Entry entry = (Entry) it.next();
+                if ( excluded.contains( entry ) )
+                {
+                    continue;
+                }
+                writer.println( entry.destination.getAbsolutePath() + '\t' + entry.source.getAbsolutePath() + '\t'
+                    + ( entry.filtered ? "1" : "0" ) + '\t' + entry.sourceLength + '\t' + entry.sourceLastModified
+                    + '\t' + entry.destination.length() + '\t' + entry.destination.lastModified() );
+            }
+            if ( writer.checkError() )
+            {
+                throw new IOException( "Unable to write " + stateFile );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new MavenFilteringException( e.getMessage(), e );
+        }
+        finally
+        {
+            IOUtil.close( writer );
+        }
+    }
+
+    private static class Entry
+    {
+        private File source;
+
+        private File destination;
+
+        private boolean filtered;
+
+        private long sourceLength;
+
+        private long sourceLastModified;
+
+        private long destinationLength;
+
+        private long destinationLastModified;
+
+        boolean isSameSource( Entry other )
+        {
+            return source.equals( other.source ) && filtered == other.filtered && sourceLength == other.sourceLength
+                && sourceLastModified == other.sourceLastModified;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.filtering.MavenFileFilter;
 import org.apache.maven.shared.filtering.MavenFilteringException;
 import org.apache.maven.shared.filtering.MavenResourcesExecution;
 import org.apache.maven.shared.filtering.MavenResourcesFiltering;
@@ -235,6 +236,31 @@ public class ResourcesMojo
      * @since 2.5
      */
     private boolean supportMultiLineFiltering;
+
+    /**
+     * Only copy the resources which changed since the previous build. The size and modification time of each copied
+     * file, and a hash of the filter files, properties and settings used for filtering, are recorded under
+     * <code>${project.build.directory}/maven-status/maven-resources-plugin</code>: a file is copied again if its
+     * source or its destination changed, or if it is filtered and anything it may be filtered with changed.
+     * @parameter expression="${maven.resources.incremental}" default-value="false"
+     * @since 2.6
+     */
+    private boolean incremental;
+
+    /**
+     * The maximum number of files copied concurrently when <code>incremental</code> is enabled. <code>0</code> means
+     * one thread per available processor.
+     * @parameter expression="${maven.resources.threads}" default-value="0"
+     * @since 2.6
+     */
+    private int threads;
+
+    /**
+     * @component role="org.apache.maven.shared.filtering.MavenFileFilter" role-hint="default"
+     * @required
+     * @since 2.6
+     */
+    private MavenFileFilter mavenFileFilter;
     
     public void contextualize( Context context )
         throws ContextException
@@ -306,7 +332,16 @@ public class ResourcesMojo
             {
                 mavenResourcesExecution.setNonFilteredFileExtensions( nonFilteredFileExtensions );
             }
-            mavenResourcesFiltering.filterResources( mavenResourcesExecution );
+            if ( incremental )
+            {
+                int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+                new IncrementalResourcesFiltering( mavenResourcesFiltering, mavenFileFilter, getStateFile(),
+                                                   threadCount, getLog() ).filterResources( mavenResourcesExecution );
+            }
+            else
+            {
+                mavenResourcesFiltering.filterResources( mavenResourcesExecution );
+            }
             
             executeUserFilterComponents( mavenResourcesExecution );
         }
@@ -376,6 +411,26 @@ public class ResourcesMojo
         }
     }
 
+    /**
+     * Returns the file storing the state of the incremental copy, distinct for each output directory and set of
+     * resource directories so that several executions do not invalidate each other.
+     */
+    private File getStateFile()
+    {
+        StringBuffer key = new StringBuffer( getOutputDirectory().getAbsolutePath() );
+        if ( getResources() != null )
+        {
+            for ( Iterator i = getResources().iterator(); i.hasNext(); )
+            {
+                Resource resource = (Resource) i.next();
+                key.append( '|' ).append( resource.getDirectory() ).append( '|' ).append( resource.getTargetPath() );
+            }
+        }
+        File statusDirectory = new File( project.getBuild().getDirectory(), "maven-status/maven-resources-plugin" );
+        return new File( statusDirectory, getOutputDirectory().getName() + "-"
+            + Integer.toHexString( key.toString().hashCode() ) + ".state" );
+    }
+
     /**
      * Determines whether filtering has been enabled for any resource.
      * 
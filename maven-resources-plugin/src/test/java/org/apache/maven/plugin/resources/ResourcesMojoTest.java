@@ -631,6 +631,60 @@ public class ResourcesMojoTest
                       FileUtils.fileRead( new File( resourcesDir, "path-listing.txt" ) ) );
     }
 
+    public void testIncrementalFiltering()
+        throws Exception
+    {
+        File testPom = new File( getBasedir(), defaultPomFilePath );
+        ResourcesMojo mojo = (ResourcesMojo) lookupMojo( "resources", testPom );
+        MavenProjectResourcesStub project = new MavenProjectResourcesStub( "incremental" );
+        List resources = project.getBuild().getResources();
+
+        assertNotNull( mojo );
+
+        project.addProperty( "greeting", "hello" );
+        project.addFile( "filtered.txt", "greeting = ${greeting}" );
+        project.addFile( "image.png", "greeting = ${greeting}" );
+        project.setResourceFiltering( 0, true );
+
+        project.cleanBuildEnvironment();
+        project.setupBuildEnvironment();
+
+        setVariableValueToObject( mojo, "project", project );
+        setVariableValueToObject( mojo, "resources", resources );
+        setVariableValueToObject( mojo, "outputDirectory", new File( project.getBuild().getOutputDirectory() ) );
+        setVariableValueToObject( mojo, "buildFilters", new LinkedList() );
+        setVariableValueToObject( mojo, "useBuildFilters", Boolean.TRUE );
+        setVariableValueToObject( mojo, "incremental", Boolean.TRUE );
+        setVariableValueToObject( mojo, "threads", new Integer( 2 ) );
+
+        mojo.execute();
+
+        String resourcesDir = project.getOutputDirectory();
+        assertContent( resourcesDir + "/filtered.txt", "greeting = hello" );
+        assertContent( resourcesDir + "/image.png", "greeting = ${greeting}" );
+
+        // same size and modification time: the source is considered unchanged and not copied again
+        File image = new File( project.getResourcesDirectory(), "image.png" );
+        long lastModified = image.lastModified();
+        FileUtils.fileWrite( image.getAbsolutePath(), "greeting = #{greeting}" );
+        image.setLastModified( lastModified );
+
+        // the filtered file is copied again when the properties change, although its source did not
+        project.addProperty( "greeting", "howdy" );
+
+        mojo.execute();
+
+        assertContent( resourcesDir + "/filtered.txt", "greeting = howdy" );
+        assertContent( resourcesDir + "/image.png", "greeting = ${greeting}" );
+
+        // a deleted output is copied again
+        new File( resourcesDir, "image.png" ).delete();
+
+        mojo.execute();
+
+        assertContent( resourcesDir + "/image.png", "greeting = #{greeting}" );
+    }
+
     /**
      * Ensures the file exists and its first line equals the given data.
      */